@@ -2,6 +2,7 @@ plugins {
     java
     alias(libs.plugins.spring.boot)
     alias(libs.plugins.spring.dependency.management)
+    alias(libs.plugins.jmh)
     id("jacoco")
 }
 
@@ -24,11 +25,14 @@ dependencyManagement {
 dependencies {
     implementation(libs.spring.boot.starter.web)
     implementation("org.springframework.boot:spring-boot-starter-validation")
+    implementation(libs.spring.boot.starter.actuator)
+    implementation(libs.micrometer.registry.prometheus)
     compileOnly(libs.lombok)
     annotationProcessor(libs.lombok)
     annotationProcessor(libs.spring.boot.configuration.processor)
     testImplementation(libs.spring.boot.starter.test)
     testImplementation("io.rest-assured:rest-assured:5.5.0")
+    jmh("org.hdrhistogram:HdrHistogram")
 }
 
 // about source and compilation
@@ -47,6 +51,20 @@ tasks.getByName("bootJar") {
 tasks.getByName("jar") {
     enabled = false
 }
+// benchmark tasks
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    // machine-readable results in build/results/jmh/results.json
+    resultFormat.set("JSON")
+}
+
+// load generation tasks, ./gradlew loadTest --args="--rate=2000 --duration=60s"
+tasks.register<JavaExec>("loadTest") {
+    description = "Runs the open-loop load generator against PointService or a running server."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("io.hhplus.tdd.benchmark.LoadGenerator")
+}
+
 // test tasks
 tasks.test {
     ignoreFailures = true
@@ -0,0 +1,67 @@
+package io.hhplus.tdd.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 실행 중인 애플리케이션의 PointController 를 HTTP 로 호출한다.
+ * 4xx 응답은 거절로, 5xx 응답은 실패로 집계한다.
+ */
+final class HttpLoadTarget implements LoadTarget {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI baseUrl;
+    private final ExecutorService executor;
+    private final HttpClient client;
+
+    HttpLoadTarget(URI baseUrl, int concurrency) {
+        this.baseUrl = baseUrl;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, concurrency / 16));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(TIMEOUT)
+                .executor(executor)
+                .build();
+    }
+
+    @Override
+    public boolean read(long userId) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(baseUrl.resolve("/point/" + userId)).GET());
+    }
+
+    @Override
+    public boolean charge(long userId, long amount) throws IOException, InterruptedException {
+        return send(patch("/point/" + userId + "/charge", amount));
+    }
+
+    @Override
+    public boolean use(long userId, long amount) throws IOException, InterruptedException {
+        return send(patch("/point/" + userId + "/use", amount));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private HttpRequest.Builder patch(String path, long amount) {
+        return HttpRequest.newBuilder(baseUrl.resolve(path))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"amount\":" + amount + "}"));
+    }
+
+    private boolean send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        int status = client.send(request.timeout(TIMEOUT).build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status >= 500) {
+            throw new IOException("요청이 실패했습니다. status=" + status);
+        }
+        return status < 400;
+    }
+}
@@ -0,0 +1,154 @@
+package io.hhplus.tdd.benchmark;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 실제 트래픽처럼 소수의 유저에 몰리는 요청을 일정한 속도로 보내고, 지연 시간 분포와 처리량을 출력하는 부하 생성기
+ * - 요청은 rate 에 맞춰 정해진 시각에 시작하며, 앞선 요청의 응답을 기다리지 않는다. (open-loop)
+ * - 지연 시간은 요청을 시작하기로 한 시각부터 응답까지로 측정한다.
+ *   대상이 느려져 요청이 밀리면 밀린 시간도 지연 시간에 포함되므로, 응답을 기다린 뒤 다음 요청을 보내는 방식과 달리
+ *   느려진 구간의 지연이 과소 측정되지 않는다. (coordinated omission)
+ * 실행 예: ./gradlew loadTest --args="--rate=2000 --duration=60s --skew=1.2 --mix=90:8:2 --point.engine.type=mailbox"
+ */
+public final class LoadGenerator {
+
+    private final LoadProfile profile;
+    private final LoadTarget target;
+    private final UserIdDistribution userIds;
+    private final OperationStats[] stats = new OperationStats[Operation.values().length];
+
+    private LoadGenerator(LoadProfile profile, LoadTarget target) {
+        this.profile = profile;
+        this.target = target;
+        this.userIds = profile.userIds();
+        for (Operation operation : Operation.values()) {
+            stats[operation.ordinal()] = new OperationStats();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadProfile profile = LoadProfile.parse(args);
+        System.out.println("load profile: " + profile);
+        try (LoadTarget target = LoadTarget.of(profile)) {
+            new LoadGenerator(profile, target).run();
+        }
+    }
+
+    private void run() throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / profile.rate();
+        long startNanos = System.nanoTime();
+        long measureStartNanos = startNanos + profile.warmup().toNanos();
+        long endNanos = measureStartNanos + profile.duration().toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(profile.concurrency());
+
+        for (long scheduledNanos = startNanos; scheduledNanos < endNanos; scheduledNanos += intervalNanos) {
+            long delay = scheduledNanos - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            long requestNanos = scheduledNanos;
+            boolean measured = requestNanos >= measureStartNanos;
+            executor.execute(() -> request(requestNanos, measured));
+        }
+        long sentNanos = System.nanoTime();
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            System.out.println("1분 안에 끝나지 않은 요청이 있습니다.");
+        }
+        // 보내기가 늦어졌으면 늦어진 만큼을 측정 시간에 포함한다.
+        report(Math.max(endNanos, sentNanos) - measureStartNanos);
+    }
+
+    private void request(long scheduledNanos, boolean measured) {
+        Operation operation = Operation.next(profile.mix());
+        long userId = userIds.next();
+        boolean accepted = false;
+        boolean failed = false;
+        try {
+            accepted = switch (operation) {
+                case READ -> target.read(userId);
+                case CHARGE -> target.charge(userId, profile.amount());
+                case USE -> target.use(userId, profile.amount());
+            };
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed = true;
+        } catch (Exception e) {
+            failed = true;
+        }
+        if (measured) {
+            stats[operation.ordinal()].record(System.nanoTime() - scheduledNanos, accepted, failed);
+        }
+    }
+
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        Histogram total = new Histogram(3);
+        long totalRejected = 0;
+        long totalFailed = 0;
+        System.out.printf("%-7s %10s %10s %8s %8s %10s %10s %10s %10s %10s%n",
+                "op", "count", "ops/s", "rejected", "failed", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+        for (Operation operation : Operation.values()) {
+            OperationStats operationStats = stats[operation.ordinal()];
+            Histogram histogram = operationStats.latency.copy();
+            total.add(histogram);
+            totalRejected += operationStats.rejected.sum();
+            totalFailed += operationStats.failed.sum();
+            print(operation.name().toLowerCase(Locale.ROOT), histogram, operationStats.rejected.sum(), operationStats.failed.sum(), seconds);
+        }
+        print("total", total, totalRejected, totalFailed, seconds);
+    }
+
+    private static void print(String name, Histogram histogram, long rejected, long failed, double seconds) {
+        System.out.printf("%-7s %10d %10.1f %8d %8d %10.3f %10.3f %10.3f %10.3f %10.3f%n",
+                name, histogram.getTotalCount(), histogram.getTotalCount() / seconds, rejected, failed,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private enum Operation {
+        READ, CHARGE, USE;
+
+        /**
+         * mix 의 비율에 따라 요청 종류를 고른다.
+         */
+        static Operation next(int[] mix) {
+            int pick = ThreadLocalRandom.current().nextInt(mix[0] + mix[1] + mix[2]);
+            if (pick < mix[0]) {
+                return READ;
+            }
+            return pick < mix[0] + mix[1] ? CHARGE : USE;
+        }
+    }
+
+    private static final class OperationStats {
+
+        // 값의 범위에 맞춰 크기가 늘어나며, 여러 스레드가 동시에 기록할 수 있다.
+        private final ConcurrentHistogram latency = new ConcurrentHistogram(3);
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+
+        void record(long latencyNanos, boolean accepted, boolean failed) {
+            latency.recordValue(latencyNanos);
+            if (failed) {
+                this.failed.increment();
+            } else if (!accepted) {
+                rejected.increment();
+            }
+        }
+    }
+}
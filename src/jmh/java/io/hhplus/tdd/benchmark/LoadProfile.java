@@ -0,0 +1,103 @@
+package io.hhplus.tdd.benchmark;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 부하 생성 설정, 실행 인자(--이름=값)로 지정하고 지정하지 않은 값은 기본값을 사용한다.
+ * - target : 부하 대상, service (PointService 를 같은 프로세스에서 직접 호출) / http (baseUrl 의 PointController 를 호출)
+ * - rate : 초당 요청 수, 응답을 기다리지 않고 일정한 간격으로 요청을 시작한다. (open-loop)
+ * - duration / warmup : 측정 시간과 측정 전 예열 시간, 예열 중의 요청은 집계하지 않는다.
+ * - users / skew : 유저 수와 zipf 지수, skew 가 0 이면 모든 유저를 같은 확률로 선택한다.
+ * - mix : 조회:충전:이용 요청의 비율
+ * - amount : 충전/이용 요청 한 번의 포인트
+ * - concurrency : 요청을 처리하는 스레드 수, 모두 바쁘면 요청은 대기하고 대기 시간도 지연 시간에 포함된다.
+ * 그 외의 인자는 service 대상의 애플리케이션 설정으로 전달한다. (예: --point.engine.type=mailbox)
+ */
+record LoadProfile(
+        String target,
+        URI baseUrl,
+        int rate,
+        Duration duration,
+        Duration warmup,
+        int users,
+        double skew,
+        int[] mix,
+        long amount,
+        int concurrency,
+        List<String> applicationArgs
+) {
+
+    static LoadProfile parse(String[] args) {
+        String target = "service";
+        URI baseUrl = URI.create("http://localhost:8080");
+        int rate = 1_000;
+        Duration duration = Duration.ofSeconds(60);
+        Duration warmup = Duration.ofSeconds(10);
+        int users = 10_000;
+        double skew = 1.0;
+        int[] mix = {80, 15, 5};
+        long amount = 100L;
+        int concurrency = 256;
+        List<String> applicationArgs = new ArrayList<>();
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("인자는 --이름=값 형식이어야 합니다. arg=" + arg);
+            }
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(2, separator)) {
+                case "target" -> target = value;
+                case "base-url" -> baseUrl = URI.create(value);
+                case "rate" -> rate = Integer.parseInt(value);
+                case "duration" -> duration = Duration.parse("PT" + value);
+                case "warmup" -> warmup = Duration.parse("PT" + value);
+                case "users" -> users = Integer.parseInt(value);
+                case "skew" -> skew = Double.parseDouble(value);
+                case "mix" -> mix = parseMix(value);
+                case "amount" -> amount = Long.parseLong(value);
+                case "concurrency" -> concurrency = Integer.parseInt(value);
+                default -> applicationArgs.add(arg);
+            }
+        }
+        if (rate <= 0 || users <= 0 || amount <= 0 || concurrency <= 0) {
+            throw new IllegalArgumentException("rate, users, amount, concurrency 는 1 이상이어야 합니다.");
+        }
+        return new LoadProfile(target, baseUrl, rate, duration, warmup, users, skew, mix, amount, concurrency, List.copyOf(applicationArgs));
+    }
+
+    UserIdDistribution userIds() {
+        return skew <= 0 ? UserIdDistribution.uniform(users) : UserIdDistribution.zipf(users, skew);
+    }
+
+    @Override
+    public String toString() {
+        return "target=" + target + (target.equals("http") ? "(" + baseUrl + ")" : "")
+                + ", rate=" + rate + "/s, duration=" + duration.toSeconds() + "s, warmup=" + warmup.toSeconds() + "s"
+                + ", users=" + users + ", skew=" + skew
+                + ", mix(read:charge:use)=" + mix[0] + ":" + mix[1] + ":" + mix[2]
+                + ", amount=" + amount + ", concurrency=" + concurrency
+                + (applicationArgs.isEmpty() ? "" : ", args=" + applicationArgs);
+    }
+
+    private static int[] parseMix(String value) {
+        String[] ratios = value.split(":");
+        if (ratios.length != 3) {
+            throw new IllegalArgumentException("mix 는 조회:충전:이용 형식이어야 합니다. mix=" + value);
+        }
+        int[] mix = new int[3];
+        for (int i = 0; i < 3; i++) {
+            mix[i] = Integer.parseInt(ratios[i]);
+            if (mix[i] < 0) {
+                throw new IllegalArgumentException("mix 의 비율은 0 이상이어야 합니다. mix=" + value);
+            }
+        }
+        if (mix[0] + mix[1] + mix[2] == 0) {
+            throw new IllegalArgumentException("mix 의 비율 합은 1 이상이어야 합니다. mix=" + value);
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,22 @@
+package io.hhplus.tdd.benchmark;
+
+/**
+ * 부하 생성기가 호출하는 대상
+ * 요청이 처리되면 true, 잔액 부족처럼 요청이 거절되면 false 를 반환하고, 그 외의 실패는 예외를 던진다.
+ */
+interface LoadTarget extends AutoCloseable {
+
+    boolean read(long userId) throws Exception;
+
+    boolean charge(long userId, long amount) throws Exception;
+
+    boolean use(long userId, long amount) throws Exception;
+
+    static LoadTarget of(LoadProfile profile) {
+        return switch (profile.target()) {
+            case "service" -> new ServiceLoadTarget(profile.applicationArgs());
+            case "http" -> new HttpLoadTarget(profile.baseUrl(), profile.concurrency());
+            default -> throw new IllegalArgumentException("알 수 없는 부하 대상입니다. target=" + profile.target());
+        };
+    }
+}
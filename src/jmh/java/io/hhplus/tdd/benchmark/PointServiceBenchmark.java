@@ -0,0 +1,199 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.domain.TransactionType;
+import io.hhplus.tdd.point.domain.UserPoint;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.metrics.PointMetricsProperties;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.PointHistoryRepositoryProperties;
+import io.hhplus.tdd.point.repository.PointRollupProperties;
+import io.hhplus.tdd.point.repository.PointRollupRepository;
+import io.hhplus.tdd.point.repository.PointSummaryRepository;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.repository.UserPointRepositoryProperties;
+import io.hhplus.tdd.point.repository.wal.DisabledWriteAheadLog;
+import io.hhplus.tdd.point.service.PointService;
+import io.hhplus.tdd.point.service.dto.request.PointRequest;
+import io.hhplus.tdd.point.service.dto.response.PointHistoryResponse;
+import io.hhplus.tdd.point.service.dto.response.PointResponse;
+import io.hhplus.tdd.point.service.engine.CasPointEngine;
+import io.hhplus.tdd.point.service.engine.LockPointEngine;
+import io.hhplus.tdd.point.service.engine.MailboxPointEngine;
+import io.hhplus.tdd.point.service.engine.PointEngine;
+import io.hhplus.tdd.point.service.engine.ShardedPointEngine;
+import io.hhplus.tdd.point.service.lock.RefCountedUserLockRegistry;
+import io.hhplus.tdd.point.service.mapper.PointHistoryMapper;
+import io.hhplus.tdd.point.service.mapper.PointMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PointService 주요 경로의 처리량
+ * - distribution : 요청 대상 유저의 분포 (uniform / zipf)
+ * - tables : throttled 는 실제 테이블의 지연을 그대로 두고, stub 은 지연 없는 테이블로 바꿔 애플리케이션 비용만 측정한다.
+ * - engine : 충전/이용에 사용할 포인트 엔진 (lock / cas / mailbox / sharded)
+ * - store : 조회용 메모리 내역 저장소 (heap / off-heap)
+ * 모든 유저는 측정 전에 캐시에 올려 두며, 잔액은 매 iteration 마다 최대 잔액의 절반으로 맞춰 충전/이용이 실패하지 않게 한다.
+ * 결과는 build.gradle.kts 의 jmh 설정에 따라 JSON 으로 저장된다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class PointServiceBenchmark {
+
+    private static final int HISTORIES_PER_USER = 5;
+    private static final int WARM_UP_THREADS = 200;
+    private static final PointRequest POINT_REQUEST = new PointRequest(1L);
+
+    @Param({"uniform", "zipf"})
+    private String distribution;
+
+    @Param({"stub", "throttled"})
+    private String tables;
+
+    @Param({"lock", "cas", "mailbox", "sharded"})
+    private String engine;
+
+    @Param({"heap", "off-heap"})
+    private String store;
+
+    @Param({"1000"})
+    private int userCount;
+
+    private UserIdDistribution userIds;
+    private UserPointRepository pointRepository;
+    private PointHistoryRepository pointHistoryRepository;
+    private PointEngine pointEngine;
+    private PointService pointService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        userIds = UserIdDistribution.of(distribution, userCount);
+        boolean stub = switch (tables) {
+            case "stub" -> true;
+            case "throttled" -> false;
+            default -> throw new IllegalArgumentException("알 수 없는 테이블 종류입니다. tables=" + tables);
+        };
+        PointMetrics metrics = new PointMetrics(new SimpleMeterRegistry(), new PointMetricsProperties(100, Duration.ofSeconds(1)));
+        UserPointTable userPointTable = stub ? new UnthrottledUserPointTable() : new UserPointTable();
+        PointHistoryTable pointHistoryTable = stub ? new UnthrottledPointHistoryTable() : new PointHistoryTable();
+
+        // 잔액은 측정 중 테이블에 반영하지 않는다.
+        pointRepository = new UserPointRepository(userPointTable, new UserPointRepositoryProperties(Duration.ofHours(1), 4, Integer.MAX_VALUE), metrics);
+        // throttled 인 경우 queue 가 차면 내역 반영 속도만큼의 대기가 측정에 포함된다.
+        // 테이블은 건별로 저장하므로 batch 크기와 무관하게 반영 속도는 같지만, batch 가 크면 queue 의 자리가 batch 단위로 한꺼번에 나서
+        // 대기 중인 스레드가 iteration 경계를 넘어 처리량이 왜곡되므로 한 건씩 반영한다.
+        int batchSize = stub ? 100 : 1;
+        pointHistoryRepository = new PointHistoryRepository(pointHistoryTable, PointHistoryRepositoryProperties.defaults().withBatchSize(batchSize).withStore(PointHistoryRepositoryProperties.Store.valueOf(store.toUpperCase().replace('-', '_'))), metrics, new DisabledWriteAheadLog());
+        pointEngine = switch (engine) {
+            case "lock" -> new LockPointEngine(pointRepository, pointHistoryRepository, new RefCountedUserLockRegistry(), metrics);
+            case "cas" -> new CasPointEngine(pointRepository, pointHistoryRepository, metrics);
+            case "mailbox" -> new MailboxPointEngine(pointRepository, pointHistoryRepository, metrics, Executors.newFixedThreadPool(4), 64);
+            case "sharded" -> new ShardedPointEngine(pointRepository, pointHistoryRepository, 4, 1024, 256);
+            default -> throw new IllegalArgumentException("알 수 없는 엔진입니다. engine=" + engine);
+        };
+        pointService = new PointService(pointRepository, pointHistoryRepository, new PointSummaryRepository(pointHistoryRepository), new PointRollupRepository(pointHistoryRepository, new PointRollupProperties(1440, 720, 366)), new PointMapper(), new PointHistoryMapper(), pointEngine, metrics);
+
+        warmUpCache();
+        seedHistories();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetBalances() {
+        for (long userId = 1; userId <= userCount; userId++) {
+            pointRepository.save(userId, UserPoint.MAX_BALANCE / 2);
+        }
+        // 지연 없는 테이블에서는 내역이 빠르게 쌓이므로, 메모리 사용량이 측정에 영향을 주지 않도록 iteration 마다 비운다.
+        if (tables.equals("stub")) {
+            pointHistoryRepository.clear();
+            seedHistories();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (pointEngine instanceof MailboxPointEngine mailboxPointEngine) {
+            mailboxPointEngine.close();
+        }
+        if (pointEngine instanceof ShardedPointEngine shardedPointEngine) {
+            shardedPointEngine.close();
+        }
+        // 측정에 사용한 데이터는 테이블에 반영하지 않고 버린다.
+        pointRepository.clear();
+        pointHistoryRepository.clear();
+        pointRepository.close();
+        pointHistoryRepository.close();
+    }
+
+    @Benchmark
+    public PointResponse chargePoints() {
+        return pointService.chargePoints(userIds.next(), POINT_REQUEST);
+    }
+
+    @Benchmark
+    public PointResponse usePoints() {
+        return pointService.usePoints(userIds.next(), POINT_REQUEST);
+    }
+
+    @Benchmark
+    public PointResponse getPointsByUserId() {
+        return pointService.getPointsByUserId(userIds.next());
+    }
+
+    @Benchmark
+    public List<PointHistoryResponse> getPointHistoryByUserId() {
+        return pointService.getPointHistoryByUserId(userIds.next());
+    }
+
+    /**
+     * 캐시 miss 로 인한 테이블 조회 지연이 측정에 섞이지 않도록 모든 유저를 미리 캐시에 올린다.
+     */
+    private void warmUpCache() throws InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(WARM_UP_THREADS);
+        try {
+            List<Callable<UserPoint>> loads = new ArrayList<>(userCount);
+            for (long userId = 1; userId <= userCount; userId++) {
+                long currentUserId = userId;
+                loads.add(() -> pointRepository.findById(currentUserId));
+            }
+            executorService.invokeAll(loads);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private void seedHistories() {
+        for (int i = 0; i < HISTORIES_PER_USER; i++) {
+            for (long userId = 1; userId <= userCount; userId++) {
+                pointHistoryRepository.append(userId, 1L, TransactionType.CHARGE, System.currentTimeMillis());
+            }
+        }
+    }
+}
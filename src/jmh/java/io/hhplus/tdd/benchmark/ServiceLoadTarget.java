@@ -0,0 +1,60 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.TddApplication;
+import io.hhplus.tdd.point.service.PointService;
+import io.hhplus.tdd.point.service.dto.request.PointRequest;
+import io.hhplus.tdd.point.service.exception.InsufficientPointException;
+import io.hhplus.tdd.point.service.exception.MaxBalanceExceededException;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+
+/**
+ * 웹 서버 없이 애플리케이션을 띄우고 PointService 를 직접 호출한다.
+ * HTTP 처리 비용을 제외하고 서비스, 엔진, 저장소의 비용만 측정한다.
+ */
+final class ServiceLoadTarget implements LoadTarget {
+
+    private final ConfigurableApplicationContext context;
+    private final PointService pointService;
+
+    ServiceLoadTarget(List<String> applicationArgs) {
+        SpringApplication application = new SpringApplication(TddApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        this.context = application.run(applicationArgs.toArray(String[]::new));
+        this.pointService = context.getBean(PointService.class);
+    }
+
+    @Override
+    public boolean read(long userId) {
+        pointService.getPointsByUserId(userId);
+        return true;
+    }
+
+    @Override
+    public boolean charge(long userId, long amount) {
+        try {
+            pointService.chargePoints(userId, new PointRequest(amount));
+            return true;
+        } catch (MaxBalanceExceededException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean use(long userId, long amount) {
+        try {
+            pointService.usePoints(userId, new PointRequest(amount));
+            return true;
+        } catch (InsufficientPointException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
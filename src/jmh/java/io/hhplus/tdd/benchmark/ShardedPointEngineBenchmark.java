@@ -0,0 +1,91 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.point.domain.UserPoint;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.metrics.PointMetricsProperties;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.PointHistoryRepositoryProperties;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.repository.UserPointRepositoryProperties;
+import io.hhplus.tdd.point.repository.wal.DisabledWriteAheadLog;
+import io.hhplus.tdd.point.service.engine.ShardedPointEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * shard 수에 따른 ShardedPointEngine 의 충전 처리량
+ * - 유저는 uniform 분포로 선택하고, 지연 없는 테이블을 사용해 엔진과 저장소의 비용만 측정한다.
+ * - writer 가 항상 바쁘도록 shard 수보다 많은 스레드가 명령을 넣는다.
+ *   shard 수를 가용 코어 수까지 늘리면 처리량이 shard 수에 비례해 늘어나는지 확인한다.
+ *   (내역 ID 발급은 shard 끼리 공유하는 구간이므로, shard 가 많을수록 batch 가 커져 진입 횟수가 줄어드는 것도 함께 측정된다)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(32)
+public class ShardedPointEngineBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    private int shards;
+
+    @Param({"100000"})
+    private int userCount;
+
+    private UserIdDistribution userIds;
+    private UserPointRepository pointRepository;
+    private PointHistoryRepository pointHistoryRepository;
+    private ShardedPointEngine pointEngine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        userIds = UserIdDistribution.uniform(userCount);
+        PointMetrics metrics = new PointMetrics(new SimpleMeterRegistry(), new PointMetricsProperties(100, Duration.ofSeconds(1)));
+        // 잔액은 측정 중 테이블에 반영하지 않는다.
+        pointRepository = new UserPointRepository(new UnthrottledUserPointTable(), new UserPointRepositoryProperties(Duration.ofHours(1), 4, Integer.MAX_VALUE), metrics);
+        pointHistoryRepository = new PointHistoryRepository(new UnthrottledPointHistoryTable(), PointHistoryRepositoryProperties.defaults().withQueueCapacity(100_000).withBatchSize(1_000), metrics, new DisabledWriteAheadLog());
+        pointEngine = new ShardedPointEngine(pointRepository, pointHistoryRepository, shards, 1024, 256);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetBalances() {
+        for (long userId = 1; userId <= userCount; userId++) {
+            pointRepository.save(userId, UserPoint.MAX_BALANCE / 2);
+        }
+        // 내역이 빠르게 쌓이므로, 메모리 사용량이 측정에 영향을 주지 않도록 iteration 마다 비운다.
+        pointHistoryRepository.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pointEngine.close();
+        // 측정에 사용한 데이터는 테이블에 반영하지 않고 버린다.
+        pointRepository.clear();
+        pointHistoryRepository.clear();
+        pointRepository.close();
+        pointHistoryRepository.close();
+    }
+
+    @Benchmark
+    public UserPoint charge() {
+        return pointEngine.charge(userIds.next(), 1L);
+    }
+}
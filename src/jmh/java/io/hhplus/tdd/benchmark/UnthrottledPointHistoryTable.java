@@ -0,0 +1,24 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.domain.TransactionType;
+
+/**
+ * 지연 없이 저장하는 PointHistoryTable, 테이블 지연을 제외한 애플리케이션 비용만 측정할 때 사용한다.
+ * 저장한 내역은 보관하지 않는다. (측정에서는 저장소의 인덱스로만 조회한다)
+ */
+class UnthrottledPointHistoryTable extends PointHistoryTable {
+
+    private long cursor = 1;
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        return new PointHistory(cursor++, userId, amount, type, updateMillis);
+    }
+
+    @Override
+    public void clear() {
+        cursor = 1;
+    }
+}
@@ -0,0 +1,56 @@
+package io.hhplus.tdd.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 측정 대상 유저 ID(1 ~ userCount)의 분포
+ * - uniform : 모든 유저가 같은 확률로 선택된다.
+ * - zipf : k 번째 유저가 1 / k^exponent 에 비례하는 확률로 선택된다. (소수의 유저에 요청이 몰리는 경우)
+ */
+final class UserIdDistribution {
+
+    // zipf 인 경우 k 번째 유저까지의 누적 확률, uniform 인 경우 null
+    private final double[] cumulative;
+    private final long userCount;
+
+    private UserIdDistribution(long userCount, double[] cumulative) {
+        this.userCount = userCount;
+        this.cumulative = cumulative;
+    }
+
+    static UserIdDistribution of(String name, int userCount) {
+        return switch (name) {
+            case "uniform" -> uniform(userCount);
+            case "zipf" -> zipf(userCount, 1.0);
+            default -> throw new IllegalArgumentException("알 수 없는 분포입니다. distribution=" + name);
+        };
+    }
+
+    static UserIdDistribution uniform(int userCount) {
+        return new UserIdDistribution(userCount, null);
+    }
+
+    static UserIdDistribution zipf(int userCount, double exponent) {
+        double[] cumulative = new double[userCount];
+        double sum = 0;
+        for (int k = 1; k <= userCount; k++) {
+            sum += 1.0 / Math.pow(k, exponent);
+            cumulative[k - 1] = sum;
+        }
+        for (int i = 0; i < userCount; i++) {
+            cumulative[i] /= sum;
+        }
+        return new UserIdDistribution(userCount, cumulative);
+    }
+
+    long next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (cumulative == null) {
+            return random.nextLong(userCount) + 1;
+        }
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        // 정확히 일치하는 값이 없으면 (-(삽입 위치) - 1) 이 반환된다.
+        return (index >= 0 ? index : -index - 1) + 1;
+    }
+}
@@ -0,0 +1,99 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.point.service.lock.RefCountedUserLockRegistry;
+import io.hhplus.tdd.point.service.lock.StripedUserLockRegistry;
+import io.hhplus.tdd.point.service.lock.UserLockRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 유저별 락 저장소 구현 비교
+ * - unbounded : 기존 방식 (ConcurrentHashMap 에 유저별 락을 계속 쌓는다)
+ * - ref-counted : 참조 수가 0 이 되면 락을 회수한다.
+ * - striped : 고정 개수의 락을 유저 ID 해시로 나눠 쓴다.
+ * 측정이 끝나면 남아 있는 락의 수를 출력해 메모리 사용량을 함께 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class UserLockRegistryBenchmark {
+
+    @Param({"unbounded", "ref-counted", "striped"})
+    private String registry;
+
+    @Param({"100", "1000000"})
+    private long userCount;
+
+    private UserLockRegistry lockRegistry;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        lockRegistry = switch (registry) {
+            case "unbounded" -> new UnboundedUserLockRegistry();
+            case "ref-counted" -> new RefCountedUserLockRegistry();
+            case "striped" -> new StripedUserLockRegistry(1_024);
+            default -> throw new IllegalArgumentException("알 수 없는 락 저장소입니다. registry=" + registry);
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n[%s, users=%d] retained locks = %d%n", registry, userCount, lockRegistry.size());
+    }
+
+    @Benchmark
+    public void lockAndUnlock() {
+        long userId = ThreadLocalRandom.current().nextLong(userCount);
+        lockRegistry.lock(userId);
+        try {
+            // 임계 구역에서 잔액 계산 정도의 짧은 작업을 한다고 가정한다.
+            Blackhole.consumeCPU(64);
+        } finally {
+            lockRegistry.unlock(userId);
+        }
+    }
+
+    private static final class UnboundedUserLockRegistry implements UserLockRegistry {
+
+        private final Map<Long, Lock> locks = new ConcurrentHashMap<>();
+
+        @Override
+        public void lock(long userId) {
+            locks.computeIfAbsent(userId, id -> new ReentrantLock()).lock();
+        }
+
+        @Override
+        public void unlock(long userId) {
+            locks.get(userId).unlock();
+        }
+
+        @Override
+        public int size() {
+            return locks.size();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.point.domain.UserPoint;
+import io.hhplus.tdd.point.repository.UserPointStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 유저 포인트 캐시 구현 비교
+ * - boxed : 기존 방식 (ConcurrentHashMap<Long, AtomicReference<UserPoint>> 와 변경된 유저 ID 의 Set)
+ * - primitive : UserPointStore (long 배열 기반 open addressing 인덱스 + slot 별 값, 기존 유저의 갱신은 락 없이 기록)
+ * -prof gc 로 실행하면 gc.alloc.rate.norm 으로 연산당 할당량을 비교할 수 있다. (primitive 는 0 에 가까워야 한다)
+ * 유저 ID 는 Long 캐시 범위(-128 ~ 127) 밖에서 고른다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class UserPointStoreBenchmark {
+
+    private static final long FIRST_USER_ID = 1L << 20;
+
+    @Param({"boxed", "primitive"})
+    private String store;
+
+    @Param({"100000"})
+    private int userCount;
+
+    private BalanceCache cache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cache = switch (store) {
+            case "boxed" -> new BoxedBalanceCache();
+            case "primitive" -> new PrimitiveBalanceCache();
+            default -> throw new IllegalArgumentException("알 수 없는 캐시입니다. store=" + store);
+        };
+        for (long userId = FIRST_USER_ID; userId < FIRST_USER_ID + userCount; userId++) {
+            cache.write(userId, 0L);
+        }
+    }
+
+    @Benchmark
+    public long read() {
+        return cache.read(nextUserId());
+    }
+
+    @Benchmark
+    public void write() {
+        long userId = nextUserId();
+        cache.write(userId, userId);
+    }
+
+    private long nextUserId() {
+        return FIRST_USER_ID + ThreadLocalRandom.current().nextLong(userCount);
+    }
+
+    private interface BalanceCache {
+
+        long read(long userId);
+
+        void write(long userId, long point);
+    }
+
+    private static final class BoxedBalanceCache implements BalanceCache {
+
+        private final Map<Long, AtomicReference<UserPoint>> cache = new ConcurrentHashMap<>();
+        private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public long read(long userId) {
+            return cache.get(userId).get().point();
+        }
+
+        @Override
+        public void write(long userId, long point) {
+            cache.computeIfAbsent(userId, id -> new AtomicReference<>()).set(new UserPoint(userId, point, System.currentTimeMillis()));
+            dirty.add(userId);
+        }
+    }
+
+    private static final class PrimitiveBalanceCache implements BalanceCache {
+
+        private final UserPointStore store = new UserPointStore();
+
+        @Override
+        public long read(long userId) {
+            return store.point(userId, 0L);
+        }
+
+        @Override
+        public void write(long userId, long point) {
+            store.put(userId, point, System.currentTimeMillis());
+        }
+    }
+}
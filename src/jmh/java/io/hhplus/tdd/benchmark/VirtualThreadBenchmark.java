@@ -0,0 +1,119 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.metrics.PointMetricsProperties;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.PointHistoryRepositoryProperties;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.repository.UserPointRepositoryProperties;
+import io.hhplus.tdd.point.repository.wal.DisabledWriteAheadLog;
+import io.hhplus.tdd.point.service.engine.LockPointEngine;
+import io.hhplus.tdd.point.service.engine.PointEngine;
+import io.hhplus.tdd.point.service.lock.RefCountedUserLockRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 동시 요청 수가 많을 때 플랫폼 스레드 풀과 가상 스레드의 처리 시간 비교
+ * - clients 개의 요청이 동시에 서로 다른 유저에게 충전하며, 각 요청은 UserPointTable 조회 지연(최대 200ms)만큼 잠든다.
+ * - platform : Tomcat 기본값과 같은 200개의 플랫폼 스레드 풀
+ * - virtual : 요청마다 가상 스레드 하나 (JDK 21 이상에서만 실행할 수 있다)
+ * 한 번의 측정은 clients 개의 요청이 모두 끝날 때까지의 시간이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VirtualThreadBenchmark {
+
+    private static final int PLATFORM_POOL_SIZE = 200;
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"10000"})
+    private int clients;
+
+    private Executor executor;
+    private UserPointRepository pointRepository;
+    private PointHistoryRepository pointHistoryRepository;
+    private PointEngine pointEngine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = switch (threads) {
+            case "platform" -> Executors.newFixedThreadPool(PLATFORM_POOL_SIZE);
+            case "virtual" -> {
+                if (!JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+                    throw new IllegalStateException("가상 스레드는 JDK 21 이상에서 실행할 수 있습니다.");
+                }
+                yield new VirtualThreadTaskExecutor("benchmark-");
+            }
+            default -> throw new IllegalArgumentException("알 수 없는 스레드 종류입니다. threads=" + threads);
+        };
+        PointMetrics metrics = new PointMetrics(new SimpleMeterRegistry(), new PointMetricsProperties(100, Duration.ofSeconds(1)));
+        // 측정 중에는 테이블 반영이 일어나지 않도록 충분히 긴 주기를 사용한다.
+        pointRepository = new UserPointRepository(new UserPointTable(), new UserPointRepositoryProperties(Duration.ofHours(1), 1, Integer.MAX_VALUE), metrics);
+        // 내역 반영 지연이 충전 요청의 대기 시간에 섞이지 않도록 지연 없는 내역 테이블을 사용한다.
+        pointHistoryRepository = new PointHistoryRepository(new UnthrottledPointHistoryTable(), PointHistoryRepositoryProperties.defaults().withQueueCapacity(clients).withBatchSize(1_000).withFlushInterval(Duration.ofMillis(1)), metrics, new DisabledWriteAheadLog());
+        pointEngine = new LockPointEngine(pointRepository, pointHistoryRepository, new RefCountedUserLockRegistry(), metrics);
+    }
+
+    @Setup(Level.Invocation)
+    public void clear() {
+        // 매 측정마다 모든 요청이 캐시 miss 로 테이블 조회 지연을 겪도록 초기화한다.
+        pointRepository.clear();
+        pointHistoryRepository.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+        // 측정에 사용한 잔액은 테이블에 반영하지 않고 버린다.
+        pointRepository.clear();
+        pointRepository.close();
+        pointHistoryRepository.close();
+    }
+
+    @Benchmark
+    public void chargeConcurrently() throws InterruptedException {
+        CountDownLatch countDownLatch = new CountDownLatch(clients);
+        for (long userId = 1; userId <= clients; userId++) {
+            long currentUserId = userId;
+            executor.execute(() -> {
+                try {
+                    pointEngine.charge(currentUserId, 100L);
+                } finally {
+                    countDownLatch.countDown();
+                }
+            });
+        }
+        countDownLatch.await();
+    }
+}
@@ -1,7 +1,11 @@
 package io.hhplus.tdd;
 
+import io.hhplus.tdd.point.service.exception.IdempotencyKeyReusedException;
 import io.hhplus.tdd.point.service.exception.InsufficientPointException;
+import io.hhplus.tdd.point.service.exception.InvalidCursorException;
+import io.hhplus.tdd.point.service.exception.InvalidRollupWindowException;
 import io.hhplus.tdd.point.service.exception.MaxBalanceExceededException;
+import io.hhplus.tdd.point.service.exception.TooManyPendingRequestsException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -20,6 +24,26 @@ class ApiControllerAdvice extends ResponseEntityExceptionHandler {
         return ResponseEntity.status(400).body(new ErrorResponse("400", e.getMessage()));
     }
 
+    @ExceptionHandler(value = InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursorException(Exception e) {
+        return ResponseEntity.status(400).body(new ErrorResponse("400", e.getMessage()));
+    }
+
+    @ExceptionHandler(value = InvalidRollupWindowException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRollupWindowException(Exception e) {
+        return ResponseEntity.status(400).body(new ErrorResponse("400", e.getMessage()));
+    }
+
+    @ExceptionHandler(value = IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReusedException(Exception e) {
+        return ResponseEntity.status(422).body(new ErrorResponse("422", e.getMessage()));
+    }
+
+    @ExceptionHandler(value = TooManyPendingRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyPendingRequestsException(Exception e) {
+        return ResponseEntity.status(429).body(new ErrorResponse("429", e.getMessage()));
+    }
+
     @ExceptionHandler(value = Exception.class)
     public ResponseEntity<ErrorResponse> handleException(Exception e) {
         return ResponseEntity.status(500).body(new ErrorResponse("500", "에러가 발생했습니다."));
@@ -0,0 +1,120 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.domain.TransactionType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 여러 스레드가 동시에 내역을 추가할 수 있는 PointHistoryTable
+ * - PointHistoryTable 은 변경하지 않고, 같은 API 와 지연(insert 최대 300ms)을 유지한 채 저장 구조만 바꾼다.
+ * - ID 는 AtomicLong 으로 발급하고, ID 로 정해지는 고정 크기 chunk 의 위치에 바로 기록하므로 전역 락 없이 추가한다.
+ *   chunk 는 처음 필요한 스레드가 CAS 로 한 번만 만든다.
+ * - 앞에서부터 빈 칸 없이 기록이 끝난 위치까지를 published 로 공개하고, 조회는 published 까지만 읽는다.
+ *   따라서 조회 결과는 항상 어떤 시점까지 발급된 ID 의 빈 칸 없는 prefix 이다.
+ */
+public class ConcurrentPointHistoryTable extends PointHistoryTable {
+
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int MAX_CHUNKS = 1 << 16;
+
+    private final AtomicReference<Segments> segments = new AtomicReference<>(new Segments());
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        throttle(300L);
+        Segments current = segments.get();
+        PointHistory pointHistory = new PointHistory(current.sequence.incrementAndGet(), userId, amount, type, updateMillis);
+        current.add(pointHistory);
+        return pointHistory;
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        Segments current = segments.get();
+        long published = current.published.get();
+        List<PointHistory> pointHistories = new ArrayList<>();
+        for (long position = 0; position < published; position++) {
+            PointHistory pointHistory = current.get(position);
+            if (pointHistory.userId() == userId) {
+                pointHistories.add(pointHistory);
+            }
+        }
+        return List.copyOf(pointHistories);
+    }
+
+    /**
+     * 공개된 내역 수
+     */
+    public long size() {
+        return segments.get().published.get();
+    }
+
+    /**
+     * 저장소를 새로 만들어 교체한다. 교체 중에 추가된 내역은 이전 저장소에 기록되어 조회되지 않는다.
+     */
+    @Override
+    public void clear() {
+        segments.set(new Segments());
+    }
+
+    private void throttle(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep((long) (Math.random() * millis));
+        } catch (InterruptedException ignored) {
+
+        }
+    }
+
+    private static final class Segments {
+
+        private final AtomicLong sequence = new AtomicLong();
+        private final AtomicLong published = new AtomicLong();
+        private final AtomicReferenceArray<AtomicReferenceArray<PointHistory>> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+
+        void add(PointHistory pointHistory) {
+            long position = pointHistory.id() - 1;
+            chunk(position).set((int) position & CHUNK_MASK, pointHistory);
+            publish();
+        }
+
+        PointHistory get(long position) {
+            return chunks.get((int) (position >>> CHUNK_SHIFT)).get((int) position & CHUNK_MASK);
+        }
+
+        /**
+         * 기록이 끝난 위치까지 published 를 옮긴다. 앞선 위치가 아직 비어 있으면 멈추고, 그 위치를 기록한 스레드가 이어서 옮긴다.
+         */
+        private void publish() {
+            long current;
+            while ((current = published.get()) < sequence.get() && isWritten(current)) {
+                published.compareAndSet(current, current + 1);
+            }
+        }
+
+        private boolean isWritten(long position) {
+            AtomicReferenceArray<PointHistory> chunk = chunks.get((int) (position >>> CHUNK_SHIFT));
+            return chunk != null && chunk.get((int) position & CHUNK_MASK) != null;
+        }
+
+        private AtomicReferenceArray<PointHistory> chunk(long position) {
+            long chunkIndex = position >>> CHUNK_SHIFT;
+            if (chunkIndex >= MAX_CHUNKS) {
+                throw new IllegalStateException("저장할 수 있는 내역 수를 초과했습니다. id=" + (position + 1));
+            }
+            AtomicReferenceArray<PointHistory> chunk = chunks.get((int) chunkIndex);
+            if (chunk == null) {
+                chunks.compareAndSet((int) chunkIndex, null, new AtomicReferenceArray<>(CHUNK_SIZE));
+                chunk = chunks.get((int) chunkIndex);
+            }
+            return chunk;
+        }
+    }
+}
@@ -1,70 +1,218 @@
 package io.hhplus.tdd.point.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.hhplus.tdd.point.domain.TransactionType;
+import io.hhplus.tdd.point.service.PointAsyncService;
+import io.hhplus.tdd.point.service.PointBatchService;
 import io.hhplus.tdd.point.service.PointService;
+import io.hhplus.tdd.point.service.dto.request.PointBatchRequest;
+import io.hhplus.tdd.point.service.dto.request.PointHistoryExportRequest;
+import io.hhplus.tdd.point.service.dto.request.PointHistoryPageRequest;
 import io.hhplus.tdd.point.service.dto.request.PointRequest;
+import io.hhplus.tdd.point.service.dto.request.PointRollupRequest;
+import io.hhplus.tdd.point.service.dto.response.PointBatchResponse;
+import io.hhplus.tdd.point.service.dto.response.PointHistoryPageResponse;
 import io.hhplus.tdd.point.service.dto.response.PointHistoryResponse;
 import io.hhplus.tdd.point.service.dto.response.PointResponse;
+import io.hhplus.tdd.point.service.dto.response.PointRollupResponse;
+import io.hhplus.tdd.point.service.dto.response.PointSummaryResponse;
+import io.hhplus.tdd.point.service.event.PointEventProperties;
+import io.hhplus.tdd.point.service.event.PointEventStream;
+import io.hhplus.tdd.point.service.idempotency.IdempotencyCache;
+import io.hhplus.tdd.point.service.idempotency.IdempotencyKey;
+import io.hhplus.tdd.point.service.mapper.PointHistoryMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/point")
 public class PointController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
     private static final Logger log = LoggerFactory.getLogger(PointController.class);
 
     private final PointService pointService;
+    private final PointAsyncService pointAsyncService;
+    private final PointBatchService pointBatchService;
+    private final IdempotencyCache idempotencyCache;
+    private final PointEventStream pointEventStream;
+    private final PointEventProperties pointEventProperties;
+    private final PointHistoryMapper pointHistoryMapper;
+    private final ObjectMapper objectMapper;
 
     /**
      * TODO - 특정 유저의 포인트를 조회하는 기능을 작성해주세요.
+     * 조회/충전/이용은 유저별 mailbox 에서 비동기로 처리하고, 서블릿 스레드는 처리 결과를 기다리지 않고 바로 반환된다.
      */
     @GetMapping("{id}")
-    public ResponseEntity<PointResponse> point(
+    public CompletableFuture<ResponseEntity<PointResponse>> point(
             @PathVariable long id
     ) {
-        PointResponse response = pointService.getPointsByUserId(id);
-        return ResponseEntity.ok(response);
+        return pointAsyncService.getPointsByUserId(id)
+                .thenApply(ResponseEntity::ok);
     }
 
     /**
      * TODO - 특정 유저의 포인트 충전/이용 내역을 조회하는 기능을 작성해주세요.
+     * 내역은 페이지 단위로 응답하며, 다음 페이지가 있으면 X-Next-Cursor 헤더로 커서를 전달한다.
      */
     @GetMapping("{id}/histories")
-    public ResponseEntity<List<PointHistoryResponse>> history(
+    public CompletableFuture<ResponseEntity<List<PointHistoryResponse>>> history(
+            @PathVariable long id,
+            @Valid @ModelAttribute PointHistoryPageRequest request
+    ) {
+        return pointAsyncService.getPointHistoryPage(id, request)
+                .thenApply(this::toHistoryResponse);
+    }
+
+    /**
+     * 특정 유저의 누적 충전/이용 포인트, 내역 수, 마지막 내역 시각을 조회한다.
+     */
+    @GetMapping("{id}/summary")
+    public ResponseEntity<PointSummaryResponse> summary(
             @PathVariable long id
     ) {
-        List<PointHistoryResponse> response = pointService.getPointHistoryByUserId(id);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(pointService.getPointSummary(id));
+    }
+
+    /**
+     * 전체 유저의 [from, to) 구간 충전/이용 합계를 조회한다. 구간의 양 끝은 분 단위로 맞춘다.
+     */
+    @GetMapping("rollups")
+    public ResponseEntity<PointRollupResponse> rollup(
+            @Valid @ModelAttribute PointRollupRequest request
+    ) {
+        return ResponseEntity.ok(pointService.getPointRollup(request));
+    }
+
+    /**
+     * 전체 유저의 [from, to) 구간 충전/이용 합계를 resolution 단위 구간별로 조회한다. (대시보드용)
+     */
+    @GetMapping("rollups/series")
+    public ResponseEntity<List<PointRollupResponse>> rollupSeries(
+            @Valid @ModelAttribute PointRollupRequest request
+    ) {
+        return ResponseEntity.ok(pointService.getPointRollupSeries(request));
+    }
+
+    /**
+     * 특정 유저의 포인트 충전/이용 내역을 server-sent events 로 구독한다.
+     * after (또는 재연결 시 Last-Event-ID 헤더) 이후의 내역부터 전송하며, 전송이 밀려 overflow 이벤트를 받으면 마지막으로 받은 ID 부터 다시 구독한다.
+     */
+    @GetMapping(value = "{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(
+            @PathVariable long id,
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) Long lastEventId,
+            @RequestParam(defaultValue = "0") long after
+    ) {
+        SseEmitter emitter = new SseEmitter(pointEventProperties.timeout().toMillis());
+        PointEventStream.Subscription subscription = pointEventStream.subscribe(id, lastEventId != null ? lastEventId : after, new SsePointEventSink(emitter, pointHistoryMapper));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+
+    /**
+     * 포인트 충전/이용 내역을 NDJSON 으로 내보낸다. (정산용)
+     * 내역을 순회하면서 한 줄씩 바로 응답에 기록하므로, 내역 수와 무관하게 메모리를 일정하게 사용한다.
+     */
+    @GetMapping(value = "histories/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(
+            @Valid @ModelAttribute PointHistoryExportRequest request
+    ) {
+        ObjectWriter writer = objectMapper.writerFor(PointHistoryResponse.class);
+        StreamingResponseBody body = outputStream -> {
+            OutputStream bufferedOutputStream = new BufferedOutputStream(outputStream);
+            pointService.exportPointHistories(request, response -> writeLine(bufferedOutputStream, writer, response));
+            bufferedOutputStream.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     /**
      * TODO - 특정 유저의 포인트를 충전하는 기능을 작성해주세요.
+     * Idempotency-Key 헤더가 있으면, 같은 키로 재시도한 요청에는 처음 요청의 응답을 그대로 반환한다.
      */
     @PatchMapping("{id}/charge")
-    public ResponseEntity<PointResponse> charge(
+    public CompletableFuture<ResponseEntity<PointResponse>> charge(
             @PathVariable long id,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody PointRequest request
     ) {
-        PointResponse response = pointService.chargePoints(id, request);
-        return ResponseEntity.ok(response);
+        return executeIdempotently(id, TransactionType.CHARGE, idempotencyKey, request, () -> pointAsyncService.chargePoints(id, request))
+                .thenApply(ResponseEntity::ok);
     }
 
     /**
      * TODO - 특정 유저의 포인트를 사용하는 기능을 작성해주세요.
+     * Idempotency-Key 헤더가 있으면, 같은 키로 재시도한 요청에는 처음 요청의 응답을 그대로 반환한다.
      */
     @PatchMapping("{id}/use")
-    public ResponseEntity<PointResponse> use(
+    public CompletableFuture<ResponseEntity<PointResponse>> use(
             @PathVariable long id,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody PointRequest request
     ) {
-        PointResponse response = pointService.usePoints(id, request);
+        return executeIdempotently(id, TransactionType.USE, idempotencyKey, request, () -> pointAsyncService.usePoints(id, request))
+                .thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * 여러 유저에 대한 충전/이용 요청을 한 번에 처리하고, 항목별 성공/실패 결과를 요청 순서대로 응답한다.
+     */
+    @PostMapping("batch")
+    public ResponseEntity<PointBatchResponse> batch(
+            @Valid @RequestBody PointBatchRequest request
+    ) {
+        PointBatchResponse response = pointBatchService.applyBatch(request);
         return ResponseEntity.ok(response);
     }
+
+    private CompletableFuture<PointResponse> executeIdempotently(long id, TransactionType type, String idempotencyKey, PointRequest request, Supplier<CompletableFuture<PointResponse>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        return idempotencyCache.execute(new IdempotencyKey(id, type, idempotencyKey), request.amount(), action);
+    }
+
+    private ResponseEntity<List<PointHistoryResponse>> toHistoryResponse(PointHistoryPageResponse response) {
+        if (response.nextCursor() == null) {
+            return ResponseEntity.ok(response.histories());
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, response.nextCursor())
+                .body(response.histories());
+    }
+
+    private void writeLine(OutputStream outputStream, ObjectWriter writer, PointHistoryResponse response) {
+        try {
+            outputStream.write(writer.writeValueAsBytes(response));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,45 @@
+package io.hhplus.tdd.point.controller;
+
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.service.event.PointEventSink;
+import io.hhplus.tdd.point.service.mapper.PointHistoryMapper;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * 내역 이벤트를 server-sent events 로 전송한다.
+ * 이벤트 ID 는 내역 ID 이므로, 연결이 끊기면 클라이언트가 Last-Event-ID 헤더로 이어서 구독할 수 있다.
+ */
+class SsePointEventSink implements PointEventSink {
+
+    static final String HISTORY_EVENT = "point-history";
+    static final String OVERFLOW_EVENT = "overflow";
+
+    private final SseEmitter emitter;
+    private final PointHistoryMapper pointHistoryMapper;
+
+    SsePointEventSink(SseEmitter emitter, PointHistoryMapper pointHistoryMapper) {
+        this.emitter = emitter;
+        this.pointHistoryMapper = pointHistoryMapper;
+    }
+
+    @Override
+    public void send(PointHistory pointHistory) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(String.valueOf(pointHistory.id()))
+                .name(HISTORY_EVENT)
+                .data(pointHistoryMapper.mapToPointHistoryResponse(pointHistory), MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void overflow() throws IOException {
+        emitter.send(SseEmitter.event().name(OVERFLOW_EVENT).data(""));
+    }
+
+    @Override
+    public void complete() {
+        emitter.complete();
+    }
+}
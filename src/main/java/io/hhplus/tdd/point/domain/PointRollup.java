@@ -0,0 +1,29 @@
+package io.hhplus.tdd.point.domain;
+
+/**
+ * [fromMillis, toMillis) 구간 동안 전체 유저의 충전/이용 포인트 합계와 건수
+ * complete 가 false 이면 구간의 일부가 보관 기간을 지났거나 재기동 전에 snapshot 으로 압축되어 집계에서 빠졌다.
+ */
+public record PointRollup(
+        long fromMillis,
+        long toMillis,
+        long chargeAmount,
+        long chargeCount,
+        long useAmount,
+        long useCount,
+        boolean complete
+) {
+    public enum Resolution {
+        MINUTE(60_000L), HOUR(3_600_000L), DAY(86_400_000L);
+
+        private final long millis;
+
+        Resolution(long millis) {
+            this.millis = millis;
+        }
+
+        public long millis() {
+            return millis;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package io.hhplus.tdd.point.domain;
+
+/**
+ * 유저의 누적 충전/이용 포인트, 내역 수, 마지막 내역 시각
+ */
+public record PointSummary(
+        long userId,
+        long totalCharged,
+        long totalUsed,
+        long transactionCount,
+        long lastTransactionMillis
+) {
+    public static PointSummary empty(long userId) {
+        return new PointSummary(userId, 0, 0, 0, 0);
+    }
+
+    public PointSummary apply(PointHistory pointHistory) {
+        long charged = pointHistory.type() == TransactionType.CHARGE ? pointHistory.amount() : 0;
+        long used = pointHistory.type() == TransactionType.USE ? pointHistory.amount() : 0;
+        return new PointSummary(
+                userId,
+                totalCharged + charged,
+                totalUsed + used,
+                transactionCount + 1,
+                Math.max(lastTransactionMillis, pointHistory.updateMillis())
+        );
+    }
+
+    /**
+     * 서로 다른 내역으로 만든 같은 유저의 통계를 합친다.
+     */
+    public PointSummary merge(PointSummary other) {
+        return new PointSummary(
+                userId,
+                totalCharged + other.totalCharged,
+                totalUsed + other.totalUsed,
+                transactionCount + other.transactionCount,
+                Math.max(lastTransactionMillis, other.lastTransactionMillis)
+        );
+    }
+}
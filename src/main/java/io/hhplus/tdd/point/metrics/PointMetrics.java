@@ -0,0 +1,223 @@
+package io.hhplus.tdd.point.metrics;
+
+import io.hhplus.tdd.point.domain.TransactionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 포인트 처리 지표
+ * - 락 대기/보유 시간, 테이블 호출 시간은 histogram 을 포함한 Timer 로, 실패한 충전/이용은 예외 종류별 Counter 로 기록한다.
+ * - 요청 경로에서는 미리 만들어 둔 meter 에 기록만 하므로, meter 조회 비용이 들지 않는다.
+ * - hot user : 직전 구간 동안 기준 횟수 이상 충전/이용을 요청한 유저 수
+ *   요청 경로에서는 유저 ID 의 해시로 고른 고정 개수(HOT_USER_SLOTS)의 카운터 중 하나만 증가시키므로, 유저 수와 무관하게 메모리가 일정하다.
+ *   집계는 gauge 를 읽을 때 직전 구간의 카운터를 한 번 훑어 계산하고, 구간마다 한 번만 계산한다.
+ *   같은 카운터를 쓰는 유저들의 요청은 합쳐지므로, 기준 횟수에 못 미치는 유저들이 함께 hot user 로 집계될 수 있다. (근사치)
+ */
+@Component
+public class PointMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Timer lockWait;
+    private final Timer lockHold;
+    private final Timer[] tableTimers;
+    private final Counter casRetries;
+    private final Counter idempotentReplays;
+    private final Counter coalescedLoads;
+    private final Counter eventOverflows;
+    private final Counter historyCommitFailures;
+    private final DistributionSummary foldSize;
+
+    private static final int HOT_USER_SLOTS = 4096;
+
+    private final long hotUserThreshold;
+    private final long hotUserWindowNanos;
+    private final AtomicReference<AccessWindow> accessWindow = new AtomicReference<>(new AccessWindow(System.nanoTime(), new AccessCounts(), null));
+
+    public PointMetrics(MeterRegistry meterRegistry, PointMetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.lockWait = Timer.builder("point.lock.wait")
+                .description("유저별 락을 획득하기까지 기다린 시간")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.lockHold = Timer.builder("point.lock.hold")
+                .description("유저별 락을 보유한 시간")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.tableTimers = new Timer[TableOperation.values().length];
+        for (TableOperation operation : TableOperation.values()) {
+            tableTimers[operation.ordinal()] = Timer.builder("point.table.latency")
+                    .description("테이블 호출 시간")
+                    .tag("table", operation.table)
+                    .tag("operation", operation.operation)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+        this.casRetries = Counter.builder("point.cas.retries")
+                .description("다른 요청이 먼저 잔액을 갱신해 CAS 를 다시 시도한 횟수")
+                .register(meterRegistry);
+        this.idempotentReplays = Counter.builder("point.idempotency.replays")
+                .description("같은 Idempotency-Key 의 재요청에 저장된 응답을 반환한 횟수")
+                .register(meterRegistry);
+        this.coalescedLoads = Counter.builder("point.user-point.coalesced-loads")
+                .description("캐시에 없는 유저를 동시에 조회해, 진행 중인 테이블 조회를 함께 기다린 횟수")
+                .register(meterRegistry);
+        this.eventOverflows = Counter.builder("point.event.overflows")
+                .description("버퍼가 가득 차 연결을 끊은 내역 이벤트 구독자 수")
+                .register(meterRegistry);
+        this.historyCommitFailures = Counter.builder("point.history.commit.failures")
+                .description("포인트 내역을 테이블에 반영하지 못해 다시 시도한 횟수")
+                .register(meterRegistry);
+        this.foldSize = DistributionSummary.builder("point.mailbox.fold.size")
+                .description("mailbox 에서 한 번에 모아 적용한 명령 수")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        this.hotUserThreshold = properties.hotUserThreshold();
+        this.hotUserWindowNanos = properties.hotUserWindow().toNanos();
+        Gauge.builder("point.users.hot", this, PointMetrics::hotUserCount)
+                .description("직전 구간 동안 기준 횟수 이상 충전/이용을 요청한 유저 수")
+                .register(meterRegistry);
+    }
+
+    public void recordLockWait(long nanos) {
+        lockWait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLockHold(long nanos) {
+        lockHold.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * startNanos(System.nanoTime) 부터 지금까지를 테이블 호출 시간으로 기록한다.
+     */
+    public void recordTable(TableOperation operation, long startNanos) {
+        tableTimers[operation.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCasRetry() {
+        casRetries.increment();
+    }
+
+    public void recordIdempotentReplay() {
+        idempotentReplays.increment();
+    }
+
+    public void recordCoalescedLoad() {
+        coalescedLoads.increment();
+    }
+
+    public void recordEventOverflow() {
+        eventOverflows.increment();
+    }
+
+    public void recordHistoryCommitFailure() {
+        historyCommitFailures.increment();
+    }
+
+    public void recordFold(int commands) {
+        foldSize.record(commands);
+    }
+
+    /**
+     * 실패한 충전/이용을 예외 종류별로 센다. 실패는 드물기 때문에 meter 를 매번 조회한다.
+     */
+    public void recordRejection(TransactionType type, RuntimeException e) {
+        meterRegistry.counter("point.rejections", "type", type.name(), "exception", e.getClass().getSimpleName()).increment();
+    }
+
+    /**
+     * 구간이 지났다면 새 구간을 시작하고, 유저의 카운터를 증가시킨다. 객체를 할당하는 것은 구간이 바뀔 때뿐이다.
+     */
+    public void recordAccess(long userId) {
+        long now = System.nanoTime();
+        AccessWindow window = accessWindow.get();
+        if (now - window.startNanos >= hotUserWindowNanos) {
+            // 요청이 끊겨 한 구간 이상 비었다면 지난 구간은 직전 구간이 아니다.
+            AccessWindow started = new AccessWindow(now, new AccessCounts(), now - window.startNanos < 2 * hotUserWindowNanos ? window.counts : null);
+            window = accessWindow.compareAndSet(window, started) ? started : accessWindow.get();
+        }
+        window.counts.increment(slotOf(userId));
+    }
+
+    /**
+     * 직전 구간의 hot user 수, 요청이 끊겨 직전 구간에 요청이 없었다면 0 이다.
+     */
+    public int hotUserCount() {
+        long now = System.nanoTime();
+        AccessWindow window = accessWindow.get();
+        long elapsed = now - window.startNanos;
+        if (elapsed >= 2 * hotUserWindowNanos) {
+            return 0;
+        }
+        // 현재 구간이 끝났지만 아직 다음 요청이 없다면, 현재 구간이 직전 구간이다.
+        AccessCounts completed = elapsed >= hotUserWindowNanos ? window.counts : window.previousCounts;
+        return completed == null ? 0 : completed.hotUserCount(hotUserThreshold);
+    }
+
+    private static int slotOf(long userId) {
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & (HOT_USER_SLOTS - 1);
+    }
+
+    /**
+     * 현재 구간의 요청 횟수와 직전 구간의 요청 횟수, 직전 구간만 참조하므로 보관하는 구간은 최대 둘이다.
+     */
+    private record AccessWindow(long startNanos, AccessCounts counts, AccessCounts previousCounts) {
+    }
+
+    /**
+     * 한 구간의 유저별(해시) 요청 횟수
+     */
+    private static final class AccessCounts {
+
+        private static final int NOT_COUNTED = -1;
+
+        private final AtomicLongArray counts = new AtomicLongArray(HOT_USER_SLOTS);
+        private volatile int hotUserCount = NOT_COUNTED;
+
+        void increment(int slot) {
+            counts.incrementAndGet(slot);
+        }
+
+        /**
+         * 끝난 구간에만 호출하며, 처음 호출할 때 계산한 값을 이후에도 반환한다.
+         * 구간이 바뀌는 사이 늦게 도착한 증가분은 반영되지 않을 수 있다.
+         */
+        int hotUserCount(long threshold) {
+            int counted = hotUserCount;
+            if (counted == NOT_COUNTED) {
+                counted = 0;
+                for (int slot = 0; slot < HOT_USER_SLOTS; slot++) {
+                    if (counts.get(slot) >= threshold) {
+                        counted++;
+                    }
+                }
+                hotUserCount = counted;
+            }
+            return counted;
+        }
+    }
+
+    public enum TableOperation {
+        USER_POINT_SELECT("user_point", "select"),
+        USER_POINT_UPSERT("user_point", "insert_or_update"),
+        POINT_HISTORY_INSERT("point_history", "insert"),
+        POINT_HISTORY_SELECT("point_history", "select");
+
+        private final String table;
+        private final String operation;
+
+        TableOperation(String table, String operation) {
+            this.table = table;
+            this.operation = operation;
+        }
+    }
+}
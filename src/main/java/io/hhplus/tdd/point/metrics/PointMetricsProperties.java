@@ -0,0 +1,18 @@
+package io.hhplus.tdd.point.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 포인트 지표 설정
+ * - hot-user-threshold : 한 구간 동안 이 횟수 이상 충전/이용을 요청한 유저를 hot user 로 집계한다.
+ * - hot-user-window : hot user 집계 구간
+ */
+@ConfigurationProperties(prefix = "point.metrics")
+public record PointMetricsProperties(
+        @DefaultValue("100") long hotUserThreshold,
+        @DefaultValue("1s") Duration hotUserWindow
+) {
+}
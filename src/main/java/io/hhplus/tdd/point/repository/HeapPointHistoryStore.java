@@ -0,0 +1,48 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.point.domain.PointHistory;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * PointHistory 객체를 힙에 보관하는 내역 저장소 (point.history.store=heap)
+ * - 유저별 조회는 PointHistoryIndex, 전체 순회는 PointHistoryLog 가 같은 객체를 공유해 처리한다.
+ */
+class HeapPointHistoryStore implements PointHistoryStore {
+
+    private final PointHistoryIndex index = new PointHistoryIndex();
+    private final PointHistoryLog allHistories = new PointHistoryLog();
+
+    @Override
+    public void add(PointHistory pointHistory) {
+        index.add(pointHistory);
+        allHistories.add(pointHistory);
+    }
+
+    @Override
+    public List<PointHistory> findAllByUserId(long userId) {
+        return index.findAllByUserId(userId);
+    }
+
+    @Override
+    public List<PointHistory> findByUserId(long userId, long afterId, long fromMillis, long toMillis, int limit) {
+        return index.findByUserId(userId, afterId, fromMillis, toMillis, limit);
+    }
+
+    @Override
+    public Stream<PointHistory> stream() {
+        return allHistories.stream();
+    }
+
+    @Override
+    public int size() {
+        return allHistories.size();
+    }
+
+    @Override
+    public void clear() {
+        index.clear();
+        allHistories.clear();
+    }
+}
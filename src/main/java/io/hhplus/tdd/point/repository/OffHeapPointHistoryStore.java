@@ -0,0 +1,225 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.domain.TransactionType;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * 내역을 off-heap 에 보관하는 내역 저장소 (point.history.store=off-heap)
+ * - 내역은 PointHistory 객체 대신 direct ByteBuffer chunk 의 고정 길이 slot 에 [id, userId, amount, updateMillis, type] 으로 기록한다.
+ *   힙에는 chunk 참조와 유저별 slot 번호 배열(내역당 4 byte)만 남으므로, 내역이 늘어도 GC 가 추적할 객체 수가 거의 늘지 않는다.
+ * - 유저별 slot 번호는 ID 순으로 쌓이므로, afterId 이후 조회는 시작 위치를 이진 탐색으로 찾고 limit 개를 채울 때까지만 읽는다.
+ *   (PointHistoryIndex 와 같은 방식이며, 페이지 조회 비용이 앞서 읽은 페이지 수와 무관하다)
+ * - PointHistory 는 조회 결과의 원소에 접근하는 시점에 slot 에서 만든다.
+ * - clear 는 chunk, 유저별 slot 번호, size 를 함께 담은 Arena 를 통째로 교체하므로, reader 는 교체 전후 어느 한쪽의 내용만 본다.
+ * - 줄어드는 것은 이 저장소의 힙 사용량뿐이다. 내역의 원본인 PointHistoryTable 은 모든 내역을 PointHistory 객체로 힙에 보관하므로,
+ *   프로세스 전체의 힙 사용량은 테이블만큼 남는다. (테이블은 외부 DB 를 대신하므로 그대로 둔다)
+ */
+class OffHeapPointHistoryStore implements PointHistoryStore {
+
+    private static final int ID_OFFSET = 0;
+    private static final int USER_ID_OFFSET = 8;
+    private static final int AMOUNT_OFFSET = 16;
+    private static final int UPDATE_MILLIS_OFFSET = 24;
+    private static final int TYPE_OFFSET = 32;
+    // long 을 8 byte 경계에서 읽도록 slot 크기를 맞춘다.
+    private static final int SLOT_SIZE = 40;
+
+    private static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_SLOTS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SLOTS - 1;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private volatile Arena current = new Arena();
+
+    @Override
+    public void add(PointHistory pointHistory) {
+        current.add(pointHistory);
+    }
+
+    @Override
+    public List<PointHistory> findAllByUserId(long userId) {
+        Arena arena = current;
+        UserSlots userSlots = arena.userSlots.get(userId);
+        if (userSlots == null) {
+            return List.of();
+        }
+        return arena.slotsAfter(userSlots, Long.MIN_VALUE);
+    }
+
+    @Override
+    public List<PointHistory> findByUserId(long userId, long afterId, long fromMillis, long toMillis, int limit) {
+        Arena arena = current;
+        UserSlots userSlots = arena.userSlots.get(userId);
+        if (userSlots == null) {
+            return List.of();
+        }
+        SlotList slots = arena.slotsAfter(userSlots, afterId);
+        List<PointHistory> found = new ArrayList<>(Math.min(limit, slots.size()));
+        for (int i = 0; i < slots.size() && found.size() < limit; i++) {
+            long updateMillis = slots.getLong(i, UPDATE_MILLIS_OFFSET);
+            if (updateMillis >= fromMillis && updateMillis <= toMillis) {
+                found.add(slots.get(i));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public Stream<PointHistory> stream() {
+        Arena arena = current;
+        int snapshotSize = arena.size;
+        ByteBuffer[] snapshotChunks = arena.chunks;
+        return IntStream.range(0, snapshotSize)
+                .mapToObj(slot -> read(snapshotChunks, slot));
+    }
+
+    @Override
+    public int size() {
+        return current.size;
+    }
+
+    @Override
+    public void clear() {
+        current = new Arena();
+    }
+
+    private static PointHistory read(ByteBuffer[] snapshotChunks, int slot) {
+        ByteBuffer chunk = snapshotChunks[slot >>> CHUNK_SHIFT];
+        int base = (slot & CHUNK_MASK) * SLOT_SIZE;
+        return new PointHistory(
+                chunk.getLong(base + ID_OFFSET),
+                chunk.getLong(base + USER_ID_OFFSET),
+                chunk.getLong(base + AMOUNT_OFFSET),
+                TYPES[chunk.get(base + TYPE_OFFSET)],
+                chunk.getLong(base + UPDATE_MILLIS_OFFSET)
+        );
+    }
+
+    private static long getLong(ByteBuffer[] snapshotChunks, int slot, int offset) {
+        return snapshotChunks[slot >>> CHUNK_SHIFT].getLong((slot & CHUNK_MASK) * SLOT_SIZE + offset);
+    }
+
+    private static final class Arena {
+
+        private final Map<Long, UserSlots> userSlots = new ConcurrentHashMap<>();
+        private volatile ByteBuffer[] chunks = new ByteBuffer[16];
+        private volatile int size = 0;
+
+        void add(PointHistory pointHistory) {
+            int slot = size;
+            int chunkIndex = slot >>> CHUNK_SHIFT;
+            ByteBuffer[] current = chunks;
+            if (chunkIndex == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            if (current[chunkIndex] == null) {
+                current[chunkIndex] = ByteBuffer.allocateDirect(CHUNK_SLOTS * SLOT_SIZE);
+                chunks = current;
+            }
+
+            UserSlots slots = userSlots.computeIfAbsent(pointHistory.userId(), userId -> new UserSlots());
+            ByteBuffer chunk = current[chunkIndex];
+            int base = (slot & CHUNK_MASK) * SLOT_SIZE;
+            chunk.putLong(base + ID_OFFSET, pointHistory.id());
+            chunk.putLong(base + USER_ID_OFFSET, pointHistory.userId());
+            chunk.putLong(base + AMOUNT_OFFSET, pointHistory.amount());
+            chunk.putLong(base + UPDATE_MILLIS_OFFSET, pointHistory.updateMillis());
+            chunk.put(base + TYPE_OFFSET, (byte) pointHistory.type().ordinal());
+
+            // slot 을 모두 기록한 뒤 유저의 slot 번호와 size 를 기록해, 이를 읽은 reader 는 slot 의 내용을 모두 볼 수 있다.
+            slots.append(slot);
+            size = slot + 1;
+        }
+
+        /**
+         * 유저의 slot 중 ID 가 afterId 보다 큰 slot 을 ID 순으로 복사 없이 반환한다.
+         * 유저의 slot 수를 읽은 뒤 chunk 배열을 읽어야 마지막 slot 의 chunk 가 포함된다.
+         */
+        private SlotList slotsAfter(UserSlots userSlots, long afterId) {
+            int count = userSlots.count;
+            int[] slots = userSlots.slots;
+            ByteBuffer[] snapshotChunks = chunks;
+
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (getLong(snapshotChunks, slots[mid], ID_OFFSET) <= afterId) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return new SlotList(snapshotChunks, slots, low, count);
+        }
+    }
+
+    /**
+     * 유저의 slot 번호를 추가된 순서(ID 순)로 보관하는 append-only 배열
+     */
+    private static final class UserSlots {
+
+        private static final int INITIAL_CAPACITY = 8;
+
+        private volatile int[] slots = new int[INITIAL_CAPACITY];
+        private volatile int count = 0;
+
+        void append(int slot) {
+            int[] current = slots;
+            if (count == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+                slots = current;
+            }
+            current[count] = slot;
+            // count 를 마지막에 기록해, count 를 읽은 reader 는 그 이전에 기록된 배열과 원소를 모두 볼 수 있다.
+            count = count + 1;
+        }
+    }
+
+    /**
+     * slot 번호만 보관하고, 원소에 접근할 때 PointHistory 를 만드는 읽기 전용 List
+     */
+    private static final class SlotList extends AbstractList<PointHistory> implements RandomAccess {
+
+        private final ByteBuffer[] snapshotChunks;
+        private final int[] slots;
+        private final int from;
+        private final int to;
+
+        /**
+         * slots 의 [from, to) 범위, 이후 추가되는 slot 번호는 범위 밖에 기록되므로 view 의 내용은 바뀌지 않는다.
+         */
+        private SlotList(ByteBuffer[] snapshotChunks, int[] slots, int from, int to) {
+            this.snapshotChunks = snapshotChunks;
+            this.slots = slots;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public PointHistory get(int index) {
+            return read(snapshotChunks, slots[from + Objects.checkIndex(index, size())]);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        long getLong(int index, int offset) {
+            return OffHeapPointHistoryStore.getLong(snapshotChunks, slots[from + index], offset);
+        }
+    }
+}
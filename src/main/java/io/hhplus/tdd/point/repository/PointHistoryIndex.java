@@ -0,0 +1,99 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.point.domain.PointHistory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 유저별 포인트 내역 인덱스
+ * - 유저마다 append-only segment 를 두어, 특정 유저의 내역 조회 비용이 해당 유저의 내역 수에만 비례한다.
+ * - 추가는 PointHistoryRepository 가 직렬화해서 호출하고(단일 writer), 조회는 락 없이 동시에 수행된다.
+ */
+class PointHistoryIndex {
+
+    private final Map<Long, Segment> segments = new ConcurrentHashMap<>();
+
+    void add(PointHistory pointHistory) {
+        segments.computeIfAbsent(pointHistory.userId(), userId -> new Segment()).append(pointHistory);
+    }
+
+    List<PointHistory> findAllByUserId(long userId) {
+        Segment segment = segments.get(userId);
+        return segment == null ? List.of() : segment.snapshot();
+    }
+
+    List<PointHistory> findByUserId(long userId, long afterId, long fromMillis, long toMillis, int limit) {
+        Segment segment = segments.get(userId);
+        return segment == null ? List.of() : segment.find(afterId, fromMillis, toMillis, limit);
+    }
+
+    void clear() {
+        segments.clear();
+    }
+
+    private static final class Segment {
+
+        private static final int INITIAL_CAPACITY = 8;
+
+        private volatile PointHistory[] entries = new PointHistory[INITIAL_CAPACITY];
+        private volatile int size = 0;
+
+        void append(PointHistory pointHistory) {
+            PointHistory[] current = entries;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+                entries = current;
+            }
+            current[size] = pointHistory;
+            // size 를 마지막에 기록해, size 를 읽은 reader 는 그 이전에 기록된 배열과 원소를 모두 볼 수 있다.
+            size = size + 1;
+        }
+
+        /**
+         * 호출 시점까지 추가된 내역의 읽기 전용 view 를 복사 없이 반환한다.
+         * 이후 추가되는 내역은 view 의 범위 밖에 기록되므로 view 의 내용은 바뀌지 않는다.
+         */
+        List<PointHistory> snapshot() {
+            int snapshotSize = size;
+            PointHistory[] snapshotEntries = entries;
+            return Collections.unmodifiableList(Arrays.asList(snapshotEntries).subList(0, snapshotSize));
+        }
+
+        /**
+         * afterId 보다 큰 ID 중 [fromMillis, toMillis] 에 해당하는 내역을 최대 limit 개 반환한다.
+         * segment 는 ID 순으로 쌓이므로 시작 위치는 이진 탐색으로 찾고, 필요한 만큼만 순회한다.
+         */
+        List<PointHistory> find(long afterId, long fromMillis, long toMillis, int limit) {
+            int snapshotSize = size;
+            PointHistory[] snapshotEntries = entries;
+
+            List<PointHistory> found = new ArrayList<>(Math.min(limit, snapshotSize));
+            for (int i = firstIndexAfter(snapshotEntries, snapshotSize, afterId); i < snapshotSize && found.size() < limit; i++) {
+                PointHistory pointHistory = snapshotEntries[i];
+                if (pointHistory.updateMillis() >= fromMillis && pointHistory.updateMillis() <= toMillis) {
+                    found.add(pointHistory);
+                }
+            }
+            return found;
+        }
+
+        private static int firstIndexAfter(PointHistory[] snapshotEntries, int snapshotSize, long afterId) {
+            int low = 0;
+            int high = snapshotSize;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (snapshotEntries[mid].id() <= afterId) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
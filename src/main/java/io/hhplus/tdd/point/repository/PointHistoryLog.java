@@ -0,0 +1,67 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.point.domain.PointHistory;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * 전체 포인트 내역을 ID 순으로 보관하는 append-only 로그
+ * - 고정 크기 chunk 를 이어 붙이므로, 내역이 늘어나도 기존 원소를 복사하지 않는다.
+ * - 추가는 PointHistoryRepository 가 직렬화해서 호출하고(단일 writer), 순회는 락 없이 동시에 수행된다.
+ * - clear 는 chunk 와 size 를 함께 담은 Chunks 를 통째로 교체하므로, reader 는 교체 전후 어느 한쪽의 chunk 와 size 만 본다.
+ */
+class PointHistoryLog {
+
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private volatile Chunks current = new Chunks();
+
+    void add(PointHistory pointHistory) {
+        current.add(pointHistory);
+    }
+
+    int size() {
+        return current.size;
+    }
+
+    /**
+     * 호출 시점까지 추가된 내역을 ID 순으로 순회하는 lazy stream, 순회 중 추가되는 내역은 포함하지 않는다.
+     */
+    Stream<PointHistory> stream() {
+        Chunks snapshot = current;
+        int snapshotSize = snapshot.size;
+        PointHistory[][] snapshotChunks = snapshot.chunks;
+        return IntStream.range(0, snapshotSize)
+                .mapToObj(position -> snapshotChunks[position >>> CHUNK_SHIFT][position & CHUNK_MASK]);
+    }
+
+    void clear() {
+        current = new Chunks();
+    }
+
+    private static final class Chunks {
+
+        private volatile PointHistory[][] chunks = new PointHistory[16][];
+        private volatile int size = 0;
+
+        void add(PointHistory pointHistory) {
+            int position = size;
+            int chunkIndex = position >>> CHUNK_SHIFT;
+            PointHistory[][] current = chunks;
+            if (chunkIndex == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+                chunks = current;
+            }
+            if (current[chunkIndex] == null) {
+                current[chunkIndex] = new PointHistory[CHUNK_SIZE];
+            }
+            current[chunkIndex][position & CHUNK_MASK] = pointHistory;
+            // size 를 마지막에 기록해, size 를 읽은 reader 는 그 이전에 기록된 chunk 와 원소를 모두 볼 수 있다.
+            size = position + 1;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package io.hhplus.tdd.point.repository;
+
+/**
+ * 내역은 추가(조회/테이블 반영 대상에 포함)되었지만, 디스크 반영(fsync)을 확인하지 못한 경우
+ * - 내역은 이미 listener 에 전달되었으므로, 요청은 반영된 것으로 본다. 호출자는 추가된 내역에 맞춰 잔액을 갱신한 뒤 이 예외로 실패시킨다.
+ * - 반영된 요청이므로 같은 Idempotency-Key 의 재시도는 다시 실행하지 않고 같은 예외로 실패한다. (IdempotencyCache)
+ */
+public class PointHistoryNotDurableException extends RuntimeException {
+
+    public PointHistoryNotDurableException(RuntimeException cause) {
+        super("포인트 내역의 디스크 반영을 확인하지 못했습니다.", cause);
+    }
+}
@@ -0,0 +1,499 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.database.ConcurrentPointHistoryTable;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.domain.TransactionType;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.metrics.PointMetrics.TableOperation;
+import io.hhplus.tdd.point.repository.wal.WriteAheadLog;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * PointHistoryTable 앞단의 group commit 파이프라인
+ * - 내역은 ID 를 발급받아 queue 에 들어가는 즉시 반환되고, writer 가 batch 단위로 테이블에 반영한다.
+ * - queue 의 자리는 appendLock 을 잡기 전에 partition 별 semaphore 로 먼저 확보한다.
+ *   따라서 한 partition 의 queue 가 가득 차도 그 partition 에 추가하는 요청만 기다리고, 다른 partition 의 추가는 막히지 않는다.
+ * - 테이블 반영에 실패한 내역은 반영된 것으로 세지 않고, 간격을 늘려 가며 같은 내역부터 다시 반영한다. (실패 횟수는 지표로 남긴다)
+ * - ID 발급과 queue 적재를 함께 직렬화하므로 queue 순서가 곧 ID 순서이고, writer 는 자기 queue 의 순서대로 반영한다.
+ *   writer 가 하나이면 테이블이 발급하는 ID 와 이 저장소가 발급한 ID 가 일치한다.
+ * - writer 가 둘 이상이면 유저 ID 로 queue 를 나누고 writer 마다 queue 하나를 반영한다. (동시 추가를 지원하는 ConcurrentPointHistoryTable 필요)
+ *   같은 유저의 내역은 같은 writer 가 순서대로 반영하므로 유저별 순서는 유지되지만, 테이블 ID 는 이 저장소의 ID 와 다를 수 있다.
+ * - 조회는 테이블 대신 메모리 내역 저장소(heap / off-heap)에서 처리하며, 아직 반영되지 않은 내역도 조회 결과에 포함된다.
+ * - 내역은 queue 에 적재하기 전에 write-ahead log 에 기록하고, fsync 정책에 따라 디스크에 반영된 뒤 반환한다.
+ */
+@Repository
+public class PointHistoryRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(PointHistoryRepository.class);
+    private static final long POLL_TIMEOUT_MILLIS = 100L;
+    private static final long MIN_RETRY_BACKOFF_MILLIS = 10L;
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 1_000L;
+
+    private final PointHistoryTable pointHistoryTable;
+    private final PointMetrics metrics;
+    private final WriteAheadLog writeAheadLog;
+    private final PointHistoryStore store;
+    private final Partition[] partitions;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+
+    private final Lock appendLock = new ReentrantLock();
+    private final ExecutorService writers;
+    private final List<Consumer<List<PointHistory>>> listeners = new CopyOnWriteArrayList<>();
+
+    private long sequence = 1;
+    private volatile long generation = 0;
+    private volatile boolean running = true;
+
+    public PointHistoryRepository(PointHistoryTable pointHistoryTable, PointHistoryRepositoryProperties properties, PointMetrics metrics, WriteAheadLog writeAheadLog) {
+        this.pointHistoryTable = pointHistoryTable;
+        this.metrics = metrics;
+        this.writeAheadLog = writeAheadLog;
+        this.batchSize = properties.batchSize();
+        this.flushIntervalNanos = properties.flushInterval().toNanos();
+        this.store = switch (properties.store()) {
+            case HEAP -> new HeapPointHistoryStore();
+            case OFF_HEAP -> new OffHeapPointHistoryStore();
+        };
+
+        int writerCount = properties.writers();
+        if (writerCount > 1 && properties.table() != PointHistoryRepositoryProperties.Table.CONCURRENT) {
+            throw new IllegalArgumentException("writer 가 둘 이상이면 동시 추가를 지원하는 테이블(point.history.table=concurrent)이 필요합니다. writers=" + writerCount);
+        }
+        if (properties.table() == PointHistoryRepositoryProperties.Table.CONCURRENT && !(pointHistoryTable instanceof ConcurrentPointHistoryTable)) {
+            throw new IllegalArgumentException("point.history.table=concurrent 이지만 전달받은 테이블이 ConcurrentPointHistoryTable 이 아닙니다. table=" + pointHistoryTable.getClass().getSimpleName());
+        }
+        // queue 용량은 writer 끼리 나눠 가진다.
+        this.queueCapacity = Math.max(1, properties.queueCapacity() / writerCount);
+        this.partitions = new Partition[writerCount];
+        for (int i = 0; i < writerCount; i++) {
+            partitions[i] = new Partition(i, queueCapacity);
+        }
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("point-history-writer-");
+        threadFactory.setDaemon(true);
+        this.writers = Executors.newFixedThreadPool(writerCount, threadFactory);
+        for (Partition partition : partitions) {
+            this.writers.execute(() -> drain(partition));
+        }
+    }
+
+    /**
+     * 내역이 write-ahead log 에 기록되고 queue 에 적재되면 반환한다. queue 가 가득 찬 경우 appendLock 밖에서 자리가 날 때까지 대기한다.
+     * 같은 유저의 내역은 호출 순서대로 반영되어야 하므로, 호출자는 같은 유저에 대한 추가를 직렬화해야 한다.
+     */
+    public PointHistory append(long userId, long amount, TransactionType type, long updateMillis) {
+        PointHistory pointHistory = new PointHistory(0, userId, amount, type, updateMillis);
+        return appendAll(List.of(pointHistory)).get(0);
+    }
+
+    /**
+     * 내역 여러 건을 연속된 ID 로 추가하고, 마지막 내역이 디스크에 반영될 때까지 한 번만 기다린다.
+     * 전달받은 내역의 ID 는 사용하지 않고 새로 발급한다.
+     * WAL 기록에 실패하면 어떤 내역도 추가하지 않고 예외를 던지며, 추가한 뒤 디스크 반영을 확인하지 못하면 PointHistoryNotDurableException 을 던진다.
+     */
+    public List<PointHistory> appendAll(List<PointHistory> pointHistories) {
+        Partition[] targets = new Partition[pointHistories.size()];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = partitionOf(pointHistories.get(i).userId());
+        }
+        int[] reserved = reserve(targets);
+
+        List<PointHistory> appended = new ArrayList<>(pointHistories.size());
+        long walPosition;
+        appendLock.lock();
+        try {
+            for (int i = 0; i < targets.length; i++) {
+                PointHistory draft = pointHistories.get(i);
+                appended.add(new PointHistory(sequence + i, draft.userId(), draft.amount(), draft.type(), draft.updateMillis()));
+            }
+            // WAL 에는 모두 기록되거나 아무것도 기록되지 않으므로, 기록에 실패하면 어떤 내역도 발급/공개하지 않는다.
+            walPosition = writeAheadLog.appendAll(appended);
+            // WAL 에 기록된 ID 는 다시 발급하지 않는다. (queue 의 자리는 미리 확보했으므로 이후 단계는 대기하거나 실패하지 않는다)
+            sequence += appended.size();
+            for (int i = 0; i < targets.length; i++) {
+                PointHistory pointHistory = appended.get(i);
+                Partition partition = targets[i];
+                // queue 용량보다 많은 내역을 한 번에 추가한 경우, 자리를 확보한 내역만 writer 가 꺼낼 때 자리를 돌려준다.
+                boolean reservedSlot = reserved[partition.index] > 0;
+                if (reservedSlot) {
+                    reserved[partition.index]--;
+                }
+                partition.queue.add(new Pending(pointHistory, generation, reservedSlot));
+                partition.appendedCount++;
+                store.add(pointHistory);
+            }
+        } finally {
+            appendLock.unlock();
+            // 사용하지 못한 자리는 돌려준다.
+            for (Partition partition : partitions) {
+                if (reserved[partition.index] > 0) {
+                    partition.slots.release(reserved[partition.index]);
+                }
+            }
+        }
+        // fsync 는 appendLock 밖에서 기다리므로, 그동안 다른 요청의 기록이 이어지고 한 번의 fsync 로 함께 반영된다.
+        try {
+            writeAheadLog.awaitDurable(walPosition);
+        } catch (RuntimeException e) {
+            // 내역은 이미 조회/반영 대상이므로 listener 에도 전달하고, 호출자가 잔액을 맞출 수 있도록 구분된 예외로 알린다.
+            notifyListeners(appended);
+            throw new PointHistoryNotDurableException(e);
+        }
+        notifyListeners(appended);
+        return appended;
+    }
+
+    /**
+     * 내역이 들어갈 partition 별로 queue 의 자리를 확보하고, partition 별 확보한 자리 수를 반환한다.
+     * 교착을 피하기 위해 partition 순서대로 확보하며, 한 번에 확보하는 자리는 queue 용량을 넘지 않는다.
+     */
+    private int[] reserve(Partition[] targets) {
+        int[] counts = new int[partitions.length];
+        for (Partition target : targets) {
+            counts[target.index]++;
+        }
+        int[] reserved = new int[partitions.length];
+        try {
+            for (Partition partition : partitions) {
+                int count = Math.min(counts[partition.index], queueCapacity);
+                if (count > 0) {
+                    partition.slots.acquire(count);
+                    reserved[partition.index] = count;
+                }
+            }
+        } catch (InterruptedException e) {
+            for (Partition partition : partitions) {
+                partition.slots.release(reserved[partition.index]);
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("포인트 내역 저장이 중단되었습니다.", e);
+        }
+        return reserved;
+    }
+
+    /**
+     * 추가한 내역이 기록(fsync)된 뒤 호출할 listener 를 등록한다.
+     * listener 는 내역을 추가한 스레드에서 호출되므로, 충전/이용이 기다리지 않도록 대기 없이 반환해야 한다.
+     */
+    public void addListener(Consumer<List<PointHistory>> listener) {
+        listeners.add(listener);
+    }
+
+    public List<PointHistory> findAllByUserId(long userId) {
+        return store.findAllByUserId(userId);
+    }
+
+    /**
+     * 유저의 내역 중 afterId 이후, [fromMillis, toMillis] 구간에 해당하는 내역을 ID 순으로 최대 limit 개 조회한다.
+     */
+    public List<PointHistory> findByUserId(long userId, long afterId, long fromMillis, long toMillis, int limit) {
+        return store.findByUserId(userId, afterId, fromMillis, toMillis, limit);
+    }
+
+    /**
+     * 전체 내역을 ID 순으로 순회하는 lazy stream, 호출 시점까지 추가된 내역만 포함한다.
+     */
+    public Stream<PointHistory> streamAll() {
+        return store.stream();
+    }
+
+    public Stream<PointHistory> streamByUserId(long userId) {
+        return store.findAllByUserId(userId).stream();
+    }
+
+    /**
+     * 테이블에 저장된 내역으로 인덱스를 다시 만든다. (기동 시 복구용, 내역을 추가하기 전에만 호출할 수 있다)
+     * PointHistoryTable 은 전체 조회 API 를 제공하지 않으므로 대상 유저 ID 를 전달받는다.
+     */
+    public void rebuildIndex(Collection<Long> userIds) {
+        appendLock.lock();
+        try {
+            if (store.size() > 0) {
+                throw new IllegalStateException("내역이 추가된 이후에는 인덱스를 다시 만들 수 없습니다.");
+            }
+            List<PointHistory> persisted = new ArrayList<>();
+            for (long userId : userIds) {
+                long startNanos = System.nanoTime();
+                persisted.addAll(pointHistoryTable.selectAllByUserId(userId));
+                metrics.recordTable(TableOperation.POINT_HISTORY_SELECT, startNanos);
+            }
+            persisted.sort(Comparator.comparingLong(PointHistory::id));
+            for (PointHistory pointHistory : persisted) {
+                store.add(pointHistory);
+                sequence = pointHistory.id() + 1;
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * write-ahead log 에서 읽은 내역을 인덱스에 복구한다. (기동 시 복구용, ID 순으로 호출해야 한다)
+     * 복구한 내역은 테이블에 다시 반영하지 않으므로, 이후 테이블이 발급하는 ID 는 이 저장소의 ID 와 일치하지 않는다.
+     */
+    public void restore(PointHistory pointHistory) {
+        appendLock.lock();
+        try {
+            if (pointHistory.id() < sequence) {
+                throw new IllegalStateException("이미 발급된 ID 의 내역은 복구할 수 없습니다. id=" + pointHistory.id());
+            }
+            store.add(pointHistory);
+            sequence = pointHistory.id() + 1;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * snapshot 에 반영된 마지막 내역 ID 이후부터 ID 를 발급한다. (기동 시 복구용)
+     * snapshot 으로 압축된 내역은 인덱스에 복구되지 않으므로 조회 결과에 포함되지 않는다.
+     */
+    public void restoreSequence(long lastHistoryId) {
+        appendLock.lock();
+        try {
+            sequence = Math.max(sequence, lastHistoryId + 1);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * 호출 시점까지 추가된 내역이 모두 테이블에 반영될 때까지 대기한다. 그 사이 clear 되면 기다리지 않는다.
+     */
+    public void flush() {
+        long flushGeneration = generation;
+        long[] targets = new long[partitions.length];
+        for (int i = 0; i < partitions.length; i++) {
+            targets[i] = partitions[i].appendedCount;
+        }
+        for (int i = 0; i < partitions.length; i++) {
+            Partition partition = partitions[i];
+            partition.commitLock.lock();
+            try {
+                while (partition.committedCount < targets[i] && generation == flushGeneration) {
+                    partition.committed.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                partition.commitLock.unlock();
+            }
+        }
+    }
+
+    public long pendingCount() {
+        long pending = 0;
+        for (Partition partition : partitions) {
+            pending += partition.appendedCount - partition.committedCount;
+        }
+        return pending;
+    }
+
+    public void clear() {
+        appendLock.lock();
+        for (Partition partition : partitions) {
+            partition.commitLock.lock();
+        }
+        try {
+            store.clear();
+            pointHistoryTable.clear();
+            writeAheadLog.clear();
+            generation++;
+            sequence = 1;
+            for (Partition partition : partitions) {
+                List<Pending> dropped = new ArrayList<>();
+                partition.queue.drainTo(dropped);
+                partition.release(dropped);
+                partition.appendedCount = 0;
+                partition.committedCount = 0;
+                partition.committed.signalAll();
+            }
+        } finally {
+            for (int i = partitions.length - 1; i >= 0; i--) {
+                partitions[i].commitLock.unlock();
+            }
+            appendLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        running = false;
+        writers.shutdown();
+        try {
+            if (!writers.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.warn("반영되지 않은 포인트 내역 {}건이 남아 있습니다.", pendingCount());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void notifyListeners(List<PointHistory> appended) {
+        for (Consumer<List<PointHistory>> listener : listeners) {
+            try {
+                listener.accept(appended);
+            } catch (RuntimeException e) {
+                log.error("포인트 내역 listener 호출에 실패했습니다.", e);
+            }
+        }
+    }
+
+    private Partition partitionOf(long userId) {
+        if (partitions.length == 1) {
+            return partitions[0];
+        }
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        return partitions[(int) Long.remainderUnsigned(hash ^ (hash >>> 32), partitions.length)];
+    }
+
+    private void drain(Partition partition) {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !partition.queue.isEmpty()) {
+            try {
+                Pending first = partition.queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(partition.queue, batch);
+                partition.release(batch);
+                if (!commit(partition, batch)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void collect(BlockingQueue<Pending> queue, List<Pending> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * batch 를 순서대로 반영한다. 반영에 실패하면 commitLock 을 놓고 기다린 뒤 실패한 내역부터 다시 반영하며,
+     * 종료 중이라 재시도를 멈춘 경우 false 를 반환한다.
+     */
+    private boolean commit(Partition partition, List<Pending> batch) throws InterruptedException {
+        int next = 0;
+        long backoffMillis = MIN_RETRY_BACKOFF_MILLIS;
+        while (next < batch.size()) {
+            partition.commitLock.lock();
+            try {
+                next = commitFrom(partition, batch, next);
+                partition.committed.signalAll();
+            } finally {
+                partition.commitLock.unlock();
+            }
+            if (next < batch.size()) {
+                if (!running) {
+                    return false;
+                }
+                TimeUnit.MILLISECONDS.sleep(backoffMillis);
+                backoffMillis = Math.min(backoffMillis * 2, MAX_RETRY_BACKOFF_MILLIS);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * commitLock 을 보유한 상태에서 호출한다. start 부터 반영하고, 반영에 실패한 내역의 위치(모두 반영했다면 batch 크기)를 반환한다.
+     */
+    private int commitFrom(Partition partition, List<Pending> batch, int start) {
+        for (int i = start; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            // clear() 이전에 추가된 내역은 반영하지 않는다.
+            if (pending.generation() != generation) {
+                continue;
+            }
+            PointHistory pointHistory = pending.pointHistory();
+            try {
+                long startNanos = System.nanoTime();
+                pointHistoryTable.insert(pointHistory.userId(), pointHistory.amount(), pointHistory.type(), pointHistory.updateMillis());
+                metrics.recordTable(TableOperation.POINT_HISTORY_INSERT, startNanos);
+            } catch (RuntimeException e) {
+                metrics.recordHistoryCommitFailure();
+                log.error("포인트 내역 반영에 실패해 다시 시도합니다. id={}", pointHistory.id(), e);
+                return i;
+            }
+            partition.committedCount++;
+        }
+        return batch.size();
+    }
+
+    /**
+     * writer 하나가 반영하는 queue, appendedCount 는 appendLock 안에서, committedCount 는 commitLock 안에서만 변경한다.
+     * queue 자체는 크기 제한이 없고, 대기 중인 내역 수는 slots 로 제한한다. (자리는 writer 가 queue 에서 꺼낼 때 돌려준다)
+     */
+    private static final class Partition {
+
+        private final int index;
+        private final Semaphore slots;
+        private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+        private final Lock commitLock = new ReentrantLock();
+        private final Condition committed = commitLock.newCondition();
+        private volatile long appendedCount = 0;
+        private volatile long committedCount = 0;
+
+        private Partition(int index, int queueCapacity) {
+            this.index = index;
+            this.slots = new Semaphore(queueCapacity);
+        }
+
+        void release(List<Pending> removed) {
+            int count = 0;
+            for (Pending pending : removed) {
+                if (pending.reservedSlot()) {
+                    count++;
+                }
+            }
+            if (count > 0) {
+                slots.release(count);
+            }
+        }
+    }
+
+    private record Pending(PointHistory pointHistory, long generation, boolean reservedSlot) {
+    }
+}
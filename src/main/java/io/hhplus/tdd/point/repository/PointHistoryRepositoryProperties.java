@@ -0,0 +1,64 @@
+package io.hhplus.tdd.point.repository;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 포인트 내역 group commit 설정
+ * - queueCapacity : 테이블 반영을 기다리는 내역의 최대 개수 (writer 별로 나눈다), 가득 차면 같은 writer 가 맡은 유저의 내역 추가만 대기한다.
+ * - batchSize : 한 번에 모아서 반영하는 최대 내역 수
+ * - flushInterval : 첫 내역을 꺼낸 뒤 batchSize 만큼 모일 때까지 기다리는 최대 시간
+ * - store : 조회용 메모리 내역 저장소, heap (PointHistory 객체로 보관) / off-heap (direct buffer 의 고정 길이 slot 으로 보관)
+ * - table : 내역 테이블, legacy (PointHistoryTable) / concurrent (여러 스레드가 동시에 추가할 수 있는 ConcurrentPointHistoryTable)
+ * - writers : 테이블에 반영하는 writer 수, 유저 ID 로 queue 를 나눈다. 2 이상이면 table 이 concurrent 여야 한다.
+ */
+@ConfigurationProperties(prefix = "point.history")
+public record PointHistoryRepositoryProperties(
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("100") int batchSize,
+        @DefaultValue("10ms") Duration flushInterval,
+        @DefaultValue("heap") Store store,
+        @DefaultValue("legacy") Table table,
+        @DefaultValue("1") int writers
+) {
+    /**
+     * @DefaultValue 와 같은 기본 설정, 테스트나 벤치마크에서는 필요한 값만 with 로 바꿔 사용한다.
+     */
+    public static PointHistoryRepositoryProperties defaults() {
+        return new PointHistoryRepositoryProperties(10_000, 100, Duration.ofMillis(10), Store.HEAP, Table.LEGACY, 1);
+    }
+
+    public PointHistoryRepositoryProperties withQueueCapacity(int queueCapacity) {
+        return new PointHistoryRepositoryProperties(queueCapacity, batchSize, flushInterval, store, table, writers);
+    }
+
+    public PointHistoryRepositoryProperties withBatchSize(int batchSize) {
+        return new PointHistoryRepositoryProperties(queueCapacity, batchSize, flushInterval, store, table, writers);
+    }
+
+    public PointHistoryRepositoryProperties withFlushInterval(Duration flushInterval) {
+        return new PointHistoryRepositoryProperties(queueCapacity, batchSize, flushInterval, store, table, writers);
+    }
+
+    public PointHistoryRepositoryProperties withStore(Store store) {
+        return new PointHistoryRepositoryProperties(queueCapacity, batchSize, flushInterval, store, table, writers);
+    }
+
+    public PointHistoryRepositoryProperties withTable(Table table) {
+        return new PointHistoryRepositoryProperties(queueCapacity, batchSize, flushInterval, store, table, writers);
+    }
+
+    public PointHistoryRepositoryProperties withWriters(int writers) {
+        return new PointHistoryRepositoryProperties(queueCapacity, batchSize, flushInterval, store, table, writers);
+    }
+
+    public enum Store {
+        HEAP, OFF_HEAP
+    }
+
+    public enum Table {
+        LEGACY, CONCURRENT
+    }
+}
@@ -0,0 +1,31 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.point.domain.PointHistory;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * PointHistoryRepository 가 조회에 사용하는 메모리 내역 저장소 (point.history.store)
+ * - 추가는 PointHistoryRepository 가 ID 순으로 직렬화해서 호출하고(단일 writer), 조회는 락 없이 동시에 수행된다.
+ */
+interface PointHistoryStore {
+
+    void add(PointHistory pointHistory);
+
+    List<PointHistory> findAllByUserId(long userId);
+
+    /**
+     * 유저의 내역 중 afterId 이후, [fromMillis, toMillis] 구간에 해당하는 내역을 ID 순으로 최대 limit 개 반환한다.
+     */
+    List<PointHistory> findByUserId(long userId, long afterId, long fromMillis, long toMillis, int limit);
+
+    /**
+     * 호출 시점까지 추가된 전체 내역을 ID 순으로 순회하는 lazy stream
+     */
+    Stream<PointHistory> stream();
+
+    int size();
+
+    void clear();
+}
@@ -0,0 +1,22 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.database.ConcurrentPointHistoryTable;
+import io.hhplus.tdd.database.PointHistoryTable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class PointHistoryTableConfig {
+
+    /**
+     * point.history.table=concurrent 이면 PointHistoryTable 대신 사용한다.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "point.history", name = "table", havingValue = "concurrent")
+    public PointHistoryTable concurrentPointHistoryTable() {
+        return new ConcurrentPointHistoryTable();
+    }
+}
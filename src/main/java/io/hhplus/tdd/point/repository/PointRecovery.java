@@ -0,0 +1,86 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.domain.TransactionType;
+import io.hhplus.tdd.point.domain.UserPoint;
+import io.hhplus.tdd.point.repository.wal.WriteAheadLog;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 기동 시 write-ahead log 로 포인트 상태를 복구한다.
+ * - 잔액은 최신 snapshot 의 잔액에 snapshot 이후 내역(tail)의 증감을 유저별로 합산해 복구한다.
+ * - tail 의 내역은 기록 순서(ID 순)대로 인덱스에 복구하고, snapshot 으로 압축된 내역은 복구하지 않는다.
+ * - tail 의 증감을 먼저 모아 두므로, snapshot 은 한 번만 순차로 읽으면서 바로 합산할 수 있다.
+ * - 유저별 누적 통계는 snapshot 에 저장된 통계에 tail 의 내역을 합쳐 복구한다.
+ * - 시간 구간별 집계는 복구한 내역으로 다시 만든다. snapshot 으로 압축된 내역은 집계할 수 없으므로,
+ *   압축된 내역이 있으면 복구한 첫 내역(없으면 복구 시각) 이전이 포함된 구간은 불완전한 것으로 조회된다.
+ * - 요청을 받기 전(빈 초기화 단계)에 수행된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class PointRecovery {
+
+    private static final Logger log = LoggerFactory.getLogger(PointRecovery.class);
+
+    private final WriteAheadLog writeAheadLog;
+    private final UserPointRepository userPointRepository;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final PointSummaryRepository pointSummaryRepository;
+    private final PointRollupRepository pointRollupRepository;
+
+    @PostConstruct
+    public void recover() {
+        // 유저별 {증감 합계, 마지막 변경 시각}
+        Map<Long, long[]> changes = new HashMap<>();
+        long[] restoredUsers = {0};
+        long[] restoredHistories = {0};
+        long[] firstRestoredMillis = {Long.MIN_VALUE};
+        pointSummaryRepository.clear();
+        long snapshotLastHistoryId = writeAheadLog.recover(
+                pointHistory -> {
+                    pointHistoryRepository.restore(pointHistory);
+                    pointSummaryRepository.restore(pointHistory);
+                    long[] change = changes.computeIfAbsent(pointHistory.userId(), userId -> new long[2]);
+                    change[0] += signedAmount(pointHistory);
+                    change[1] = pointHistory.updateMillis();
+                    if (restoredHistories[0]++ == 0) {
+                        firstRestoredMillis[0] = pointHistory.updateMillis();
+                    }
+                },
+                (userPoint, summary) -> {
+                    pointSummaryRepository.restore(summary);
+                    long[] change = changes.remove(userPoint.id());
+                    userPointRepository.restore(change == null ? userPoint : new UserPoint(userPoint.id(), userPoint.point() + change[0], change[1]));
+                    restoredUsers[0]++;
+                });
+        changes.forEach((userId, change) -> userPointRepository.restore(new UserPoint(userId, change[0], change[1])));
+        restoredUsers[0] += changes.size();
+        pointHistoryRepository.restoreSequence(snapshotLastHistoryId);
+        pointRollupRepository.rebuild(rollupCompleteFromMillis(snapshotLastHistoryId, restoredHistories[0], firstRestoredMillis[0]));
+
+        if (restoredUsers[0] > 0) {
+            log.info("포인트 WAL 로 복구했습니다. snapshot 이후 내역 {}건, 유저 {}명", restoredHistories[0], restoredUsers[0]);
+        }
+    }
+
+    /**
+     * 압축된 내역은 ID 가 앞서므로 복구한 첫 내역의 시각까지만 존재한다. 같은 시각의 압축된 내역이 있을 수 있어 그 다음 시각부터 완전하다.
+     */
+    private static long rollupCompleteFromMillis(long snapshotLastHistoryId, long restoredHistories, long firstRestoredMillis) {
+        if (snapshotLastHistoryId == 0) {
+            return Long.MIN_VALUE;
+        }
+        return (restoredHistories > 0 ? firstRestoredMillis : System.currentTimeMillis()) + 1;
+    }
+
+    private static long signedAmount(PointHistory pointHistory) {
+        return pointHistory.type() == TransactionType.CHARGE ? pointHistory.amount() : -pointHistory.amount();
+    }
+}
@@ -0,0 +1,18 @@
+package io.hhplus.tdd.point.repository;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 시간 구간별 충전/이용 집계 설정, 단위마다 최근 몇 개의 구간을 보관할지 지정한다.
+ * - minuteBuckets : 분 단위 구간 수 (기본 1440, 하루)
+ * - hourBuckets : 시간 단위 구간 수 (기본 720, 30일)
+ * - dayBuckets : 일 단위 구간 수 (기본 366, 1년)
+ */
+@ConfigurationProperties(prefix = "point.rollup")
+public record PointRollupProperties(
+        @DefaultValue("1440") int minuteBuckets,
+        @DefaultValue("720") int hourBuckets,
+        @DefaultValue("366") int dayBuckets
+) {
+}
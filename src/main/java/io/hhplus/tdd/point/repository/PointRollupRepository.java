@@ -0,0 +1,247 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.domain.PointRollup;
+import io.hhplus.tdd.point.domain.PointRollup.Resolution;
+import io.hhplus.tdd.point.domain.TransactionType;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 전체 유저의 충전/이용 포인트를 분/시간/일 구간별로 집계해 두는 저장소
+ * - 내역이 기록된 뒤 PointHistoryRepository 의 listener 로 내역 시각(updateMillis)의 구간에 더한다.
+ * - 단위마다 최근 N 개의 구간만 고정 크기 ring buffer 에 보관하며, 새 구간이 시작되면 가장 오래된 구간을 덮어쓴다.
+ *   보관 기간이 지난 시각의 내역은 해당 단위에 집계하지 않는다.
+ * - 구간은 UTC 기준으로 나눈다.
+ * - 임의 구간의 합계는 구간을 가장 큰 단위의 구간부터 채워 나눠 더하므로, 내역 수와 무관하게 구간 수만큼만 읽는다.
+ *   (양 끝의 분/시간 최대 59 + 23 개씩과 일 단위 구간)
+ * - 읽는 범위는 보관 중인 일 단위 구간부터 가장 최근 내역의 일까지로 줄이므로, 조회 구간이 길어도 읽는 구간 수는 보관하는 구간 수를 넘지 않는다.
+ *   보관 기간보다 오래된 부분이 포함되면 complete 를 false 로 반환한다.
+ * - 재기동 시에는 WAL 로 복구한 내역으로만 다시 만들며, snapshot 으로 압축된 내역은 집계에 남지 않는다.
+ *   복구한 첫 내역 이전이 포함된 구간은 complete 를 false 로 반환한다. (completeFromMillis)
+ * - 락 없이 갱신한다. 구간의 합계와 건수는 LongAdder 로 더하고, 새 구간이 시작되면 slot 의 구간을 CAS 로 교체한다.
+ *   따라서 내역 추가끼리, 조회와 내역 추가가 서로를 기다리지 않으며, 조회 결과에는 진행 중인 추가가 일부만 반영될 수 있다.
+ */
+@Repository
+public class PointRollupRepository {
+
+    private final PointHistoryRepository pointHistoryRepository;
+    private final Map<Resolution, Ring> rings = new EnumMap<>(Resolution.class);
+    // 이 시각부터의 내역은 모두 집계되어 있다.
+    private volatile long completeFromMillis = Long.MIN_VALUE;
+
+    public PointRollupRepository(PointHistoryRepository pointHistoryRepository, PointRollupProperties properties) {
+        this.pointHistoryRepository = pointHistoryRepository;
+        rings.put(Resolution.MINUTE, new Ring(Resolution.MINUTE, properties.minuteBuckets()));
+        rings.put(Resolution.HOUR, new Ring(Resolution.HOUR, properties.hourBuckets()));
+        rings.put(Resolution.DAY, new Ring(Resolution.DAY, properties.dayBuckets()));
+        pointHistoryRepository.addListener(this::addAll);
+    }
+
+    /**
+     * [fromMillis, toMillis) 구간의 합계, 양 끝은 분 단위로 맞춘다. (시작은 내림, 끝은 올림)
+     */
+    public PointRollup sum(long fromMillis, long toMillis) {
+        long from = Math.floorDiv(fromMillis, Resolution.MINUTE.millis()) * Resolution.MINUTE.millis();
+        long to = -Math.floorDiv(-toMillis, Resolution.MINUTE.millis()) * Resolution.MINUTE.millis();
+        long[] totals = new long[4];
+
+        // 보관 중인 일 단위 구간보다 오래된 부분은 어느 단위에도 남아 있지 않고, 가장 최근 내역의 일 이후는 비어 있으므로 읽지 않는다.
+        // 두 경계 모두 일 단위로 맞춰져 있으므로, 범위 안에서 나누는 단위는 줄이지 않은 구간과 같다.
+        Ring days = rings.get(Resolution.DAY);
+        long start = Math.max(from, days.retainedFromMillis());
+        long end = Math.min(to, days.latestToMillis());
+        boolean complete = start == from && from >= completeFromMillis;
+        while (start < end) {
+            Resolution resolution = largestFitting(start, end);
+            complete &= rings.get(resolution).addTo(Math.floorDiv(start, resolution.millis()), totals);
+            start += resolution.millis();
+        }
+        return new PointRollup(from, to, totals[0], totals[1], totals[2], totals[3], complete);
+    }
+
+    /**
+     * [fromMillis, toMillis) 구간에 걸친 resolution 단위 구간별 합계를 시간 순으로 반환한다.
+     */
+    public List<PointRollup> series(Resolution resolution, long fromMillis, long toMillis) {
+        Ring ring = rings.get(resolution);
+        long firstEpoch = Math.floorDiv(fromMillis, resolution.millis());
+        long lastEpoch = Math.floorDiv(toMillis - 1, resolution.millis());
+        List<PointRollup> series = new ArrayList<>();
+        for (long epoch = firstEpoch; epoch <= lastEpoch; epoch++) {
+            long[] totals = new long[4];
+            boolean complete = ring.addTo(epoch, totals) && epoch * resolution.millis() >= completeFromMillis;
+            series.add(new PointRollup(epoch * resolution.millis(), (epoch + 1) * resolution.millis(), totals[0], totals[1], totals[2], totals[3], complete));
+        }
+        return series;
+    }
+
+    /**
+     * resolution 단위로 보관하는 구간 수
+     */
+    public int capacity(Resolution resolution) {
+        return rings.get(resolution).size;
+    }
+
+    /**
+     * 메모리의 전체 내역으로 집계를 다시 만든다. 요청을 받기 전(기동 시)에 호출한다.
+     */
+    public void rebuild() {
+        rebuild(Long.MIN_VALUE);
+    }
+
+    /**
+     * 메모리의 전체 내역으로 집계를 다시 만들고, completeFromMillis 이전이 포함된 구간은 불완전한 것으로 반환한다.
+     * 메모리에 없는(압축된) 내역이 있을 때 그 내역들 이후의 시각을 넘긴다. (기동 시 복구용)
+     */
+    public void rebuild(long completeFromMillis) {
+        clear();
+        this.completeFromMillis = completeFromMillis;
+        pointHistoryRepository.streamAll().forEach(this::add);
+    }
+
+    public void clear() {
+        completeFromMillis = Long.MIN_VALUE;
+        rings.values().forEach(Ring::clear);
+    }
+
+    private void addAll(List<PointHistory> pointHistories) {
+        pointHistories.forEach(this::add);
+    }
+
+    private void add(PointHistory pointHistory) {
+        for (Ring ring : rings.values()) {
+            ring.add(pointHistory);
+        }
+    }
+
+    private static Resolution largestFitting(long start, long to) {
+        Resolution[] resolutions = Resolution.values();
+        for (int i = resolutions.length - 1; i > 0; i--) {
+            long millis = resolutions[i].millis();
+            if (Math.floorMod(start, millis) == 0 && to - start >= millis) {
+                return resolutions[i];
+            }
+        }
+        return Resolution.MINUTE;
+    }
+
+    /**
+     * 한 단위의 최근 size 개 구간, 구간 번호(epoch)를 size 로 나눈 나머지 위치에 보관한다.
+     */
+    private static final class Ring {
+
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private final Resolution resolution;
+        private final int size;
+        private final AtomicReferenceArray<Bucket> buckets;
+        private final AtomicLong latestEpoch = new AtomicLong(EMPTY);
+
+        private Ring(Resolution resolution, int size) {
+            if (size <= 0) {
+                throw new IllegalArgumentException("보관할 구간 수는 1 이상이어야 합니다. resolution=" + resolution + ", size=" + size);
+            }
+            this.resolution = resolution;
+            this.size = size;
+            this.buckets = new AtomicReferenceArray<>(size);
+        }
+
+        void add(PointHistory pointHistory) {
+            long epoch = Math.floorDiv(pointHistory.updateMillis(), resolution.millis());
+            if (!retained(epoch, latestEpoch.get())) {
+                return;
+            }
+            latestEpoch.accumulateAndGet(epoch, Math::max);
+            int slot = (int) Math.floorMod(epoch, (long) size);
+            Bucket bucket = buckets.get(slot);
+            while (bucket == null || bucket.epoch != epoch) {
+                // 더 최근 구간이 slot 을 차지했다면 이 구간은 보관 기간이 지났다.
+                if (bucket != null && bucket.epoch > epoch) {
+                    return;
+                }
+                Bucket created = new Bucket(epoch);
+                if (buckets.compareAndSet(slot, bucket, created)) {
+                    bucket = created;
+                } else {
+                    bucket = buckets.get(slot);
+                }
+            }
+            bucket.add(pointHistory);
+        }
+
+        /**
+         * 구간의 합계를 totals(충전 합계, 충전 건수, 이용 합계, 이용 건수)에 더하고, 보관 기간이 지난 구간이면 false 를 반환한다.
+         */
+        boolean addTo(long epoch, long[] totals) {
+            if (!retained(epoch, latestEpoch.get())) {
+                return false;
+            }
+            Bucket bucket = buckets.get((int) Math.floorMod(epoch, (long) size));
+            if (bucket != null && bucket.epoch == epoch) {
+                totals[0] += bucket.chargeAmount.sum();
+                totals[1] += bucket.chargeCount.sum();
+                totals[2] += bucket.useAmount.sum();
+                totals[3] += bucket.useCount.sum();
+            }
+            return true;
+        }
+
+        /**
+         * 보관 중인 가장 오래된 구간의 시작 시각, 보관 중인 구간이 없으면 Long.MIN_VALUE
+         */
+        long retainedFromMillis() {
+            long latest = latestEpoch.get();
+            return latest == EMPTY ? Long.MIN_VALUE : (latest - size + 1) * resolution.millis();
+        }
+
+        /**
+         * 가장 최근 구간의 끝 시각, 보관 중인 구간이 없으면 Long.MIN_VALUE
+         */
+        long latestToMillis() {
+            long latest = latestEpoch.get();
+            return latest == EMPTY ? Long.MIN_VALUE : (latest + 1) * resolution.millis();
+        }
+
+        void clear() {
+            latestEpoch.set(EMPTY);
+            for (int slot = 0; slot < size; slot++) {
+                buckets.set(slot, null);
+            }
+        }
+
+        private boolean retained(long epoch, long latest) {
+            return latest == EMPTY || epoch > latest - size;
+        }
+    }
+
+    private static final class Bucket {
+
+        private final long epoch;
+        private final LongAdder chargeAmount = new LongAdder();
+        private final LongAdder chargeCount = new LongAdder();
+        private final LongAdder useAmount = new LongAdder();
+        private final LongAdder useCount = new LongAdder();
+
+        private Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+
+        void add(PointHistory pointHistory) {
+            if (pointHistory.type() == TransactionType.CHARGE) {
+                chargeAmount.add(pointHistory.amount());
+                chargeCount.increment();
+            } else {
+                useAmount.add(pointHistory.amount());
+                useCount.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.domain.PointSummary;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 유저별 누적 통계를 내역이 추가될 때마다 갱신해 두는 저장소
+ * - 내역이 기록된 뒤 PointHistoryRepository 의 listener 로 갱신되므로, 어떤 엔진으로 충전/이용해도 반영된다.
+ * - 유저마다 하나의 값을 compute 로 갱신하므로, 같은 유저의 내역이 동시에 추가되어도 누락되지 않는다.
+ * - 조회는 내역 수와 무관하게 O(1) 이다.
+ * - 기동 시에는 WAL snapshot 에 저장된 통계에 snapshot 이후의 내역을 합쳐 복구하므로, 압축된 내역도 통계에서 빠지지 않는다. (restore)
+ */
+@Repository
+public class PointSummaryRepository {
+
+    private final PointHistoryRepository pointHistoryRepository;
+    private final ConcurrentHashMap<Long, PointSummary> summaries = new ConcurrentHashMap<>();
+
+    public PointSummaryRepository(PointHistoryRepository pointHistoryRepository) {
+        this.pointHistoryRepository = pointHistoryRepository;
+        pointHistoryRepository.addListener(this::applyAll);
+    }
+
+    public PointSummary findByUserId(long userId) {
+        PointSummary summary = summaries.get(userId);
+        return summary != null ? summary : PointSummary.empty(userId);
+    }
+
+    /**
+     * 메모리의 전체 내역으로 통계를 다시 만든다. 요청을 받기 전(기동 시)에 호출한다.
+     */
+    public void rebuild() {
+        summaries.clear();
+        pointHistoryRepository.streamAll().forEach(this::apply);
+    }
+
+    /**
+     * 복구한 내역을 통계에 합친다. (기동 시 복구용)
+     */
+    public void restore(PointHistory pointHistory) {
+        apply(pointHistory);
+    }
+
+    /**
+     * WAL snapshot 에 저장된 통계를 합친다. (기동 시 복구용)
+     */
+    public void restore(PointSummary summary) {
+        summaries.merge(summary.userId(), summary, PointSummary::merge);
+    }
+
+    public int size() {
+        return summaries.size();
+    }
+
+    public void clear() {
+        summaries.clear();
+    }
+
+    private void applyAll(List<PointHistory> pointHistories) {
+        pointHistories.forEach(this::apply);
+    }
+
+    private void apply(PointHistory pointHistory) {
+        summaries.compute(pointHistory.userId(), (userId, summary) ->
+                (summary != null ? summary : PointSummary.empty(userId)).apply(pointHistory));
+    }
+}
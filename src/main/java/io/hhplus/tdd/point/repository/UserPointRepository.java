@@ -0,0 +1,264 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.domain.UserPoint;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.metrics.PointMetrics.TableOperation;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * UserPointTable 앞단의 write-behind 캐시
+ * - 메모리 캐시(UserPointStore)가 유저 포인트의 기준 상태이며, 조회는 캐시에서 처리한다. (캐시에 없는 유저만 테이블에서 읽는다)
+ * - 캐시에 없는 같은 유저를 동시에 조회하면 테이블 조회 한 번을 함께 기다린다. (single-flight)
+ * - 캐시는 유저 ID 와 잔액을 primitive 로 보관하므로, 갱신 경로에서는 반환할 UserPoint 외에 객체를 할당하지 않는다.
+ * - 락 기반 갱신(save)과 CAS 기반 갱신(compareAndSet)을 모두 지원한다.
+ * - 변경된 유저는 캐시에 dirty 로 표시해 두었다가(coalesce) flush 시점의 최신 값을 주기적으로 UserPointTable 에 반영한다.
+ * - 캐시의 segment 를 파티션에 나눠 맡기므로, 같은 유저는 항상 같은 파티션의 단일 flusher 가 반영해 유저별 반영 순서가 보장된다.
+ * - segment 의 dirty 유저 수가 상한(maxDirty / segment 수)에 이르면, 변경한 스레드가 그 segment 를 직접 반영한 뒤 반환한다.
+ *   테이블 반영이 변경 속도를 따라가지 못하면 변경이 반영을 기다리게 되므로, 반영되지 않은 변경이 끝없이 쌓이지 않는다.
+ *   (기동 시 복구(restore)는 요청을 받기 전이므로 제한하지 않는다)
+ */
+@Repository
+public class UserPointRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(UserPointRepository.class);
+
+    private final UserPointTable userPointTable;
+    private final PointMetrics metrics;
+    private final UserPointStore store = new UserPointStore();
+    private final Map<Long, CompletableFuture<Void>> loading = new ConcurrentHashMap<>();
+    private final FlushPartition[] partitions;
+    private final int maxDirtyPerSegment;
+    private final ScheduledExecutorService flusher;
+
+    public UserPointRepository(UserPointTable userPointTable, UserPointRepositoryProperties properties, PointMetrics metrics) {
+        this.userPointTable = userPointTable;
+        this.metrics = metrics;
+        this.partitions = new FlushPartition[Math.min(properties.flushPartitions(), store.segmentCount())];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new FlushPartition(i);
+        }
+        this.maxDirtyPerSegment = Math.max(1, properties.maxDirty() / store.segmentCount());
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("user-point-flusher-");
+        threadFactory.setDaemon(true);
+        this.flusher = Executors.newScheduledThreadPool(partitions.length, threadFactory);
+
+        long intervalMillis = properties.flushInterval().toMillis();
+        for (FlushPartition partition : partitions) {
+            flusher.scheduleWithFixedDelay(partition::flushSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 캐시에 없는 유저는 테이블에서 읽어 캐시에 올린다.
+     * 같은 유저를 동시에 조회하면 먼저 시작한 테이블 조회 하나만 수행하고, 나머지는 그 조회가 끝난 뒤 캐시를 읽는다.
+     * 반환하는 값은 모두 호출 중 어느 시점의 캐시 값이므로, 유저별 락으로 직렬화된 변경과 함께 linearizable 하다.
+     */
+    public UserPoint findById(long userId) {
+        UserPoint cached = store.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        while (true) {
+            CompletableFuture<Void> load = new CompletableFuture<>();
+            CompletableFuture<Void> inFlight = loading.putIfAbsent(userId, load);
+            if (inFlight == null) {
+                try {
+                    return load(userId);
+                } finally {
+                    loading.remove(userId, load);
+                    load.complete(null);
+                }
+            }
+            metrics.recordCoalescedLoad();
+            inFlight.join();
+            // 조회 결과 대신 조회가 끝난 뒤의 캐시 값을 읽으므로, 기다리는 동안 반영된 변경도 볼 수 있다.
+            // 먼저 시작한 조회가 실패했거나 그 사이 캐시가 비워졌다면 직접 다시 조회한다.
+            cached = store.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+    }
+
+    private UserPoint load(long userId) {
+        // 앞선 조회가 방금 끝나 캐시에 올라갔을 수 있다.
+        UserPoint cached = store.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long startNanos = System.nanoTime();
+        UserPoint loaded = userPointTable.selectById(userId);
+        metrics.recordTable(TableOperation.USER_POINT_SELECT, startNanos);
+        // 테이블을 읽는 동안 다른 스레드가 먼저 캐시에 올린 값(변경분 포함)이 있다면 그 값이 최신이다.
+        if (store.putIfAbsent(userId, loaded.point(), loaded.updateMillis())) {
+            return loaded;
+        }
+        return store.get(userId);
+    }
+
+    /**
+     * 캐시에 즉시 반영하고, 테이블에는 다음 flush 시점에 반영한다.
+     * 호출자는 같은 유저에 대한 변경을 직렬화해야 한다. (유저별 락)
+     */
+    public UserPoint save(long userId, long point) {
+        long updateMillis = System.currentTimeMillis();
+        store.put(userId, point, updateMillis);
+        flushIfFull(userId);
+        return new UserPoint(userId, point, updateMillis);
+    }
+
+    /**
+     * snapshot 으로 읽은 유저 포인트를 변경 시각 그대로 캐시에 올리고, 다음 flush 시점에 테이블에 반영한다. (기동 시 복구용)
+     */
+    public void restore(UserPoint userPoint) {
+        store.put(userPoint.id(), userPoint.point(), userPoint.updateMillis());
+    }
+
+    /**
+     * 현재 잔액이 expected 의 잔액인 경우에만 point 로 갱신한다. (락 없이 갱신하는 경우)
+     * 다른 스레드가 먼저 갱신했다면 null 을 반환하며, 호출자는 최신 값을 다시 읽어 재시도한다.
+     */
+    public UserPoint compareAndSet(UserPoint expected, long point) {
+        long updateMillis = System.currentTimeMillis();
+        if (!store.compareAndSet(expected.id(), expected.point(), point, updateMillis)) {
+            return null;
+        }
+        flushIfFull(expected.id());
+        return new UserPoint(expected.id(), point, updateMillis);
+    }
+
+    /**
+     * 아직 테이블에 반영되지 않은 변경분을 호출한 스레드에서 모두 반영한다.
+     */
+    public void flush() {
+        for (FlushPartition partition : partitions) {
+            partition.flush();
+        }
+    }
+
+    /**
+     * 유저가 속한 segment 의 dirty 유저 수가 상한에 이르렀다면 호출한 스레드에서 그 segment 를 반영한다.
+     * 변경은 이미 캐시에 반영되었으므로, 테이블 반영에 실패해도 예외를 던지지 않고 다음 flush 에 맡긴다.
+     */
+    private void flushIfFull(long userId) {
+        int segment = store.segmentIndexOf(userId);
+        if (store.dirtyCount(segment) >= maxDirtyPerSegment) {
+            partitions[segment % partitions.length].flushFullSegment(segment);
+        }
+    }
+
+    public int pendingCount() {
+        return store.dirtyCount();
+    }
+
+    public void clear() {
+        for (FlushPartition partition : partitions) {
+            partition.lock();
+        }
+        try {
+            store.clear();
+            userPointTable.clear();
+        } finally {
+            for (FlushPartition partition : partitions) {
+                partition.unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flusher.shutdown();
+        flush();
+    }
+
+    /**
+     * segment 번호를 파티션 수로 나눈 나머지가 같은 segment 들을 반영한다.
+     */
+    private class FlushPartition {
+
+        private final int partitionIndex;
+        private final UserPointStore.DirtyEntries entries = new UserPointStore.DirtyEntries();
+        private final Lock flushLock = new ReentrantLock();
+
+        FlushPartition(int partitionIndex) {
+            this.partitionIndex = partitionIndex;
+        }
+
+        void flush() {
+            flushLock.lock();
+            try {
+                for (int segment = partitionIndex; segment < store.segmentCount(); segment += partitions.length) {
+                    flushSegment(segment);
+                }
+            } finally {
+                flushLock.unlock();
+            }
+        }
+
+        /**
+         * 락을 기다리는 동안 다른 스레드가 먼저 반영했을 수 있으므로, 여전히 상한 이상인 경우에만 반영한다.
+         */
+        void flushFullSegment(int segment) {
+            flushLock.lock();
+            try {
+                if (store.dirtyCount(segment) >= maxDirtyPerSegment) {
+                    flushSegment(segment);
+                }
+            } catch (RuntimeException e) {
+                log.error("유저 포인트 반영에 실패했습니다.", e);
+            } finally {
+                flushLock.unlock();
+            }
+        }
+
+        /**
+         * dirty 표시를 지운 뒤 그 시점의 값을 반영하므로, 그 사이의 변경은 다시 dirty 로 표시되어 다음 flush 에 반영된다.
+         */
+        private void flushSegment(int segment) {
+            store.drainDirty(segment, entries);
+            for (int i = 0; i < entries.size(); i++) {
+                try {
+                    long startNanos = System.nanoTime();
+                    userPointTable.insertOrUpdate(entries.userId(i), entries.point(i));
+                    metrics.recordTable(TableOperation.USER_POINT_UPSERT, startNanos);
+                } catch (RuntimeException e) {
+                    for (int j = i; j < entries.size(); j++) {
+                        store.markDirty(entries.userId(j));
+                    }
+                    throw e;
+                }
+            }
+        }
+
+        void flushSafely() {
+            try {
+                flush();
+            } catch (Exception e) {
+                log.error("유저 포인트 반영에 실패했습니다.", e);
+            }
+        }
+
+        void lock() {
+            flushLock.lock();
+        }
+
+        void unlock() {
+            flushLock.unlock();
+        }
+    }
+}
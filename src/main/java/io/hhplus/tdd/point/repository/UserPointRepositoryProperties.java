@@ -0,0 +1,25 @@
+package io.hhplus.tdd.point.repository;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 유저 포인트 write-behind 캐시 설정
+ * - flushInterval : 이전 flush 가 끝난 뒤 다음 flush 를 시작하기까지의 간격
+ *   flush 는 파티션의 dirty 유저를 하나씩 insertOrUpdate(최대 300ms) 로 반영하므로,
+ *   테이블 반영 지연의 상한은 flushInterval 이 아니라 flushInterval + (파티션의 dirty 유저 수 × 300ms) 이다.
+ *   dirty 유저 수는 maxDirty 로 제한된다.
+ * - flushPartitions : 반영을 나눠 처리하는 파티션 수, 같은 유저는 항상 같은 파티션에서 반영된다.
+ *   파티션끼리는 동시에 반영하므로, 파티션을 늘리면 한 번의 flush 가 맡는 dirty 유저 수가 줄어든다.
+ * - maxDirty : 테이블에 반영되지 않은 유저 수의 상한, 캐시의 segment 마다 maxDirty / segment 수 만큼 나눠 적용한다.
+ *   상한에 이른 segment 의 유저를 변경한 스레드는 그 segment 를 직접 반영한 뒤 반환한다. (변경이 테이블 반영 속도로 제한된다)
+ */
+@ConfigurationProperties(prefix = "point.user-point")
+public record UserPointRepositoryProperties(
+        @DefaultValue("100ms") Duration flushInterval,
+        @DefaultValue("4") int flushPartitions,
+        @DefaultValue("10000") int maxDirty
+) {
+}
@@ -0,0 +1,483 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.point.domain.UserPoint;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 유저 ID(long) 를 키로 잔액과 변경 시각을 primitive 배열에 보관하는 open addressing 해시 테이블
+ * - 키와 값을 boxing 하거나 UserPoint 를 만들지 않으므로, 조회와 갱신에 객체를 할당하지 않는다. (유저를 추가하는 경우 제외)
+ * - 유저 ID 의 해시로 segment 를 나누고, segment 마다 유저 ID → slot 번호 인덱스와 slot 별 값을 담는 chunk 를 둔다.
+ *   slot 은 유저가 처음 추가될 때 한 번 정해지고, 인덱스를 늘려도 chunk 는 복사하지 않으므로 slot 의 위치는 바뀌지 않는다.
+ * - 인덱스는 유저를 추가할 때만 StampedLock 의 write lock 으로 변경하고, 조회는 optimistic read 로 락 없이 수행한다.
+ * - 이미 있는 유저의 잔액 갱신(put, compareAndSet)은 slot 에 직접 기록하므로 락을 잡지 않는다.
+ *   compareAndSet 은 slot 의 잔액에 대한 CAS 이므로, 다른 유저의 갱신과 경합하지 않고 실패해도 스레드를 park 하지 않는다.
+ * - 잔액과 변경 시각은 따로 기록하므로, 동시에 갱신되는 동안에는 새 잔액과 직전 변경 시각이 함께 조회될 수 있다.
+ * - 갱신한 유저는 slot 별 dirty bit 로 표시하므로, 반영할 유저만 꺼낼 수 있다. (bit 는 잔액을 기록한 뒤에 세운다)
+ *   segment 마다 dirty 유저 수를 따로 세므로, bit 를 훑지 않고 segment 의 dirty 유저 수를 읽을 수 있다.
+ * - 유저를 삭제하는 연산이 없으므로 tombstone 없이 linear probing 을 사용한다.
+ */
+public final class UserPointStore {
+
+    private static final int DEFAULT_SEGMENTS = 64;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_CHUNKS = 4;
+    private static final int CHUNK_SHIFT = 8;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int INITIAL_DIRTY_CAPACITY = 16;
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final Segment[] segments;
+    private final int segmentMask;
+
+    public UserPointStore() {
+        this(DEFAULT_SEGMENTS);
+    }
+
+    /**
+     * segmentCount 는 2의 거듭제곱으로 올림한다.
+     */
+    public UserPointStore(int segmentCount) {
+        int count = segmentCount <= 1 ? 1 : Integer.highestOneBit(segmentCount - 1) << 1;
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment();
+        }
+        this.segmentMask = count - 1;
+    }
+
+    public int segmentCount() {
+        return segments.length;
+    }
+
+    public boolean contains(long userId) {
+        return segmentOf(userId).slotOf(userId) >= 0;
+    }
+
+    /**
+     * 유저의 잔액을 반환하고, 없으면 defaultValue 를 반환한다.
+     */
+    public long point(long userId, long defaultValue) {
+        Segment segment = segmentOf(userId);
+        int slot = segment.slotOf(userId);
+        Values values = segment.values;
+        return slot >= 0 && values.has(slot) ? values.point(slot) : defaultValue;
+    }
+
+    /**
+     * 유저 포인트를 반환하고, 없으면 null 을 반환한다. (반환할 UserPoint 만 할당한다)
+     */
+    public UserPoint get(long userId) {
+        Segment segment = segmentOf(userId);
+        int slot = segment.slotOf(userId);
+        Values values = segment.values;
+        if (slot < 0 || !values.has(slot)) {
+            return null;
+        }
+        return new UserPoint(userId, values.point(slot), values.updateMillis(slot));
+    }
+
+    /**
+     * 잔액을 기록하고 dirty 로 표시한다. 이미 있는 유저는 락 없이 기록한다.
+     */
+    public void put(long userId, long point, long updateMillis) {
+        Segment segment = segmentOf(userId);
+        int slot = segment.slotOf(userId);
+        Values values = segment.values;
+        if (slot < 0 || !values.has(slot)) {
+            long stamp = segment.lock.writeLock();
+            try {
+                slot = segment.table.slotOf(userId);
+                if (slot < 0) {
+                    // 인덱스에 공개되기 전에 값을 기록하므로, 유저를 찾은 reader 는 항상 기록된 값을 본다.
+                    slot = segment.reserve(userId);
+                    segment.values.setPoint(slot, point);
+                    segment.values.setUpdateMillis(slot, updateMillis);
+                    segment.values.markDirty(slot);
+                    segment.publish(userId, slot);
+                    return;
+                }
+                values = segment.values;
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+        values.setPoint(slot, point);
+        values.setUpdateMillis(slot, updateMillis);
+        values.markDirty(slot);
+    }
+
+    /**
+     * 유저가 없는 경우에만 기록한다. 테이블에서 읽은 값을 올리는 용도이므로 dirty 로 표시하지 않는다.
+     */
+    public boolean putIfAbsent(long userId, long point, long updateMillis) {
+        Segment segment = segmentOf(userId);
+        long stamp = segment.lock.writeLock();
+        try {
+            if (segment.table.slotOf(userId) >= 0) {
+                return false;
+            }
+            int slot = segment.reserve(userId);
+            segment.values.setPoint(slot, point);
+            segment.values.setUpdateMillis(slot, updateMillis);
+            segment.publish(userId, slot);
+            return true;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 현재 잔액이 expectedPoint 인 경우에만 point 로 갱신하고 dirty 로 표시한다. 유저가 없으면 갱신하지 않는다.
+     * 새 잔액은 이전 잔액으로만 결정되므로, 잔액만 비교해도 갱신이 유실되지 않는다.
+     * slot 의 잔액에 대한 CAS 이므로 락을 잡지 않으며, 변경 시각은 더 늦은 시각으로만 바꾼다.
+     */
+    public boolean compareAndSet(long userId, long expectedPoint, long point, long updateMillis) {
+        Segment segment = segmentOf(userId);
+        int slot = segment.slotOf(userId);
+        Values values = segment.values;
+        if (slot < 0 || !values.has(slot) || !values.compareAndSetPoint(slot, expectedPoint, point)) {
+            return false;
+        }
+        values.advanceUpdateMillis(slot, updateMillis);
+        values.markDirty(slot);
+        return true;
+    }
+
+    /**
+     * 반영에 실패한 유저를 다시 dirty 로 표시한다.
+     */
+    public void markDirty(long userId) {
+        Segment segment = segmentOf(userId);
+        int slot = segment.slotOf(userId);
+        Values values = segment.values;
+        if (slot >= 0 && values.has(slot)) {
+            values.markDirty(slot);
+        }
+    }
+
+    /**
+     * segment 의 dirty 유저와 그 시점의 잔액을 entries 에 옮기고 dirty 표시를 지운다.
+     * dirty bit 를 먼저 지운 뒤 잔액을 읽으므로, 이후 다시 갱신된 유저는 다시 dirty 로 표시된다.
+     */
+    public void drainDirty(int segmentIndex, DirtyEntries entries) {
+        entries.clear();
+        Segment segment = segments[segmentIndex];
+        // size 를 먼저 읽어야, 읽은 Values 에 size 이전의 slot 이 모두 들어 있다.
+        int slotCount = segment.size;
+        Values values = segment.values;
+        for (int chunk = 0; chunk << CHUNK_SHIFT < slotCount && values.has(chunk << CHUNK_SHIFT); chunk++) {
+            long[] dirty = values.dirty[chunk];
+            for (int word = 0; word < dirty.length; word++) {
+                if ((long) LONGS.getVolatile(dirty, word) == 0) {
+                    continue;
+                }
+                long bits = (long) LONGS.getAndSet(dirty, word, 0L);
+                values.dirtyCount.addAndGet(-Long.bitCount(bits));
+                while (bits != 0) {
+                    int slot = (chunk << CHUNK_SHIFT) + (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    entries.add(values.userId(slot), values.point(slot));
+                }
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    public int dirtyCount() {
+        int count = 0;
+        for (int segmentIndex = 0; segmentIndex < segments.length; segmentIndex++) {
+            count += dirtyCount(segmentIndex);
+        }
+        return count;
+    }
+
+    /**
+     * segment 의 dirty 유저 수, 표시와 반영이 동시에 일어나는 동안에는 잠시 어긋날 수 있다.
+     */
+    public int dirtyCount(int segmentIndex) {
+        return Math.max(0, segments[segmentIndex].values.dirtyCount.get());
+    }
+
+    /**
+     * 유저가 속한 segment 번호
+     */
+    public int segmentIndexOf(long userId) {
+        return (int) (mix(userId) >>> 32) & segmentMask;
+    }
+
+    /**
+     * 인덱스와 값을 새로 만들어 교체한다. 교체 전에 유저를 찾은 갱신은 이전 값에 기록되어 사라진다. (테스트용)
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            long stamp = segment.lock.writeLock();
+            try {
+                segment.values = new Values();
+                segment.table = new Table(INITIAL_CAPACITY);
+                segment.size = 0;
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    private Segment segmentOf(long userId) {
+        return segments[segmentIndexOf(userId)];
+    }
+
+    private static long mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+
+    /**
+     * 반영할 유저 ID 와 잔액을 담는 재사용 버퍼, flush 하는 스레드마다 하나씩 사용한다.
+     */
+    public static final class DirtyEntries {
+
+        private long[] userIds = new long[INITIAL_DIRTY_CAPACITY];
+        private long[] points = new long[INITIAL_DIRTY_CAPACITY];
+        private int size = 0;
+
+        public int size() {
+            return size;
+        }
+
+        public long userId(int index) {
+            return userIds[index];
+        }
+
+        public long point(int index) {
+            return points[index];
+        }
+
+        private void add(long userId, long point) {
+            if (size == userIds.length) {
+                userIds = Arrays.copyOf(userIds, size * 2);
+                points = Arrays.copyOf(points, size * 2);
+            }
+            userIds[size] = userId;
+            points[size] = point;
+            size++;
+        }
+
+        private void clear() {
+            size = 0;
+        }
+    }
+
+    private static final class Segment {
+
+        private final StampedLock lock = new StampedLock();
+        private Table table = new Table(INITIAL_CAPACITY);
+        private volatile Values values = new Values();
+        private volatile int size = 0;
+
+        /**
+         * 유저의 slot 번호를 반환하고, 없으면 -1 을 반환한다.
+         * optimistic read 로 찾고, 찾는 중에 유저가 추가된 경우에만 read lock 으로 다시 찾는다.
+         */
+        int slotOf(long userId) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                int slot = table.slotOf(userId);
+                if (lock.validate(stamp)) {
+                    return slot;
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                return table.slotOf(userId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * write lock 을 보유한 상태에서 호출한다. 다음 slot 을 유저에게 배정하지만, 인덱스에는 아직 공개하지 않는다.
+         */
+        int reserve(long userId) {
+            int slot = size;
+            values = values.ensure(slot);
+            values.initialize(slot, userId);
+            return slot;
+        }
+
+        /**
+         * write lock 을 보유한 상태에서 호출한다.
+         */
+        void publish(long userId, int slot) {
+            if ((size + 1) * 2 > table.keys.length) {
+                // optimistic read 중인 reader 가 기존 인덱스를 계속 읽을 수 있도록 새 인덱스를 만들어 교체한다.
+                table = table.resize();
+            }
+            table.insert(userId, slot);
+            size = slot + 1;
+        }
+    }
+
+    /**
+     * 유저 ID → slot 번호 인덱스, 사용률을 절반 이하로 유지하므로 탐색은 항상 빈 자리에서 끝난다.
+     * slot 번호는 +1 해서 보관하며, 0 은 빈 자리다.
+     */
+    private static final class Table {
+
+        private final long[] keys;
+        private final int[] slots;
+        private final int mask;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.slots = new int[capacity];
+            this.mask = capacity - 1;
+        }
+
+        int slotOf(long userId) {
+            int index = (int) mix(userId) & mask;
+            while (slots[index] != 0) {
+                if (keys[index] == userId) {
+                    return slots[index] - 1;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        void insert(long userId, int slot) {
+            int index = (int) mix(userId) & mask;
+            while (slots[index] != 0) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = userId;
+            slots[index] = slot + 1;
+        }
+
+        Table resize() {
+            Table resized = new Table(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                if (slots[i] != 0) {
+                    resized.insert(keys[i], slots[i] - 1);
+                }
+            }
+            return resized;
+        }
+    }
+
+    /**
+     * slot 별 유저 ID, 잔액, 변경 시각, dirty bit 를 CHUNK_SIZE 단위 chunk 로 보관한다.
+     * 늘릴 때는 chunk 목록만 복사하고 chunk 는 공유하므로, 늘리기 전의 Values 에 기록한 값도 그대로 보인다.
+     */
+    private static final class Values {
+
+        private final long[][] userIds;
+        private final long[][] points;
+        private final long[][] updateMillis;
+        private final long[][] dirty;
+        // 늘린 Values 도 같은 chunk 의 dirty bit 를 보므로 같은 개수를 공유한다.
+        private final AtomicInteger dirtyCount;
+
+        Values() {
+            this(new long[INITIAL_CHUNKS][], new long[INITIAL_CHUNKS][], new long[INITIAL_CHUNKS][], new long[INITIAL_CHUNKS][], new AtomicInteger());
+        }
+
+        private Values(long[][] userIds, long[][] points, long[][] updateMillis, long[][] dirty, AtomicInteger dirtyCount) {
+            this.userIds = userIds;
+            this.points = points;
+            this.updateMillis = updateMillis;
+            this.dirty = dirty;
+            this.dirtyCount = dirtyCount;
+        }
+
+        /**
+         * write lock 을 보유한 상태에서 호출한다. slot 이 들어갈 chunk 가 있는 Values 를 반환한다.
+         */
+        Values ensure(int slot) {
+            int chunk = slot >>> CHUNK_SHIFT;
+            Values ensured = this;
+            if (chunk == userIds.length) {
+                int length = userIds.length * 2;
+                ensured = new Values(Arrays.copyOf(userIds, length), Arrays.copyOf(points, length), Arrays.copyOf(updateMillis, length), Arrays.copyOf(dirty, length), dirtyCount);
+            }
+            if (ensured.userIds[chunk] == null) {
+                ensured.userIds[chunk] = new long[CHUNK_SIZE];
+                ensured.points[chunk] = new long[CHUNK_SIZE];
+                ensured.updateMillis[chunk] = new long[CHUNK_SIZE];
+                ensured.dirty[chunk] = new long[CHUNK_SIZE >>> 6];
+            }
+            return ensured;
+        }
+
+        /**
+         * clear 로 교체된 경우, 교체 전에 찾은 slot 은 새 Values 에 없을 수 있다.
+         */
+        boolean has(int slot) {
+            int chunk = slot >>> CHUNK_SHIFT;
+            return chunk < userIds.length && userIds[chunk] != null;
+        }
+
+        void initialize(int slot, long userId) {
+            userIds[slot >>> CHUNK_SHIFT][slot & CHUNK_MASK] = userId;
+        }
+
+        long userId(int slot) {
+            return userIds[slot >>> CHUNK_SHIFT][slot & CHUNK_MASK];
+        }
+
+        long point(int slot) {
+            return (long) LONGS.getVolatile(points[slot >>> CHUNK_SHIFT], slot & CHUNK_MASK);
+        }
+
+        long updateMillis(int slot) {
+            return (long) LONGS.getVolatile(updateMillis[slot >>> CHUNK_SHIFT], slot & CHUNK_MASK);
+        }
+
+        void setPoint(int slot, long point) {
+            LONGS.setVolatile(points[slot >>> CHUNK_SHIFT], slot & CHUNK_MASK, point);
+        }
+
+        void setUpdateMillis(int slot, long millis) {
+            LONGS.setVolatile(updateMillis[slot >>> CHUNK_SHIFT], slot & CHUNK_MASK, millis);
+        }
+
+        boolean compareAndSetPoint(int slot, long expectedPoint, long point) {
+            return LONGS.compareAndSet(points[slot >>> CHUNK_SHIFT], slot & CHUNK_MASK, expectedPoint, point);
+        }
+
+        /**
+         * 동시에 성공한 CAS 의 변경 시각이 늦게 기록되어 되돌아가지 않도록, 더 늦은 시각으로만 바꾼다.
+         */
+        void advanceUpdateMillis(int slot, long millis) {
+            long[] chunk = updateMillis[slot >>> CHUNK_SHIFT];
+            int index = slot & CHUNK_MASK;
+            long current;
+            do {
+                current = (long) LONGS.getVolatile(chunk, index);
+                if (current >= millis) {
+                    return;
+                }
+            } while (!LONGS.compareAndSet(chunk, index, current, millis));
+        }
+
+        void markDirty(int slot) {
+            long[] chunk = dirty[slot >>> CHUNK_SHIFT];
+            int word = (slot & CHUNK_MASK) >>> 6;
+            long bit = 1L << (slot & 63);
+            if (((long) LONGS.getVolatile(chunk, word) & bit) == 0 && ((long) LONGS.getAndBitwiseOr(chunk, word, bit) & bit) == 0) {
+                dirtyCount.incrementAndGet();
+            }
+        }
+    }
+}
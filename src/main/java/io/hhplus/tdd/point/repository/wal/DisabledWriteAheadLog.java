@@ -0,0 +1,41 @@
+package io.hhplus.tdd.point.repository.wal;
+
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.domain.PointSummary;
+import io.hhplus.tdd.point.domain.UserPoint;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 아무것도 기록하지 않는 write-ahead log (point.wal.enabled=false)
+ */
+public class DisabledWriteAheadLog implements WriteAheadLog {
+
+    @Override
+    public long appendAll(List<PointHistory> pointHistories) {
+        return 0;
+    }
+
+    @Override
+    public void awaitDurable(long position) {
+    }
+
+    @Override
+    public long recover(Consumer<PointHistory> historyConsumer, BiConsumer<UserPoint, PointSummary> snapshotConsumer) {
+        return 0;
+    }
+
+    @Override
+    public void compact() {
+    }
+
+    @Override
+    public void clear() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,611 @@
+package io.hhplus.tdd.point.repository.wal;
+
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.domain.PointSummary;
+import io.hhplus.tdd.point.domain.TransactionType;
+import io.hhplus.tdd.point.domain.UserPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * FileChannel 기반 segment write-ahead log
+ * - 레코드는 [payload 길이(int)][CRC32C(int)][id, userId, amount, type, updateMillis] 형식의 고정 길이로 segment 끝에 이어 쓴다.
+ * - segment 가 segment-size 를 넘으면 다음 번호의 segment 로 넘어가며, 이전 segment 는 다음 fsync 때 반영 후 닫는다.
+ *   한 번에 기록하는 내역은 모두 같은 segment 에 기록하고, 실패하면 모두 되돌린다. (segment 는 그만큼 segment-size 를 넘을 수 있다)
+ * - fsync 는 기록과 분리된 락에서 수행하므로, fsync 중에도 다른 요청의 기록은 계속된다.
+ *   fsync 를 기다리던 요청은 앞선 fsync 가 자신의 기록까지 반영했다면 추가 fsync 없이 반환된다. (group fsync)
+ * - 기동 시 마지막 segment 끝의 불완전한 레코드(기록 중 종료된 경우)는 잘라낸다.
+ * - 기록이 끝난 segment 는 snapshot-interval 마다 이전 snapshot 과 병합해 새 snapshot 을 만든 뒤 archive 디렉터리로 옮긴다.
+ *   snapshot 을 fsync 한 뒤에 segment 를 옮기므로, 그 사이에 종료되어도 snapshot 이후의 내역만 다시 읽으면 된다.
+ * - snapshot 에는 잔액과 함께 유저별 누적 통계를 합쳐 두므로, 옮긴 segment 의 내역도 통계에서 빠지지 않는다.
+ * - 검증에 실패한 snapshot 이 있으면 압축과 복구를 모두 거부한다. 옮긴 segment 의 잔액은 snapshot 에만 남아 있으므로,
+ *   건너뛰고 진행하면 압축된 잔액이 모두 사라진다. 압축도 복구와 같이 snapshot 이후의 내역 ID 가 이어지는지 확인한다.
+ */
+public class FileWriteAheadLog implements WriteAheadLog {
+
+    private static final Logger log = LoggerFactory.getLogger(FileWriteAheadLog.class);
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String ARCHIVE_DIRECTORY = "archive";
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final int PAYLOAD_SIZE = Long.BYTES * 4 + Byte.BYTES;
+    private static final int RECORD_SIZE = HEADER_SIZE + PAYLOAD_SIZE;
+    private static final int READ_BUFFER_RECORDS = 1_024;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final WalProperties.Fsync fsync;
+    private final long fsyncBytes;
+    private final WalProperties.Compaction compaction;
+    private final ScheduledExecutorService syncer;
+    private final ScheduledExecutorService compactor;
+
+    private final Lock writeLock = new ReentrantLock();
+    private final Lock syncLock = new ReentrantLock();
+    private final Lock compactLock = new ReentrantLock();
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32C writeChecksum = new CRC32C();
+    private final List<FileChannel> retiredChannels = new ArrayList<>();
+
+    private FileChannel channel;
+    private long segmentIndex;
+    private long segmentPosition;
+    private long writtenBytes = 0;
+    private volatile long syncedBytes = 0;
+
+    public FileWriteAheadLog(WalProperties properties) {
+        this.directory = properties.directory();
+        this.segmentSize = Math.max(properties.segmentSize().toBytes(), RECORD_SIZE);
+        this.fsync = properties.fsync();
+        this.fsyncBytes = properties.fsyncBytes().toBytes();
+        this.compaction = properties.compaction();
+        try {
+            Files.createDirectories(directory);
+            openLastSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("포인트 WAL 을 열지 못했습니다. directory=" + directory, e);
+        }
+
+        // bytes 는 요청이 끊기면 fsync-bytes 미만의 기록이 반영되지 않으므로, 주기적인 반영을 함께 둔다.
+        if (fsync == WalProperties.Fsync.INTERVAL || fsync == WalProperties.Fsync.BYTES) {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("point-wal-syncer-");
+            threadFactory.setDaemon(true);
+            this.syncer = Executors.newSingleThreadScheduledExecutor(threadFactory);
+            long intervalMillis = properties.fsyncInterval().toMillis();
+            syncer.scheduleWithFixedDelay(this::syncSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.syncer = null;
+        }
+
+        CustomizableThreadFactory compactorThreadFactory = new CustomizableThreadFactory("point-wal-compactor-");
+        compactorThreadFactory.setDaemon(true);
+        this.compactor = Executors.newSingleThreadScheduledExecutor(compactorThreadFactory);
+        long snapshotIntervalMillis = properties.snapshotInterval().toMillis();
+        compactor.scheduleWithFixedDelay(this::compactSafely, snapshotIntervalMillis, snapshotIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public long appendAll(List<PointHistory> pointHistories) {
+        writeLock.lock();
+        try {
+            // 한 번에 기록하는 내역은 같은 segment 에 기록하므로, 실패하면 한 번의 truncate 로 모두 되돌릴 수 있다.
+            if (segmentPosition > 0 && segmentPosition + (long) RECORD_SIZE * pointHistories.size() > segmentSize) {
+                rollSegment();
+            }
+            ByteBuffer buffer = pointHistories.size() == 1 ? writeBuffer.clear() : ByteBuffer.allocate(RECORD_SIZE * pointHistories.size());
+            for (PointHistory pointHistory : pointHistories) {
+                encode(buffer, pointHistory);
+            }
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                // 일부만 기록된 레코드 뒤에 이어 쓰면 이후 레코드를 복구할 수 없고, 일부 내역만 재생되어서도 안 되므로 기록 전 위치로 되돌린다.
+                channel.truncate(segmentPosition);
+                throw e;
+            }
+            segmentPosition += buffer.limit();
+            writtenBytes += buffer.limit();
+            return writtenBytes;
+        } catch (IOException e) {
+            throw new UncheckedIOException("포인트 WAL 기록에 실패했습니다.", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void awaitDurable(long position) {
+        switch (fsync) {
+            case EVERY_OP -> syncUpTo(position);
+            case BYTES -> {
+                if (position - syncedBytes >= fsyncBytes) {
+                    syncUpTo(position);
+                }
+            }
+            case INTERVAL -> {
+                // 주기적으로 반영하므로 기다리지 않는다.
+            }
+        }
+    }
+
+    @Override
+    public long recover(Consumer<PointHistory> historyConsumer, BiConsumer<UserPoint, PointSummary> snapshotConsumer) {
+        compactLock.lock();
+        try {
+            PointSnapshot snapshot = latestSnapshot();
+            long snapshotLastHistoryId = snapshot == null ? 0 : snapshot.lastHistoryId();
+            long[] expectedId = {snapshotLastHistoryId + 1};
+            List<Path> segments = listSegments();
+            for (int i = 0; i < segments.size(); i++) {
+                Path segment = segments.get(i);
+                long validPosition = readSegment(segment, pointHistory -> {
+                    // snapshot 을 만든 뒤 segment 를 옮기기 전에 종료되었다면, 이미 snapshot 에 반영된 내역이 남아 있다.
+                    if (pointHistory.id() < expectedId[0]) {
+                        return;
+                    }
+                    if (pointHistory.id() != expectedId[0]) {
+                        throw new IllegalStateException("포인트 WAL 에 누락된 내역이 있습니다. expected=" + expectedId[0] + ", actual=" + pointHistory.id());
+                    }
+                    historyConsumer.accept(pointHistory);
+                    expectedId[0]++;
+                });
+                // 불완전한 레코드는 마지막 segment 끝에만 생길 수 있다.
+                if (i < segments.size() - 1 && validPosition < Files.size(segment)) {
+                    throw new IllegalStateException("손상된 포인트 WAL segment 입니다. segment=" + segment);
+                }
+            }
+            if (snapshot != null) {
+                snapshot.forEach(snapshotConsumer);
+            }
+            return snapshotLastHistoryId;
+        } catch (IOException e) {
+            throw new UncheckedIOException("포인트 WAL 을 읽지 못했습니다.", e);
+        } finally {
+            compactLock.unlock();
+        }
+    }
+
+    @Override
+    public void compact() {
+        compactLock.lock();
+        try {
+            List<Path> sealedSegments = sealSegments();
+            if (sealedSegments.isEmpty()) {
+                return;
+            }
+            PointSnapshot previous = latestSnapshot();
+            long previousLastHistoryId = previous == null ? 0 : previous.lastHistoryId();
+
+            Map<Long, Change> changes = new HashMap<>();
+            long[] lastHistoryId = {previousLastHistoryId};
+            for (Path segment : sealedSegments) {
+                long validPosition = readSegment(segment, pointHistory -> {
+                    if (pointHistory.id() <= previousLastHistoryId) {
+                        return;
+                    }
+                    if (pointHistory.id() != lastHistoryId[0] + 1) {
+                        throw new IllegalStateException("포인트 WAL 에 누락된 내역이 있어 압축하지 않습니다. expected=" + (lastHistoryId[0] + 1) + ", actual=" + pointHistory.id());
+                    }
+                    changes.computeIfAbsent(pointHistory.userId(), Change::new).apply(pointHistory);
+                    lastHistoryId[0] = pointHistory.id();
+                });
+                if (validPosition < Files.size(segment)) {
+                    throw new IllegalStateException("손상된 포인트 WAL segment 입니다. segment=" + segment);
+                }
+            }
+
+            if (lastHistoryId[0] > previousLastHistoryId) {
+                PointSnapshot snapshot = writeSnapshot(previous, changes, lastHistoryId[0]);
+                forceDirectory();
+                deleteSnapshotsBefore(snapshot.lastHistoryId());
+                log.info("포인트 snapshot 을 만들었습니다. lastHistoryId={}, 유저 {}명, segment {}개", snapshot.lastHistoryId(), snapshot.count(), sealedSegments.size());
+            }
+            retire(sealedSegments);
+        } catch (IOException e) {
+            throw new UncheckedIOException("포인트 WAL 압축에 실패했습니다.", e);
+        } finally {
+            compactLock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        compactLock.lock();
+        syncLock.lock();
+        writeLock.lock();
+        try {
+            closeChannels();
+            for (Path segment : listSegments()) {
+                Files.delete(segment);
+            }
+            for (Path snapshot : listSnapshots()) {
+                Files.delete(snapshot);
+            }
+            Path archive = directory.resolve(ARCHIVE_DIRECTORY);
+            if (Files.isDirectory(archive)) {
+                for (Path segment : listSegments(archive)) {
+                    Files.delete(segment);
+                }
+            }
+            segmentIndex = 1;
+            segmentPosition = 0;
+            channel = openSegment(segmentIndex);
+            writtenBytes = 0;
+            syncedBytes = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("포인트 WAL 을 비우지 못했습니다.", e);
+        } finally {
+            writeLock.unlock();
+            syncLock.unlock();
+            compactLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (syncer != null) {
+            syncer.shutdown();
+        }
+        compactor.shutdown();
+        try {
+            // 진행 중인 압축이 끝난 뒤에 닫는다.
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        syncLock.lock();
+        try {
+            sync();
+            writeLock.lock();
+            try {
+                closeChannels();
+            } finally {
+                writeLock.unlock();
+            }
+        } catch (IOException e) {
+            log.error("포인트 WAL 을 닫지 못했습니다.", e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void syncUpTo(long position) {
+        syncLock.lock();
+        try {
+            // 기다리는 동안 다른 요청의 fsync 가 이 위치까지 반영했다면 다시 반영하지 않는다.
+            if (syncedBytes < position) {
+                sync();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("포인트 WAL 반영에 실패했습니다.", e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void syncSafely() {
+        syncLock.lock();
+        try {
+            sync();
+        } catch (IOException e) {
+            log.error("포인트 WAL 반영에 실패했습니다.", e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * syncLock 을 보유한 상태에서 호출한다. 기록 위치만 writeLock 안에서 읽고, fsync 는 writeLock 밖에서 수행한다.
+     */
+    private void sync() throws IOException {
+        List<FileChannel> retired;
+        FileChannel current;
+        long target;
+        writeLock.lock();
+        try {
+            retired = new ArrayList<>(retiredChannels);
+            retiredChannels.clear();
+            current = channel;
+            target = writtenBytes;
+        } finally {
+            writeLock.unlock();
+        }
+        if (target == syncedBytes && retired.isEmpty()) {
+            return;
+        }
+        for (FileChannel retiredChannel : retired) {
+            retiredChannel.force(false);
+            retiredChannel.close();
+        }
+        current.force(false);
+        syncedBytes = target;
+    }
+
+    private void compactSafely() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            log.error("포인트 WAL 압축에 실패했습니다.", e);
+        }
+    }
+
+    /**
+     * 기록 중인 segment 이전의 segment 들을 디스크에 반영하고 반환한다.
+     */
+    private List<Path> sealSegments() throws IOException {
+        long activeSegmentIndex;
+        syncLock.lock();
+        try {
+            sync();
+            activeSegmentIndex = segmentIndex;
+        } finally {
+            syncLock.unlock();
+        }
+        return listSegments().stream()
+                .filter(segment -> indexOf(segment) < activeSegmentIndex)
+                .toList();
+    }
+
+    /**
+     * 이전 snapshot 과 변경분을 유저 ID 순으로 병합해 새 snapshot 을 기록한다.
+     */
+    private PointSnapshot writeSnapshot(PointSnapshot previous, Map<Long, Change> changes, long lastHistoryId) throws IOException {
+        long[] changedUserIds = changes.keySet().stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(changedUserIds);
+        try (PointSnapshot.Writer writer = PointSnapshot.writer(directory, lastHistoryId)) {
+            int[] next = {0};
+            if (previous != null) {
+                previous.forEach((userPoint, summary) -> {
+                    while (next[0] < changedUserIds.length && changedUserIds[next[0]] < userPoint.id()) {
+                        Change change = changes.get(changedUserIds[next[0]++]);
+                        writer.add(new UserPoint(change.userId, change.amount, change.updateMillis), change.summary);
+                    }
+                    if (next[0] < changedUserIds.length && changedUserIds[next[0]] == userPoint.id()) {
+                        Change change = changes.get(changedUserIds[next[0]++]);
+                        writer.add(new UserPoint(userPoint.id(), userPoint.point() + change.amount, change.updateMillis), summary.merge(change.summary));
+                    } else {
+                        writer.add(userPoint, summary);
+                    }
+                });
+            }
+            while (next[0] < changedUserIds.length) {
+                Change change = changes.get(changedUserIds[next[0]++]);
+                writer.add(new UserPoint(change.userId, change.amount, change.updateMillis), change.summary);
+            }
+            return writer.commit();
+        }
+    }
+
+    /**
+     * 가장 최근의 snapshot 을 반환한다. 검증에 실패한 snapshot 이 하나라도 있으면 예외를 던진다.
+     */
+    private PointSnapshot latestSnapshot() throws IOException {
+        PointSnapshot latest = null;
+        for (Path path : listSnapshots()) {
+            PointSnapshot snapshot = PointSnapshot.open(path);
+            if (snapshot == null) {
+                throw new IllegalStateException("손상된 포인트 snapshot 이 있어 압축하거나 복구할 수 없습니다. snapshot=" + path);
+            }
+            latest = snapshot;
+        }
+        return latest;
+    }
+
+    /**
+     * 새 snapshot 의 바탕이 된 이전 snapshot 들만 삭제한다. 모두 latestSnapshot 에서 검증을 마친 파일이다.
+     */
+    private void deleteSnapshotsBefore(long lastHistoryId) throws IOException {
+        for (Path path : listSnapshots()) {
+            PointSnapshot snapshot = PointSnapshot.open(path);
+            if (snapshot != null && snapshot.lastHistoryId() < lastHistoryId) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private void retire(List<Path> segments) throws IOException {
+        if (compaction == WalProperties.Compaction.DELETE) {
+            for (Path segment : segments) {
+                Files.delete(segment);
+            }
+            return;
+        }
+        Path archive = Files.createDirectories(directory.resolve(ARCHIVE_DIRECTORY));
+        for (Path segment : segments) {
+            Files.move(segment, archive.resolve(segment.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * snapshot 파일의 교체(rename)가 디스크에 반영되도록 디렉터리를 fsync 한다. 지원하지 않는 환경에서는 건너뛴다.
+     */
+    private void forceDirectory() {
+        try (FileChannel directoryChannel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            directoryChannel.force(true);
+        } catch (IOException e) {
+            log.debug("디렉터리 fsync 를 지원하지 않습니다. directory={}", directory, e);
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        retiredChannels.add(channel);
+        segmentIndex++;
+        segmentPosition = 0;
+        channel = openSegment(segmentIndex);
+    }
+
+    private void openLastSegment() throws IOException {
+        List<Path> segments = listSegments();
+        if (segments.isEmpty()) {
+            segmentIndex = 1;
+            segmentPosition = 0;
+            channel = openSegment(segmentIndex);
+            return;
+        }
+        Path last = segments.get(segments.size() - 1);
+        segmentIndex = indexOf(last);
+        channel = openSegment(segmentIndex);
+        segmentPosition = readSegment(last, pointHistory -> {
+        });
+        if (segmentPosition < channel.size()) {
+            log.warn("포인트 WAL 끝의 불완전한 레코드를 잘라냅니다. segment={}, size={}, valid={}", last, channel.size(), segmentPosition);
+            channel.truncate(segmentPosition);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * segment 의 유효한 레코드를 전달하고, 유효한 레코드가 끝나는 위치를 반환한다.
+     */
+    private long readSegment(Path segment, Consumer<PointHistory> consumer) throws IOException {
+        ByteBuffer readBuffer = ByteBuffer.allocate(RECORD_SIZE * READ_BUFFER_RECORDS);
+        CRC32C checksum = new CRC32C();
+        long validPosition = 0;
+        try (FileChannel readChannel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            while (readChannel.read(readBuffer) > 0 || readBuffer.position() > 0) {
+                readBuffer.flip();
+                while (readBuffer.remaining() >= RECORD_SIZE) {
+                    PointHistory pointHistory = decode(readBuffer, checksum);
+                    if (pointHistory == null) {
+                        return validPosition;
+                    }
+                    consumer.accept(pointHistory);
+                    validPosition += RECORD_SIZE;
+                }
+                boolean endOfSegment = readBuffer.hasRemaining() && readChannel.position() == readChannel.size();
+                readBuffer.compact();
+                if (endOfSegment) {
+                    break;
+                }
+            }
+        }
+        return validPosition;
+    }
+
+    private void encode(ByteBuffer buffer, PointHistory pointHistory) {
+        int start = buffer.position();
+        buffer.position(start + HEADER_SIZE);
+        buffer.putLong(pointHistory.id());
+        buffer.putLong(pointHistory.userId());
+        buffer.putLong(pointHistory.amount());
+        buffer.put((byte) pointHistory.type().ordinal());
+        buffer.putLong(pointHistory.updateMillis());
+
+        writeChecksum.reset();
+        writeChecksum.update(buffer.array(), start + HEADER_SIZE, PAYLOAD_SIZE);
+        buffer.putInt(start, PAYLOAD_SIZE);
+        buffer.putInt(start + Integer.BYTES, (int) writeChecksum.getValue());
+    }
+
+    /**
+     * 길이나 checksum 이 맞지 않으면 null 을 반환한다.
+     */
+    private PointHistory decode(ByteBuffer readBuffer, CRC32C checksum) {
+        int start = readBuffer.position();
+        int length = readBuffer.getInt(start);
+        int expectedChecksum = readBuffer.getInt(start + Integer.BYTES);
+        if (length != PAYLOAD_SIZE) {
+            return null;
+        }
+        checksum.reset();
+        checksum.update(readBuffer.array(), start + HEADER_SIZE, PAYLOAD_SIZE);
+        if ((int) checksum.getValue() != expectedChecksum) {
+            return null;
+        }
+        readBuffer.position(start + HEADER_SIZE);
+        long id = readBuffer.getLong();
+        long userId = readBuffer.getLong();
+        long amount = readBuffer.getLong();
+        TransactionType type = TransactionType.values()[readBuffer.get()];
+        long updateMillis = readBuffer.getLong();
+        return new PointHistory(id, userId, amount, type, updateMillis);
+    }
+
+    private FileChannel openSegment(long index) throws IOException {
+        Path segment = directory.resolve(String.format("%020d%s", index, SEGMENT_SUFFIX));
+        FileChannel segmentChannel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        segmentChannel.position(segmentChannel.size());
+        return segmentChannel;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        return listSegments(directory);
+    }
+
+    private List<Path> listSnapshots() throws IOException {
+        return list(directory, PointSnapshot.SUFFIX);
+    }
+
+    private static List<Path> listSegments(Path segmentDirectory) throws IOException {
+        return list(segmentDirectory, SEGMENT_SUFFIX);
+    }
+
+    private static List<Path> list(Path listDirectory, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(listDirectory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(suffix))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long indexOf(Path segment) {
+        String fileName = segment.getFileName().toString();
+        return Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private void closeChannels() throws IOException {
+        for (FileChannel retiredChannel : retiredChannels) {
+            retiredChannel.close();
+        }
+        retiredChannels.clear();
+        channel.close();
+    }
+
+    /**
+     * 압축할 segment 에서 모은 유저별 {증감 합계, 마지막 변경 시각, 누적 통계}
+     */
+    private static final class Change {
+
+        private final long userId;
+        private long amount = 0;
+        private long updateMillis = 0;
+        private PointSummary summary;
+
+        private Change(long userId) {
+            this.userId = userId;
+            this.summary = PointSummary.empty(userId);
+        }
+
+        private void apply(PointHistory pointHistory) {
+            amount += pointHistory.type() == TransactionType.CHARGE ? pointHistory.amount() : -pointHistory.amount();
+            updateMillis = pointHistory.updateMillis();
+            summary = summary.apply(pointHistory);
+        }
+    }
+}
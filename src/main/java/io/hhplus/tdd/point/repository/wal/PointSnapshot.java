@@ -0,0 +1,198 @@
+package io.hhplus.tdd.point.repository.wal;
+
+import io.hhplus.tdd.point.domain.PointSummary;
+import io.hhplus.tdd.point.domain.UserPoint;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * 유저 포인트 snapshot 파일
+ * - [magic(int)][version(int)][lastHistoryId(long)] [userId, point, updateMillis, totalCharged, totalUsed, transactionCount, lastTransactionMillis]... [count(long)][CRC32C(int)] 형식이다.
+ * - lastHistoryId 는 snapshot 에 반영된 마지막 내역 ID 이며, 복구 시 그 이후의 내역만 WAL 에서 읽는다.
+ * - 압축된 내역은 복구하지 않으므로, 유저별 누적 통계(PointSummary)도 잔액과 함께 기록한다. (version 2)
+ * - 유저 ID 순으로 기록하므로, 이전 snapshot 과 새 변경분을 한 번의 정렬 병합으로 합칠 수 있다.
+ * - 읽을 때는 파일을 memory-map 해서 순차로 읽으며, checksum 이 맞지 않는 파일은 사용하지 않는다.
+ */
+final class PointSnapshot {
+
+    static final String SUFFIX = ".snapshot";
+
+    private static final int MAGIC = 0x50534E50;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES;
+    private static final int ENTRY_SIZE = Long.BYTES * 7;
+    private static final int TRAILER_SIZE = Long.BYTES + Integer.BYTES;
+    private static final long ENTRIES_PER_MAP = 1L << 24;
+    private static final long BYTES_PER_MAP = ENTRY_SIZE * ENTRIES_PER_MAP;
+    private static final int WRITE_BUFFER_ENTRIES = 4_096;
+
+    private final Path path;
+    private final long lastHistoryId;
+    private final long count;
+
+    private PointSnapshot(Path path, long lastHistoryId, long count) {
+        this.path = path;
+        this.lastHistoryId = lastHistoryId;
+        this.count = count;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long lastHistoryId() {
+        return lastHistoryId;
+    }
+
+    long count() {
+        return count;
+    }
+
+    /**
+     * 파일 형식과 checksum 을 검증하고, 올바르지 않으면 null 을 반환한다.
+     */
+    static PointSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long entriesSize = size - HEADER_SIZE - TRAILER_SIZE;
+            if (entriesSize < 0 || entriesSize % ENTRY_SIZE != 0) {
+                return null;
+            }
+            ByteBuffer header = readFully(channel, 0, HEADER_SIZE);
+            ByteBuffer trailer = readFully(channel, size - TRAILER_SIZE, TRAILER_SIZE);
+            long count = trailer.getLong(0);
+            if (header.getInt(0) != MAGIC || header.getInt(Integer.BYTES) != VERSION || count != entriesSize / ENTRY_SIZE) {
+                return null;
+            }
+
+            CRC32C checksum = new CRC32C();
+            long checksummedSize = size - Integer.BYTES;
+            for (long offset = 0; offset < checksummedSize; offset += BYTES_PER_MAP) {
+                checksum.update(channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(BYTES_PER_MAP, checksummedSize - offset)));
+            }
+            if ((int) checksum.getValue() != trailer.getInt(Long.BYTES)) {
+                return null;
+            }
+            return new PointSnapshot(path, header.getLong(Integer.BYTES * 2), count);
+        }
+    }
+
+    /**
+     * 유저 포인트와 누적 통계를 유저 ID 순으로 전달한다.
+     */
+    void forEach(BiConsumer<UserPoint, PointSummary> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (long index = 0; index < count; index += ENTRIES_PER_MAP) {
+                long entries = Math.min(ENTRIES_PER_MAP, count - index);
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + index * ENTRY_SIZE, entries * ENTRY_SIZE);
+                for (long i = 0; i < entries; i++) {
+                    long userId = mapped.getLong();
+                    UserPoint userPoint = new UserPoint(userId, mapped.getLong(), mapped.getLong());
+                    consumer.accept(userPoint, new PointSummary(userId, mapped.getLong(), mapped.getLong(), mapped.getLong(), mapped.getLong()));
+                }
+            }
+        }
+    }
+
+    static Writer writer(Path directory, long lastHistoryId) throws IOException {
+        return new Writer(directory, lastHistoryId);
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("snapshot 파일이 예상보다 짧습니다.");
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * 유저 ID 순으로 전달받은 유저 포인트와 누적 통계를 임시 파일에 기록하고, commit 시 fsync 후 snapshot 파일로 교체한다.
+     * commit 전에 종료되면 임시 파일만 남으므로 기존 snapshot 은 영향을 받지 않는다.
+     */
+    static final class Writer implements Closeable {
+
+        private final Path target;
+        private final Path temp;
+        private final long lastHistoryId;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(ENTRY_SIZE * WRITE_BUFFER_ENTRIES);
+        private final CRC32C checksum = new CRC32C();
+        private long count = 0;
+        private long lastUserId = Long.MIN_VALUE;
+        private boolean committed = false;
+
+        private Writer(Path directory, long lastHistoryId) throws IOException {
+            this.target = directory.resolve(String.format("%020d%s", lastHistoryId, SUFFIX));
+            this.temp = directory.resolve(target.getFileName() + ".tmp");
+            this.lastHistoryId = lastHistoryId;
+            this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(lastHistoryId);
+        }
+
+        void add(UserPoint userPoint, PointSummary summary) {
+            if (count > 0 && userPoint.id() <= lastUserId) {
+                throw new IllegalStateException("snapshot 은 유저 ID 순으로 기록해야 합니다. id=" + userPoint.id());
+            }
+            if (buffer.remaining() < ENTRY_SIZE) {
+                writeBuffer();
+            }
+            buffer.putLong(userPoint.id()).putLong(userPoint.point()).putLong(userPoint.updateMillis())
+                    .putLong(summary.totalCharged()).putLong(summary.totalUsed()).putLong(summary.transactionCount()).putLong(summary.lastTransactionMillis());
+            lastUserId = userPoint.id();
+            count++;
+        }
+
+        PointSnapshot commit() throws IOException {
+            if (buffer.remaining() < TRAILER_SIZE) {
+                writeBuffer();
+            }
+            buffer.putLong(count);
+            writeBuffer();
+            buffer.putInt((int) checksum.getValue());
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+            channel.close();
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+            return new PointSnapshot(target, lastHistoryId, count);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                channel.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        private void writeBuffer() {
+            buffer.flip();
+            checksum.update(buffer.duplicate());
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("snapshot 기록에 실패했습니다. file=" + temp, e);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package io.hhplus.tdd.point.repository.wal;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class WalConfig {
+
+    @Bean(destroyMethod = "close")
+    public WriteAheadLog writeAheadLog(WalProperties properties) {
+        return properties.enabled() ? new FileWriteAheadLog(properties) : new DisabledWriteAheadLog();
+    }
+}
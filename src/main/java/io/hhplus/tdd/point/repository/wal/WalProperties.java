@@ -0,0 +1,38 @@
+package io.hhplus.tdd.point.repository.wal;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * write-ahead log 설정
+ * - enabled : 사용 여부
+ * - directory : segment 파일을 저장할 디렉터리
+ * - segment-size : segment 파일 하나의 최대 크기
+ * - fsync : every-op (요청마다 반영, 동시에 들어온 요청은 한 번에 반영) / interval (fsync-interval 마다 반영) / bytes (fsync-bytes 이상 쌓이면 반영)
+ *   bytes 는 요청이 끊겨 fsync-bytes 미만으로 남은 기록도 반영되도록 fsync-interval 마다 함께 반영한다.
+ * - snapshot-interval : 기록이 끝난 segment 를 snapshot 으로 압축하는 주기
+ * - compaction : archive (압축한 segment 를 archive 디렉터리로 옮긴다) / delete (압축한 segment 를 삭제한다)
+ */
+@ConfigurationProperties(prefix = "point.wal")
+public record WalProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data/wal") Path directory,
+        @DefaultValue("64MB") DataSize segmentSize,
+        @DefaultValue("every-op") Fsync fsync,
+        @DefaultValue("10ms") Duration fsyncInterval,
+        @DefaultValue("1MB") DataSize fsyncBytes,
+        @DefaultValue("1m") Duration snapshotInterval,
+        @DefaultValue("archive") Compaction compaction
+) {
+    public enum Fsync {
+        EVERY_OP, INTERVAL, BYTES
+    }
+
+    public enum Compaction {
+        ARCHIVE, DELETE
+    }
+}
@@ -0,0 +1,52 @@
+package io.hhplus.tdd.point.repository.wal;
+
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.domain.PointSummary;
+import io.hhplus.tdd.point.domain.UserPoint;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 포인트 내역 write-ahead log
+ * - 충전/이용은 모두 내역을 남기므로, 내역을 기록해 두면 재기동 시 내역과 잔액을 함께 복구할 수 있다.
+ * - append 는 기록 위치를 반환하고, 호출자는 응답 전에 awaitDurable 로 해당 위치까지 디스크에 반영되기를 기다린다.
+ *   (반영 시점은 fsync 정책에 따른다)
+ * - 디스크에 반영된 내역은 주기적으로 유저 포인트 snapshot 으로 압축하므로, 복구 비용은 전체 내역이 아닌 snapshot 이후의 내역에 비례한다.
+ */
+public interface WriteAheadLog {
+
+    /**
+     * 내역을 기록하고, 기록이 끝난 위치를 반환한다. 호출 순서가 곧 기록 순서다.
+     */
+    default long append(PointHistory pointHistory) {
+        return appendAll(List.of(pointHistory));
+    }
+
+    /**
+     * 내역 여러 건을 순서대로 기록하고, 기록이 끝난 위치를 반환한다.
+     * 기록에 실패하면 예외를 던지며, 이때는 어떤 내역도 기록되지 않는다.
+     */
+    long appendAll(List<PointHistory> pointHistories);
+
+    /**
+     * position 까지 기록된 내용이 fsync 정책에 따라 디스크에 반영될 때까지 기다린다.
+     */
+    void awaitDurable(long position);
+
+    /**
+     * 최신 snapshot 이후에 기록된 내역을 기록 순서대로 전달한 뒤, snapshot 의 유저 포인트와 누적 통계를 유저 ID 순으로 전달한다.
+     * snapshot 에 반영된 마지막 내역 ID 를 반환하며, snapshot 이 없으면 0 을 반환한다. (기동 시 복구용, 기록하기 전에만 호출할 수 있다)
+     */
+    long recover(Consumer<PointHistory> historyConsumer, BiConsumer<UserPoint, PointSummary> snapshotConsumer);
+
+    /**
+     * 더 이상 기록되지 않는 segment 의 내역을 snapshot 에 합치고, 합친 segment 는 보관하거나 삭제한다.
+     */
+    void compact();
+
+    void clear();
+
+    void close();
+}
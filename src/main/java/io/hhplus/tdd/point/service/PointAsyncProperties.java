@@ -0,0 +1,24 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.service.async.BlockingParallelism;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 포인트 비동기 처리 설정
+ * - parallelism : 유저별 mailbox 를 실행하는 스레드 수, 0 이하이면 가용 CPU 코어 수 × 8 을 사용한다. (가상 스레드 모드에서는 사용하지 않는다)
+ *   작업은 대부분 테이블 조회(캐시에 없는 유저, 최대 200ms)나 WAL fsync 를 기다리므로, CPU 코어 수보다 많은 스레드를 둔다.
+ * - throughput : mailbox 가 다른 유저에게 차례를 넘기기 전까지 연속으로 실행하는 최대 작업 수
+ * - max-pending : 유저별 mailbox 에 쌓일 수 있는 최대 작업 수, 가득 차면 요청을 429 로 거부한다.
+ *   (메모리에 쌓이는 요청은 최대 mailbox 수 × max-pending 개)
+ */
+@ConfigurationProperties(prefix = "point.async")
+public record PointAsyncProperties(
+        @DefaultValue("0") int parallelism,
+        @DefaultValue("16") int throughput,
+        @DefaultValue("1000") int maxPending
+) {
+    public int resolvedParallelism() {
+        return parallelism > 0 ? parallelism : BlockingParallelism.defaultParallelism();
+    }
+}
@@ -0,0 +1,85 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.domain.TransactionType;
+import io.hhplus.tdd.point.service.async.UserSerialExecutor;
+import io.hhplus.tdd.point.service.dto.request.PointHistoryPageRequest;
+import io.hhplus.tdd.point.service.dto.request.PointRequest;
+import io.hhplus.tdd.point.service.dto.response.PointHistoryPageResponse;
+import io.hhplus.tdd.point.service.dto.response.PointResponse;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * PointService 의 조회/충전/이용을 CompletableFuture 로 반환하는 비동기 API
+ * - 요청은 executor 에 넘기는 즉시 반환되므로, 호출 스레드(서블릿 스레드)는 테이블 지연 동안 대기하지 않는다.
+ * - 충전/이용은 유저별 mailbox 에서 제출 순서대로 하나씩 실행되므로, 유저 락을 기다리며 스레드가 대기하지 않는다.
+ *   동기 API 와 함께 사용하는 경우를 위해 엔진의 동시성 제어는 그대로 거치며, mailbox 끼리는 경합하지 않는다.
+ * - 조회는 잔액을 바꾸지 않으므로 mailbox 를 거치지 않고 executor 에서 바로 실행한다.
+ *   같은 유저의 조회가 몰려도 하나씩 처리되거나 max-pending 으로 거부되지 않으며, 캐시에 없는 유저의 조회는 UserPointRepository 에서 하나로 합쳐진다.
+ * - 가상 스레드 모드(spring.threads.virtual.enabled, JDK 21 이상)에서는 mailbox 실행마다 가상 스레드를 하나씩 사용한다.
+ *   그 외에는 테이블 조회와 fsync 대기를 감안해 CPU 코어 수보다 큰 고정 크기 풀을 사용한다. (PointAsyncProperties 참고)
+ * - 유저별 mailbox 에 쌓인 충전/이용이 max-pending 개에 이르면 이후 충전/이용은 429 로 거부한다.
+ * - 엔진이 유저별 queue 를 가진 경우(point.engine.type=mailbox) 충전/이용은 이 mailbox 대신 엔진의 queue 에 바로 넣는다.
+ *   두 단계로 직렬화하면 엔진 queue 에는 유저별로 한 명령만 들어가 fold 가 일어나지 않기 때문이며, max-pending 은 엔진 queue 에 적용한다.
+ */
+@Service
+public class PointAsyncService {
+
+    private final PointService pointService;
+    private final Executor executor;
+    private final UserSerialExecutor userSerialExecutor;
+    private final int maxPending;
+
+    public PointAsyncService(PointService pointService, PointAsyncProperties properties, Environment environment) {
+        this.pointService = pointService;
+
+        if (Threading.VIRTUAL.isActive(environment)) {
+            this.executor = new VirtualThreadTaskExecutor("point-async-");
+        } else {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("point-async-");
+            threadFactory.setDaemon(true);
+            this.executor = Executors.newFixedThreadPool(properties.resolvedParallelism(), threadFactory);
+        }
+        this.userSerialExecutor = new UserSerialExecutor(executor, properties.throughput(), properties.maxPending());
+        this.maxPending = properties.maxPending();
+    }
+
+    public CompletableFuture<PointResponse> getPointsByUserId(long userId) {
+        return CompletableFuture.supplyAsync(() -> pointService.getPointsByUserId(userId), executor);
+    }
+
+    public CompletableFuture<PointResponse> chargePoints(long userId, PointRequest pointRequest) {
+        if (pointService.queuesCommands()) {
+            return pointService.enqueuePoints(userId, TransactionType.CHARGE, pointRequest, maxPending);
+        }
+        return userSerialExecutor.submit(userId, () -> pointService.chargePoints(userId, pointRequest));
+    }
+
+    public CompletableFuture<PointResponse> usePoints(long userId, PointRequest pointRequest) {
+        if (pointService.queuesCommands()) {
+            return pointService.enqueuePoints(userId, TransactionType.USE, pointRequest, maxPending);
+        }
+        return userSerialExecutor.submit(userId, () -> pointService.usePoints(userId, pointRequest));
+    }
+
+    public CompletableFuture<PointHistoryPageResponse> getPointHistoryPage(long userId, PointHistoryPageRequest request) {
+        return CompletableFuture.supplyAsync(() -> pointService.getPointHistoryPage(userId, request), executor);
+    }
+
+    @PreDestroy
+    public void close() {
+        // 가상 스레드는 작업마다 생성되므로 정리할 풀이 없다.
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+}
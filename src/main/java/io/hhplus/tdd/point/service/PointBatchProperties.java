@@ -0,0 +1,19 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.service.async.BlockingParallelism;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 포인트 일괄 처리 설정
+ * - parallelism : 유저 그룹을 동시에 처리하는 스레드 수, 0 이하이면 가용 CPU 코어 수 × 8 을 사용한다. (가상 스레드 모드에서는 사용하지 않는다)
+ *   유저 그룹의 처리는 대부분 테이블 조회나 fsync 를 기다리므로, 비동기 API 와 같은 기준으로 CPU 코어 수보다 많은 스레드를 둔다.
+ */
+@ConfigurationProperties(prefix = "point.batch")
+public record PointBatchProperties(
+        @DefaultValue("0") int parallelism
+) {
+    public int resolvedParallelism() {
+        return parallelism > 0 ? parallelism : BlockingParallelism.defaultParallelism();
+    }
+}
@@ -0,0 +1,104 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.service.command.PointCommand;
+import io.hhplus.tdd.point.service.command.PointCommandResult;
+import io.hhplus.tdd.point.service.dto.request.PointBatchItemRequest;
+import io.hhplus.tdd.point.service.dto.request.PointBatchRequest;
+import io.hhplus.tdd.point.service.dto.response.PointBatchItemResponse;
+import io.hhplus.tdd.point.service.dto.response.PointBatchResponse;
+import io.hhplus.tdd.point.service.mapper.PointMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 여러 유저에 대한 충전/이용 요청을 한 번에 처리한다.
+ * - 요청 항목을 유저별로 묶고, 유저별 락을 한 번만 획득해 해당 유저의 항목을 요청 순서대로 적용한다.
+ * - 서로 다른 유저의 묶음은 고정 크기 풀(기본 CPU 코어 수 × 8)에서 동시에 처리한다. (PointBatchProperties 참고)
+ * - 묶음 처리 중 예상하지 못한 예외가 발생해도 요청 전체를 실패시키지 않고 해당 묶음의 항목 결과로 남기므로,
+ *   다른 묶음에서 적용된 항목의 결과는 항상 응답에 포함된다.
+ * - 가상 스레드 모드(spring.threads.virtual.enabled, JDK 21 이상)에서는 묶음마다 가상 스레드를 하나씩 사용한다.
+ */
+@Service
+public class PointBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(PointBatchService.class);
+
+    private final PointService pointService;
+    private final PointMapper pointMapper;
+    private final Executor executor;
+
+    public PointBatchService(PointService pointService, PointMapper pointMapper, PointBatchProperties properties, Environment environment) {
+        this.pointService = pointService;
+        this.pointMapper = pointMapper;
+
+        if (Threading.VIRTUAL.isActive(environment)) {
+            this.executor = new VirtualThreadTaskExecutor("point-batch-");
+        } else {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("point-batch-");
+            threadFactory.setDaemon(true);
+            this.executor = Executors.newFixedThreadPool(properties.resolvedParallelism(), threadFactory);
+        }
+    }
+
+    public PointBatchResponse applyBatch(PointBatchRequest request) {
+        List<PointBatchItemRequest> items = request.items();
+        Map<Long, List<Integer>> indicesByUser = new LinkedHashMap<>();
+        for (int index = 0; index < items.size(); index++) {
+            indicesByUser.computeIfAbsent(items.get(index).userId(), userId -> new ArrayList<>()).add(index);
+        }
+
+        // 각 묶음은 서로 다른 위치에만 결과를 기록하고, join 이후에 결과를 읽는다.
+        PointBatchItemResponse[] responses = new PointBatchItemResponse[items.size()];
+        CompletableFuture<?>[] futures = indicesByUser.entrySet().stream()
+                .map(entry -> CompletableFuture.runAsync(() -> applyGroup(entry.getKey(), entry.getValue(), items, responses), executor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).join();
+
+        return new PointBatchResponse(Arrays.asList(responses));
+    }
+
+    @PreDestroy
+    public void close() {
+        // 가상 스레드는 작업마다 생성되므로 정리할 풀이 없다.
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    private void applyGroup(long userId, List<Integer> indices, List<PointBatchItemRequest> items, PointBatchItemResponse[] responses) {
+        List<PointCommand> commands = indices.stream()
+                .map(items::get)
+                .map(item -> new PointCommand(userId, item.type(), item.amount()))
+                .toList();
+
+        List<PointCommandResult> results;
+        try {
+            results = pointService.applyCommands(userId, commands);
+        } catch (RuntimeException e) {
+            // 엔진이 묶음 전체를 실패 처리한 경우로, 이 묶음에서 적용된 명령은 없다.
+            log.error("포인트 일괄 처리 중 유저의 묶음 처리에 실패했습니다. userId={}", userId, e);
+            results = Collections.nCopies(commands.size(), PointCommandResult.failure(e));
+        }
+        for (int i = 0; i < indices.size(); i++) {
+            int index = indices.get(i);
+            responses[index] = pointMapper.mapToPointBatchItemResponse(index, commands.get(i), results.get(i));
+        }
+    }
+}
@@ -1,14 +1,29 @@
 package io.hhplus.tdd.point.service;
 
-import io.hhplus.tdd.database.PointHistoryTable;
-import io.hhplus.tdd.database.UserPointTable;
 import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.domain.PointRollup.Resolution;
 import io.hhplus.tdd.point.domain.TransactionType;
 import io.hhplus.tdd.point.domain.UserPoint;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.PointRollupRepository;
+import io.hhplus.tdd.point.repository.PointSummaryRepository;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.service.command.PointCommand;
+import io.hhplus.tdd.point.service.command.PointCommandResult;
+import io.hhplus.tdd.point.service.cursor.PointHistoryCursor;
+import io.hhplus.tdd.point.service.dto.request.PointHistoryExportRequest;
+import io.hhplus.tdd.point.service.dto.request.PointHistoryPageRequest;
 import io.hhplus.tdd.point.service.dto.request.PointRequest;
+import io.hhplus.tdd.point.service.dto.request.PointRollupRequest;
+import io.hhplus.tdd.point.service.dto.response.PointHistoryPageResponse;
 import io.hhplus.tdd.point.service.dto.response.PointHistoryResponse;
 import io.hhplus.tdd.point.service.dto.response.PointResponse;
+import io.hhplus.tdd.point.service.dto.response.PointRollupResponse;
+import io.hhplus.tdd.point.service.dto.response.PointSummaryResponse;
+import io.hhplus.tdd.point.service.engine.PointEngine;
 import io.hhplus.tdd.point.service.exception.InsufficientPointException;
+import io.hhplus.tdd.point.service.exception.InvalidRollupWindowException;
 import io.hhplus.tdd.point.service.exception.MaxBalanceExceededException;
 import io.hhplus.tdd.point.service.mapper.PointHistoryMapper;
 import io.hhplus.tdd.point.service.mapper.PointMapper;
@@ -16,73 +31,174 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class PointService {
 
-    private final UserPointTable pointRepository;
-    private final PointHistoryTable pointHistoryRepository;
+    private final UserPointRepository pointRepository;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final PointSummaryRepository pointSummaryRepository;
+    private final PointRollupRepository pointRollupRepository;
     private final PointMapper pointMapper;
     private final PointHistoryMapper pointHistoryMapper;
-    private final Map<Long, Lock> locks = new ConcurrentHashMap<>();
+    private final PointEngine pointEngine;
+    private final PointMetrics metrics;
 
     public PointResponse getPointsByUserId(long userId) {
-        UserPoint userPoint = pointRepository.selectById(userId);
+        UserPoint userPoint = pointRepository.findById(userId);
 
         return pointMapper.mapToPointResponse(userPoint);
     }
 
-    public PointResponse chargePoints(long userId, PointRequest pointRequest) {
-        Lock lock = getLockForUser(userId);
+    /**
+     * 누적 통계는 내역이 추가될 때마다 갱신되어 있으므로, 내역을 조회하지 않는다.
+     */
+    public PointSummaryResponse getPointSummary(long userId) {
+        return pointMapper.mapToPointSummaryResponse(pointSummaryRepository.findByUserId(userId));
+    }
 
-        lock.lock();
-        try {
-            UserPoint currentUserPoint = pointRepository.selectById(userId);
-            long afterChargePoint = currentUserPoint.point() + pointRequest.amount();
+    /**
+     * 전체 유저의 구간 합계, 미리 집계된 구간만 더하므로 내역을 조회하지 않는다.
+     */
+    public PointRollupResponse getPointRollup(PointRollupRequest request) {
+        validateWindow(request);
+        return pointMapper.mapToPointRollupResponse(pointRollupRepository.sum(request.from(), request.to()));
+    }
 
-            if (afterChargePoint > UserPoint.MAX_BALANCE) {
-                throw new MaxBalanceExceededException();
-            }
-            UserPoint userPoint = pointRepository.insertOrUpdate(userId, afterChargePoint);
-            pointHistoryRepository.insert(userId, pointRequest.amount(), TransactionType.CHARGE, System.currentTimeMillis());
+    /**
+     * 전체 유저의 resolution 단위 구간별 합계, 구간 수는 해당 단위로 보관하는 구간 수를 넘을 수 없다.
+     */
+    public List<PointRollupResponse> getPointRollupSeries(PointRollupRequest request) {
+        validateWindow(request);
+        Resolution resolution = request.resolution();
+        long buckets = Math.floorDiv(request.to() - 1, resolution.millis()) - Math.floorDiv(request.from(), resolution.millis()) + 1;
+        int capacity = pointRollupRepository.capacity(resolution);
+        if (buckets > capacity) {
+            throw new InvalidRollupWindowException(resolution + " 단위로는 최대 " + capacity + "개 구간까지 조회할 수 있습니다.");
+        }
+        return pointRollupRepository.series(resolution, request.from(), request.to()).stream()
+                .map(pointMapper::mapToPointRollupResponse)
+                .toList();
+    }
+
+    public PointResponse chargePoints(long userId, PointRequest pointRequest) {
+        metrics.recordAccess(userId);
+        try {
+            UserPoint userPoint = pointEngine.charge(userId, pointRequest.amount());
 
             return pointMapper.mapToPointResponse(userPoint);
-        } finally {
-            lock.unlock();
+        } catch (MaxBalanceExceededException e) {
+            metrics.recordRejection(TransactionType.CHARGE, e);
+            throw e;
         }
     }
 
     public PointResponse usePoints(long userId, PointRequest pointRequest) {
-        Lock lock = getLockForUser(userId);
-
-        lock.lock();
+        metrics.recordAccess(userId);
         try {
-            UserPoint currentUserPoint = pointRepository.selectById(userId);
-
-            if (currentUserPoint.point() < pointRequest.amount()) {
-                throw new InsufficientPointException();
-            }
-            UserPoint userPoint = pointRepository.insertOrUpdate(userId, currentUserPoint.point() - pointRequest.amount());
-            pointHistoryRepository.insert(userId, pointRequest.amount(), TransactionType.USE, System.currentTimeMillis());
+            UserPoint userPoint = pointEngine.use(userId, pointRequest.amount());
 
             return pointMapper.mapToPointResponse(userPoint);
-        } finally {
-            lock.unlock();
+        } catch (InsufficientPointException e) {
+            metrics.recordRejection(TransactionType.USE, e);
+            throw e;
         }
     }
 
+    /**
+     * 엔진이 유저별 queue 에 명령을 넣고 차례대로 적용하는지 여부, 이 경우 호출자가 같은 유저의 충전/이용을 직렬화할 필요가 없다.
+     */
+    public boolean queuesCommands() {
+        return pointEngine.queuesPerUser();
+    }
+
+    /**
+     * 충전/이용을 엔진의 유저별 queue 에 넣고 바로 반환한다. 적용되면 완료되며, 거부된 경우 그 예외로 실패한다.
+     * queue 에 maxPending 개의 명령이 쌓여 있으면 TooManyPendingRequestsException 으로 실패한다.
+     */
+    public CompletableFuture<PointResponse> enqueuePoints(long userId, TransactionType type, PointRequest pointRequest, int maxPending) {
+        metrics.recordAccess(userId);
+        return pointEngine.enqueue(userId, new PointCommand(userId, type, pointRequest.amount()), maxPending)
+                .thenCompose(result -> {
+                    if (result.isSuccess()) {
+                        return CompletableFuture.completedFuture(pointMapper.mapToPointResponse(result.userPoint()));
+                    }
+                    if (result.failure() instanceof MaxBalanceExceededException || result.failure() instanceof InsufficientPointException) {
+                        metrics.recordRejection(type, result.failure());
+                    }
+                    return CompletableFuture.failedFuture(result.failure());
+                });
+    }
+
+    /**
+     * 한 유저에 대한 여러 명령을 순서대로 적용한다.
+     * 실패한 명령은 결과에 실패 원인을 남기고 다음 명령을 계속 적용한다.
+     */
+    public List<PointCommandResult> applyCommands(long userId, List<PointCommand> commands) {
+        metrics.recordAccess(userId);
+        List<PointCommandResult> results = pointEngine.applyAll(userId, commands);
+        for (int i = 0; i < results.size(); i++) {
+            if (!results.get(i).isSuccess()) {
+                metrics.recordRejection(commands.get(i).type(), results.get(i).failure());
+            }
+        }
+        return results;
+    }
+
     public List<PointHistoryResponse> getPointHistoryByUserId(long userId) {
-        List<PointHistory> pointHistories = pointHistoryRepository.selectAllByUserId(userId);
+        List<PointHistory> pointHistories = pointHistoryRepository.findAllByUserId(userId);
 
         return pointHistoryMapper.mapToPointHistoryResponses(pointHistories);
     }
 
-    private Lock getLockForUser(long userId) {
-        return locks.computeIfAbsent(userId, user -> new ReentrantLock());
+    public PointHistoryPageResponse getPointHistoryPage(long userId, PointHistoryPageRequest request) {
+        long afterId = PointHistoryCursor.decode(request.cursor());
+        long fromMillis = request.from() == null ? Long.MIN_VALUE : request.from();
+        long toMillis = request.to() == null ? Long.MAX_VALUE : request.to();
+        int limit = request.limit();
+
+        // 다음 페이지 존재 여부를 알기 위해 한 건 더 조회한다.
+        List<PointHistory> pointHistories = pointHistoryRepository.findByUserId(userId, afterId, fromMillis, toMillis, limit + 1);
+        if (pointHistories.size() <= limit) {
+            return new PointHistoryPageResponse(pointHistoryMapper.mapToPointHistoryResponses(pointHistories), null);
+        }
+        List<PointHistory> page = pointHistories.subList(0, limit);
+        String nextCursor = PointHistoryCursor.encode(page.get(limit - 1).id());
+
+        return new PointHistoryPageResponse(pointHistoryMapper.mapToPointHistoryResponses(page), nextCursor);
+    }
+
+    /**
+     * 조건에 맞는 내역을 ID 순으로 하나씩 consumer 에 전달한다. 전체 목록을 만들지 않으므로 내역 수와 무관하게 메모리를 일정하게 사용한다.
+     */
+    public void exportPointHistories(PointHistoryExportRequest request, Consumer<PointHistoryResponse> consumer) {
+        Stream<PointHistory> pointHistories = request.userId() == null
+                ? pointHistoryRepository.streamAll()
+                : pointHistoryRepository.streamByUserId(request.userId());
+
+        pointHistories
+                .filter(pointHistory -> matches(pointHistory, request))
+                .map(pointHistoryMapper::mapToPointHistoryResponse)
+                .forEach(consumer);
+    }
+
+    private boolean matches(PointHistory pointHistory, PointHistoryExportRequest request) {
+        if (request.type() != null && pointHistory.type() != request.type()) {
+            return false;
+        }
+        if (request.from() != null && pointHistory.updateMillis() < request.from()) {
+            return false;
+        }
+        return request.to() == null || pointHistory.updateMillis() <= request.to();
+    }
+
+    private static void validateWindow(PointRollupRequest request) {
+        if (request.from() >= request.to()) {
+            throw new InvalidRollupWindowException("조회 구간의 시작은 끝보다 앞서야 합니다.");
+        }
     }
 }
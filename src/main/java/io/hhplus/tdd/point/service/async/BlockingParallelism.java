@@ -0,0 +1,21 @@
+package io.hhplus.tdd.point.service.async;
+
+/**
+ * 테이블 조회나 WAL fsync 를 기다리는 작업을 실행하는 고정 크기 풀의 기본 스레드 수
+ * - 작업 시간의 대부분이 대기(캐시에 없는 유저 조회 최대 200ms, 내역 반영, fsync)이므로 CPU 코어 수보다 많은 스레드를 둔다.
+ * - 비동기 API, 일괄 처리, mailbox 엔진의 풀이 같은 기준을 사용한다.
+ */
+public final class BlockingParallelism {
+
+    private static final int THREADS_PER_CORE = 8;
+
+    private BlockingParallelism() {
+    }
+
+    /**
+     * 가용 CPU 코어 수 × 8
+     */
+    public static int defaultParallelism() {
+        return Runtime.getRuntime().availableProcessors() * THREADS_PER_CORE;
+    }
+}
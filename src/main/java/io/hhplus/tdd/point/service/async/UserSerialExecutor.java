@@ -0,0 +1,149 @@
+package io.hhplus.tdd.point.service.async;
+
+import io.hhplus.tdd.point.service.exception.TooManyPendingRequestsException;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 유저별 mailbox 로 같은 유저의 작업을 제출 순서대로 하나씩 실행하는 executor
+ * - 작업은 호출 스레드에서 실행하지 않고 mailbox 에 넣은 즉시 CompletableFuture 를 반환한다.
+ * - mailbox 는 공유 executor 에서 한 번에 최대 throughput 개의 작업을 실행하고, 남은 작업이 있으면 다시 제출해 다른 유저에게 차례를 넘긴다.
+ * - 작업이 없는 mailbox 는 제거하므로, 메모리에는 작업이 남아 있는 유저의 mailbox 만 남는다.
+ * - mailbox 에 실행을 기다리는 작업이 maxPending 개 쌓인 유저의 작업은 넣지 않고 TooManyPendingRequestsException 으로 실패시킨다.
+ * - mailbox 의 생성과 제거는 ConcurrentHashMap 의 compute 안에서 유저 단위로 원자적으로 처리되므로,
+ *   한 유저의 mailbox 는 동시에 하나만 실행된다.
+ * - executor 가 mailbox 실행을 거부하면(종료 등) mailbox 를 제거하고 남은 작업을 모두 그 예외로 실패시킨다.
+ */
+public class UserSerialExecutor {
+
+    private final Map<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final int throughput;
+    private final int maxPending;
+
+    /**
+     * mailbox 에 쌓이는 작업 수를 제한하지 않는다.
+     */
+    public UserSerialExecutor(Executor executor, int throughput) {
+        this(executor, throughput, Integer.MAX_VALUE);
+    }
+
+    public UserSerialExecutor(Executor executor, int throughput, int maxPending) {
+        if (throughput <= 0 || maxPending <= 0) {
+            throw new IllegalArgumentException("throughput 과 maxPending 은 1 이상이어야 합니다. throughput=" + throughput + ", maxPending=" + maxPending);
+        }
+        this.executor = executor;
+        this.throughput = throughput;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * 유저의 mailbox 에 작업을 넣는다. 작업이 던진 예외는 반환한 CompletableFuture 의 실패로 전달된다.
+     * mailbox 가 가득 찬 경우 작업을 넣지 않고, TooManyPendingRequestsException 으로 실패한 CompletableFuture 를 반환한다.
+     */
+    public <T> CompletableFuture<T> submit(long userId, Supplier<T> task) {
+        Task<T> runnable = new Task<>(task);
+
+        Mailbox[] created = new Mailbox[1];
+        boolean[] rejected = new boolean[1];
+        mailboxes.compute(userId, (id, existing) -> {
+            Mailbox mailbox = existing == null ? created[0] = new Mailbox(id) : existing;
+            // 작업 추가는 compute 안에서 직렬화되므로, 확인과 추가 사이에 다른 작업이 끼어들어 maxPending 을 넘지 않는다.
+            if (mailbox.pending.get() >= maxPending) {
+                rejected[0] = true;
+                return mailbox;
+            }
+            mailbox.pending.incrementAndGet();
+            mailbox.tasks.add(runnable);
+            return mailbox;
+        });
+        if (rejected[0]) {
+            return CompletableFuture.failedFuture(new TooManyPendingRequestsException());
+        }
+        if (created[0] != null) {
+            schedule(created[0]);
+        }
+        return runnable.result;
+    }
+
+    /**
+     * 작업이 남아 있는 mailbox 수
+     */
+    public int size() {
+        return mailboxes.size();
+    }
+
+    private void schedule(Mailbox mailbox) {
+        try {
+            executor.execute(() -> run(mailbox));
+        } catch (RejectedExecutionException e) {
+            abandon(mailbox, e);
+        }
+    }
+
+    private void run(Mailbox mailbox) {
+        for (int i = 0; i < throughput; i++) {
+            Task<?> task = mailbox.tasks.poll();
+            if (task == null) {
+                break;
+            }
+            mailbox.pending.decrementAndGet();
+            task.run();
+        }
+        // 작업 추가도 compute 안에서 이루어지므로, 비어 있는 것을 확인하고 제거하는 사이에 작업이 들어올 수 없다.
+        Mailbox remaining = mailboxes.computeIfPresent(mailbox.userId, (id, existing) -> existing.tasks.isEmpty() ? null : existing);
+        if (remaining != null) {
+            schedule(mailbox);
+        }
+    }
+
+    /**
+     * 실행되지 않을 mailbox 를 제거하고 남은 작업을 실패시킨다.
+     * 제거한 뒤에는 작업이 추가되지 않으므로(새 mailbox 가 만들어진다), 남은 작업을 빠짐없이 꺼낼 수 있다.
+     */
+    private void abandon(Mailbox mailbox, RejectedExecutionException e) {
+        mailboxes.remove(mailbox.userId, mailbox);
+        Task<?> task;
+        while ((task = mailbox.tasks.poll()) != null) {
+            task.result.completeExceptionally(e);
+        }
+    }
+
+    private static final class Task<T> implements Runnable {
+
+        private final Supplier<T> supplier;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private Task(Supplier<T> supplier) {
+            this.supplier = supplier;
+        }
+
+        @Override
+        public void run() {
+            try {
+                result.complete(supplier.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class Mailbox {
+
+        private final long userId;
+        private final Queue<Task<?>> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private Mailbox(long userId) {
+            this.userId = userId;
+        }
+    }
+}
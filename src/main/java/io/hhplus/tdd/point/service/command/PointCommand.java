@@ -0,0 +1,13 @@
+package io.hhplus.tdd.point.service.command;
+
+import io.hhplus.tdd.point.domain.TransactionType;
+
+/**
+ * 유저 포인트에 적용할 충전/이용 명령
+ */
+public record PointCommand(
+        long userId,
+        TransactionType type,
+        long amount
+) {
+}
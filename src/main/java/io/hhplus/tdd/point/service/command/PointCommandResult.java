@@ -0,0 +1,23 @@
+package io.hhplus.tdd.point.service.command;
+
+import io.hhplus.tdd.point.domain.UserPoint;
+
+/**
+ * 명령 적용 결과, 성공 시 적용 후 유저 포인트를, 실패 시 실패 원인을 가진다.
+ */
+public record PointCommandResult(
+        UserPoint userPoint,
+        RuntimeException failure
+) {
+    public static PointCommandResult success(UserPoint userPoint) {
+        return new PointCommandResult(userPoint, null);
+    }
+
+    public static PointCommandResult failure(RuntimeException failure) {
+        return new PointCommandResult(null, failure);
+    }
+
+    public boolean isSuccess() {
+        return failure == null;
+    }
+}
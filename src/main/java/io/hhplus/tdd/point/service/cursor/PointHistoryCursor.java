@@ -0,0 +1,45 @@
+package io.hhplus.tdd.point.service.cursor;
+
+import io.hhplus.tdd.point.service.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 포인트 거래 내역 페이지 커서
+ * 마지막으로 응답한 PointHistory.id 를 담으며, 클라이언트에는 의미를 알 수 없는 문자열로 전달한다.
+ */
+public final class PointHistoryCursor {
+
+    private static final String PREFIX = "h:";
+
+    private PointHistoryCursor() {
+    }
+
+    public static String encode(long lastId) {
+        byte[] bytes = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * 커서가 없으면 처음부터 조회하도록 0 을 반환한다.
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new InvalidCursorException();
+            }
+            long lastId = Long.parseLong(decoded.substring(PREFIX.length()));
+            if (lastId < 0) {
+                throw new InvalidCursorException();
+            }
+            return lastId;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
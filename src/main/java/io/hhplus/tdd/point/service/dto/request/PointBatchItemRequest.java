@@ -0,0 +1,19 @@
+package io.hhplus.tdd.point.service.dto.request;
+
+import io.hhplus.tdd.point.domain.TransactionType;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record PointBatchItemRequest(
+
+        @NotNull(message = "유저 ID를 입력해주세요.")
+        Long userId,
+
+        @NotNull(message = "거래 종류를 입력해주세요.")
+        TransactionType type,
+
+        @NotNull(message = "포인트를 입력해주세요.")
+        @Positive(message = "포인트는 0보다 커야 합니다.")
+        Long amount
+) {
+}
@@ -0,0 +1,16 @@
+package io.hhplus.tdd.point.service.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record PointBatchRequest(
+
+        @NotEmpty(message = "요청 항목을 입력해주세요.")
+        @Size(max = 1_000, message = "한 번에 요청할 수 있는 항목은 1000개 이하입니다.")
+        List<@Valid @NotNull PointBatchItemRequest> items
+) {
+}
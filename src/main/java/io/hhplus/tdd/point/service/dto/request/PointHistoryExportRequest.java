@@ -0,0 +1,17 @@
+package io.hhplus.tdd.point.service.dto.request;
+
+import io.hhplus.tdd.point.domain.TransactionType;
+
+/**
+ * 포인트 거래 내역 내보내기 조건, 모든 조건은 선택 사항이다.
+ * - userId : 특정 유저의 내역만 내보낸다.
+ * - type : 특정 거래 종류의 내역만 내보낸다.
+ * - from, to : 거래 시각(epoch millis) 구간, 양 끝을 포함한다.
+ */
+public record PointHistoryExportRequest(
+        Long userId,
+        TransactionType type,
+        Long from,
+        Long to
+) {
+}
@@ -0,0 +1,29 @@
+package io.hhplus.tdd.point.service.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+/**
+ * 포인트 거래 내역 페이지 조회 조건
+ * - cursor : 이전 페이지 응답으로 받은 커서, 없으면 처음부터 조회한다.
+ * - limit : 페이지 크기 (기본 100, 최대 1000)
+ * - from, to : 거래 시각(epoch millis) 구간, 양 끝을 포함한다.
+ */
+public record PointHistoryPageRequest(
+        String cursor,
+
+        @Min(value = 1, message = "조회 개수는 1 이상이어야 합니다.")
+        @Max(value = 1_000, message = "조회 개수는 1000 이하여야 합니다.")
+        Integer limit,
+
+        Long from,
+        Long to
+) {
+    public static final int DEFAULT_LIMIT = 100;
+
+    public PointHistoryPageRequest {
+        if (limit == null) {
+            limit = DEFAULT_LIMIT;
+        }
+    }
+}
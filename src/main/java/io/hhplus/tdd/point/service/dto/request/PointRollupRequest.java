@@ -0,0 +1,25 @@
+package io.hhplus.tdd.point.service.dto.request;
+
+import io.hhplus.tdd.point.domain.PointRollup.Resolution;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * 충전/이용 집계 조회 조건
+ * - from, to : 조회 구간(epoch millis), 시작은 포함하고 끝은 포함하지 않는다.
+ * - resolution : 구간별 조회 시 구간 단위 (MINUTE / HOUR / DAY, 기본 MINUTE)
+ */
+public record PointRollupRequest(
+        @NotNull(message = "조회 구간의 시작을 입력해주세요.")
+        Long from,
+
+        @NotNull(message = "조회 구간의 끝을 입력해주세요.")
+        Long to,
+
+        Resolution resolution
+) {
+    public PointRollupRequest {
+        if (resolution == null) {
+            resolution = Resolution.MINUTE;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package io.hhplus.tdd.point.service.dto.response;
+
+/**
+ * 일괄 요청 항목별 처리 결과
+ * - index : 요청 목록에서의 위치
+ * - point : 성공 시 적용 후 포인트 잔고, 실패 시 null
+ * - errorMessage : 실패 시 실패 사유, 성공 시 null
+ */
+public record PointBatchItemResponse(
+        int index,
+        long userId,
+        String transactionType,
+        boolean success,
+        Long point,
+        String errorMessage
+) {
+}
@@ -0,0 +1,8 @@
+package io.hhplus.tdd.point.service.dto.response;
+
+import java.util.List;
+
+public record PointBatchResponse(
+        List<PointBatchItemResponse> results
+) {
+}
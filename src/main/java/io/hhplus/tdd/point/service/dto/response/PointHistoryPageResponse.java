@@ -0,0 +1,9 @@
+package io.hhplus.tdd.point.service.dto.response;
+
+import java.util.List;
+
+public record PointHistoryPageResponse(
+        List<PointHistoryResponse> histories,
+        String nextCursor
+) {
+}
@@ -0,0 +1,12 @@
+package io.hhplus.tdd.point.service.dto.response;
+
+public record PointRollupResponse(
+        long from,
+        long to,
+        long chargeAmount,
+        long chargeCount,
+        long useAmount,
+        long useCount,
+        boolean complete
+) {
+}
@@ -0,0 +1,10 @@
+package io.hhplus.tdd.point.service.dto.response;
+
+public record PointSummaryResponse(
+        long userId,
+        long totalCharged,
+        long totalUsed,
+        long transactionCount,
+        Long lastTransactionTime
+) {
+}
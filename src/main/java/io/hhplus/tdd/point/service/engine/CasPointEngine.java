@@ -0,0 +1,94 @@
+package io.hhplus.tdd.point.service.engine;
+
+import io.hhplus.tdd.point.domain.TransactionType;
+import io.hhplus.tdd.point.domain.UserPoint;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.repository.PointHistoryNotDurableException;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.service.exception.InsufficientPointException;
+import io.hhplus.tdd.point.service.exception.MaxBalanceExceededException;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 락 없이 CAS 재시도로 잔액을 갱신하는 엔진
+ * - 현재 잔액을 읽고 검증한 뒤 compareAndSet 으로 갱신하며, 다른 요청이 먼저 갱신했다면 최신 잔액으로 다시 검증한다.
+ * - compareAndSet 은 UserPointStore 의 slot 에 대한 CAS 이므로, 같은 유저에 대한 요청이 몰려도 스레드를 park 하지 않고
+ *   다른 유저의 갱신과도 경합하지 않는다. (캐시에 없는 유저를 처음 조회할 때만 테이블 조회를 기다린다)
+ * - 내역은 잔액 갱신에 성공한 뒤 추가하므로, 같은 유저의 동시 요청은 잔액 갱신 순서와 내역 순서(ID 순)가 다를 수 있다.
+ *   내역의 증감 합계는 잔액과 같지만, 내역을 ID 순으로 누적한 중간 잔액은 실제로 거친 잔액과 다를 수 있다.
+ *   (복구 시에는 내역의 증감을 합산하므로 순서와 무관하게 같은 잔액이 된다)
+ * - 내역 추가에 실패하면 갱신한 증감을 CAS 로 되돌린 뒤 예외를 던지므로, 내역 없이 잔액만 바뀐 상태로 남지 않는다.
+ *   그 사이 다른 요청이 잔액을 바꿨을 수 있어 이전 잔액으로 덮어쓰지 않고 증감만 되돌리며,
+ *   되돌리기 전에 실패한 충전분을 다른 이용이 사용했다면 잔액이 내역의 합계대로 음수가 될 수 있다.
+ *   (내역이 추가된 뒤 디스크 반영만 확인하지 못한 경우(PointHistoryNotDurableException)는 반영된 것으로 보고 되돌리지 않는다)
+ * - 단, 갱신한 잔액이 WAL 기록 전에 다른 요청에 보이므로, 두 내역의 기록 사이에 종료되면 충전 없이 이용만 재생되어 잔액이 음수가 될 수 있다.
+ *   따라서 write-ahead log 를 사용하는 경우(point.wal.enabled=true)에는 기동 시 거부한다.
+ */
+@RequiredArgsConstructor
+public class CasPointEngine implements PointEngine {
+
+    private final UserPointRepository pointRepository;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final PointMetrics metrics;
+
+    @Override
+    public UserPoint charge(long userId, long amount) {
+        while (true) {
+            UserPoint currentUserPoint = pointRepository.findById(userId);
+            // 합산 결과의 overflow 를 피하기 위해 남은 한도와 비교한다.
+            if (amount > UserPoint.MAX_BALANCE - currentUserPoint.point()) {
+                throw new MaxBalanceExceededException();
+            }
+            UserPoint userPoint = pointRepository.compareAndSet(currentUserPoint, currentUserPoint.point() + amount);
+            if (userPoint != null) {
+                appendOrRevert(userId, amount, TransactionType.CHARGE, userPoint.updateMillis(), amount);
+                return userPoint;
+            }
+            metrics.recordCasRetry();
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public UserPoint use(long userId, long amount) {
+        while (true) {
+            UserPoint currentUserPoint = pointRepository.findById(userId);
+            if (currentUserPoint.point() < amount) {
+                throw new InsufficientPointException();
+            }
+            UserPoint userPoint = pointRepository.compareAndSet(currentUserPoint, currentUserPoint.point() - amount);
+            if (userPoint != null) {
+                appendOrRevert(userId, amount, TransactionType.USE, userPoint.updateMillis(), -amount);
+                return userPoint;
+            }
+            metrics.recordCasRetry();
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * 내역을 추가하고, 내역이 추가되지 않았다면 잔액에 더한 delta 를 되돌린 뒤 예외를 다시 던진다.
+     */
+    private void appendOrRevert(long userId, long amount, TransactionType type, long updateMillis, long delta) {
+        try {
+            pointHistoryRepository.append(userId, amount, type, updateMillis);
+        } catch (PointHistoryNotDurableException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            revert(userId, delta);
+            throw e;
+        }
+    }
+
+    private void revert(long userId, long delta) {
+        while (true) {
+            UserPoint currentUserPoint = pointRepository.findById(userId);
+            if (pointRepository.compareAndSet(currentUserPoint, currentUserPoint.point() - delta) != null) {
+                return;
+            }
+            metrics.recordCasRetry();
+            Thread.onSpinWait();
+        }
+    }
+}
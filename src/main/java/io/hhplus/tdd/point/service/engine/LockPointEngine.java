@@ -0,0 +1,93 @@
+package io.hhplus.tdd.point.service.engine;
+
+import io.hhplus.tdd.point.domain.TransactionType;
+import io.hhplus.tdd.point.domain.UserPoint;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.repository.PointHistoryNotDurableException;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.service.command.PointCommand;
+import io.hhplus.tdd.point.service.command.PointCommandResult;
+import io.hhplus.tdd.point.service.exception.InsufficientPointException;
+import io.hhplus.tdd.point.service.exception.MaxBalanceExceededException;
+import io.hhplus.tdd.point.service.lock.UserLockRegistry;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 유저별 락으로 같은 유저에 대한 요청을 직렬화하는 엔진
+ * - 잔액 갱신과 내역 추가가 같은 락 안에서 수행되므로, 내역이 잔액 갱신 순서대로 쌓인다.
+ * - 내역(write-ahead log)을 먼저 남긴 뒤 잔액을 갱신하므로, 내역 기록에 실패하면 잔액도 바뀌지 않는다.
+ *   내역은 추가되었지만 디스크 반영을 확인하지 못한 경우에는 잔액을 내역에 맞춰 갱신한 뒤 실패로 응답한다.
+ * - 락을 기다린 시간과 보유한 시간을 지표로 기록한다.
+ */
+@RequiredArgsConstructor
+public class LockPointEngine implements PointEngine {
+
+    private final UserPointRepository pointRepository;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final UserLockRegistry lockRegistry;
+    private final PointMetrics metrics;
+
+    @Override
+    public UserPoint charge(long userId, long amount) {
+        return withLock(userId, () -> chargeLocked(userId, amount));
+    }
+
+    @Override
+    public UserPoint use(long userId, long amount) {
+        return withLock(userId, () -> useLocked(userId, amount));
+    }
+
+    /**
+     * 락을 한 번만 획득한 상태에서 모든 명령을 적용한다.
+     */
+    @Override
+    public List<PointCommandResult> applyAll(long userId, List<PointCommand> commands) {
+        return withLock(userId, () -> PointCommandApplier.applyEach(commands, amount -> chargeLocked(userId, amount), amount -> useLocked(userId, amount)));
+    }
+
+    private <T> T withLock(long userId, Supplier<T> action) {
+        long requestedNanos = System.nanoTime();
+        lockRegistry.lock(userId);
+        long acquiredNanos = System.nanoTime();
+        metrics.recordLockWait(acquiredNanos - requestedNanos);
+        try {
+            return action.get();
+        } finally {
+            lockRegistry.unlock(userId);
+            metrics.recordLockHold(System.nanoTime() - acquiredNanos);
+        }
+    }
+
+    private UserPoint chargeLocked(long userId, long amount) {
+        UserPoint currentUserPoint = pointRepository.findById(userId);
+        long afterChargePoint = currentUserPoint.point() + amount;
+
+        if (afterChargePoint > UserPoint.MAX_BALANCE) {
+            throw new MaxBalanceExceededException();
+        }
+        return appendAndSave(userId, amount, TransactionType.CHARGE, afterChargePoint);
+    }
+
+    private UserPoint useLocked(long userId, long amount) {
+        UserPoint currentUserPoint = pointRepository.findById(userId);
+
+        if (currentUserPoint.point() < amount) {
+            throw new InsufficientPointException();
+        }
+        return appendAndSave(userId, amount, TransactionType.USE, currentUserPoint.point() - amount);
+    }
+
+    private UserPoint appendAndSave(long userId, long amount, TransactionType type, long point) {
+        try {
+            pointHistoryRepository.append(userId, amount, type, System.currentTimeMillis());
+        } catch (PointHistoryNotDurableException e) {
+            pointRepository.save(userId, point);
+            throw e;
+        }
+        return pointRepository.save(userId, point);
+    }
+}
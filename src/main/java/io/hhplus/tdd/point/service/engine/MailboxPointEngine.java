@@ -0,0 +1,272 @@
+package io.hhplus.tdd.point.service.engine;
+
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.domain.TransactionType;
+import io.hhplus.tdd.point.domain.UserPoint;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.repository.PointHistoryNotDurableException;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.service.command.PointCommand;
+import io.hhplus.tdd.point.service.command.PointCommandResult;
+import io.hhplus.tdd.point.service.exception.InsufficientPointException;
+import io.hhplus.tdd.point.service.exception.MaxBalanceExceededException;
+import io.hhplus.tdd.point.service.exception.TooManyPendingRequestsException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 유저별 mailbox 에 명령을 넣고, mailbox 에 쌓인 명령을 한 번에 모아(fold) 적용하는 엔진
+ * - 유저별 mailbox 는 한 번에 하나의 스레드만 실행하므로, 락 없이 같은 유저의 명령이 들어온 순서대로 적용된다.
+ * - 쌓여 있는 명령을 최대 max-fold-size 개까지 꺼내 잔액을 한 번 읽고, 순서대로 검증한 뒤
+ *   성공한 명령의 내역을 한 번에 추가(fsync 대기 1회)하고 최종 잔액을 한 번만 저장한다. (테이블 반영도 1회)
+ *   요청이 몰리는 유저일수록 한 번에 모이는 명령이 많아진다.
+ * - mailbox 가 비어 있을 때 명령을 넣은 스레드가 첫 fold 를 직접 실행하므로, 경합이 없으면 스레드를 옮기지 않는다.
+ *   이후에 쌓인 명령은 executor 에서 이어서 처리하므로, 명령을 넣은 스레드는 자기 명령이 포함된 fold 이상을 실행하지 않는다.
+ * - enqueue 는 명령을 넣고 바로 반환하며 fold 는 모두 executor 에서 실행한다. 비동기 API 는 이 mailbox 에 바로 넣으므로,
+ *   같은 유저의 요청이 몰리면 그대로 한 fold 로 모인다. 유저별로 쌓인 명령이 maxPending 개이면 넣지 않는다.
+ * - executor 가 mailbox 실행을 거부하면(종료 등) mailbox 를 제거하고 남은 명령을 모두 그 예외로 실패시킨다.
+ * - 명령이 모두 처리된 mailbox 는 제거하므로, 메모리에는 처리할 명령이 남은 유저의 mailbox 만 남는다.
+ * - 내역 추가는 모두 반영되거나 아무것도 반영되지 않는다. 내역 추가나 잔액 조회가 실패하면 해당 fold 의 명령은 모두 같은 예외로 실패하고, 잔액은 바뀌지 않는다.
+ * - 내역은 추가되었지만 디스크 반영을 확인하지 못한 경우에는 잔액을 내역에 맞춰 저장하고, 내역을 남긴 명령만 그 예외로 실패한다.
+ */
+public class MailboxPointEngine implements PointEngine, AutoCloseable {
+
+    private final UserPointRepository pointRepository;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final PointMetrics metrics;
+    private final Executor executor;
+    private final int maxFoldSize;
+    private final Map<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    public MailboxPointEngine(UserPointRepository pointRepository, PointHistoryRepository pointHistoryRepository, PointMetrics metrics, Executor executor, int maxFoldSize) {
+        if (maxFoldSize <= 0) {
+            throw new IllegalArgumentException("maxFoldSize 는 1 이상이어야 합니다. maxFoldSize=" + maxFoldSize);
+        }
+        this.pointRepository = pointRepository;
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.metrics = metrics;
+        this.executor = executor;
+        this.maxFoldSize = maxFoldSize;
+    }
+
+    @Override
+    public UserPoint charge(long userId, long amount) {
+        return unwrap(submit(userId, List.of(new PointCommand(userId, TransactionType.CHARGE, amount))).get(0));
+    }
+
+    @Override
+    public UserPoint use(long userId, long amount) {
+        return unwrap(submit(userId, List.of(new PointCommand(userId, TransactionType.USE, amount))).get(0));
+    }
+
+    /**
+     * 모든 명령을 한 번에 mailbox 에 넣으므로, 다른 요청의 명령이 중간에 끼어들지 않는다.
+     */
+    @Override
+    public List<PointCommandResult> applyAll(long userId, List<PointCommand> commands) {
+        return submit(userId, commands);
+    }
+
+    @Override
+    public boolean queuesPerUser() {
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<PointCommandResult> enqueue(long userId, PointCommand command, int maxPending) {
+        Pending pending = new Pending(command);
+        Mailbox[] created = new Mailbox[1];
+        if (!offer(userId, List.of(pending), maxPending, created)) {
+            return CompletableFuture.failedFuture(new TooManyPendingRequestsException());
+        }
+        if (created[0] != null) {
+            schedule(created[0]);
+        }
+        // fold 전체가 실패한 경우에도 명령의 실패로 전달한다.
+        return pending.result.exceptionally(e -> PointCommandResult.failure(e instanceof RuntimeException cause ? cause : new CompletionException(e)));
+    }
+
+    /**
+     * 처리할 명령이 남은 mailbox 수
+     */
+    public int mailboxCount() {
+        return mailboxes.size();
+    }
+
+    @Override
+    public void close() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    private List<PointCommandResult> submit(long userId, List<PointCommand> commands) {
+        List<Pending> pendings = commands.stream()
+                .map(Pending::new)
+                .toList();
+
+        Mailbox[] created = new Mailbox[1];
+        offer(userId, pendings, Integer.MAX_VALUE, created);
+        if (created[0] != null) {
+            run(created[0]);
+        }
+
+        // 명령이 여러 fold 에 나뉘어 적용될 수 있으므로, 실패한 fold 의 명령만 실패로 남기고 앞서 적용된 결과는 그대로 반환한다.
+        List<PointCommandResult> results = new ArrayList<>(pendings.size());
+        for (Pending pending : pendings) {
+            try {
+                results.add(pending.result.join());
+            } catch (CompletionException e) {
+                results.add(PointCommandResult.failure(e.getCause() instanceof RuntimeException cause ? cause : e));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 유저의 mailbox 에 명령을 넣는다. 쌓인 명령이 maxPending 개를 넘게 되면 넣지 않고 false 를 반환한다.
+     * mailbox 를 새로 만들었다면 created 에 담으며, 호출자가 실행을 시작해야 한다.
+     */
+    private boolean offer(long userId, List<Pending> pendings, int maxPending, Mailbox[] created) {
+        boolean[] rejected = {false};
+        mailboxes.compute(userId, (id, existing) -> {
+            // 명령 추가는 compute 안에서 직렬화되므로, 확인과 추가 사이에 다른 명령이 끼어들어 maxPending 을 넘지 않는다.
+            if (existing != null && existing.pending.get() > maxPending - pendings.size()) {
+                rejected[0] = true;
+                return existing;
+            }
+            Mailbox mailbox = existing == null ? created[0] = new Mailbox(id) : existing;
+            mailbox.pending.addAndGet(pendings.size());
+            mailbox.commands.addAll(pendings);
+            return mailbox;
+        });
+        return !rejected[0];
+    }
+
+    private void schedule(Mailbox mailbox) {
+        try {
+            executor.execute(() -> run(mailbox));
+        } catch (RejectedExecutionException e) {
+            // 제거한 뒤에는 명령이 추가되지 않으므로(새 mailbox 가 만들어진다), 남은 명령을 빠짐없이 꺼낼 수 있다.
+            mailboxes.remove(mailbox.userId, mailbox);
+            Pending pending;
+            while ((pending = mailbox.commands.poll()) != null) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void run(Mailbox mailbox) {
+        fold(mailbox);
+        // 명령 추가도 compute 안에서 이루어지므로, 비어 있는 것을 확인하고 제거하는 사이에 명령이 들어올 수 없다.
+        Mailbox remaining = mailboxes.computeIfPresent(mailbox.userId, (id, existing) -> existing.commands.isEmpty() ? null : existing);
+        if (remaining != null) {
+            schedule(mailbox);
+        }
+    }
+
+    private void fold(Mailbox mailbox) {
+        // ConcurrentLinkedQueue.size 는 원소 수에 비례하므로, 따로 센 명령 수로 크기를 정한다.
+        List<Pending> batch = new ArrayList<>(Math.min(maxFoldSize, mailbox.pending.get()));
+        Pending next;
+        while (batch.size() < maxFoldSize && (next = mailbox.commands.poll()) != null) {
+            mailbox.pending.decrementAndGet();
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        metrics.recordFold(batch.size());
+
+        try {
+            long point = pointRepository.findById(mailbox.userId).point();
+            long updateMillis = System.currentTimeMillis();
+            long[] points = new long[batch.size()];
+            RuntimeException[] failures = new RuntimeException[batch.size()];
+            List<PointHistory> pointHistories = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                PointCommand command = batch.get(i).command;
+                switch (command.type()) {
+                    case CHARGE -> {
+                        // 합산 결과의 overflow 를 피하기 위해 남은 한도와 비교한다.
+                        if (command.amount() > UserPoint.MAX_BALANCE - point) {
+                            failures[i] = new MaxBalanceExceededException();
+                            continue;
+                        }
+                        point += command.amount();
+                    }
+                    case USE -> {
+                        if (point < command.amount()) {
+                            failures[i] = new InsufficientPointException();
+                            continue;
+                        }
+                        point -= command.amount();
+                    }
+                }
+                points[i] = point;
+                pointHistories.add(new PointHistory(0, mailbox.userId, command.amount(), command.type(), updateMillis));
+            }
+
+            // 내역(write-ahead log)을 먼저 남긴 뒤 잔액을 갱신하므로, 내역 기록에 실패하면 잔액도 바뀌지 않는다.
+            RuntimeException notDurable = null;
+            if (!pointHistories.isEmpty()) {
+                try {
+                    pointHistoryRepository.appendAll(pointHistories);
+                } catch (PointHistoryNotDurableException e) {
+                    notDurable = e;
+                }
+                updateMillis = pointRepository.save(mailbox.userId, point).updateMillis();
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                RuntimeException failure = failures[i] == null ? notDurable : failures[i];
+                batch.get(i).result.complete(failure == null
+                        ? PointCommandResult.success(new UserPoint(mailbox.userId, points[i], updateMillis))
+                        : PointCommandResult.failure(failure));
+            }
+        } catch (RuntimeException e) {
+            for (Pending pending : batch) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static UserPoint unwrap(PointCommandResult result) {
+        if (!result.isSuccess()) {
+            throw result.failure();
+        }
+        return result.userPoint();
+    }
+
+    private static final class Mailbox {
+
+        private final long userId;
+        private final Queue<Pending> commands = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private Mailbox(long userId) {
+            this.userId = userId;
+        }
+    }
+
+    private static final class Pending {
+
+        private final PointCommand command;
+        private final CompletableFuture<PointCommandResult> result = new CompletableFuture<>();
+
+        private Pending(PointCommand command) {
+            this.command = command;
+        }
+    }
+}
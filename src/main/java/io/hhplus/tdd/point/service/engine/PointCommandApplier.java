@@ -0,0 +1,42 @@
+package io.hhplus.tdd.point.service.engine;
+
+import io.hhplus.tdd.point.domain.UserPoint;
+import io.hhplus.tdd.point.service.command.PointCommand;
+import io.hhplus.tdd.point.service.command.PointCommandResult;
+import io.hhplus.tdd.point.service.exception.InsufficientPointException;
+import io.hhplus.tdd.point.service.exception.MaxBalanceExceededException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * 명령 목록을 순서대로 적용하고, 실패한 명령은 결과에 실패 원인을 남긴 뒤 다음 명령을 계속 적용한다.
+ * 잔액 검증 외의 예외로 실패하면 이후 명령은 적용하지 않고 같은 예외로 실패 처리하므로, 앞서 적용된 명령의 결과는 그대로 반환된다.
+ */
+final class PointCommandApplier {
+
+    private PointCommandApplier() {
+    }
+
+    static List<PointCommandResult> applyEach(List<PointCommand> commands, LongFunction<UserPoint> charge, LongFunction<UserPoint> use) {
+        List<PointCommandResult> results = new ArrayList<>(commands.size());
+        for (PointCommand command : commands) {
+            try {
+                UserPoint userPoint = switch (command.type()) {
+                    case CHARGE -> charge.apply(command.amount());
+                    case USE -> use.apply(command.amount());
+                };
+                results.add(PointCommandResult.success(userPoint));
+            } catch (MaxBalanceExceededException | InsufficientPointException e) {
+                results.add(PointCommandResult.failure(e));
+            } catch (RuntimeException e) {
+                while (results.size() < commands.size()) {
+                    results.add(PointCommandResult.failure(e));
+                }
+                return results;
+            }
+        }
+        return results;
+    }
+}
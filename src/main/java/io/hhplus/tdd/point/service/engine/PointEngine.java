@@ -0,0 +1,43 @@
+package io.hhplus.tdd.point.service.engine;
+
+import io.hhplus.tdd.point.domain.UserPoint;
+import io.hhplus.tdd.point.service.command.PointCommand;
+import io.hhplus.tdd.point.service.command.PointCommandResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 포인트 충전/사용을 적용하는 엔진
+ * - 같은 유저에 대한 동시 요청의 잔액 갱신을 원자적으로 처리하고, 성공한 갱신마다 내역을 남긴다.
+ * - 최대 잔액을 넘는 충전은 MaxBalanceExceededException, 잔액보다 큰 사용은 InsufficientPointException 으로 실패한다.
+ */
+public interface PointEngine {
+
+    UserPoint charge(long userId, long amount);
+
+    UserPoint use(long userId, long amount);
+
+    /**
+     * 한 유저에 대한 여러 명령을 순서대로 적용한다.
+     * 실패한 명령은 결과에 실패 원인을 남기고 다음 명령을 계속 적용한다.
+     */
+    default List<PointCommandResult> applyAll(long userId, List<PointCommand> commands) {
+        return PointCommandApplier.applyEach(commands, amount -> charge(userId, amount), amount -> use(userId, amount));
+    }
+
+    /**
+     * 유저별 queue 에 명령을 넣고 차례대로 적용하는 엔진이면 true, 호출자가 같은 유저의 명령을 따로 직렬화할 필요가 없다.
+     */
+    default boolean queuesPerUser() {
+        return false;
+    }
+
+    /**
+     * 명령을 유저의 queue 에 넣고, 적용되면 완료되는 결과를 바로 반환한다. (queuesPerUser 인 엔진만 지원한다)
+     * queue 에 maxPending 개의 명령이 쌓여 있으면 넣지 않고 TooManyPendingRequestsException 으로 실패한다.
+     */
+    default CompletableFuture<PointCommandResult> enqueue(long userId, PointCommand command, int maxPending) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " 는 유저별 queue 를 지원하지 않습니다.");
+    }
+}
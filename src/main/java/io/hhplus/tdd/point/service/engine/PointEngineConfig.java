@@ -0,0 +1,56 @@
+package io.hhplus.tdd.point.service.engine;
+
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.repository.wal.WalProperties;
+import io.hhplus.tdd.point.service.async.BlockingParallelism;
+import io.hhplus.tdd.point.service.lock.UserLockRegistry;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class PointEngineConfig {
+
+    @Bean
+    public PointEngine pointEngine(
+            PointEngineProperties properties,
+            UserPointRepository pointRepository,
+            PointHistoryRepository pointHistoryRepository,
+            UserLockRegistry lockRegistry,
+            PointMetrics metrics,
+            WalProperties walProperties,
+            Environment environment
+    ) {
+        // cas 엔진은 잔액을 먼저 갱신하고 내역을 기록하므로, WAL 로 복구하면 충전 없이 이용만 재생될 수 있다.
+        if (properties.type() == PointEngineProperties.Type.CAS && walProperties.enabled()) {
+            throw new IllegalArgumentException("cas 엔진은 write-ahead log 와 함께 사용할 수 없습니다. (point.wal.enabled=true)");
+        }
+        return switch (properties.type()) {
+            case LOCK -> new LockPointEngine(pointRepository, pointHistoryRepository, lockRegistry, metrics);
+            case CAS -> new CasPointEngine(pointRepository, pointHistoryRepository, metrics);
+            case MAILBOX -> new MailboxPointEngine(pointRepository, pointHistoryRepository, metrics, mailboxExecutor(environment), properties.maxFoldSize());
+            case SHARDED -> new ShardedPointEngine(pointRepository, pointHistoryRepository, properties.resolvedShards(), properties.ringSize(), properties.shardBatchSize());
+        };
+    }
+
+    /**
+     * 경합으로 밀린 mailbox 와 비동기 API 로 넣은 명령을 처리하는 executor, 가상 스레드 모드에서는 실행마다 가상 스레드를 하나씩 사용한다.
+     * fold 는 테이블 조회나 fsync 를 기다리므로 비동기 API 와 같은 기준으로 스레드 수를 정한다.
+     */
+    private Executor mailboxExecutor(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor("point-mailbox-");
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("point-mailbox-");
+        threadFactory.setDaemon(true);
+        return Executors.newFixedThreadPool(BlockingParallelism.defaultParallelism(), threadFactory);
+    }
+}
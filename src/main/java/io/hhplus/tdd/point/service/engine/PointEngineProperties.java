@@ -0,0 +1,31 @@
+package io.hhplus.tdd.point.service.engine;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 포인트 엔진 설정
+ * - type : lock (유저별 락으로 직렬화) / cas (락 없이 CAS 재시도) / mailbox (유저별 mailbox 에서 명령을 모아 적용)
+ *          / sharded (유저 ID 로 나눈 shard 마다 하나의 writer 스레드가 적용)
+ *          cas 는 내역을 잔액 갱신 뒤에 기록하므로 point.wal.enabled=true 와 함께 사용할 수 없다.
+ * - max-fold-size : mailbox 엔진이 한 번에 모아 적용하는 최대 명령 수
+ * - shards : sharded 엔진의 shard 수, 0 이하이면 가용 CPU 코어 수를 사용한다.
+ * - ring-size : shard 별 ring buffer 크기 (2의 거듭제곱으로 올림), 가득 차면 명령을 넣는 스레드가 기다린다.
+ * - shard-batch-size : shard writer 가 한 번에 꺼내 적용하는 최대 명령 수
+ */
+@ConfigurationProperties(prefix = "point.engine")
+public record PointEngineProperties(
+        @DefaultValue("lock") Type type,
+        @DefaultValue("64") int maxFoldSize,
+        @DefaultValue("0") int shards,
+        @DefaultValue("1024") int ringSize,
+        @DefaultValue("256") int shardBatchSize
+) {
+    public int resolvedShards() {
+        return shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+    }
+
+    public enum Type {
+        LOCK, CAS, MAILBOX, SHARDED
+    }
+}
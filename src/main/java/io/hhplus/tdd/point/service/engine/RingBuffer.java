@@ -0,0 +1,63 @@
+package io.hhplus.tdd.point.service.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 여러 producer 와 하나의 consumer 를 위한 고정 크기 ring buffer
+ * - producer 는 tail 을 증가시켜 위치를 선점하고, consumer 가 한 바퀴 전의 원소를 꺼낼 때까지 기다린 뒤 원소를 기록한다.
+ * - consumer 만 head 를 변경하며, head 위치의 slot 이 비어 있으면 아직 기록되지 않은 것으로 본다.
+ *   선점한 순서대로 꺼내므로, 먼저 선점한 producer 가 기록을 마칠 때까지 뒤의 원소도 꺼내지 않는다.
+ * - 원소를 꺼낼 때 락을 사용하지 않고 객체를 할당하지 않는다.
+ */
+final class RingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head = 0;
+
+    /**
+     * capacity 는 2의 거듭제곱으로 올림한다.
+     */
+    RingBuffer(int capacity) {
+        int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * 자리가 날 때까지 기다린 뒤 원소를 기록한다.
+     */
+    void put(E element) {
+        long sequence = tail.getAndIncrement();
+        while (sequence - head >= slots.length()) {
+            Thread.yield();
+        }
+        slots.set((int) sequence & mask, element);
+    }
+
+    /**
+     * consumer 스레드에서만 호출한다. 꺼낼 원소가 없으면 null 을 반환한다.
+     */
+    E poll() {
+        long current = head;
+        int index = (int) current & mask;
+        E element = slots.get(index);
+        if (element == null) {
+            return null;
+        }
+        // head 를 옮기기 전에 slot 을 비워야, 한 바퀴 뒤의 producer 가 기록한 원소를 지우지 않는다.
+        slots.lazySet(index, null);
+        head = current + 1;
+        return element;
+    }
+
+    boolean isEmpty() {
+        return slots.get((int) head & mask) == null;
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,260 @@
+package io.hhplus.tdd.point.service.engine;
+
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.domain.TransactionType;
+import io.hhplus.tdd.point.domain.UserPoint;
+import io.hhplus.tdd.point.repository.PointHistoryNotDurableException;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.service.command.PointCommand;
+import io.hhplus.tdd.point.service.command.PointCommandResult;
+import io.hhplus.tdd.point.service.exception.InsufficientPointException;
+import io.hhplus.tdd.point.service.exception.MaxBalanceExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 유저 ID 로 나눈 shard 마다 하나의 writer 스레드가 충전/이용을 적용하는 엔진 (LMAX Disruptor 방식)
+ * - 명령은 유저의 shard 의 ring buffer 에 넣고, shard 의 writer 스레드가 넣은 순서대로 적용한다.
+ *   한 유저의 잔액은 항상 같은 스레드만 갱신하므로, 락이나 CAS 재시도 없이 원자적으로 갱신된다.
+ * - writer 는 쌓여 있는 명령을 최대 batch-size 개까지 한 번에 꺼내 적용하고,
+ *   그 batch 의 내역을 한 번에 추가(appendLock 1회, fsync 대기 1회)한 뒤 잔액을 저장한다.
+ * - 캐시에 없는 유저의 테이블 조회가 writer 를 멈추지 않도록, 명령을 넣는 스레드가 먼저 유저를 캐시에 올린다.
+ * - 내역 ID 는 전체에서 하나의 순서로 발급되므로 내역 추가는 shard 끼리 공유하는 구간으로 남지만, batch 단위로만 진입한다.
+ * - 내역 추가는 모두 반영되거나 아무것도 반영되지 않는다. 내역 추가나 잔액 조회가 실패하면 해당 batch 의 명령은 모두 같은 예외로 실패하고, 잔액은 바뀌지 않는다.
+ * - 내역은 추가되었지만 디스크 반영을 확인하지 못한 경우에는 잔액을 내역에 맞춰 저장하고, 내역을 남긴 명령만 그 예외로 실패한다.
+ */
+public class ShardedPointEngine implements PointEngine, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedPointEngine.class);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final UserPointRepository pointRepository;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final Shard[] shards;
+    private final int batchSize;
+
+    public ShardedPointEngine(UserPointRepository pointRepository, PointHistoryRepository pointHistoryRepository, int shardCount, int ringSize, int batchSize) {
+        if (shardCount <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("shard 수와 batch 크기는 1 이상이어야 합니다. shardCount=" + shardCount + ", batchSize=" + batchSize);
+        }
+        this.pointRepository = pointRepository;
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.batchSize = batchSize;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, ringSize);
+        }
+    }
+
+    @Override
+    public UserPoint charge(long userId, long amount) {
+        return unwrap(submit(userId, List.of(new PointCommand(userId, TransactionType.CHARGE, amount))).get(0));
+    }
+
+    @Override
+    public UserPoint use(long userId, long amount) {
+        return unwrap(submit(userId, List.of(new PointCommand(userId, TransactionType.USE, amount))).get(0));
+    }
+
+    /**
+     * 모든 명령을 하나의 원소로 넣으므로, 다른 요청의 명령이 중간에 끼어들지 않는다.
+     */
+    @Override
+    public List<PointCommandResult> applyAll(long userId, List<PointCommand> commands) {
+        return submit(userId, commands);
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * 넣은 명령을 모두 적용한 뒤 writer 스레드를 종료한다.
+     */
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.running = false;
+            LockSupport.unpark(shard.writer);
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.writer.join(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private List<PointCommandResult> submit(long userId, List<PointCommand> commands) {
+        // writer 가 테이블 조회를 기다리지 않도록 미리 캐시에 올린다. (유저는 캐시에서 제거되지 않는다)
+        pointRepository.findById(userId);
+
+        Task task = new Task(userId, commands);
+        shardOf(userId).publish(task);
+        try {
+            return task.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Shard shardOf(long userId) {
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        return shards[(int) Long.remainderUnsigned(hash ^ (hash >>> 32), shards.length)];
+    }
+
+    private static UserPoint unwrap(PointCommandResult result) {
+        if (!result.isSuccess()) {
+            throw result.failure();
+        }
+        return result.userPoint();
+    }
+
+    private final class Shard {
+
+        private final RingBuffer<Task> ring;
+        private final Thread writer;
+        private volatile boolean running = true;
+        private volatile boolean sleeping = false;
+
+        private Shard(int index, int ringSize) {
+            this.ring = new RingBuffer<>(ringSize);
+            this.writer = new Thread(this::run, "point-shard-" + index);
+            this.writer.setDaemon(true);
+            this.writer.start();
+        }
+
+        void publish(Task task) {
+            ring.put(task);
+            // writer 가 잠들기 직전에 넣은 원소는 writer 가 다시 확인하므로, 잠든 경우에만 깨운다.
+            if (sleeping) {
+                LockSupport.unpark(writer);
+            }
+        }
+
+        private void run() {
+            List<Task> batch = new ArrayList<>(batchSize);
+            while (running || !ring.isEmpty()) {
+                Task task;
+                while (batch.size() < batchSize && (task = ring.poll()) != null) {
+                    batch.add(task);
+                }
+                if (batch.isEmpty()) {
+                    sleeping = true;
+                    if (ring.isEmpty() && running) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    }
+                    sleeping = false;
+                    continue;
+                }
+                try {
+                    apply(batch);
+                } catch (RuntimeException e) {
+                    log.error("포인트 명령 적용에 실패했습니다. shard={}", writer.getName(), e);
+                    for (Task failed : batch) {
+                        failed.result.completeExceptionally(e);
+                    }
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+
+        private void apply(List<Task> batch) {
+            // batch 안에서 바뀐 잔액은 내역을 추가한 뒤 유저별로 한 번만 저장한다.
+            Map<Long, Long> points = new HashMap<>();
+            Map<Long, Long> changedPoints = new HashMap<>();
+            List<PointHistory> pointHistories = new ArrayList<>();
+            List<long[]> appliedPoints = new ArrayList<>(batch.size());
+            List<RuntimeException[]> failures = new ArrayList<>(batch.size());
+            long updateMillis = System.currentTimeMillis();
+
+            for (Task task : batch) {
+                long point = points.computeIfAbsent(task.userId, userId -> pointRepository.findById(userId).point());
+                int historyCount = pointHistories.size();
+                long[] applied = new long[task.commands.size()];
+                RuntimeException[] failed = new RuntimeException[task.commands.size()];
+                for (int i = 0; i < task.commands.size(); i++) {
+                    PointCommand command = task.commands.get(i);
+                    switch (command.type()) {
+                        case CHARGE -> {
+                            // 합산 결과의 overflow 를 피하기 위해 남은 한도와 비교한다.
+                            if (command.amount() > UserPoint.MAX_BALANCE - point) {
+                                failed[i] = new MaxBalanceExceededException();
+                                continue;
+                            }
+                            point += command.amount();
+                        }
+                        case USE -> {
+                            if (point < command.amount()) {
+                                failed[i] = new InsufficientPointException();
+                                continue;
+                            }
+                            point -= command.amount();
+                        }
+                    }
+                    applied[i] = point;
+                    pointHistories.add(new PointHistory(0, task.userId, command.amount(), command.type(), updateMillis));
+                }
+                points.put(task.userId, point);
+                if (pointHistories.size() > historyCount) {
+                    changedPoints.put(task.userId, point);
+                }
+                appliedPoints.add(applied);
+                failures.add(failed);
+            }
+
+            // 내역(write-ahead log)을 먼저 남긴 뒤 잔액을 갱신하므로, 내역 기록에 실패하면 잔액도 바뀌지 않는다.
+            Map<Long, Long> savedMillis = new HashMap<>();
+            RuntimeException notDurable = null;
+            if (!pointHistories.isEmpty()) {
+                try {
+                    pointHistoryRepository.appendAll(pointHistories);
+                } catch (PointHistoryNotDurableException e) {
+                    notDurable = e;
+                }
+                changedPoints.forEach((userId, point) -> savedMillis.put(userId, pointRepository.save(userId, point).updateMillis()));
+            }
+
+            for (int t = 0; t < batch.size(); t++) {
+                Task task = batch.get(t);
+                long millis = savedMillis.getOrDefault(task.userId, updateMillis);
+                List<PointCommandResult> results = new ArrayList<>(task.commands.size());
+                for (int i = 0; i < task.commands.size(); i++) {
+                    RuntimeException failure = failures.get(t)[i] == null ? notDurable : failures.get(t)[i];
+                    results.add(failure == null
+                            ? PointCommandResult.success(new UserPoint(task.userId, appliedPoints.get(t)[i], millis))
+                            : PointCommandResult.failure(failure));
+                }
+                task.result.complete(results);
+            }
+        }
+    }
+
+    private static final class Task {
+
+        private final long userId;
+        private final List<PointCommand> commands;
+        private final CompletableFuture<List<PointCommandResult>> result = new CompletableFuture<>();
+
+        private Task(long userId, List<PointCommand> commands) {
+            this.userId = userId;
+            this.commands = commands;
+        }
+    }
+}
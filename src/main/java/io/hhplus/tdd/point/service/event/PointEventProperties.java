@@ -0,0 +1,18 @@
+package io.hhplus.tdd.point.service.event;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 포인트 내역 이벤트 구독 설정
+ * - bufferSize : 구독자마다 전송을 기다리는 최대 이벤트 수, 가득 차면 구독을 끝내고 구독자는 마지막으로 받은 ID 부터 다시 구독한다.
+ * - timeout : 구독 연결을 유지하는 최대 시간
+ */
+@ConfigurationProperties(prefix = "point.event")
+public record PointEventProperties(
+        @DefaultValue("256") int bufferSize,
+        @DefaultValue("30m") Duration timeout
+) {
+}
@@ -0,0 +1,20 @@
+package io.hhplus.tdd.point.service.event;
+
+import io.hhplus.tdd.point.domain.PointHistory;
+
+import java.io.IOException;
+
+/**
+ * 구독자에게 내역 이벤트를 전달하는 통로, 구독자마다 하나의 스레드에서만 호출된다.
+ */
+public interface PointEventSink {
+
+    void send(PointHistory pointHistory) throws IOException;
+
+    /**
+     * 버퍼가 가득 차 구독이 끝났음을 알린다. 구독자는 마지막으로 받은 ID 부터 다시 구독해야 한다.
+     */
+    void overflow() throws IOException;
+
+    void complete();
+}
@@ -0,0 +1,211 @@
+package io.hhplus.tdd.point.service.event;
+
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 충전/이용으로 추가된 포인트 내역을 유저별 구독자에게 전달하는 in-process 이벤트 스트림
+ * - 내역이 기록된 뒤 구독자마다 bounded buffer 에 넣기만 하고, 전송은 구독자별 drain 작업이 별도 스레드에서 한다.
+ *   따라서 느린 구독자가 있어도 충전/이용은 기다리지 않는다.
+ * - buffer 가 가득 찬 구독자는 쌓인 이벤트까지 전송한 뒤 구독을 끝낸다. (backpressure)
+ *   구독자는 마지막으로 받은 ID 부터 다시 구독하면 빠짐없이 이어서 받는다.
+ * - 구독을 시작하면 afterId 이후의 내역을 먼저 전송(replay)한 뒤 새 내역을 전송한다.
+ *   replay 전에 구독을 등록하므로 그 사이 추가된 내역도 빠지지 않으며, replay 로 이미 보낸 내역은 다시 보내지 않는다.
+ */
+@Component
+public class PointEventStream {
+
+    private static final Logger log = LoggerFactory.getLogger(PointEventStream.class);
+    private static final int REPLAY_PAGE_SIZE = 100;
+
+    private final PointHistoryRepository pointHistoryRepository;
+    private final PointMetrics metrics;
+    private final int bufferSize;
+    private final Executor executor;
+    private final ConcurrentHashMap<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+
+    public PointEventStream(PointHistoryRepository pointHistoryRepository, PointMetrics metrics, PointEventProperties properties, Environment environment) {
+        if (properties.bufferSize() <= 0) {
+            throw new IllegalArgumentException("buffer 크기는 1 이상이어야 합니다. bufferSize=" + properties.bufferSize());
+        }
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.metrics = metrics;
+        this.bufferSize = properties.bufferSize();
+
+        // 전송은 느린 구독자에게 막힐 수 있으므로, 전송 중인 구독자마다 스레드를 하나씩 사용한다.
+        if (Threading.VIRTUAL.isActive(environment)) {
+            this.executor = new VirtualThreadTaskExecutor("point-event-");
+        } else {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("point-event-");
+            threadFactory.setDaemon(true);
+            this.executor = Executors.newCachedThreadPool(threadFactory);
+        }
+        pointHistoryRepository.addListener(this::publish);
+    }
+
+    /**
+     * 유저의 afterId 이후 내역을 구독한다.
+     */
+    public Subscription subscribe(long userId, long afterId, PointEventSink sink) {
+        Subscription subscription = new Subscription(userId, afterId, sink);
+        subscriptions.compute(userId, (key, userSubscriptions) -> {
+            Set<Subscription> current = userSubscriptions != null ? userSubscriptions : ConcurrentHashMap.newKeySet();
+            current.add(subscription);
+            return current;
+        });
+        subscription.schedule();
+        return subscription;
+    }
+
+    public int subscriptionCount() {
+        return subscriptions.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @PreDestroy
+    public void close() {
+        subscriptions.values().forEach(userSubscriptions -> userSubscriptions.forEach(Subscription::cancel));
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    private void publish(List<PointHistory> pointHistories) {
+        for (PointHistory pointHistory : pointHistories) {
+            Set<Subscription> userSubscriptions = subscriptions.get(pointHistory.userId());
+            if (userSubscriptions != null) {
+                userSubscriptions.forEach(subscription -> subscription.offer(pointHistory));
+            }
+        }
+    }
+
+    private void remove(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.userId, (key, userSubscriptions) -> {
+            userSubscriptions.remove(subscription);
+            return userSubscriptions.isEmpty() ? null : userSubscriptions;
+        });
+    }
+
+    /**
+     * 구독 하나, drain 은 scheduled 를 선점한 스레드 하나에서만 실행된다.
+     */
+    public final class Subscription {
+
+        private final long userId;
+        private final PointEventSink sink;
+        private final BlockingQueue<PointHistory> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile State state = State.ACTIVE;
+        // drain 스레드에서만 접근한다.
+        private boolean replayed = false;
+        private long replayedId;
+
+        private Subscription(long userId, long afterId, PointEventSink sink) {
+            this.userId = userId;
+            this.sink = sink;
+            this.replayedId = afterId;
+        }
+
+        /**
+         * 구독을 끝낸다. 전송 중인 이벤트가 있으면 그 이벤트까지만 전송한다.
+         */
+        public void cancel() {
+            state = State.CLOSED;
+            remove(this);
+        }
+
+        private void offer(PointHistory pointHistory) {
+            if (state != State.ACTIVE) {
+                return;
+            }
+            if (!buffer.offer(pointHistory)) {
+                state = State.OVERFLOWED;
+                remove(this);
+                metrics.recordEventOverflow();
+                log.warn("전송이 밀린 구독을 끝냅니다. userId={}, bufferSize={}", userId, bufferSize);
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                cancel();
+            }
+        }
+
+        private void drain() {
+            try {
+                if (!replayed) {
+                    replay();
+                    replayed = true;
+                }
+                PointHistory pointHistory;
+                while (state != State.CLOSED && (pointHistory = buffer.poll()) != null) {
+                    // replay 로 이미 보낸 내역
+                    if (pointHistory.id() <= replayedId) {
+                        continue;
+                    }
+                    sink.send(pointHistory);
+                }
+                if (state == State.OVERFLOWED) {
+                    state = State.CLOSED;
+                    sink.overflow();
+                    sink.complete();
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("구독자에게 이벤트를 전송하지 못해 구독을 끝냅니다. userId={}", userId, e);
+                cancel();
+            } finally {
+                scheduled.set(false);
+            }
+            // drain 을 끝내는 사이 추가된 이벤트
+            if (state != State.CLOSED && (!buffer.isEmpty() || state == State.OVERFLOWED)) {
+                schedule();
+            }
+        }
+
+        private void replay() throws IOException {
+            List<PointHistory> page;
+            do {
+                page = pointHistoryRepository.findByUserId(userId, replayedId, 0, Long.MAX_VALUE, REPLAY_PAGE_SIZE);
+                for (PointHistory pointHistory : page) {
+                    if (state == State.CLOSED) {
+                        return;
+                    }
+                    sink.send(pointHistory);
+                    replayedId = pointHistory.id();
+                }
+            } while (page.size() == REPLAY_PAGE_SIZE);
+        }
+    }
+
+    private enum State {
+        ACTIVE, OVERFLOWED, CLOSED
+    }
+}
@@ -0,0 +1,8 @@
+package io.hhplus.tdd.point.service.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException() {
+        super("이미 다른 요청에 사용된 Idempotency-Key 입니다.");
+    }
+}
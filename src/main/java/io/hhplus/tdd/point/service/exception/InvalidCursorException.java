@@ -0,0 +1,8 @@
+package io.hhplus.tdd.point.service.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException() {
+        super("유효하지 않은 커서입니다.");
+    }
+}
@@ -0,0 +1,8 @@
+package io.hhplus.tdd.point.service.exception;
+
+public class InvalidRollupWindowException extends RuntimeException {
+
+    public InvalidRollupWindowException(String message) {
+        super(message);
+    }
+}
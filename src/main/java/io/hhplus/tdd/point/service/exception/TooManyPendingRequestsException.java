@@ -0,0 +1,8 @@
+package io.hhplus.tdd.point.service.exception;
+
+public class TooManyPendingRequestsException extends RuntimeException {
+
+    public TooManyPendingRequestsException() {
+        super("처리 대기 중인 요청이 너무 많습니다. 잠시 후 다시 시도해주세요.");
+    }
+}
@@ -0,0 +1,125 @@
+package io.hhplus.tdd.point.service.idempotency;
+
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.repository.PointHistoryNotDurableException;
+import io.hhplus.tdd.point.service.dto.response.PointResponse;
+import io.hhplus.tdd.point.service.exception.IdempotencyKeyReusedException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key 별 충전/이용 응답 캐시
+ * - 키마다 처음 들어온 요청만 실행하고, 이후 같은 키의 요청에는 처음 요청의 응답을 그대로 반환한다. (유저 락과 테이블을 거치지 않는다)
+ * - 처음 요청이 처리 중이면 같은 키의 요청은 그 결과로 완료된다. 호출자가 반환값을 취소해도 보관된 응답에 영향이 없도록 복사본을 반환한다.
+ * - 실패한 요청의 결과는 보관하지 않으므로, 같은 키로 다시 시도할 수 있다.
+ *   단, 내역의 디스크 반영만 확인하지 못한 요청(PointHistoryNotDurableException)은 잔액과 내역에 반영되었으므로, 다시 실행하지 않도록 결과를 보관한다.
+ * - 응답은 ttl 이 지나거나 maximum-size 를 넘으면 보관한 순서대로 제거한다. 별도 스레드 없이 새 키를 보관할 때 정리한다.
+ */
+@Component
+public class IdempotencyCache {
+
+    private final Map<IdempotencyKey, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final PointMetrics metrics;
+    private final long ttlNanos;
+    private final int maximumSize;
+
+    public IdempotencyCache(IdempotencyProperties properties, PointMetrics metrics) {
+        this.metrics = metrics;
+        this.ttlNanos = properties.ttl().toNanos();
+        this.maximumSize = properties.maximumSize();
+    }
+
+    /**
+     * 처음 보는 키라면 action 을 실행해 응답을 보관하고, 이미 보관된 키라면 보관된 응답을 반환한다.
+     * 같은 키로 금액이 다른 요청을 보내면 IdempotencyKeyReusedException 으로 실패한다.
+     */
+    public CompletableFuture<PointResponse> execute(IdempotencyKey key, long amount, Supplier<CompletableFuture<PointResponse>> action) {
+        Entry entry = new Entry(key, amount, System.nanoTime());
+        Entry existing;
+        while ((existing = entries.putIfAbsent(key, entry)) != null) {
+            if (!existing.isExpired(System.nanoTime(), ttlNanos)) {
+                metrics.recordIdempotentReplay();
+                return existing.response(amount);
+            }
+            entries.remove(key, existing);
+        }
+        insertionOrder.add(entry);
+        evict();
+
+        CompletableFuture<PointResponse> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((result, failure) -> {
+            if (failure == null) {
+                entry.response.complete(result);
+                return;
+            }
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+            // 반영되지 않은 요청은 재시도가 실패한 결과를 받지 않도록, 결과를 전달하기 전에 제거한다.
+            if (!(cause instanceof PointHistoryNotDurableException)) {
+                entries.remove(key, entry);
+            }
+            entry.response.completeExceptionally(cause);
+        });
+        return entry.response.copy();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+        insertionOrder.clear();
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        Entry oldest;
+        while ((oldest = insertionOrder.peek()) != null && (entries.size() > maximumSize || oldest.isExpired(now, ttlNanos))) {
+            // 다른 스레드가 먼저 꺼냈다면 그 스레드가 제거한다.
+            if (insertionOrder.remove(oldest)) {
+                entries.remove(oldest.key, oldest);
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final IdempotencyKey key;
+        private final long amount;
+        private final long createdNanos;
+        private final CompletableFuture<PointResponse> response = new CompletableFuture<>();
+
+        private Entry(IdempotencyKey key, long amount, long createdNanos) {
+            this.key = key;
+            this.amount = amount;
+            this.createdNanos = createdNanos;
+        }
+
+        boolean isExpired(long now, long ttlNanos) {
+            return now - createdNanos > ttlNanos;
+        }
+
+        /**
+         * 처음 요청의 응답을 반환한다. 처음 요청이 처리 중이면 완료될 때 응답하고, 실패했다면 같은 예외로 실패한다.
+         */
+        CompletableFuture<PointResponse> response(long requestedAmount) {
+            if (requestedAmount != amount) {
+                return CompletableFuture.failedFuture(new IdempotencyKeyReusedException());
+            }
+            return response.copy();
+        }
+    }
+}
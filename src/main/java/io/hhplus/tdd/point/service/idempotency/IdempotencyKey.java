@@ -0,0 +1,13 @@
+package io.hhplus.tdd.point.service.idempotency;
+
+import io.hhplus.tdd.point.domain.TransactionType;
+
+/**
+ * 클라이언트가 보낸 Idempotency-Key 는 유저와 요청 종류 안에서만 유일하면 된다.
+ */
+public record IdempotencyKey(
+        long userId,
+        TransactionType type,
+        String key
+) {
+}
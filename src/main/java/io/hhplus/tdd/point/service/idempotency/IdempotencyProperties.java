@@ -0,0 +1,18 @@
+package io.hhplus.tdd.point.service.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Idempotency-Key 캐시 설정
+ * - ttl : 응답을 보관하는 시간, 클라이언트의 재시도 기간보다 길어야 한다.
+ * - maximum-size : 보관하는 최대 응답 수, 넘으면 오래된 응답부터 제거한다.
+ */
+@ConfigurationProperties(prefix = "point.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("10m") Duration ttl,
+        @DefaultValue("100000") int maximumSize
+) {
+}
@@ -0,0 +1,49 @@
+package io.hhplus.tdd.point.service.lock;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 참조 수를 세어 사용하지 않는 락을 회수하는 유저별 락 저장소
+ * - lock 시 참조 수를 늘리고 unlock 시 줄이며, 참조 수가 0 이 되면 락을 제거한다.
+ * - 참조 수 변경과 제거는 ConcurrentHashMap 의 compute 안에서 유저 단위로 원자적으로 처리되므로,
+ *   락을 보유하거나 기다리는 스레드가 있는 동안에는 제거되지 않는다.
+ * - 메모리에는 현재 락을 보유하거나 기다리는 유저의 락만 남는다.
+ */
+public class RefCountedUserLockRegistry implements UserLockRegistry {
+
+    private final Map<Long, RefCountedLock> locks = new ConcurrentHashMap<>();
+
+    @Override
+    public void lock(long userId) {
+        RefCountedLock lock = locks.compute(userId, (id, existing) -> {
+            RefCountedLock refCountedLock = existing == null ? new RefCountedLock() : existing;
+            refCountedLock.references++;
+            return refCountedLock;
+        });
+        lock.lock.lock();
+    }
+
+    @Override
+    public void unlock(long userId) {
+        RefCountedLock lock = locks.get(userId);
+        if (lock == null) {
+            throw new IllegalMonitorStateException("획득하지 않은 락입니다. userId=" + userId);
+        }
+        lock.lock.unlock();
+        locks.computeIfPresent(userId, (id, existing) -> --existing.references == 0 ? null : existing);
+    }
+
+    @Override
+    public int size() {
+        return locks.size();
+    }
+
+    private static final class RefCountedLock {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        // compute 안에서만 읽고 쓴다.
+        private int references = 0;
+    }
+}
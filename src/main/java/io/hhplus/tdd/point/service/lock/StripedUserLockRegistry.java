@@ -0,0 +1,48 @@
+package io.hhplus.tdd.point.service.lock;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 고정된 개수의 락을 유저 ID 해시로 나눠 쓰는 유저별 락 저장소
+ * - 락을 생성/제거하지 않으므로 메모리 사용량이 유저 수와 무관하게 일정하다.
+ * - 서로 다른 유저가 같은 락을 공유할 수 있어, stripe 수가 적으면 불필요한 대기가 생길 수 있다.
+ * - 한 스레드가 여러 유저의 락을 동시에 잡으면 같은 stripe 에서 교착 상태가 될 수 있으므로, 한 번에 한 유저의 락만 잡아야 한다.
+ */
+public class StripedUserLockRegistry implements UserLockRegistry {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public StripedUserLockRegistry(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("stripe 수는 0보다 커야 합니다.");
+        }
+        int size = Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new ReentrantLock[Math.max(size, 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = stripes.length - 1;
+    }
+
+    @Override
+    public void lock(long userId) {
+        stripeOf(userId).lock();
+    }
+
+    @Override
+    public void unlock(long userId) {
+        stripeOf(userId).unlock();
+    }
+
+    @Override
+    public int size() {
+        return stripes.length;
+    }
+
+    private ReentrantLock stripeOf(long userId) {
+        // 연속된 유저 ID 가 고르게 퍼지도록 상위 비트를 섞는다.
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (hash ^ (hash >>> 32)) & mask];
+    }
+}
@@ -0,0 +1,22 @@
+package io.hhplus.tdd.point.service.lock;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class UserLockConfig {
+
+    @Bean
+    public UserLockRegistry userLockRegistry(UserLockProperties properties, MeterRegistry meterRegistry) {
+        UserLockRegistry lockRegistry = switch (properties.registry()) {
+            case REF_COUNTED -> new RefCountedUserLockRegistry();
+            case STRIPED -> new StripedUserLockRegistry(properties.stripes());
+        };
+        Gauge.builder("point.lock.registry.size", lockRegistry, UserLockRegistry::size)
+                .description("메모리에 남아 있는 유저별 락의 수")
+                .register(meterRegistry);
+        return lockRegistry;
+    }
+}
@@ -0,0 +1,19 @@
+package io.hhplus.tdd.point.service.lock;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 유저별 락 저장소 설정
+ * - registry : ref-counted (사용하지 않는 락 회수) / striped (고정 개수의 락 공유)
+ * - stripes : striped 사용 시 락 개수, 2의 거듭제곱으로 올림한다.
+ */
+@ConfigurationProperties(prefix = "point.lock")
+public record UserLockProperties(
+        @DefaultValue("ref-counted") Registry registry,
+        @DefaultValue("1024") int stripes
+) {
+    public enum Registry {
+        REF_COUNTED, STRIPED
+    }
+}
@@ -0,0 +1,26 @@
+package io.hhplus.tdd.point.service.lock;
+
+/**
+ * 유저별 락 저장소
+ * 같은 유저에 대한 lock ~ unlock 구간은 상호 배제되며, lock 을 호출한 스레드가 반드시 unlock 을 호출해야 한다.
+ *
+ * <pre>
+ * lockRegistry.lock(userId);
+ * try {
+ *     // 임계 구역
+ * } finally {
+ *     lockRegistry.unlock(userId);
+ * }
+ * </pre>
+ */
+public interface UserLockRegistry {
+
+    void lock(long userId);
+
+    void unlock(long userId);
+
+    /**
+     * 현재 메모리에 유지되고 있는 락의 수
+     */
+    int size();
+}
@@ -11,12 +11,16 @@ public class PointHistoryMapper {
 
     public List<PointHistoryResponse> mapToPointHistoryResponses(List<PointHistory> pointHistories) {
         return pointHistories.stream()
-                .map(pointHistory -> new PointHistoryResponse(
-                        pointHistory.userId(),
-                        pointHistory.amount(),
-                        pointHistory.type().name(),
-                        pointHistory.updateMillis()
-                ))
+                .map(this::mapToPointHistoryResponse)
                 .toList();
     }
+
+    public PointHistoryResponse mapToPointHistoryResponse(PointHistory pointHistory) {
+        return new PointHistoryResponse(
+                pointHistory.userId(),
+                pointHistory.amount(),
+                pointHistory.type().name(),
+                pointHistory.updateMillis()
+        );
+    }
 }
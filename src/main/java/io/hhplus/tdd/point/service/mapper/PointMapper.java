@@ -1,13 +1,51 @@
 package io.hhplus.tdd.point.service.mapper;
 
+import io.hhplus.tdd.point.domain.PointRollup;
+import io.hhplus.tdd.point.domain.PointSummary;
 import io.hhplus.tdd.point.domain.UserPoint;
+import io.hhplus.tdd.point.service.command.PointCommand;
+import io.hhplus.tdd.point.service.command.PointCommandResult;
+import io.hhplus.tdd.point.service.dto.response.PointBatchItemResponse;
 import io.hhplus.tdd.point.service.dto.response.PointResponse;
+import io.hhplus.tdd.point.service.dto.response.PointRollupResponse;
+import io.hhplus.tdd.point.service.dto.response.PointSummaryResponse;
+import io.hhplus.tdd.point.service.exception.InsufficientPointException;
+import io.hhplus.tdd.point.service.exception.MaxBalanceExceededException;
 import org.springframework.stereotype.Component;
 
 @Component
 public class PointMapper {
 
+    private static final String UNEXPECTED_FAILURE_MESSAGE = "에러가 발생했습니다.";
+
     public PointResponse mapToPointResponse(UserPoint userPoint) {
         return new PointResponse(userPoint.id(), userPoint.point());
     }
+
+    public PointSummaryResponse mapToPointSummaryResponse(PointSummary summary) {
+        // 내역이 없으면 마지막 내역 시각은 null 로 응답한다.
+        Long lastTransactionTime = summary.transactionCount() == 0 ? null : summary.lastTransactionMillis();
+        return new PointSummaryResponse(summary.userId(), summary.totalCharged(), summary.totalUsed(), summary.transactionCount(), lastTransactionTime);
+    }
+
+    public PointRollupResponse mapToPointRollupResponse(PointRollup rollup) {
+        return new PointRollupResponse(rollup.fromMillis(), rollup.toMillis(), rollup.chargeAmount(), rollup.chargeCount(), rollup.useAmount(), rollup.useCount(), rollup.complete());
+    }
+
+    public PointBatchItemResponse mapToPointBatchItemResponse(int index, PointCommand command, PointCommandResult result) {
+        if (result.isSuccess()) {
+            return new PointBatchItemResponse(index, command.userId(), command.type().name(), true, result.userPoint().point(), null);
+        }
+        return new PointBatchItemResponse(index, command.userId(), command.type().name(), false, null, failureMessage(result.failure()));
+    }
+
+    /**
+     * 잔액 검증 외의 예외는 단건 요청의 500 응답과 같이 내부 메시지를 노출하지 않는다.
+     */
+    private static String failureMessage(RuntimeException failure) {
+        if (failure instanceof MaxBalanceExceededException || failure instanceof InsufficientPointException) {
+            return failure.getMessage();
+        }
+        return UNEXPECTED_FAILURE_MESSAGE;
+    }
 }
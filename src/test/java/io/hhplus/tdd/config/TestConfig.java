@@ -1,7 +1,10 @@
 package io.hhplus.tdd.config;
 
-import io.hhplus.tdd.database.PointHistoryTable;
-import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.PointRollupRepository;
+import io.hhplus.tdd.point.repository.PointSummaryRepository;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.service.idempotency.IdempotencyCache;
 import io.hhplus.tdd.util.DatabaseCleaner;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
@@ -10,7 +13,7 @@ import org.springframework.context.annotation.Bean;
 public class TestConfig {
 
     @Bean
-    public DatabaseCleaner databaseCleaner(UserPointTable userPointTable, PointHistoryTable pointHistoryTable) {
-        return new DatabaseCleaner(userPointTable, pointHistoryTable);
+    public DatabaseCleaner databaseCleaner(UserPointRepository userPointRepository, PointHistoryRepository pointHistoryRepository, PointSummaryRepository pointSummaryRepository, PointRollupRepository pointRollupRepository, IdempotencyCache idempotencyCache) {
+        return new DatabaseCleaner(userPointRepository, pointHistoryRepository, pointSummaryRepository, pointRollupRepository, idempotencyCache);
     }
 }
@@ -0,0 +1,109 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.domain.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrentPointHistoryTableTest {
+
+    // 수천 명의 유저 내역을 여러 스레드가 동시에 추가해도, ID 는 누락과 중복 없이 1 부터 연속으로 발급되어야 한다.
+    @Test
+    public void 동시에_추가한_내역의_ID_는_누락과_중복이_없다() throws InterruptedException {
+        // given
+        int userCount = 2_000;
+        int historyCountPerUser = 5;
+        int threadCount = 500;
+        int requestCount = userCount * historyCountPerUser;
+        ConcurrentPointHistoryTable pointHistoryTable = new ConcurrentPointHistoryTable();
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch countDownLatch = new CountDownLatch(requestCount);
+
+        // when
+        for (int i = 0; i < requestCount; i++) {
+            long id = i % userCount + 1;
+            executorService.submit(() -> {
+                try {
+                    pointHistoryTable.insert(id, 10L, TransactionType.CHARGE, System.currentTimeMillis());
+                } finally {
+                    countDownLatch.countDown();
+                }
+            });
+        }
+        countDownLatch.await();
+        executorService.shutdown();
+
+        // then
+        Set<Long> historyIds = new HashSet<>();
+        for (long id = 1; id <= userCount; id++) {
+            List<PointHistory> pointHistories = pointHistoryTable.selectAllByUserId(id);
+            assertThat(pointHistories).hasSize(historyCountPerUser).extracting(PointHistory::userId).containsOnly(id);
+            pointHistories.forEach(pointHistory -> historyIds.add(pointHistory.id()));
+        }
+        assertThat(pointHistoryTable.size()).isEqualTo(requestCount);
+        assertThat(historyIds).containsExactlyInAnyOrderElementsOf(LongStream.rangeClosed(1, requestCount).boxed().toList());
+    }
+
+    // 추가가 진행 중인 동안 조회해도, 조회 결과는 항상 1 부터 빈 칸 없이 이어지는 ID 여야 한다.
+    @Test
+    public void 추가_중에_조회해도_빈_칸_없는_내역이_조회된다() throws InterruptedException {
+        // given
+        long id = 1L;
+        int threadCount = 100;
+        int requestCount = 1_000;
+        ConcurrentPointHistoryTable pointHistoryTable = new ConcurrentPointHistoryTable();
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch countDownLatch = new CountDownLatch(requestCount);
+        List<List<PointHistory>> snapshots = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < requestCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    pointHistoryTable.insert(id, 10L, TransactionType.CHARGE, System.currentTimeMillis());
+                } finally {
+                    countDownLatch.countDown();
+                }
+            });
+        }
+        while (!countDownLatch.await(10, TimeUnit.MILLISECONDS)) {
+            snapshots.add(pointHistoryTable.selectAllByUserId(id));
+        }
+        snapshots.add(pointHistoryTable.selectAllByUserId(id));
+        executorService.shutdown();
+
+        // then
+        for (List<PointHistory> snapshot : snapshots) {
+            assertThat(snapshot).extracting(PointHistory::id)
+                    .containsExactlyElementsOf(LongStream.rangeClosed(1, snapshot.size()).boxed().toList());
+        }
+        assertThat(snapshots.get(snapshots.size() - 1)).hasSize(requestCount);
+    }
+
+    @Test
+    public void 비운_뒤에는_ID_를_1_부터_다시_발급한다() {
+        // given
+        long id = 1L;
+        ConcurrentPointHistoryTable pointHistoryTable = new ConcurrentPointHistoryTable();
+        pointHistoryTable.insert(id, 100L, TransactionType.CHARGE, System.currentTimeMillis());
+
+        // when
+        pointHistoryTable.clear();
+        PointHistory pointHistory = pointHistoryTable.insert(id, 50L, TransactionType.USE, System.currentTimeMillis());
+
+        // then
+        assertThat(pointHistory.id()).isEqualTo(1L);
+        assertThat(pointHistoryTable.selectAllByUserId(id)).containsExactly(pointHistory);
+    }
+}
@@ -2,23 +2,35 @@ package io.hhplus.tdd.point.controller;
 
 import io.hhplus.tdd.config.TestConfig;
 import io.hhplus.tdd.point.domain.TransactionType;
+import io.hhplus.tdd.point.service.dto.request.PointBatchItemRequest;
+import io.hhplus.tdd.point.service.dto.request.PointBatchRequest;
 import io.hhplus.tdd.point.service.dto.request.PointRequest;
+import io.hhplus.tdd.point.service.dto.response.PointBatchItemResponse;
+import io.hhplus.tdd.point.service.dto.response.PointBatchResponse;
 import io.hhplus.tdd.point.service.dto.response.PointHistoryResponse;
 import io.hhplus.tdd.point.service.dto.response.PointResponse;
+import io.hhplus.tdd.point.service.dto.response.PointRollupResponse;
+import io.hhplus.tdd.point.service.dto.response.PointSummaryResponse;
+import io.hhplus.tdd.point.service.exception.InsufficientPointException;
 import io.hhplus.tdd.util.DatabaseCleaner;
 import io.restassured.RestAssured;
 import io.restassured.common.mapper.TypeRef;
 import io.restassured.http.ContentType;
+import io.restassured.response.ExtractableResponse;
+import io.restassured.response.Response;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 
+import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+@AutoConfigureObservability
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, classes = TestConfig.class)
 class PointControllerTest {
 
@@ -74,6 +86,44 @@ class PointControllerTest {
         assertThat(response.point()).isEqualTo(pointToCharge);
     }
 
+    @Test
+    public void 같은_Idempotency_Key_로_재시도한_충전은_한_번만_반영된다() {
+        // given
+        long id = 1L;
+        long pointToCharge = 100L;
+        PointRequest request = new PointRequest(pointToCharge);
+        String url = String.format("/point/%d/charge", id);
+        charge(url, "charge-1", request);
+
+        // when
+        PointResponse retried = charge(url, "charge-1", request);
+
+        // then
+        PointResponse current = RestAssured.given().log().all()
+                .when().get(String.format("/point/%d", id))
+                .then().log().all().statusCode(200)
+                .extract().as(new TypeRef<>() {
+                });
+        assertThat(retried.point()).isEqualTo(pointToCharge);
+        assertThat(current.point()).isEqualTo(pointToCharge);
+    }
+
+    @Test
+    public void 같은_Idempotency_Key_로_다른_금액을_충전하면_예외가_발생한다() {
+        // given
+        long id = 1L;
+        String url = String.format("/point/%d/charge", id);
+        charge(url, "charge-1", new PointRequest(100L));
+
+        // when & then
+        RestAssured.given().log().all()
+                .contentType(ContentType.JSON)
+                .header(PointController.IDEMPOTENCY_KEY_HEADER, "charge-1")
+                .body(new PointRequest(200L))
+                .when().patch(url)
+                .then().log().all().statusCode(422);
+    }
+
     @Test
     public void 충전_포인트_요청값이_누락된_경우_예외가_발생한다() {
         // given
@@ -274,6 +324,67 @@ class PointControllerTest {
                 .then().log().all().statusCode(400);
     }
 
+    @Test
+    public void 유저의_누적_충전_이용_통계를_조회한다() {
+        // given
+        long id = 1L;
+        String chargeUrl = String.format("/point/%d/charge", id);
+        String useUrl = String.format("/point/%d/use", id);
+        RestAssured.given().contentType(ContentType.JSON).body(new PointRequest(2_000L)).when().patch(chargeUrl).then().statusCode(200);
+        RestAssured.given().contentType(ContentType.JSON).body(new PointRequest(500L)).when().patch(chargeUrl).then().statusCode(200);
+        RestAssured.given().contentType(ContentType.JSON).body(new PointRequest(1_000L)).when().patch(useUrl).then().statusCode(200);
+        String url = String.format("/point/%d/summary", id);
+
+        // when
+        PointSummaryResponse response = RestAssured.given().log().all()
+                .when().get(url)
+                .then().log().all().statusCode(200)
+                .extract().as(new TypeRef<>() {
+                });
+
+        // then
+        assertThat(response.userId()).isEqualTo(id);
+        assertThat(response.totalCharged()).isEqualTo(2_500L);
+        assertThat(response.totalUsed()).isEqualTo(1_000L);
+        assertThat(response.transactionCount()).isEqualTo(3L);
+        assertThat(response.lastTransactionTime()).isNotNull();
+    }
+
+    @Test
+    public void 전체_유저의_구간별_충전_이용_합계를_조회한다() {
+        // given
+        long now = System.currentTimeMillis();
+        RestAssured.given().contentType(ContentType.JSON).body(new PointRequest(2_000L)).when().patch("/point/1/charge").then().statusCode(200);
+        RestAssured.given().contentType(ContentType.JSON).body(new PointRequest(500L)).when().patch("/point/2/charge").then().statusCode(200);
+        RestAssured.given().contentType(ContentType.JSON).body(new PointRequest(1_000L)).when().patch("/point/1/use").then().statusCode(200);
+
+        // when
+        PointRollupResponse response = RestAssured.given().log().all()
+                .queryParam("from", now - 3_600_000L)
+                .queryParam("to", now + 3_600_000L)
+                .when().get("/point/rollups")
+                .then().log().all().statusCode(200)
+                .extract().as(new TypeRef<>() {
+                });
+
+        // then
+        assertThat(response.chargeAmount()).isEqualTo(2_500L);
+        assertThat(response.chargeCount()).isEqualTo(2L);
+        assertThat(response.useAmount()).isEqualTo(1_000L);
+        assertThat(response.useCount()).isEqualTo(1L);
+        assertThat(response.complete()).isTrue();
+    }
+
+    @Test
+    public void 시작이_끝보다_늦은_구간의_합계는_조회할_수_없다() {
+        // when & then
+        RestAssured.given().log().all()
+                .queryParam("from", 2_000L)
+                .queryParam("to", 1_000L)
+                .when().get("/point/rollups")
+                .then().log().all().statusCode(400);
+    }
+
     @Test
     public void 유저의_포인트_거래_기록이_없는_상태에서_조회한다() {
         // given
@@ -328,9 +439,227 @@ class PointControllerTest {
         assertPointHistoryResponse(response.get(1), id, pointToUse, TransactionType.USE);
     }
 
+    @Test
+    public void 유저의_포인트_거래_기록을_페이지_단위로_조회한다() {
+        // given
+        long id = 1L;
+        long pointToCharge = 100L;
+        PointRequest chargeRequest = new PointRequest(pointToCharge);
+        String chargeUrl = String.format("/point/%d/charge", id);
+        String url = String.format("/point/%d/histories", id);
+
+        for (int i = 0; i < 3; i++) {
+            RestAssured.given().log().all()
+                    .contentType(ContentType.JSON)
+                    .body(chargeRequest)
+                    .when().patch(chargeUrl)
+                    .then().log().all().statusCode(200);
+        }
+
+        // when
+        ExtractableResponse<Response> firstPage = RestAssured.given().log().all()
+                .queryParam("limit", 2)
+                .when().get(url)
+                .then().log().all().statusCode(200)
+                .extract();
+        String nextCursor = firstPage.header(PointController.NEXT_CURSOR_HEADER);
+
+        ExtractableResponse<Response> secondPage = RestAssured.given().log().all()
+                .queryParam("limit", 2)
+                .queryParam("cursor", nextCursor)
+                .when().get(url)
+                .then().log().all().statusCode(200)
+                .extract();
+
+        // then
+        assertThat(firstPage.as(new TypeRef<List<PointHistoryResponse>>() {
+        })).hasSize(2);
+        assertThat(nextCursor).isNotBlank();
+        assertThat(secondPage.as(new TypeRef<List<PointHistoryResponse>>() {
+        })).hasSize(1);
+        assertThat(secondPage.header(PointController.NEXT_CURSOR_HEADER)).isNull();
+    }
+
+    @Test
+    public void 거래_시각_구간에_해당하는_포인트_거래_기록만_조회한다() {
+        // given
+        long id = 1L;
+        PointRequest chargeRequest = new PointRequest(100L);
+        String chargeUrl = String.format("/point/%d/charge", id);
+        String url = String.format("/point/%d/histories", id);
+
+        RestAssured.given().log().all()
+                .contentType(ContentType.JSON)
+                .body(chargeRequest)
+                .when().patch(chargeUrl)
+                .then().log().all().statusCode(200);
+        long from = System.currentTimeMillis() + 1;
+
+        // when
+        List<PointHistoryResponse> response = RestAssured.given().log().all()
+                .queryParam("from", from)
+                .when().get(url)
+                .then().log().all().statusCode(200)
+                .extract().as(new TypeRef<>() {
+                });
+
+        // then
+        assertThat(response).isEmpty();
+    }
+
+    @Test
+    public void 유효하지_않은_커서로_조회하는_경우_예외가_발생한다() {
+        // given
+        long id = 1L;
+        String url = String.format("/point/%d/histories", id);
+
+        // when & then
+        RestAssured.given().log().all()
+                .queryParam("cursor", "invalid-cursor")
+                .when().get(url)
+                .then().log().all().statusCode(400);
+    }
+
+    @Test
+    public void 조회_개수가_최대값을_초과하는_경우_예외가_발생한다() {
+        // given
+        long id = 1L;
+        String url = String.format("/point/%d/histories", id);
+
+        // when & then
+        RestAssured.given().log().all()
+                .queryParam("limit", 1_001)
+                .when().get(url)
+                .then().log().all().statusCode(400);
+    }
+
+    @Test
+    public void 포인트_거래_기록을_NDJSON_으로_내보낸다() {
+        // given
+        PointRequest chargeRequest = new PointRequest(1_000L);
+        PointRequest useRequest = new PointRequest(100L);
+
+        RestAssured.given().log().all()
+                .contentType(ContentType.JSON)
+                .body(chargeRequest)
+                .when().patch("/point/1/charge")
+                .then().log().all().statusCode(200);
+        RestAssured.given().log().all()
+                .contentType(ContentType.JSON)
+                .body(chargeRequest)
+                .when().patch("/point/2/charge")
+                .then().log().all().statusCode(200);
+        RestAssured.given().log().all()
+                .contentType(ContentType.JSON)
+                .body(useRequest)
+                .when().patch("/point/1/use")
+                .then().log().all().statusCode(200);
+
+        // when
+        String all = RestAssured.given().log().all()
+                .when().get("/point/histories/export")
+                .then().log().all().statusCode(200)
+                .contentType("application/x-ndjson")
+                .extract().asString();
+        String filtered = RestAssured.given().log().all()
+                .queryParam("userId", 1)
+                .queryParam("type", TransactionType.USE.name())
+                .when().get("/point/histories/export")
+                .then().log().all().statusCode(200)
+                .extract().asString();
+
+        // then
+        assertThat(all.lines()).hasSize(3);
+        assertThat(filtered.lines()).hasSize(1);
+        assertThat(filtered).contains("\"userId\":1", "\"transactionType\":\"USE\"");
+    }
+
+    @Test
+    public void 여러_유저의_포인트_충전_이용_요청을_한_번에_처리한다() {
+        // given
+        PointBatchRequest request = new PointBatchRequest(List.of(
+                new PointBatchItemRequest(1L, TransactionType.CHARGE, 1_000L),
+                new PointBatchItemRequest(2L, TransactionType.USE, 100L),
+                new PointBatchItemRequest(1L, TransactionType.USE, 300L)
+        ));
+
+        // when
+        PointBatchResponse response = RestAssured.given().log().all()
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when().post("/point/batch")
+                .then().log().all().statusCode(200)
+                .extract().as(new TypeRef<>() {
+                });
+
+        // then
+        assertThat(response.results()).extracting(PointBatchItemResponse::index).containsExactly(0, 1, 2);
+        assertThat(response.results()).extracting(PointBatchItemResponse::success).containsExactly(true, false, true);
+        assertThat(response.results().get(0).point()).isEqualTo(1_000L);
+        assertThat(response.results().get(1).errorMessage()).isEqualTo(new InsufficientPointException().getMessage());
+        assertThat(response.results().get(2).point()).isEqualTo(700L);
+    }
+
+    @Test
+    public void 일괄_요청_항목이_비어있는_경우_예외가_발생한다() {
+        // given
+        PointBatchRequest request = new PointBatchRequest(List.of());
+
+        // when & then
+        RestAssured.given().log().all()
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when().post("/point/batch")
+                .then().log().all().statusCode(400);
+    }
+
+    @Test
+    public void 일괄_요청_항목이_1000개를_넘는_경우_예외가_발생한다() {
+        // given
+        PointBatchRequest request = new PointBatchRequest(Collections.nCopies(1_001, new PointBatchItemRequest(1L, TransactionType.CHARGE, 1L)));
+
+        // when & then
+        RestAssured.given().log().all()
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when().post("/point/batch")
+                .then().log().all().statusCode(400);
+    }
+
+    @Test
+    public void 포인트_처리_지표를_prometheus_형식으로_노출한다() {
+        // given
+        long id = 1L;
+        RestAssured.given()
+                .contentType(ContentType.JSON)
+                .body(new PointRequest(100L))
+                .when().patch(String.format("/point/%d/charge", id))
+                .then().statusCode(200);
+
+        // when
+        String body = RestAssured.given().log().all()
+                .when().get("/actuator/prometheus")
+                .then().statusCode(200)
+                .extract().asString();
+
+        // then
+        assertThat(body).contains("point_lock_wait_seconds_count", "point_lock_hold_seconds_bucket", "point_lock_registry_size", "point_users_hot");
+    }
+
     private void assertPointHistoryResponse(PointHistoryResponse response, long userId, long point, TransactionType transactionType) {
         assertThat(response.userId()).isEqualTo(userId);
         assertThat(response.point()).isEqualTo(point);
         assertThat(response.transactionType()).isEqualTo(transactionType.name());
     }
+
+    private PointResponse charge(String url, String idempotencyKey, PointRequest request) {
+        return RestAssured.given().log().all()
+                .contentType(ContentType.JSON)
+                .header(PointController.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                .body(request)
+                .when().patch(url)
+                .then().log().all().statusCode(200)
+                .extract().as(new TypeRef<>() {
+                });
+    }
 }
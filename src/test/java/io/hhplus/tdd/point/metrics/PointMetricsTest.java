@@ -0,0 +1,69 @@
+package io.hhplus.tdd.point.metrics;
+
+import io.hhplus.tdd.point.domain.TransactionType;
+import io.hhplus.tdd.point.service.exception.InsufficientPointException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PointMetricsTest {
+
+    @Test
+    public void 직전_구간에서_기준_횟수_이상_요청한_유저를_hot_user_로_집계한다() throws InterruptedException {
+        // given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PointMetrics metrics = new PointMetrics(meterRegistry, new PointMetricsProperties(3, Duration.ofMillis(200)));
+        for (int i = 0; i < 3; i++) {
+            metrics.recordAccess(1L);
+        }
+        metrics.recordAccess(2L);
+        Thread.sleep(250);
+
+        // when
+        metrics.recordAccess(3L);
+
+        // then
+        assertThat(metrics.hotUserCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("point.users.hot").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void 구간이_끝난_뒤_요청이_없어도_gauge_를_읽을_때_직전_구간을_집계한다() throws InterruptedException {
+        // given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PointMetrics metrics = new PointMetrics(meterRegistry, new PointMetricsProperties(3, Duration.ofMillis(200)));
+        for (int i = 0; i < 3; i++) {
+            metrics.recordAccess(1L);
+            metrics.recordAccess(2L);
+        }
+        metrics.recordAccess(3L);
+
+        // when
+        Thread.sleep(250);
+
+        // then
+        assertThat(meterRegistry.get("point.users.hot").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    public void 실패한_요청을_예외_종류별로_센다() {
+        // given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PointMetrics metrics = new PointMetrics(meterRegistry, new PointMetricsProperties(100, Duration.ofSeconds(1)));
+
+        // when
+        metrics.recordRejection(TransactionType.USE, new InsufficientPointException());
+        metrics.recordRejection(TransactionType.USE, new InsufficientPointException());
+
+        // then
+        double count = meterRegistry.get("point.rejections")
+                .tag("type", "USE")
+                .tag("exception", "InsufficientPointException")
+                .counter()
+                .count();
+        assertThat(count).isEqualTo(2.0);
+    }
+}
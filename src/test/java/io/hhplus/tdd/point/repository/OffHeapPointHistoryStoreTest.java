@@ -0,0 +1,124 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.domain.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapPointHistoryStoreTest {
+
+    @Test
+    public void 유저별_내역을_ID_순으로_조회한다() {
+        // given
+        OffHeapPointHistoryStore store = new OffHeapPointHistoryStore();
+        PointHistory first = new PointHistory(1L, 1L, 100L, TransactionType.CHARGE, 1_000L);
+        PointHistory other = new PointHistory(2L, 2L, 200L, TransactionType.CHARGE, 2_000L);
+        PointHistory second = new PointHistory(3L, 1L, 50L, TransactionType.USE, 3_000L);
+        store.add(first);
+        store.add(other);
+        store.add(second);
+
+        // when
+        List<PointHistory> pointHistories = store.findAllByUserId(1L);
+
+        // then
+        assertThat(pointHistories).containsExactly(first, second);
+        assertThat(store.findAllByUserId(3L)).isEmpty();
+    }
+
+    @Test
+    public void afterId_이후_조회_구간에_해당하는_내역을_최대_limit_개_조회한다() {
+        // given
+        OffHeapPointHistoryStore store = new OffHeapPointHistoryStore();
+        for (long id = 1; id <= 10; id++) {
+            store.add(new PointHistory(id, id % 2, id, TransactionType.CHARGE, id * 1_000L));
+        }
+
+        // when
+        List<PointHistory> pointHistories = store.findByUserId(0L, 2L, 5_000L, 10_000L, 2);
+
+        // then
+        assertThat(pointHistories).extracting(PointHistory::id).containsExactly(6L, 8L);
+    }
+
+    @Test
+    public void 마지막_ID_를_afterId_로_넘기며_유저의_내역을_끝까지_페이지로_조회한다() {
+        // given
+        OffHeapPointHistoryStore store = new OffHeapPointHistoryStore();
+        for (long id = 1; id <= 1_000; id++) {
+            store.add(new PointHistory(id, id % 2, id, TransactionType.CHARGE, id));
+        }
+
+        // when
+        List<Long> pagedIds = new ArrayList<>();
+        long afterId = 0L;
+        List<PointHistory> page;
+        do {
+            page = store.findByUserId(1L, afterId, Long.MIN_VALUE, Long.MAX_VALUE, 100);
+            page.forEach(pointHistory -> pagedIds.add(pointHistory.id()));
+            afterId = page.isEmpty() ? afterId : page.get(page.size() - 1).id();
+        } while (!page.isEmpty());
+
+        // then
+        assertThat(pagedIds).isEqualTo(store.findAllByUserId(1L).stream().map(PointHistory::id).toList());
+        assertThat(pagedIds).hasSize(500).isSorted();
+    }
+
+    @Test
+    public void chunk_를_넘어가도_전체_내역을_ID_순으로_순회한다() {
+        // given
+        // chunk 하나에 들어가는 slot 수보다 많이 추가한다.
+        OffHeapPointHistoryStore store = new OffHeapPointHistoryStore();
+        int count = (1 << 16) + 10;
+        List<PointHistory> added = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            PointHistory pointHistory = new PointHistory(id, id % 3, id, id % 2 == 0 ? TransactionType.USE : TransactionType.CHARGE, id);
+            store.add(pointHistory);
+            added.add(pointHistory);
+        }
+
+        // when
+        List<PointHistory> streamed = store.stream().toList();
+
+        // then
+        assertThat(streamed).isEqualTo(added);
+        assertThat(store.findAllByUserId(1L)).hasSize(count / 3 + 1);
+    }
+
+    @Test
+    public void 비우면_내역이_조회되지_않는다() {
+        // given
+        OffHeapPointHistoryStore store = new OffHeapPointHistoryStore();
+        store.add(new PointHistory(1L, 1L, 100L, TransactionType.CHARGE, 1_000L));
+
+        // when
+        store.clear();
+
+        // then
+        assertThat(store.size()).isZero();
+        assertThat(store.findAllByUserId(1L)).isEmpty();
+        assertThat(store.stream()).isEmpty();
+    }
+
+    @Test
+    public void 비운_뒤_추가한_내역은_이전_내역과_이어지지_않는다() {
+        // given
+        OffHeapPointHistoryStore store = new OffHeapPointHistoryStore();
+        store.add(new PointHistory(1L, 1L, 100L, TransactionType.CHARGE, 1_000L));
+        store.add(new PointHistory(2L, 1L, 50L, TransactionType.USE, 2_000L));
+        store.clear();
+        PointHistory added = new PointHistory(1L, 1L, 30L, TransactionType.CHARGE, 3_000L);
+
+        // when
+        store.add(added);
+
+        // then
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.findAllByUserId(1L)).containsExactly(added);
+        assertThat(store.stream()).containsExactly(added);
+    }
+}
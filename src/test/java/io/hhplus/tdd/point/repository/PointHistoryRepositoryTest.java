@@ -0,0 +1,352 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.database.ConcurrentPointHistoryTable;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.domain.TransactionType;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.metrics.PointMetricsProperties;
+import io.hhplus.tdd.point.repository.wal.DisabledWriteAheadLog;
+import io.hhplus.tdd.point.repository.wal.FileWriteAheadLog;
+import io.hhplus.tdd.point.repository.wal.WalProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PointHistoryRepositoryTest {
+
+    private static final PointMetrics METRICS = new PointMetrics(new SimpleMeterRegistry(), new PointMetricsProperties(100, Duration.ofSeconds(1)));
+
+    @TempDir
+    private Path directory;
+
+    private PointHistoryRepository pointHistoryRepository;
+
+    @AfterEach
+    void tearDown() {
+        pointHistoryRepository.close();
+    }
+
+    @Test
+    public void 추가한_내역은_테이블_반영_전에도_조회된다() {
+        // given
+        long id = 1L;
+        long pointToCharge = 100L;
+        PointHistoryTable pointHistoryTable = new PointHistoryTable();
+        // batch 가 모일 때까지 충분히 오래 기다리도록 설정해 테이블 반영을 늦춘다.
+        pointHistoryRepository = new PointHistoryRepository(pointHistoryTable, PointHistoryRepositoryProperties.defaults().withFlushInterval(Duration.ofSeconds(1)), METRICS, new DisabledWriteAheadLog());
+
+        // when
+        PointHistory pointHistory = pointHistoryRepository.append(id, pointToCharge, TransactionType.CHARGE, System.currentTimeMillis());
+        List<PointHistory> pointHistories = pointHistoryRepository.findAllByUserId(id);
+
+        // then
+        assertThat(pointHistory.id()).isEqualTo(1L);
+        assertThat(pointHistories).containsExactly(pointHistory);
+        assertThat(pointHistoryTable.selectAllByUserId(id)).isEmpty();
+    }
+
+    @Test
+    public void flush_시_추가한_순서대로_테이블에_반영된다() {
+        // given
+        PointHistoryTable pointHistoryTable = new PointHistoryTable();
+        pointHistoryRepository = new PointHistoryRepository(pointHistoryTable, PointHistoryRepositoryProperties.defaults().withBatchSize(2).withFlushInterval(Duration.ofMillis(1)), METRICS, new DisabledWriteAheadLog());
+        pointHistoryRepository.append(1L, 100L, TransactionType.CHARGE, System.currentTimeMillis());
+        pointHistoryRepository.append(2L, 200L, TransactionType.CHARGE, System.currentTimeMillis());
+        pointHistoryRepository.append(1L, 50L, TransactionType.USE, System.currentTimeMillis());
+
+        // when
+        pointHistoryRepository.flush();
+
+        // then
+        List<PointHistory> pointHistories = pointHistoryTable.selectAllByUserId(1L);
+        assertThat(pointHistories).extracting(PointHistory::id).containsExactly(1L, 3L);
+        assertThat(pointHistories).extracting(PointHistory::type).containsExactly(TransactionType.CHARGE, TransactionType.USE);
+        assertThat(pointHistoryRepository.pendingCount()).isZero();
+    }
+
+    @Test
+    public void 여러_내역을_한_번에_추가하면_연속된_ID_를_발급한다() {
+        // given
+        long id = 1L;
+        long updateMillis = System.currentTimeMillis();
+        pointHistoryRepository = new PointHistoryRepository(new PointHistoryTable(), PointHistoryRepositoryProperties.defaults().withFlushInterval(Duration.ofSeconds(1)), METRICS, new DisabledWriteAheadLog());
+        pointHistoryRepository.append(2L, 10L, TransactionType.CHARGE, updateMillis);
+
+        // when
+        List<PointHistory> appended = pointHistoryRepository.appendAll(List.of(
+                new PointHistory(0, id, 100L, TransactionType.CHARGE, updateMillis),
+                new PointHistory(0, id, 30L, TransactionType.USE, updateMillis)
+        ));
+
+        // then
+        assertThat(appended).extracting(PointHistory::id).containsExactly(2L, 3L);
+        assertThat(pointHistoryRepository.findAllByUserId(id)).containsExactlyElementsOf(appended);
+    }
+
+    @Test
+    public void 반영_이후에도_내역이_중복없이_조회된다() {
+        // given
+        long id = 1L;
+        PointHistoryTable pointHistoryTable = new PointHistoryTable();
+        pointHistoryRepository = new PointHistoryRepository(pointHistoryTable, PointHistoryRepositoryProperties.defaults().withFlushInterval(Duration.ofMillis(1)), METRICS, new DisabledWriteAheadLog());
+        pointHistoryRepository.append(id, 100L, TransactionType.CHARGE, System.currentTimeMillis());
+        pointHistoryRepository.flush();
+        pointHistoryRepository.append(id, 50L, TransactionType.USE, System.currentTimeMillis());
+
+        // when
+        List<PointHistory> pointHistories = pointHistoryRepository.findAllByUserId(id);
+
+        // then
+        assertThat(pointHistories).extracting(PointHistory::id).containsExactly(1L, 2L);
+    }
+
+    @Test
+    public void 다른_유저의_내역은_조회되지_않는다() {
+        // given
+        PointHistoryTable pointHistoryTable = new PointHistoryTable();
+        pointHistoryRepository = new PointHistoryRepository(pointHistoryTable, PointHistoryRepositoryProperties.defaults().withFlushInterval(Duration.ofMillis(1)), METRICS, new DisabledWriteAheadLog());
+        pointHistoryRepository.append(1L, 100L, TransactionType.CHARGE, System.currentTimeMillis());
+        pointHistoryRepository.append(2L, 200L, TransactionType.CHARGE, System.currentTimeMillis());
+        pointHistoryRepository.append(1L, 50L, TransactionType.USE, System.currentTimeMillis());
+
+        // when
+        List<PointHistory> pointHistories = pointHistoryRepository.findAllByUserId(2L);
+
+        // then
+        assertThat(pointHistories).extracting(PointHistory::id).containsExactly(2L);
+    }
+
+    @Test
+    public void 테이블에_저장된_내역으로_인덱스를_다시_만든다() {
+        // given
+        long id = 1L;
+        PointHistoryTable pointHistoryTable = new PointHistoryTable();
+        pointHistoryTable.insert(id, 100L, TransactionType.CHARGE, System.currentTimeMillis());
+        pointHistoryTable.insert(id, 50L, TransactionType.USE, System.currentTimeMillis());
+        pointHistoryRepository = new PointHistoryRepository(pointHistoryTable, PointHistoryRepositoryProperties.defaults().withFlushInterval(Duration.ofMillis(1)), METRICS, new DisabledWriteAheadLog());
+
+        // when
+        pointHistoryRepository.rebuildIndex(List.of(id));
+        PointHistory appended = pointHistoryRepository.append(id, 10L, TransactionType.CHARGE, System.currentTimeMillis());
+
+        // then
+        assertThat(appended.id()).isEqualTo(3L);
+        assertThat(pointHistoryRepository.findAllByUserId(id)).extracting(PointHistory::id).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    public void 여러_writer_가_반영해도_유저별_순서대로_테이블에_반영된다() {
+        // given
+        ConcurrentPointHistoryTable pointHistoryTable = new ConcurrentPointHistoryTable();
+        pointHistoryRepository = new PointHistoryRepository(pointHistoryTable, PointHistoryRepositoryProperties.defaults().withBatchSize(10).withFlushInterval(Duration.ofMillis(1)).withTable(PointHistoryRepositoryProperties.Table.CONCURRENT).withWriters(4), METRICS, new DisabledWriteAheadLog());
+        for (long amount = 1; amount <= 20; amount++) {
+            for (long id = 1; id <= 8; id++) {
+                pointHistoryRepository.append(id, amount, TransactionType.CHARGE, System.currentTimeMillis());
+            }
+        }
+
+        // when
+        pointHistoryRepository.flush();
+
+        // then
+        assertThat(pointHistoryRepository.pendingCount()).isZero();
+        assertThat(pointHistoryTable.size()).isEqualTo(160);
+        for (long id = 1; id <= 8; id++) {
+            assertThat(pointHistoryTable.selectAllByUserId(id)).extracting(PointHistory::amount)
+                    .containsExactlyElementsOf(LongStream.rangeClosed(1, 20).boxed().toList());
+        }
+    }
+
+    @Test
+    public void 동시_추가를_지원하지_않는_테이블에는_여러_writer_를_사용할_수_없다() {
+        // given
+        PointHistoryRepositoryProperties properties = PointHistoryRepositoryProperties.defaults().withFlushInterval(Duration.ofMillis(1)).withWriters(2);
+
+        // when & then
+        assertThatThrownBy(() -> new PointHistoryRepository(new PointHistoryTable(), properties, METRICS, new DisabledWriteAheadLog()))
+                .isInstanceOf(IllegalArgumentException.class);
+        pointHistoryRepository = new PointHistoryRepository(new PointHistoryTable(), PointHistoryRepositoryProperties.defaults().withFlushInterval(Duration.ofMillis(1)), METRICS, new DisabledWriteAheadLog());
+    }
+
+    @Test
+    public void concurrent_테이블로_설정했다면_동시_추가를_지원하는_테이블이_필요하다() {
+        // given
+        PointHistoryRepositoryProperties properties = PointHistoryRepositoryProperties.defaults().withTable(PointHistoryRepositoryProperties.Table.CONCURRENT);
+
+        // when & then
+        assertThatThrownBy(() -> new PointHistoryRepository(new PointHistoryTable(), properties, METRICS, new DisabledWriteAheadLog()))
+                .isInstanceOf(IllegalArgumentException.class);
+        pointHistoryRepository = new PointHistoryRepository(new ConcurrentPointHistoryTable(), properties, METRICS, new DisabledWriteAheadLog());
+    }
+
+    @Test
+    public void 테이블_반영에_실패한_내역은_반영된_것으로_세지_않고_다시_반영한다() {
+        // given
+        AtomicInteger attempts = new AtomicInteger();
+        PointHistoryTable pointHistoryTable = new PointHistoryTable() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                if (attempts.getAndIncrement() == 0) {
+                    throw new IllegalStateException("테이블 반영 실패");
+                }
+                return super.insert(userId, amount, type, updateMillis);
+            }
+        };
+        pointHistoryRepository = new PointHistoryRepository(pointHistoryTable, PointHistoryRepositoryProperties.defaults().withFlushInterval(Duration.ofMillis(1)), METRICS, new DisabledWriteAheadLog());
+        pointHistoryRepository.append(1L, 100L, TransactionType.CHARGE, System.currentTimeMillis());
+        pointHistoryRepository.append(1L, 50L, TransactionType.USE, System.currentTimeMillis());
+
+        // when
+        pointHistoryRepository.flush();
+
+        // then
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(pointHistoryTable.selectAllByUserId(1L)).extracting(PointHistory::amount).containsExactly(100L, 50L);
+        assertThat(pointHistoryRepository.pendingCount()).isZero();
+    }
+
+    @Test
+    public void 한_writer_의_queue_가_가득_차도_다른_writer_가_맡은_유저의_내역은_추가된다() throws Exception {
+        // given
+        long blockedId = 1L;
+        long otherId = LongStream.rangeClosed(2, 100).filter(id -> writerOf(id, 2) != writerOf(blockedId, 2)).findFirst().orElseThrow();
+        CountDownLatch release = new CountDownLatch(1);
+        ConcurrentPointHistoryTable pointHistoryTable = new ConcurrentPointHistoryTable() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                if (userId == blockedId) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.insert(userId, amount, type, updateMillis);
+            }
+        };
+        // writer 당 queue 에 1건만 대기할 수 있다.
+        PointHistoryRepositoryProperties properties = PointHistoryRepositoryProperties.defaults().withQueueCapacity(2).withFlushInterval(Duration.ofMillis(1))
+                .withTable(PointHistoryRepositoryProperties.Table.CONCURRENT).withWriters(2);
+        pointHistoryRepository = new PointHistoryRepository(pointHistoryTable, properties, METRICS, new DisabledWriteAheadLog());
+        // 첫 내역은 writer 가 반영하다 멈추고, 두 번째 내역이 queue 를 채운다.
+        pointHistoryRepository.append(blockedId, 100L, TransactionType.CHARGE, System.currentTimeMillis());
+        pointHistoryRepository.append(blockedId, 200L, TransactionType.CHARGE, System.currentTimeMillis());
+        CompletableFuture<PointHistory> blocked = CompletableFuture.supplyAsync(() -> pointHistoryRepository.append(blockedId, 300L, TransactionType.CHARGE, System.currentTimeMillis()));
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        // when
+        PointHistory other = CompletableFuture.supplyAsync(() -> pointHistoryRepository.append(otherId, 400L, TransactionType.CHARGE, System.currentTimeMillis()))
+                .get(1, TimeUnit.SECONDS);
+
+        // then
+        assertThat(blocked).isNotDone();
+        assertThat(other.userId()).isEqualTo(otherId);
+        release.countDown();
+        assertThat(blocked.get(1, TimeUnit.SECONDS).amount()).isEqualTo(300L);
+        pointHistoryRepository.flush();
+        assertThat(pointHistoryTable.selectAllByUserId(blockedId)).extracting(PointHistory::amount).containsExactly(100L, 200L, 300L);
+    }
+
+    @Test
+    public void queue_자리를_기다리다_중단되면_WAL_에_기록하지_않고_ID_를_건너뛰지_않는다() throws Exception {
+        // given
+        WalProperties walProperties = new WalProperties(true, directory, DataSize.ofMegabytes(64), WalProperties.Fsync.EVERY_OP, Duration.ofMillis(10),
+                DataSize.ofMegabytes(1), Duration.ofMinutes(1), WalProperties.Compaction.ARCHIVE);
+        FileWriteAheadLog writeAheadLog = new FileWriteAheadLog(walProperties);
+        CountDownLatch release = new CountDownLatch(1);
+        PointHistoryTable pointHistoryTable = new PointHistoryTable() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.insert(userId, amount, type, updateMillis);
+            }
+        };
+        pointHistoryRepository = new PointHistoryRepository(pointHistoryTable, PointHistoryRepositoryProperties.defaults().withQueueCapacity(1).withFlushInterval(Duration.ofMillis(1)), METRICS, writeAheadLog);
+        pointHistoryRepository.append(1L, 100L, TransactionType.CHARGE, System.currentTimeMillis());
+        pointHistoryRepository.append(1L, 200L, TransactionType.CHARGE, System.currentTimeMillis());
+        CompletableFuture<Throwable> interrupted = new CompletableFuture<>();
+        Thread waiting = new Thread(() -> {
+            try {
+                pointHistoryRepository.append(1L, 300L, TransactionType.CHARGE, System.currentTimeMillis());
+                interrupted.complete(null);
+            } catch (RuntimeException e) {
+                interrupted.complete(e);
+            }
+        });
+        waiting.start();
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        // when
+        waiting.interrupt();
+        Throwable failure = interrupted.get(1, TimeUnit.SECONDS);
+        release.countDown();
+        PointHistory appended = pointHistoryRepository.append(1L, 400L, TransactionType.CHARGE, System.currentTimeMillis());
+        pointHistoryRepository.flush();
+        writeAheadLog.close();
+
+        // then
+        assertThat(failure).isInstanceOf(IllegalStateException.class);
+        assertThat(appended.id()).isEqualTo(3L);
+        List<PointHistory> recovered = new ArrayList<>();
+        new FileWriteAheadLog(walProperties).recover(recovered::add, (userPoint, summary) -> {
+        });
+        assertThat(recovered).extracting(PointHistory::id).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    public void WAL_기록에_실패하면_어떤_내역도_추가하지_않는다() {
+        // given
+        AtomicInteger attempts = new AtomicInteger();
+        PointHistoryTable pointHistoryTable = new PointHistoryTable();
+        pointHistoryRepository = new PointHistoryRepository(pointHistoryTable, PointHistoryRepositoryProperties.defaults().withFlushInterval(Duration.ofMillis(1)), METRICS, new DisabledWriteAheadLog() {
+            @Override
+            public long appendAll(List<PointHistory> pointHistories) {
+                if (attempts.getAndIncrement() == 0) {
+                    throw new IllegalStateException("포인트 WAL 기록에 실패했습니다.");
+                }
+                return super.appendAll(pointHistories);
+            }
+        });
+        List<PointHistory> drafts = List.of(
+                new PointHistory(0, 1L, 100L, TransactionType.CHARGE, System.currentTimeMillis()),
+                new PointHistory(0, 2L, 200L, TransactionType.CHARGE, System.currentTimeMillis())
+        );
+
+        // when
+        assertThatThrownBy(() -> pointHistoryRepository.appendAll(drafts))
+                .isInstanceOf(IllegalStateException.class);
+        List<PointHistory> appended = pointHistoryRepository.appendAll(drafts);
+        pointHistoryRepository.flush();
+
+        // then
+        assertThat(appended).extracting(PointHistory::id).containsExactly(1L, 2L);
+        assertThat(pointHistoryRepository.findAllByUserId(1L)).containsExactly(appended.get(0));
+        assertThat(pointHistoryTable.selectAllByUserId(2L)).hasSize(1);
+        assertThat(pointHistoryRepository.pendingCount()).isZero();
+    }
+
+    private static int writerOf(long userId, int writers) {
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        return (int) Long.remainderUnsigned(hash ^ (hash >>> 32), writers);
+    }
+}
@@ -0,0 +1,158 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.domain.PointRollup;
+import io.hhplus.tdd.point.domain.PointSummary;
+import io.hhplus.tdd.point.domain.TransactionType;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.metrics.PointMetricsProperties;
+import io.hhplus.tdd.point.repository.wal.FileWriteAheadLog;
+import io.hhplus.tdd.point.repository.wal.WalProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class PointRecoveryTest {
+
+    private static final PointMetrics METRICS = new PointMetrics(new SimpleMeterRegistry(), new PointMetricsProperties(100, Duration.ofSeconds(1)));
+    private static final UserPointRepositoryProperties USER_POINT_PROPERTIES = new UserPointRepositoryProperties(Duration.ofHours(1), 1, 10_000);
+    private static final PointRollupProperties ROLLUP_PROPERTIES = new PointRollupProperties(1440, 720, 366);
+    private static final PointHistoryRepositoryProperties POINT_HISTORY_PROPERTIES = PointHistoryRepositoryProperties.defaults().withFlushInterval(Duration.ofMillis(1));
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void 재기동_시_WAL_로_내역과_잔액을_복구한다() {
+        // given
+        FileWriteAheadLog writeAheadLog = new FileWriteAheadLog(walProperties());
+        PointHistoryRepository pointHistoryRepository = new PointHistoryRepository(mock(PointHistoryTable.class), POINT_HISTORY_PROPERTIES, METRICS, writeAheadLog);
+        pointHistoryRepository.append(1L, 100L, TransactionType.CHARGE, System.currentTimeMillis());
+        pointHistoryRepository.append(2L, 500L, TransactionType.CHARGE, System.currentTimeMillis());
+        pointHistoryRepository.append(1L, 30L, TransactionType.USE, System.currentTimeMillis());
+        pointHistoryRepository.close();
+        writeAheadLog.close();
+
+        // 테이블은 재기동 시 비어 있다.
+        FileWriteAheadLog reopened = new FileWriteAheadLog(walProperties());
+        UserPointRepository restoredUserPointRepository = new UserPointRepository(new UserPointTable(), USER_POINT_PROPERTIES, METRICS);
+        PointHistoryRepository restoredPointHistoryRepository = new PointHistoryRepository(mock(PointHistoryTable.class), POINT_HISTORY_PROPERTIES, METRICS, reopened);
+        PointSummaryRepository restoredPointSummaryRepository = new PointSummaryRepository(restoredPointHistoryRepository);
+
+        // when
+        new PointRecovery(reopened, restoredUserPointRepository, restoredPointHistoryRepository, restoredPointSummaryRepository, new PointRollupRepository(restoredPointHistoryRepository, ROLLUP_PROPERTIES)).recover();
+        PointHistory appended = restoredPointHistoryRepository.append(1L, 10L, TransactionType.CHARGE, System.currentTimeMillis());
+
+        // then
+        assertThat(restoredUserPointRepository.findById(1L).point()).isEqualTo(70L);
+        assertThat(restoredUserPointRepository.findById(2L).point()).isEqualTo(500L);
+        assertThat(restoredPointHistoryRepository.findAllByUserId(1L)).extracting(PointHistory::id).containsExactly(1L, 3L, 4L);
+        assertThat(appended.id()).isEqualTo(4L);
+        assertThat(restoredPointSummaryRepository.findByUserId(1L))
+                .extracting(PointSummary::totalCharged, PointSummary::totalUsed, PointSummary::transactionCount)
+                .containsExactly(110L, 30L, 3L);
+
+        restoredUserPointRepository.clear();
+        restoredUserPointRepository.close();
+        restoredPointHistoryRepository.close();
+        reopened.close();
+    }
+
+    @Test
+    public void 재기동_시_snapshot_과_이후의_내역으로_잔액을_복구한다() {
+        // given
+        FileWriteAheadLog writeAheadLog = new FileWriteAheadLog(walProperties(DataSize.ofBytes(100)));
+        PointHistoryRepository pointHistoryRepository = new PointHistoryRepository(mock(PointHistoryTable.class), POINT_HISTORY_PROPERTIES, METRICS, writeAheadLog);
+        pointHistoryRepository.append(1L, 100L, TransactionType.CHARGE, System.currentTimeMillis());
+        pointHistoryRepository.append(2L, 500L, TransactionType.CHARGE, System.currentTimeMillis());
+        pointHistoryRepository.append(1L, 30L, TransactionType.USE, System.currentTimeMillis());
+        // 레코드 두 개가 들어가는 segment 크기이므로 첫 segment 만 압축된다.
+        writeAheadLog.compact();
+        pointHistoryRepository.append(1L, 5L, TransactionType.USE, System.currentTimeMillis());
+        pointHistoryRepository.close();
+        writeAheadLog.close();
+
+        FileWriteAheadLog reopened = new FileWriteAheadLog(walProperties(DataSize.ofBytes(100)));
+        UserPointRepository restoredUserPointRepository = new UserPointRepository(new UserPointTable(), USER_POINT_PROPERTIES, METRICS);
+        PointHistoryRepository restoredPointHistoryRepository = new PointHistoryRepository(mock(PointHistoryTable.class), POINT_HISTORY_PROPERTIES, METRICS, reopened);
+        PointSummaryRepository restoredPointSummaryRepository = new PointSummaryRepository(restoredPointHistoryRepository);
+
+        // when
+        new PointRecovery(reopened, restoredUserPointRepository, restoredPointHistoryRepository, restoredPointSummaryRepository, new PointRollupRepository(restoredPointHistoryRepository, ROLLUP_PROPERTIES)).recover();
+        PointHistory appended = restoredPointHistoryRepository.append(2L, 10L, TransactionType.USE, System.currentTimeMillis());
+
+        // then
+        assertThat(restoredUserPointRepository.findById(1L).point()).isEqualTo(65L);
+        assertThat(restoredUserPointRepository.findById(2L).point()).isEqualTo(500L);
+        // 기록이 끝난 첫 segment 의 내역(1, 2)만 snapshot 으로 압축되었으며, 압축된 내역은 복구하지 않는다.
+        assertThat(restoredPointHistoryRepository.findAllByUserId(1L)).extracting(PointHistory::id).containsExactly(3L, 4L);
+        assertThat(appended.id()).isEqualTo(5L);
+        // 누적 통계는 snapshot 으로 압축된 내역까지 포함한다.
+        assertThat(restoredPointSummaryRepository.findByUserId(1L))
+                .extracting(PointSummary::totalCharged, PointSummary::totalUsed, PointSummary::transactionCount)
+                .containsExactly(100L, 35L, 3L);
+        assertThat(restoredPointSummaryRepository.findByUserId(2L))
+                .extracting(PointSummary::totalCharged, PointSummary::totalUsed, PointSummary::transactionCount)
+                .containsExactly(500L, 10L, 2L);
+
+        restoredUserPointRepository.clear();
+        restoredUserPointRepository.close();
+        restoredPointHistoryRepository.close();
+        reopened.close();
+    }
+
+    @Test
+    public void 재기동_후_snapshot_으로_압축된_내역의_구간은_불완전한_집계로_조회된다() {
+        // given
+        long minute = PointRollup.Resolution.MINUTE.millis();
+        long start = 28_333_333L * minute;
+        FileWriteAheadLog writeAheadLog = new FileWriteAheadLog(walProperties(DataSize.ofBytes(100)));
+        PointHistoryRepository pointHistoryRepository = new PointHistoryRepository(mock(PointHistoryTable.class), POINT_HISTORY_PROPERTIES, METRICS, writeAheadLog);
+        pointHistoryRepository.append(1L, 100L, TransactionType.CHARGE, start);
+        pointHistoryRepository.append(2L, 500L, TransactionType.CHARGE, start);
+        pointHistoryRepository.append(1L, 30L, TransactionType.USE, start + 2 * minute);
+        // 첫 segment 의 내역(1, 2)만 압축된다.
+        writeAheadLog.compact();
+        pointHistoryRepository.append(1L, 5L, TransactionType.USE, start + 3 * minute);
+        pointHistoryRepository.close();
+        writeAheadLog.close();
+
+        FileWriteAheadLog reopened = new FileWriteAheadLog(walProperties(DataSize.ofBytes(100)));
+        UserPointRepository restoredUserPointRepository = new UserPointRepository(new UserPointTable(), USER_POINT_PROPERTIES, METRICS);
+        PointHistoryRepository restoredPointHistoryRepository = new PointHistoryRepository(mock(PointHistoryTable.class), POINT_HISTORY_PROPERTIES, METRICS, reopened);
+        PointRollupRepository restoredPointRollupRepository = new PointRollupRepository(restoredPointHistoryRepository, ROLLUP_PROPERTIES);
+
+        // when
+        new PointRecovery(reopened, restoredUserPointRepository, restoredPointHistoryRepository, new PointSummaryRepository(restoredPointHistoryRepository), restoredPointRollupRepository).recover();
+
+        // then
+        assertThat(restoredPointRollupRepository.sum(start, start + 4 * minute).complete()).isFalse();
+        assertThat(restoredPointRollupRepository.series(PointRollup.Resolution.MINUTE, start, start + 4 * minute))
+                .extracting(PointRollup::complete)
+                .containsExactly(false, false, false, true);
+        assertThat(restoredPointRollupRepository.sum(start + 3 * minute, start + 4 * minute))
+                .isEqualTo(new PointRollup(start + 3 * minute, start + 4 * minute, 0L, 0L, 5L, 1L, true));
+
+        restoredUserPointRepository.clear();
+        restoredUserPointRepository.close();
+        restoredPointHistoryRepository.close();
+        reopened.close();
+    }
+
+    private WalProperties walProperties() {
+        return walProperties(DataSize.ofMegabytes(64));
+    }
+
+    private WalProperties walProperties(DataSize segmentSize) {
+        return new WalProperties(true, directory, segmentSize, WalProperties.Fsync.EVERY_OP, Duration.ofMillis(10), DataSize.ofMegabytes(1), Duration.ofHours(1), WalProperties.Compaction.DELETE);
+    }
+}
@@ -0,0 +1,200 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.domain.PointRollup;
+import io.hhplus.tdd.point.domain.PointRollup.Resolution;
+import io.hhplus.tdd.point.domain.TransactionType;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.metrics.PointMetricsProperties;
+import io.hhplus.tdd.point.repository.wal.DisabledWriteAheadLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+class PointRollupRepositoryTest {
+
+    private static final PointMetrics METRICS = new PointMetrics(new SimpleMeterRegistry(), new PointMetricsProperties(100, Duration.ofSeconds(1)));
+    // 2024-01-01T00:00:00Z
+    private static final long DAY_START = 1_704_067_200_000L;
+    private static final long MINUTE = Resolution.MINUTE.millis();
+    private static final long HOUR = Resolution.HOUR.millis();
+    private static final long DAY = Resolution.DAY.millis();
+
+    private PointHistoryRepository pointHistoryRepository;
+    private PointRollupRepository pointRollupRepository;
+
+    @AfterEach
+    void tearDown() {
+        pointHistoryRepository.close();
+    }
+
+    @Test
+    public void 내역을_시각이_속한_분_시간_일_구간에_집계한다() {
+        // given
+        setUp(new PointRollupProperties(1440, 720, 366));
+        long at = DAY_START + 10 * HOUR + 5 * MINUTE;
+        pointHistoryRepository.append(1L, 100L, TransactionType.CHARGE, at);
+        pointHistoryRepository.append(2L, 200L, TransactionType.CHARGE, at + 30_000L);
+        pointHistoryRepository.append(1L, 30L, TransactionType.USE, at + MINUTE);
+
+        // when
+        List<PointRollup> minutes = pointRollupRepository.series(Resolution.MINUTE, at, at + 2 * MINUTE);
+        List<PointRollup> hours = pointRollupRepository.series(Resolution.HOUR, DAY_START + 10 * HOUR, DAY_START + 11 * HOUR);
+
+        // then
+        assertThat(minutes).containsExactly(
+                new PointRollup(at, at + MINUTE, 300L, 2L, 0L, 0L, true),
+                new PointRollup(at + MINUTE, at + 2 * MINUTE, 0L, 0L, 30L, 1L, true)
+        );
+        assertThat(hours).containsExactly(new PointRollup(DAY_START + 10 * HOUR, DAY_START + 11 * HOUR, 300L, 2L, 30L, 1L, true));
+    }
+
+    // 임의 구간의 합계는 분/시간/일 구간을 나눠 더한 값이므로, 구간에 속한 내역을 모두 더한 값과 같아야 한다.
+    @Test
+    public void 임의_구간의_합계는_구간에_속한_내역의_합과_같다() {
+        // given
+        setUp(new PointRollupProperties(10_000, 1_000, 100));
+        Random random = new Random(42);
+        List<PointHistory> pointHistories = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            TransactionType type = random.nextBoolean() ? TransactionType.CHARGE : TransactionType.USE;
+            long updateMillis = DAY_START + (long) (random.nextDouble() * 3 * DAY);
+            pointHistories.add(pointHistoryRepository.append(random.nextInt(100) + 1, random.nextInt(1_000) + 1, type, updateMillis));
+        }
+
+        for (int i = 0; i < 100; i++) {
+            long from = DAY_START + (long) (random.nextDouble() * 3 * DAY) / MINUTE * MINUTE;
+            long to = from + (random.nextInt((int) (3 * DAY / MINUTE)) + 1) * MINUTE;
+
+            // when
+            PointRollup rollup = pointRollupRepository.sum(from, to);
+
+            // then
+            long[] expected = new long[4];
+            pointHistories.stream()
+                    .filter(pointHistory -> pointHistory.updateMillis() >= from && pointHistory.updateMillis() < to)
+                    .forEach(pointHistory -> {
+                        int offset = pointHistory.type() == TransactionType.CHARGE ? 0 : 2;
+                        expected[offset] += pointHistory.amount();
+                        expected[offset + 1]++;
+                    });
+            assertThat(rollup).isEqualTo(new PointRollup(from, to, expected[0], expected[1], expected[2], expected[3], true));
+        }
+    }
+
+    @Test
+    public void 구간의_양_끝은_분_단위로_맞춘다() {
+        // given
+        setUp(new PointRollupProperties(1440, 720, 366));
+        long at = DAY_START + 5 * MINUTE + 10_000L;
+        pointHistoryRepository.append(1L, 100L, TransactionType.CHARGE, at);
+
+        // when
+        PointRollup rollup = pointRollupRepository.sum(at + 1_000L, at + 2_000L);
+
+        // then
+        assertThat(rollup).isEqualTo(new PointRollup(DAY_START + 5 * MINUTE, DAY_START + 6 * MINUTE, 100L, 1L, 0L, 0L, true));
+    }
+
+    @Test
+    public void 보관_기간이_지난_구간은_집계되지_않았음을_알린다() {
+        // given
+        setUp(new PointRollupProperties(2, 720, 366));
+        pointHistoryRepository.append(1L, 100L, TransactionType.CHARGE, DAY_START);
+        pointHistoryRepository.append(1L, 50L, TransactionType.CHARGE, DAY_START + 5 * MINUTE);
+
+        // when
+        List<PointRollup> minutes = pointRollupRepository.series(Resolution.MINUTE, DAY_START, DAY_START + MINUTE);
+        PointRollup partial = pointRollupRepository.sum(DAY_START, DAY_START + 6 * MINUTE);
+        PointRollup hour = pointRollupRepository.sum(DAY_START, DAY_START + HOUR);
+
+        // then
+        assertThat(minutes).extracting(PointRollup::chargeAmount, PointRollup::complete).containsExactly(tuple(0L, false));
+        assertThat(partial.complete()).isFalse();
+        assertThat(partial.chargeAmount()).isEqualTo(50L);
+        assertThat(hour).isEqualTo(new PointRollup(DAY_START, DAY_START + HOUR, 150L, 2L, 0L, 0L, true));
+    }
+
+    @Test
+    public void 보관_기간보다_긴_구간은_보관_중인_구간만_읽고_집계되지_않은_부분이_있음을_알린다() {
+        // given
+        setUp(new PointRollupProperties(1440, 720, 366));
+        pointHistoryRepository.append(1L, 100L, TransactionType.CHARGE, DAY_START);
+        pointHistoryRepository.append(2L, 30L, TransactionType.USE, DAY_START + HOUR);
+
+        // when
+        // 일 단위 구간으로만 나눠도 4천만 개가 넘는다.
+        long startNanos = System.nanoTime();
+        PointRollup rollup = pointRollupRepository.sum(0L, 4_000_000_000_000_000L);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+
+        // then
+        assertThat(rollup)
+                .extracting(PointRollup::chargeAmount, PointRollup::chargeCount, PointRollup::useAmount, PointRollup::useCount, PointRollup::complete)
+                .containsExactly(100L, 1L, 30L, 1L, false);
+        assertThat(elapsed).isLessThan(Duration.ofMillis(100));
+    }
+
+    // 여러 스레드가 같은 구간에 동시에 더해도 누락 없이 집계되어야 한다.
+    @Test
+    public void 같은_구간에_동시에_추가한_내역이_모두_집계된다() throws InterruptedException {
+        // given
+        setUp(new PointRollupProperties(1440, 720, 366));
+        int threadCount = 8;
+        int requestCount = 1_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch countDownLatch = new CountDownLatch(requestCount);
+
+        // when
+        for (int i = 0; i < requestCount; i++) {
+            long userId = i % 100 + 1;
+            long updateMillis = DAY_START + i % 3 * MINUTE;
+            executorService.submit(() -> {
+                try {
+                    pointHistoryRepository.append(userId, 10L, TransactionType.CHARGE, updateMillis);
+                } finally {
+                    countDownLatch.countDown();
+                }
+            });
+        }
+        countDownLatch.await();
+        executorService.shutdown();
+
+        // then
+        assertThat(pointRollupRepository.sum(DAY_START, DAY_START + DAY))
+                .isEqualTo(new PointRollup(DAY_START, DAY_START + DAY, 10L * requestCount, requestCount, 0L, 0L, true));
+    }
+
+    @Test
+    public void 메모리의_내역으로_집계를_다시_만든다() {
+        // given
+        setUp(new PointRollupProperties(1440, 720, 366));
+        pointHistoryRepository.append(1L, 100L, TransactionType.CHARGE, DAY_START);
+        pointHistoryRepository.append(2L, 30L, TransactionType.USE, DAY_START + HOUR);
+        pointRollupRepository.clear();
+
+        // when
+        pointRollupRepository.rebuild();
+
+        // then
+        assertThat(pointRollupRepository.sum(DAY_START, DAY_START + DAY)).isEqualTo(new PointRollup(DAY_START, DAY_START + DAY, 100L, 1L, 30L, 1L, true));
+    }
+
+    private void setUp(PointRollupProperties properties) {
+        pointHistoryRepository = new PointHistoryRepository(mock(PointHistoryTable.class), PointHistoryRepositoryProperties.defaults().withFlushInterval(Duration.ofMillis(1)), METRICS, new DisabledWriteAheadLog());
+        pointRollupRepository = new PointRollupRepository(pointHistoryRepository, properties);
+    }
+}
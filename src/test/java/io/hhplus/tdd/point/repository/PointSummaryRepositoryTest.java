@@ -0,0 +1,110 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.domain.PointSummary;
+import io.hhplus.tdd.point.domain.TransactionType;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.metrics.PointMetricsProperties;
+import io.hhplus.tdd.point.repository.wal.DisabledWriteAheadLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class PointSummaryRepositoryTest {
+
+    private PointHistoryRepository pointHistoryRepository;
+    private PointSummaryRepository pointSummaryRepository;
+
+    @BeforeEach
+    void setUp() {
+        PointMetrics metrics = new PointMetrics(new SimpleMeterRegistry(), new PointMetricsProperties(100, Duration.ofSeconds(1)));
+        pointHistoryRepository = new PointHistoryRepository(mock(PointHistoryTable.class), PointHistoryRepositoryProperties.defaults().withFlushInterval(Duration.ofMillis(1)), metrics, new DisabledWriteAheadLog());
+        pointSummaryRepository = new PointSummaryRepository(pointHistoryRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pointHistoryRepository.close();
+    }
+
+    @Test
+    public void 내역을_추가하면_누적_통계가_갱신된다() {
+        // given
+        long id = 1L;
+        pointHistoryRepository.append(id, 100L, TransactionType.CHARGE, 1_000L);
+        pointHistoryRepository.append(2L, 500L, TransactionType.CHARGE, 2_000L);
+
+        // when
+        pointHistoryRepository.append(id, 30L, TransactionType.USE, 3_000L);
+
+        // then
+        assertThat(pointSummaryRepository.findByUserId(id)).isEqualTo(new PointSummary(id, 100L, 30L, 2L, 3_000L));
+    }
+
+    @Test
+    public void 내역이_없는_유저의_누적_통계는_비어_있다() {
+        // when
+        PointSummary summary = pointSummaryRepository.findByUserId(1L);
+
+        // then
+        assertThat(summary).isEqualTo(PointSummary.empty(1L));
+    }
+
+    // 여러 스레드가 같은 유저들의 내역을 동시에 추가해도, 누적 통계에 모든 내역이 반영되어야 한다.
+    @Test
+    public void 동시에_추가한_내역이_누적_통계에_모두_반영된다() throws InterruptedException {
+        // given
+        int userCount = 10;
+        int threadCount = 16;
+        int requestCount = 2_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch countDownLatch = new CountDownLatch(requestCount);
+
+        // when
+        for (int i = 0; i < requestCount; i++) {
+            long id = i % userCount + 1;
+            TransactionType type = i % 2 == 0 ? TransactionType.CHARGE : TransactionType.USE;
+            executorService.submit(() -> {
+                try {
+                    pointHistoryRepository.append(id, 10L, type, System.currentTimeMillis());
+                } finally {
+                    countDownLatch.countDown();
+                }
+            });
+        }
+        countDownLatch.await();
+        executorService.shutdown();
+
+        // then
+        for (long id = 1; id <= userCount; id++) {
+            PointSummary summary = pointSummaryRepository.findByUserId(id);
+            assertThat(summary.transactionCount()).isEqualTo(requestCount / userCount);
+            assertThat(summary.totalCharged() + summary.totalUsed()).isEqualTo(10L * requestCount / userCount);
+        }
+    }
+
+    @Test
+    public void 메모리의_내역으로_누적_통계를_다시_만든다() {
+        // given
+        long id = 1L;
+        pointHistoryRepository.append(id, 100L, TransactionType.CHARGE, 1_000L);
+        pointHistoryRepository.append(id, 30L, TransactionType.USE, 2_000L);
+        pointSummaryRepository.clear();
+
+        // when
+        pointSummaryRepository.rebuild();
+
+        // then
+        assertThat(pointSummaryRepository.findByUserId(id)).isEqualTo(new PointSummary(id, 100L, 30L, 2L, 2_000L));
+        assertThat(pointSummaryRepository.size()).isEqualTo(1);
+    }
+}
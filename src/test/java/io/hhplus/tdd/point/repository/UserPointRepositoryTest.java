@@ -0,0 +1,206 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.domain.UserPoint;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.metrics.PointMetricsProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserPointRepositoryTest {
+
+    // 테스트 중에는 주기적인 반영이 일어나지 않도록 충분히 긴 주기를 사용한다.
+    private static final UserPointRepositoryProperties PROPERTIES = new UserPointRepositoryProperties(Duration.ofHours(1), 2, 10_000);
+    private static final PointMetrics METRICS = new PointMetrics(new SimpleMeterRegistry(), new PointMetricsProperties(100, Duration.ofSeconds(1)));
+
+    private UserPointRepository userPointRepository;
+
+    @AfterEach
+    void tearDown() {
+        userPointRepository.close();
+    }
+
+    @Test
+    public void 저장한_포인트는_테이블_반영_전에도_조회된다() {
+        // given
+        long id = 1L;
+        long point = 100L;
+        UserPointTable userPointTable = new UserPointTable();
+        userPointRepository = new UserPointRepository(userPointTable, PROPERTIES, METRICS);
+
+        // when
+        userPointRepository.save(id, point);
+
+        // then
+        assertThat(userPointRepository.findById(id).point()).isEqualTo(point);
+        assertThat(userPointTable.selectById(id).point()).isZero();
+        assertThat(userPointRepository.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void flush_시_변경분이_테이블에_반영된다() {
+        // given
+        long id = 1L;
+        long point = 100L;
+        UserPointTable userPointTable = new UserPointTable();
+        userPointRepository = new UserPointRepository(userPointTable, PROPERTIES, METRICS);
+        userPointRepository.save(id, point);
+
+        // when
+        userPointRepository.flush();
+
+        // then
+        assertThat(userPointTable.selectById(id).point()).isEqualTo(point);
+        assertThat(userPointRepository.pendingCount()).isZero();
+    }
+
+    @Test
+    public void 반영되지_않은_유저가_상한에_이르면_변경한_스레드가_바로_테이블에_반영한다() {
+        // given
+        UserPointTable userPointTable = new UserPointTable();
+        // segment 마다 dirty 유저 1명이 상한이 되도록 segment 수(64)만큼으로 제한한다.
+        userPointRepository = new UserPointRepository(userPointTable, new UserPointRepositoryProperties(Duration.ofHours(1), 2, 64), METRICS);
+
+        // when
+        userPointRepository.save(1L, 100L);
+        userPointRepository.save(2L, 200L);
+
+        // then
+        assertThat(userPointTable.selectById(1L).point()).isEqualTo(100L);
+        assertThat(userPointTable.selectById(2L).point()).isEqualTo(200L);
+        assertThat(userPointRepository.pendingCount()).isZero();
+    }
+
+    @Test
+    public void 같은_유저의_연속된_변경은_마지막_값만_테이블에_반영된다() {
+        // given
+        long id = 1L;
+        UserPointTable userPointTable = mock(UserPointTable.class);
+        userPointRepository = new UserPointRepository(userPointTable, PROPERTIES, METRICS);
+
+        // when
+        userPointRepository.save(id, 100L);
+        userPointRepository.save(id, 200L);
+        userPointRepository.save(id, 300L);
+        userPointRepository.flush();
+
+        // then
+        verify(userPointTable, times(1)).insertOrUpdate(anyLong(), anyLong());
+        verify(userPointTable).insertOrUpdate(id, 300L);
+    }
+
+    @Test
+    public void 캐시에_없는_유저는_한_번만_테이블에서_조회한다() {
+        // given
+        long id = 1L;
+        long point = 100L;
+        UserPointTable userPointTable = mock(UserPointTable.class);
+        when(userPointTable.selectById(id)).thenReturn(new UserPoint(id, point, System.currentTimeMillis()));
+        userPointRepository = new UserPointRepository(userPointTable, PROPERTIES, METRICS);
+
+        // when
+        userPointRepository.findById(id);
+        UserPoint userPoint = userPointRepository.findById(id);
+
+        // then
+        assertThat(userPoint.point()).isEqualTo(point);
+        verify(userPointTable, times(1)).selectById(id);
+        verify(userPointTable, never()).insertOrUpdate(anyLong(), anyLong());
+    }
+
+    @Test
+    public void 현재_값이_바뀐_경우_compareAndSet_은_실패한다() {
+        // given
+        long id = 1L;
+        UserPointTable userPointTable = new UserPointTable();
+        userPointRepository = new UserPointRepository(userPointTable, PROPERTIES, METRICS);
+        UserPoint expected = userPointRepository.findById(id);
+        userPointRepository.save(id, 100L);
+
+        // when
+        UserPoint updated = userPointRepository.compareAndSet(expected, 50L);
+
+        // then
+        assertThat(updated).isNull();
+        assertThat(userPointRepository.findById(id).point()).isEqualTo(100L);
+    }
+
+    @Test
+    public void 캐시에_없는_유저를_동시에_조회하면_테이블은_한_번만_조회한다() throws Exception {
+        // given
+        long id = 1L;
+        int threadCount = 10;
+        CountDownLatch tableEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        UserPointTable userPointTable = mock(UserPointTable.class);
+        when(userPointTable.selectById(id)).thenAnswer(invocation -> {
+            tableEntered.countDown();
+            release.await();
+            return new UserPoint(id, 100L, System.currentTimeMillis());
+        });
+        userPointRepository = new UserPointRepository(userPointTable, PROPERTIES, METRICS);
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+
+        // when
+        List<Future<UserPoint>> futures = new ArrayList<>();
+        futures.add(executorService.submit(() -> userPointRepository.findById(id)));
+        tableEntered.await();
+        for (int i = 1; i < threadCount; i++) {
+            futures.add(executorService.submit(() -> userPointRepository.findById(id)));
+        }
+        // 나머지 요청이 진행 중인 조회를 기다리기 시작할 시간을 준다.
+        Thread.sleep(100);
+        release.countDown();
+
+        // then
+        for (Future<UserPoint> future : futures) {
+            assertThat(future.get().point()).isEqualTo(100L);
+        }
+        verify(userPointTable, times(1)).selectById(id);
+        executorService.shutdown();
+    }
+
+    @Test
+    public void 테이블_조회_중에_저장된_변경이_있으면_변경된_값을_반환한다() throws Exception {
+        // given
+        long id = 1L;
+        CountDownLatch tableEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        UserPointTable userPointTable = mock(UserPointTable.class);
+        when(userPointTable.selectById(id)).thenAnswer(invocation -> {
+            tableEntered.countDown();
+            release.await();
+            return UserPoint.empty(id);
+        });
+        userPointRepository = new UserPointRepository(userPointTable, PROPERTIES, METRICS);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        Future<UserPoint> loading = executorService.submit(() -> userPointRepository.findById(id));
+        tableEntered.await();
+
+        // when
+        userPointRepository.save(id, 500L);
+        release.countDown();
+
+        // then
+        assertThat(loading.get().point()).isEqualTo(500L);
+        assertThat(userPointRepository.findById(id).point()).isEqualTo(500L);
+        executorService.shutdown();
+    }
+}
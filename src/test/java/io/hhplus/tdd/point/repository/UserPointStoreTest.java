@@ -0,0 +1,164 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.point.domain.UserPoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserPointStoreTest {
+
+    @Test
+    public void 기록한_잔액과_변경_시각을_조회한다() {
+        // given
+        UserPointStore store = new UserPointStore();
+
+        // when
+        store.put(1L, 100L, 1_000L);
+
+        // then
+        assertThat(store.get(1L)).isEqualTo(new UserPoint(1L, 100L, 1_000L));
+        assertThat(store.point(1L, -1L)).isEqualTo(100L);
+        assertThat(store.get(2L)).isNull();
+        assertThat(store.point(2L, -1L)).isEqualTo(-1L);
+    }
+
+    @Test
+    public void 테이블이_늘어나도_잔액과_dirty_표시가_유지된다() {
+        // given
+        UserPointStore store = new UserPointStore(1);
+
+        // when
+        for (long userId = 1; userId <= 1_000; userId++) {
+            store.put(userId, userId * 10, userId);
+        }
+
+        // then
+        assertThat(store.size()).isEqualTo(1_000);
+        UserPointStore.DirtyEntries entries = new UserPointStore.DirtyEntries();
+        store.drainDirty(0, entries);
+        Map<Long, Long> drained = new HashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            drained.put(entries.userId(i), entries.point(i));
+        }
+        assertThat(drained).hasSize(1_000).containsEntry(1L, 10L).containsEntry(1_000L, 10_000L);
+    }
+
+    @Test
+    public void 같은_유저의_연속된_변경은_마지막_값만_꺼낸다() {
+        // given
+        UserPointStore store = new UserPointStore(1);
+        store.putIfAbsent(2L, 500L, 1_000L);
+        store.put(1L, 100L, 1_000L);
+        store.put(1L, 200L, 2_000L);
+
+        // when
+        UserPointStore.DirtyEntries entries = new UserPointStore.DirtyEntries();
+        store.drainDirty(0, entries);
+
+        // then
+        // 테이블에서 읽어 올린 유저(putIfAbsent)는 반영 대상이 아니다.
+        assertThat(entries.size()).isEqualTo(1);
+        assertThat(entries.userId(0)).isEqualTo(1L);
+        assertThat(entries.point(0)).isEqualTo(200L);
+        assertThat(store.dirtyCount()).isZero();
+    }
+
+    @Test
+    public void 현재_잔액이_다르거나_유저가_없으면_compareAndSet_은_실패한다() {
+        // given
+        UserPointStore store = new UserPointStore();
+        store.put(1L, 100L, 1_000L);
+
+        // when
+        boolean mismatched = store.compareAndSet(1L, 50L, 200L, 2_000L);
+        boolean missing = store.compareAndSet(2L, 0L, 200L, 2_000L);
+        boolean updated = store.compareAndSet(1L, 100L, 200L, 2_000L);
+
+        // then
+        assertThat(mismatched).isFalse();
+        assertThat(missing).isFalse();
+        assertThat(updated).isTrue();
+        assertThat(store.get(1L)).isEqualTo(new UserPoint(1L, 200L, 2_000L));
+    }
+
+    @Test
+    public void 여러_스레드가_동시에_기록해도_모든_유저가_보관된다() throws InterruptedException {
+        // given
+        UserPointStore store = new UserPointStore(4);
+        int threadCount = 8;
+        int usersPerThread = 10_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+
+        // when
+        for (int thread = 0; thread < threadCount; thread++) {
+            long firstUserId = (long) thread * usersPerThread;
+            executorService.execute(() -> {
+                for (long userId = firstUserId; userId < firstUserId + usersPerThread; userId++) {
+                    store.put(userId, userId, userId);
+                    assertThat(store.point(userId, -1L)).isEqualTo(userId);
+                }
+            });
+        }
+        executorService.shutdown();
+        executorService.awaitTermination(1, TimeUnit.MINUTES);
+
+        // then
+        assertThat(store.size()).isEqualTo(threadCount * usersPerThread);
+        for (long userId = 0; userId < (long) threadCount * usersPerThread; userId++) {
+            assertThat(store.point(userId, -1L)).isEqualTo(userId);
+        }
+    }
+
+    @Test
+    public void 반영_중에_compareAndSet_으로_갱신해도_유실되지_않고_마지막_잔액이_반영된다() throws InterruptedException {
+        // given
+        UserPointStore store = new UserPointStore(1);
+        int userCount = 8;
+        int threadCount = 8;
+        int incrementsPerThread = 10_000;
+        for (long userId = 1; userId <= userCount; userId++) {
+            store.putIfAbsent(userId, 0L, 0L);
+        }
+        Map<Long, Long> flushed = new HashMap<>();
+        UserPointStore.DirtyEntries entries = new UserPointStore.DirtyEntries();
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+
+        // when
+        for (int thread = 0; thread < threadCount; thread++) {
+            executorService.execute(() -> {
+                for (int i = 0; i < incrementsPerThread; i++) {
+                    long userId = i % userCount + 1;
+                    long point;
+                    do {
+                        point = store.point(userId, 0L);
+                    } while (!store.compareAndSet(userId, point, point + 1, System.currentTimeMillis()));
+                }
+            });
+        }
+        executorService.shutdown();
+        while (!executorService.awaitTermination(1, TimeUnit.MILLISECONDS)) {
+            store.drainDirty(0, entries);
+            for (int i = 0; i < entries.size(); i++) {
+                flushed.put(entries.userId(i), entries.point(i));
+            }
+        }
+        store.drainDirty(0, entries);
+        for (int i = 0; i < entries.size(); i++) {
+            flushed.put(entries.userId(i), entries.point(i));
+        }
+
+        // then
+        long expected = (long) threadCount * incrementsPerThread / userCount;
+        for (long userId = 1; userId <= userCount; userId++) {
+            assertThat(store.point(userId, -1L)).isEqualTo(expected);
+            assertThat(flushed).containsEntry(userId, expected);
+        }
+        assertThat(store.dirtyCount()).isZero();
+    }
+}
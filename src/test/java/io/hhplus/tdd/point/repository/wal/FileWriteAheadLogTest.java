@@ -0,0 +1,261 @@
+package io.hhplus.tdd.point.repository.wal;
+
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.domain.PointSummary;
+import io.hhplus.tdd.point.domain.TransactionType;
+import io.hhplus.tdd.point.domain.UserPoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileWriteAheadLogTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void 기록한_내역을_재기동_후_기록_순서대로_재생한다() {
+        // given
+        FileWriteAheadLog writeAheadLog = new FileWriteAheadLog(properties(DataSize.ofMegabytes(64), WalProperties.Fsync.EVERY_OP));
+        PointHistory charge = new PointHistory(1L, 1L, 100L, TransactionType.CHARGE, 1_000L);
+        PointHistory use = new PointHistory(2L, 1L, 30L, TransactionType.USE, 2_000L);
+        writeAheadLog.awaitDurable(writeAheadLog.append(charge));
+        writeAheadLog.awaitDurable(writeAheadLog.append(use));
+        writeAheadLog.close();
+
+        // when
+        List<PointHistory> replayed = replay(new FileWriteAheadLog(properties(DataSize.ofMegabytes(64), WalProperties.Fsync.EVERY_OP)));
+
+        // then
+        assertThat(replayed).containsExactly(charge, use);
+    }
+
+    @Test
+    public void 마지막_segment_끝의_불완전한_레코드는_잘라낸다() throws IOException {
+        // given
+        FileWriteAheadLog writeAheadLog = new FileWriteAheadLog(properties(DataSize.ofMegabytes(64), WalProperties.Fsync.EVERY_OP));
+        PointHistory charge = new PointHistory(1L, 1L, 100L, TransactionType.CHARGE, 1_000L);
+        writeAheadLog.awaitDurable(writeAheadLog.append(charge));
+        writeAheadLog.close();
+        // 레코드를 쓰던 중 종료된 경우를 흉내낸다.
+        Files.write(segments().get(0), new byte[]{0, 0, 0, 33, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        // when
+        FileWriteAheadLog reopened = new FileWriteAheadLog(properties(DataSize.ofMegabytes(64), WalProperties.Fsync.EVERY_OP));
+        PointHistory use = new PointHistory(2L, 1L, 30L, TransactionType.USE, 2_000L);
+        reopened.awaitDurable(reopened.append(use));
+
+        // then
+        assertThat(replay(reopened)).containsExactly(charge, use);
+    }
+
+    @Test
+    public void 한_번에_기록한_내역은_segment_크기를_넘어도_같은_segment_에_기록한다() throws IOException {
+        // given
+        // 레코드 두 개가 들어가는 크기
+        FileWriteAheadLog writeAheadLog = new FileWriteAheadLog(properties(DataSize.ofBytes(100), WalProperties.Fsync.EVERY_OP));
+        PointHistory first = new PointHistory(1L, 1L, 100L, TransactionType.CHARGE, 1_000L);
+        List<PointHistory> batch = new ArrayList<>();
+        for (long id = 2; id <= 4; id++) {
+            batch.add(new PointHistory(id, id, 100L, TransactionType.CHARGE, 1_000L));
+        }
+
+        // when
+        writeAheadLog.awaitDurable(writeAheadLog.append(first));
+        writeAheadLog.awaitDurable(writeAheadLog.appendAll(batch));
+        writeAheadLog.close();
+
+        // then
+        assertThat(segments()).hasSize(2);
+        List<PointHistory> expected = new ArrayList<>(batch);
+        expected.add(0, first);
+        assertThat(replay(new FileWriteAheadLog(properties(DataSize.ofBytes(100), WalProperties.Fsync.EVERY_OP)))).isEqualTo(expected);
+    }
+
+    @Test
+    public void segment_크기를_넘으면_다음_segment_에_기록한다() throws IOException {
+        // given
+        // 레코드 두 개가 들어가는 크기
+        FileWriteAheadLog writeAheadLog = new FileWriteAheadLog(properties(DataSize.ofBytes(100), WalProperties.Fsync.INTERVAL));
+        List<PointHistory> pointHistories = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            pointHistories.add(new PointHistory(id, id, 100L, TransactionType.CHARGE, 1_000L));
+        }
+
+        // when
+        for (PointHistory pointHistory : pointHistories) {
+            writeAheadLog.awaitDurable(writeAheadLog.append(pointHistory));
+        }
+        writeAheadLog.close();
+
+        // then
+        assertThat(segments()).hasSize(3);
+        assertThat(replay(new FileWriteAheadLog(properties(DataSize.ofBytes(100), WalProperties.Fsync.INTERVAL)))).isEqualTo(pointHistories);
+    }
+
+    @Test
+    public void 비우면_기록한_내역이_재생되지_않는다() {
+        // given
+        FileWriteAheadLog writeAheadLog = new FileWriteAheadLog(properties(DataSize.ofMegabytes(64), WalProperties.Fsync.BYTES));
+        writeAheadLog.awaitDurable(writeAheadLog.append(new PointHistory(1L, 1L, 100L, TransactionType.CHARGE, 1_000L)));
+
+        // when
+        writeAheadLog.clear();
+
+        // then
+        assertThat(replay(writeAheadLog)).isEmpty();
+    }
+
+    @Test
+    public void 기록이_끝난_segment_는_snapshot_으로_압축되고_이후의_내역만_재생한다() throws IOException {
+        // given
+        // 레코드 두 개가 들어가는 크기
+        FileWriteAheadLog writeAheadLog = new FileWriteAheadLog(properties(DataSize.ofBytes(100), WalProperties.Fsync.EVERY_OP));
+        writeAheadLog.awaitDurable(writeAheadLog.append(new PointHistory(1L, 1L, 100L, TransactionType.CHARGE, 1_000L)));
+        writeAheadLog.awaitDurable(writeAheadLog.append(new PointHistory(2L, 2L, 500L, TransactionType.CHARGE, 2_000L)));
+        writeAheadLog.awaitDurable(writeAheadLog.append(new PointHistory(3L, 1L, 30L, TransactionType.USE, 3_000L)));
+        writeAheadLog.awaitDurable(writeAheadLog.append(new PointHistory(4L, 3L, 70L, TransactionType.CHARGE, 4_000L)));
+        PointHistory tail = new PointHistory(5L, 1L, 10L, TransactionType.CHARGE, 5_000L);
+        writeAheadLog.awaitDurable(writeAheadLog.append(tail));
+
+        // when
+        writeAheadLog.compact();
+        writeAheadLog.close();
+
+        // then
+        List<PointHistory> replayed = new ArrayList<>();
+        List<UserPoint> snapshot = new ArrayList<>();
+        FileWriteAheadLog reopened = new FileWriteAheadLog(properties(DataSize.ofBytes(100), WalProperties.Fsync.EVERY_OP));
+        long snapshotLastHistoryId = reopened.recover(replayed::add, (userPoint, summary) -> snapshot.add(userPoint));
+        reopened.close();
+
+        assertThat(snapshotLastHistoryId).isEqualTo(4L);
+        assertThat(replayed).containsExactly(tail);
+        assertThat(snapshot).containsExactly(
+                new UserPoint(1L, 70L, 3_000L),
+                new UserPoint(2L, 500L, 2_000L),
+                new UserPoint(3L, 70L, 4_000L)
+        );
+        assertThat(segments()).hasSize(1);
+        assertThat(files(directory.resolve("archive"), ".wal")).hasSize(2);
+    }
+
+    @Test
+    public void 이전_snapshot_과_새로_압축한_변경분을_병합한다() throws IOException {
+        // given
+        FileWriteAheadLog writeAheadLog = new FileWriteAheadLog(properties(DataSize.ofBytes(100), WalProperties.Fsync.EVERY_OP));
+        writeAheadLog.awaitDurable(writeAheadLog.append(new PointHistory(1L, 2L, 100L, TransactionType.CHARGE, 1_000L)));
+        writeAheadLog.awaitDurable(writeAheadLog.append(new PointHistory(2L, 3L, 200L, TransactionType.CHARGE, 2_000L)));
+        writeAheadLog.awaitDurable(writeAheadLog.append(new PointHistory(3L, 3L, 50L, TransactionType.USE, 3_000L)));
+        writeAheadLog.compact();
+        writeAheadLog.awaitDurable(writeAheadLog.append(new PointHistory(4L, 1L, 10L, TransactionType.CHARGE, 4_000L)));
+        writeAheadLog.awaitDurable(writeAheadLog.append(new PointHistory(5L, 4L, 40L, TransactionType.CHARGE, 5_000L)));
+
+        // when
+        writeAheadLog.compact();
+        writeAheadLog.close();
+
+        // then
+        List<UserPoint> snapshot = new ArrayList<>();
+        List<PointSummary> summaries = new ArrayList<>();
+        FileWriteAheadLog reopened = new FileWriteAheadLog(properties(DataSize.ofBytes(100), WalProperties.Fsync.EVERY_OP));
+        long snapshotLastHistoryId = reopened.recover(pointHistory -> {
+        }, (userPoint, summary) -> {
+            snapshot.add(userPoint);
+            summaries.add(summary);
+        });
+        reopened.close();
+
+        assertThat(snapshotLastHistoryId).isEqualTo(4L);
+        assertThat(snapshot).containsExactly(
+                new UserPoint(1L, 10L, 4_000L),
+                new UserPoint(2L, 100L, 1_000L),
+                new UserPoint(3L, 150L, 3_000L)
+        );
+        assertThat(summaries).containsExactly(
+                new PointSummary(1L, 10L, 0L, 1L, 4_000L),
+                new PointSummary(2L, 100L, 0L, 1L, 1_000L),
+                new PointSummary(3L, 200L, 50L, 2L, 3_000L)
+        );
+        assertThat(files(directory, ".snapshot")).hasSize(1);
+    }
+
+    @Test
+    public void 검증에_실패한_snapshot_이_있으면_압축하거나_복구하지_않고_snapshot_을_지우지_않는다() throws IOException {
+        // given
+        FileWriteAheadLog writeAheadLog = new FileWriteAheadLog(properties(DataSize.ofBytes(100), WalProperties.Fsync.EVERY_OP));
+        writeAheadLog.awaitDurable(writeAheadLog.append(new PointHistory(1L, 1L, 100L, TransactionType.CHARGE, 1_000L)));
+        writeAheadLog.awaitDurable(writeAheadLog.append(new PointHistory(2L, 2L, 200L, TransactionType.CHARGE, 2_000L)));
+        writeAheadLog.awaitDurable(writeAheadLog.append(new PointHistory(3L, 1L, 30L, TransactionType.USE, 3_000L)));
+        writeAheadLog.compact();
+        writeAheadLog.awaitDurable(writeAheadLog.append(new PointHistory(4L, 3L, 40L, TransactionType.CHARGE, 4_000L)));
+        writeAheadLog.awaitDurable(writeAheadLog.append(new PointHistory(5L, 3L, 10L, TransactionType.USE, 5_000L)));
+        Path snapshot = files(directory, ".snapshot").get(0);
+        // snapshot 의 header 를 덮어쓴다.
+        Files.write(snapshot, new byte[]{1, 2, 3, 4, 5, 6, 7, 8}, StandardOpenOption.WRITE);
+
+        // when & then
+        assertThatThrownBy(writeAheadLog::compact).isInstanceOf(IllegalStateException.class);
+        writeAheadLog.close();
+        assertThat(files(directory, ".snapshot")).containsExactly(snapshot);
+        FileWriteAheadLog reopened = new FileWriteAheadLog(properties(DataSize.ofBytes(100), WalProperties.Fsync.EVERY_OP));
+        assertThatThrownBy(() -> replay(reopened)).isInstanceOf(IllegalStateException.class);
+        reopened.close();
+    }
+
+    @Test
+    public void snapshot_이후의_내역_ID_가_이어지지_않으면_압축하지_않는다() throws IOException {
+        // given
+        FileWriteAheadLog writeAheadLog = new FileWriteAheadLog(properties(DataSize.ofBytes(100), WalProperties.Fsync.EVERY_OP));
+        writeAheadLog.awaitDurable(writeAheadLog.append(new PointHistory(1L, 1L, 100L, TransactionType.CHARGE, 1_000L)));
+        writeAheadLog.awaitDurable(writeAheadLog.append(new PointHistory(2L, 2L, 200L, TransactionType.CHARGE, 2_000L)));
+        writeAheadLog.awaitDurable(writeAheadLog.append(new PointHistory(3L, 1L, 30L, TransactionType.USE, 3_000L)));
+        writeAheadLog.compact();
+        writeAheadLog.awaitDurable(writeAheadLog.append(new PointHistory(4L, 3L, 40L, TransactionType.CHARGE, 4_000L)));
+        writeAheadLog.awaitDurable(writeAheadLog.append(new PointHistory(5L, 3L, 10L, TransactionType.USE, 5_000L)));
+        // 압축된 내역(1, 2)이 남은 snapshot 이 사라진 경우
+        Files.delete(files(directory, ".snapshot").get(0));
+        List<Path> segments = segments();
+
+        // when & then
+        assertThatThrownBy(writeAheadLog::compact).isInstanceOf(IllegalStateException.class);
+        writeAheadLog.close();
+        assertThat(files(directory, ".snapshot")).isEmpty();
+        assertThat(segments()).isEqualTo(segments);
+    }
+
+    private WalProperties properties(DataSize segmentSize, WalProperties.Fsync fsync) {
+        // 압축은 테스트에서 직접 호출한다.
+        return new WalProperties(true, directory, segmentSize, fsync, Duration.ofMillis(10), DataSize.ofKilobytes(1), Duration.ofHours(1), WalProperties.Compaction.ARCHIVE);
+    }
+
+    private List<PointHistory> replay(WriteAheadLog writeAheadLog) {
+        List<PointHistory> replayed = new ArrayList<>();
+        writeAheadLog.recover(replayed::add, (userPoint, summary) -> {
+        });
+        writeAheadLog.close();
+        return replayed;
+    }
+
+    private List<Path> segments() throws IOException {
+        return files(directory, ".wal");
+    }
+
+    private List<Path> files(Path parent, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(parent)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(suffix)).sorted().toList();
+        }
+    }
+}
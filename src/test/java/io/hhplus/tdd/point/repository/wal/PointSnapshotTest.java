@@ -0,0 +1,81 @@
+package io.hhplus.tdd.point.repository.wal;
+
+import io.hhplus.tdd.point.domain.PointSummary;
+import io.hhplus.tdd.point.domain.UserPoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PointSnapshotTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void 기록한_유저_포인트와_누적_통계를_유저_ID_순으로_읽는다() throws IOException {
+        // given
+        List<UserPoint> userPoints = List.of(new UserPoint(1L, 100L, 1_000L), new UserPoint(3L, 300L, 3_000L));
+        List<PointSummary> summaries = List.of(new PointSummary(1L, 150L, 50L, 3L, 1_000L), new PointSummary(3L, 300L, 0L, 1L, 3_000L));
+        Path path;
+        try (PointSnapshot.Writer writer = PointSnapshot.writer(directory, 10L)) {
+            for (int i = 0; i < userPoints.size(); i++) {
+                writer.add(userPoints.get(i), summaries.get(i));
+            }
+            path = writer.commit().path();
+        }
+
+        // when
+        PointSnapshot snapshot = PointSnapshot.open(path);
+        List<UserPoint> read = new ArrayList<>();
+        List<PointSummary> readSummaries = new ArrayList<>();
+        snapshot.forEach((userPoint, summary) -> {
+            read.add(userPoint);
+            readSummaries.add(summary);
+        });
+
+        // then
+        assertThat(snapshot.lastHistoryId()).isEqualTo(10L);
+        assertThat(read).isEqualTo(userPoints);
+        assertThat(readSummaries).isEqualTo(summaries);
+    }
+
+    @Test
+    public void checksum_이_맞지_않는_snapshot_은_사용하지_않는다() throws IOException {
+        // given
+        Path path;
+        try (PointSnapshot.Writer writer = PointSnapshot.writer(directory, 10L)) {
+            writer.add(new UserPoint(1L, 100L, 1_000L), PointSummary.empty(1L));
+            path = writer.commit().path();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            // 첫 유저의 포인트를 덮어쓴다.
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, 999L), 16 + Long.BYTES);
+        }
+
+        // when
+        PointSnapshot snapshot = PointSnapshot.open(path);
+
+        // then
+        assertThat(snapshot).isNull();
+    }
+
+    @Test
+    public void 유저_ID_순서가_아니면_기록할_수_없다() throws IOException {
+        try (PointSnapshot.Writer writer = PointSnapshot.writer(directory, 10L)) {
+            writer.add(new UserPoint(2L, 100L, 1_000L), PointSummary.empty(2L));
+
+            assertThatThrownBy(() -> writer.add(new UserPoint(1L, 100L, 1_000L), PointSummary.empty(1L)))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+}
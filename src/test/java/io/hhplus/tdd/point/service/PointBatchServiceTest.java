@@ -0,0 +1,67 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.domain.TransactionType;
+import io.hhplus.tdd.point.domain.UserPoint;
+import io.hhplus.tdd.point.service.command.PointCommandResult;
+import io.hhplus.tdd.point.service.dto.request.PointBatchItemRequest;
+import io.hhplus.tdd.point.service.dto.request.PointBatchRequest;
+import io.hhplus.tdd.point.service.dto.response.PointBatchItemResponse;
+import io.hhplus.tdd.point.service.dto.response.PointBatchResponse;
+import io.hhplus.tdd.point.service.mapper.PointMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PointBatchServiceTest {
+
+    private PointService pointService;
+    private PointBatchService pointBatchService;
+
+    @BeforeEach
+    public void setUp() {
+        pointService = mock(PointService.class);
+        pointBatchService = new PointBatchService(pointService, new PointMapper(), new PointBatchProperties(2), new StandardEnvironment());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pointBatchService.close();
+    }
+
+    @Test
+    public void 한_유저의_묶음_처리가_실패해도_다른_유저의_적용_결과를_응답한다() {
+        // given
+        when(pointService.applyCommands(eq(1L), anyList())).thenReturn(List.of(
+                PointCommandResult.success(new UserPoint(1L, 1_000L, System.currentTimeMillis()))
+        ));
+        when(pointService.applyCommands(eq(2L), anyList())).thenThrow(new IllegalStateException("포인트 WAL 기록에 실패했습니다."));
+        PointBatchRequest request = new PointBatchRequest(List.of(
+                new PointBatchItemRequest(1L, TransactionType.CHARGE, 1_000L),
+                new PointBatchItemRequest(2L, TransactionType.CHARGE, 500L),
+                new PointBatchItemRequest(2L, TransactionType.USE, 100L)
+        ));
+
+        // when
+        PointBatchResponse response = pointBatchService.applyBatch(request);
+
+        // then
+        assertThat(response.results()).extracting(PointBatchItemResponse::index, PointBatchItemResponse::success, PointBatchItemResponse::point)
+                .containsExactly(
+                        tuple(0, true, 1_000L),
+                        tuple(1, false, null),
+                        tuple(2, false, null)
+                );
+        // 내부 예외 메시지는 응답에 노출하지 않는다.
+        assertThat(response.results().get(1).errorMessage()).isEqualTo("에러가 발생했습니다.");
+    }
+}
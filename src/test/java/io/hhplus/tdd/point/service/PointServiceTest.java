@@ -1,42 +1,62 @@
 package io.hhplus.tdd.point.service;
 
-import io.hhplus.tdd.database.PointHistoryTable;
-import io.hhplus.tdd.database.UserPointTable;
 import io.hhplus.tdd.point.domain.PointHistory;
 import io.hhplus.tdd.point.domain.TransactionType;
 import io.hhplus.tdd.point.domain.UserPoint;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.metrics.PointMetricsProperties;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.PointRollupRepository;
+import io.hhplus.tdd.point.repository.PointSummaryRepository;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.service.command.PointCommand;
+import io.hhplus.tdd.point.service.command.PointCommandResult;
+import io.hhplus.tdd.point.service.cursor.PointHistoryCursor;
+import io.hhplus.tdd.point.service.dto.request.PointHistoryPageRequest;
 import io.hhplus.tdd.point.service.dto.request.PointRequest;
+import io.hhplus.tdd.point.service.dto.response.PointHistoryPageResponse;
 import io.hhplus.tdd.point.service.dto.response.PointHistoryResponse;
 import io.hhplus.tdd.point.service.dto.response.PointResponse;
+import io.hhplus.tdd.point.service.engine.LockPointEngine;
 import io.hhplus.tdd.point.service.exception.InsufficientPointException;
 import io.hhplus.tdd.point.service.exception.MaxBalanceExceededException;
+import io.hhplus.tdd.point.service.lock.RefCountedUserLockRegistry;
 import io.hhplus.tdd.point.service.mapper.PointHistoryMapper;
 import io.hhplus.tdd.point.service.mapper.PointMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class PointServiceTest {
 
-    private UserPointTable pointRepository;
-    private PointHistoryTable pointHistoryRepository;
+    private UserPointRepository pointRepository;
+    private PointHistoryRepository pointHistoryRepository;
     private PointMapper pointMapper;
     private PointHistoryMapper pointHistoryMapper;
     private PointService pointService;
 
     @BeforeEach
     public void setUp() {
-        pointRepository = mock(UserPointTable.class);
-        pointHistoryRepository = mock(PointHistoryTable.class);
+        pointRepository = mock(UserPointRepository.class);
+        pointHistoryRepository = mock(PointHistoryRepository.class);
         pointMapper = mock(PointMapper.class);
         pointHistoryMapper = mock(PointHistoryMapper.class);
-        pointService = new PointService(pointRepository, pointHistoryRepository, pointMapper, pointHistoryMapper);
+        PointMetrics metrics = new PointMetrics(new SimpleMeterRegistry(), new PointMetricsProperties(100, Duration.ofSeconds(1)));
+        pointService = new PointService(pointRepository, pointHistoryRepository, mock(PointSummaryRepository.class), mock(PointRollupRepository.class), pointMapper, pointHistoryMapper,
+                new LockPointEngine(pointRepository, pointHistoryRepository, new RefCountedUserLockRegistry(), metrics), metrics);
     }
 
     @Test
@@ -46,7 +66,7 @@ class PointServiceTest {
         long point = 100L;
         UserPoint userPoint = new UserPoint(id, point, System.currentTimeMillis());
 
-        when(pointRepository.selectById(id)).thenReturn(userPoint);
+        when(pointRepository.findById(id)).thenReturn(userPoint);
         when(pointMapper.mapToPointResponse(userPoint)).thenReturn(new PointResponse(id, point));
 
         // when
@@ -68,9 +88,9 @@ class PointServiceTest {
         UserPoint afterChargePoint = new UserPoint(id, currentUserPoint.point() + pointToCharge, System.currentTimeMillis());
         PointHistory pointHistory = new PointHistory(cursorId, id, pointToCharge, TransactionType.CHARGE, System.currentTimeMillis());
 
-        when(pointRepository.selectById(id)).thenReturn(currentUserPoint);
-        when(pointRepository.insertOrUpdate(id, pointToCharge)).thenReturn(afterChargePoint);
-        when(pointHistoryRepository.insert(id, pointToCharge, TransactionType.CHARGE, System.currentTimeMillis())).thenReturn(pointHistory);
+        when(pointRepository.findById(id)).thenReturn(currentUserPoint);
+        when(pointRepository.save(id, pointToCharge)).thenReturn(afterChargePoint);
+        when(pointHistoryRepository.append(id, pointToCharge, TransactionType.CHARGE, System.currentTimeMillis())).thenReturn(pointHistory);
         when(pointMapper.mapToPointResponse(afterChargePoint)).thenReturn(new PointResponse(id, afterChargePoint.point()));
 
         // when
@@ -90,7 +110,7 @@ class PointServiceTest {
         PointRequest pointRequest = new PointRequest(pointToCharge);
         UserPoint currentUserPoint = new UserPoint(id, currentPoint, System.currentTimeMillis());
 
-        when(pointRepository.selectById(id)).thenReturn(currentUserPoint);
+        when(pointRepository.findById(id)).thenReturn(currentUserPoint);
 
         // when & then
         assertThatThrownBy(() -> pointService.chargePoints(id, pointRequest))
@@ -110,9 +130,9 @@ class PointServiceTest {
         UserPoint afterUsePoint = new UserPoint(id, currentUserPoint.point() - pointToUse, System.currentTimeMillis());
         PointHistory usePointHistory = new PointHistory(cursorId, id, pointToUse, TransactionType.USE, System.currentTimeMillis());
 
-        when(pointRepository.selectById(id)).thenReturn(currentUserPoint);
-        when(pointRepository.insertOrUpdate(id, currentUserPoint.point() - pointToUse)).thenReturn(afterUsePoint);
-        when(pointHistoryRepository.insert(id, pointToUse, TransactionType.USE, System.currentTimeMillis())).thenReturn(usePointHistory);
+        when(pointRepository.findById(id)).thenReturn(currentUserPoint);
+        when(pointRepository.save(id, currentUserPoint.point() - pointToUse)).thenReturn(afterUsePoint);
+        when(pointHistoryRepository.append(id, pointToUse, TransactionType.USE, System.currentTimeMillis())).thenReturn(usePointHistory);
         when(pointMapper.mapToPointResponse(afterUsePoint)).thenReturn(new PointResponse(id, afterUsePoint.point()));
 
         // when
@@ -132,7 +152,7 @@ class PointServiceTest {
         PointRequest pointRequest = new PointRequest(pointToUse);
         UserPoint currentUserPoint = new UserPoint(id, currentPoint, System.currentTimeMillis());
 
-        when(pointRepository.selectById(id)).thenReturn(currentUserPoint);
+        when(pointRepository.findById(id)).thenReturn(currentUserPoint);
 
         // when & then
         assertThatThrownBy(() -> pointService.usePoints(id, pointRequest))
@@ -154,7 +174,7 @@ class PointServiceTest {
         PointHistoryResponse usePointHistoryResponse = new PointHistoryResponse(id, pointToUse, TransactionType.USE.name(), System.currentTimeMillis());
         List<PointHistoryResponse> pointHistoryResponses = List.of(chargePointHistoryResponse, usePointHistoryResponse);
 
-        when(pointHistoryRepository.selectAllByUserId(id)).thenReturn(pointHistories);
+        when(pointHistoryRepository.findAllByUserId(id)).thenReturn(pointHistories);
         when(pointHistoryMapper.mapToPointHistoryResponses(pointHistories)).thenReturn(pointHistoryResponses);
 
         // when
@@ -163,4 +183,58 @@ class PointServiceTest {
         // then
         assertThat(response.size()).isEqualTo(2);
     }
+
+    @Test
+    public void 조회_개수보다_내역이_많으면_다음_페이지_커서를_반환한다() {
+        // given
+        long id = 1L;
+        int limit = 2;
+        List<PointHistory> pointHistories = List.of(
+                new PointHistory(1L, id, 100L, TransactionType.CHARGE, System.currentTimeMillis()),
+                new PointHistory(2L, id, 200L, TransactionType.CHARGE, System.currentTimeMillis()),
+                new PointHistory(3L, id, 50L, TransactionType.USE, System.currentTimeMillis())
+        );
+        PointHistoryPageRequest request = new PointHistoryPageRequest(null, limit, null, null);
+
+        when(pointHistoryRepository.findByUserId(id, 0L, Long.MIN_VALUE, Long.MAX_VALUE, limit + 1)).thenReturn(pointHistories);
+        when(pointHistoryMapper.mapToPointHistoryResponses(pointHistories.subList(0, limit))).thenReturn(List.of(
+                new PointHistoryResponse(id, 100L, TransactionType.CHARGE.name(), System.currentTimeMillis()),
+                new PointHistoryResponse(id, 200L, TransactionType.CHARGE.name(), System.currentTimeMillis())
+        ));
+
+        // when
+        PointHistoryPageResponse response = pointService.getPointHistoryPage(id, request);
+
+        // then
+        assertThat(response.histories()).hasSize(limit);
+        assertThat(PointHistoryCursor.decode(response.nextCursor())).isEqualTo(2L);
+    }
+
+    @Test
+    public void 여러_명령_적용_중_예외가_발생하면_앞서_적용된_결과를_유지하고_이후_명령은_적용하지_않는다() {
+        // given
+        long id = 1L;
+        List<PointCommand> commands = List.of(
+                new PointCommand(id, TransactionType.CHARGE, 1_000L),
+                new PointCommand(id, TransactionType.CHARGE, 500L),
+                new PointCommand(id, TransactionType.USE, 100L)
+        );
+        IllegalStateException failure = new IllegalStateException("포인트 WAL 기록에 실패했습니다.");
+
+        when(pointRepository.findById(id)).thenReturn(UserPoint.empty(id), new UserPoint(id, 1_000L, System.currentTimeMillis()));
+        when(pointHistoryRepository.append(eq(id), anyLong(), any(TransactionType.class), anyLong()))
+                .thenReturn(new PointHistory(1L, id, 1_000L, TransactionType.CHARGE, System.currentTimeMillis()))
+                .thenThrow(failure);
+        when(pointRepository.save(id, 1_000L)).thenReturn(new UserPoint(id, 1_000L, System.currentTimeMillis()));
+
+        // when
+        List<PointCommandResult> results = pointService.applyCommands(id, commands);
+
+        // then
+        assertThat(results).extracting(PointCommandResult::isSuccess).containsExactly(true, false, false);
+        assertThat(results.get(0).userPoint().point()).isEqualTo(1_000L);
+        assertThat(results.get(1).failure()).isSameAs(failure);
+        assertThat(results.get(2).failure()).isSameAs(failure);
+        verify(pointHistoryRepository, times(2)).append(eq(id), anyLong(), any(TransactionType.class), anyLong());
+    }
 }
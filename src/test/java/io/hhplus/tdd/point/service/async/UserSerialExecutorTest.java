@@ -0,0 +1,183 @@
+package io.hhplus.tdd.point.service.async;
+
+import io.hhplus.tdd.point.service.exception.TooManyPendingRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserSerialExecutorTest {
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void 같은_유저의_작업은_제출_순서대로_하나씩_실행한다() {
+        // given
+        UserSerialExecutor userSerialExecutor = new UserSerialExecutor(executorService, 4);
+        List<Integer> executed = new CopyOnWriteArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        // when
+        CompletableFuture<?>[] futures = IntStream.range(0, 100)
+                .mapToObj(index -> userSerialExecutor.submit(1L, () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    executed.add(index);
+                    running.decrementAndGet();
+                    return index;
+                }))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).join();
+
+        // then
+        assertThat(executed).containsExactlyElementsOf(IntStream.range(0, 100).boxed().toList());
+        assertThat(maxRunning).hasValue(1);
+    }
+
+    @Test
+    public void 다른_유저의_작업은_동시에_실행한다() throws InterruptedException {
+        // given
+        UserSerialExecutor userSerialExecutor = new UserSerialExecutor(executorService, 4);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // when
+        CompletableFuture<Long> first = userSerialExecutor.submit(1L, () -> awaitTogether(1L, started, release));
+        CompletableFuture<Long> second = userSerialExecutor.submit(2L, () -> awaitTogether(2L, started, release));
+
+        // then
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+        assertThat(first.join()).isEqualTo(1L);
+        assertThat(second.join()).isEqualTo(2L);
+    }
+
+    @Test
+    public void 작업이_던진_예외는_실패로_전달하고_다음_작업을_계속_실행한다() {
+        // given
+        UserSerialExecutor userSerialExecutor = new UserSerialExecutor(executorService, 4);
+
+        // when
+        CompletableFuture<Long> failed = userSerialExecutor.submit(1L, () -> {
+            throw new IllegalStateException();
+        });
+        CompletableFuture<Long> next = userSerialExecutor.submit(1L, () -> 100L);
+
+        // then
+        assertThatThrownBy(failed::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(next.join()).isEqualTo(100L);
+    }
+
+    @Test
+    public void 작업이_없는_mailbox_는_제거한다() throws InterruptedException {
+        // given
+        UserSerialExecutor userSerialExecutor = new UserSerialExecutor(executorService, 4);
+        CompletableFuture<?>[] futures = IntStream.range(0, 1_000)
+                .mapToObj(index -> userSerialExecutor.submit(index % 10, () -> index))
+                .toArray(CompletableFuture[]::new);
+
+        // when
+        CompletableFuture.allOf(futures).join();
+
+        // then
+        // 마지막 작업의 완료와 mailbox 제거 사이의 간격을 기다린다.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (userSerialExecutor.size() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(userSerialExecutor.size()).isZero();
+    }
+
+    @Test
+    public void mailbox_에_대기_중인_작업이_maxPending_개이면_작업을_넣지_않고_실패한다() throws InterruptedException {
+        // given
+        UserSerialExecutor userSerialExecutor = new UserSerialExecutor(executorService, 4, 2);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Long> running = userSerialExecutor.submit(1L, () -> awaitTogether(1L, started, release));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Long> first = userSerialExecutor.submit(1L, () -> 100L);
+        CompletableFuture<Long> second = userSerialExecutor.submit(1L, () -> 200L);
+
+        // when
+        CompletableFuture<Long> rejected = userSerialExecutor.submit(1L, () -> 300L);
+        CompletableFuture<Long> otherUser = userSerialExecutor.submit(2L, () -> 400L);
+
+        // then
+        assertThatThrownBy(rejected::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(TooManyPendingRequestsException.class);
+        assertThat(otherUser.join()).isEqualTo(400L);
+        release.countDown();
+        assertThat(running.join()).isEqualTo(1L);
+        assertThat(first.join()).isEqualTo(100L);
+        assertThat(second.join()).isEqualTo(200L);
+        // 대기 중인 작업이 실행된 뒤에는 다시 넣을 수 있다.
+        assertThat(userSerialExecutor.submit(1L, () -> 500L).join()).isEqualTo(500L);
+    }
+
+    @Test
+    public void executor_가_mailbox_의_다음_실행을_거부하면_남은_작업을_실패시킨다() throws InterruptedException {
+        // given
+        // 첫 실행만 받고 이후 실행은 거부하는 executor (종료된 경우)
+        AtomicInteger executions = new AtomicInteger();
+        Executor closingExecutor = command -> {
+            if (executions.getAndIncrement() > 0) {
+                throw new RejectedExecutionException();
+            }
+            executorService.execute(command);
+        };
+        UserSerialExecutor userSerialExecutor = new UserSerialExecutor(closingExecutor, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Long> running = userSerialExecutor.submit(1L, () -> awaitTogether(1L, started, release));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Long> queued = userSerialExecutor.submit(1L, () -> 100L);
+
+        // when
+        release.countDown();
+
+        // then
+        assertThat(running.join()).isEqualTo(1L);
+        assertThatThrownBy(() -> queued.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(userSerialExecutor.size()).isZero();
+        // 다음 작업도 실행되지 않는 mailbox 에 쌓이지 않고 실패한다.
+        assertThatThrownBy(() -> userSerialExecutor.submit(1L, () -> 200L).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+
+    private static long awaitTogether(long userId, CountDownLatch started, CountDownLatch release) {
+        started.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return userId;
+    }
+}
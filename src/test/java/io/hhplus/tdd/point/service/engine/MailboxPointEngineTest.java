@@ -0,0 +1,255 @@
+package io.hhplus.tdd.point.service.engine;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.domain.TransactionType;
+import io.hhplus.tdd.point.domain.UserPoint;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.metrics.PointMetricsProperties;
+import io.hhplus.tdd.point.repository.PointHistoryNotDurableException;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.PointHistoryRepositoryProperties;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.repository.UserPointRepositoryProperties;
+import io.hhplus.tdd.point.repository.wal.DisabledWriteAheadLog;
+import io.hhplus.tdd.point.service.command.PointCommand;
+import io.hhplus.tdd.point.service.command.PointCommandResult;
+import io.hhplus.tdd.point.service.exception.InsufficientPointException;
+import io.hhplus.tdd.point.service.exception.MaxBalanceExceededException;
+import io.hhplus.tdd.point.service.exception.TooManyPendingRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MailboxPointEngineTest {
+
+    private UserPointRepository pointRepository;
+    private PointHistoryRepository pointHistoryRepository;
+    private MailboxPointEngine pointEngine;
+    private PointMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new PointMetrics(new SimpleMeterRegistry(), new PointMetricsProperties(100, Duration.ofSeconds(1)));
+        // 테이블의 지연이 동시성 검증에 영향을 주지 않도록 테이블은 mock 으로 대체한다.
+        UserPointTable userPointTable = mock(UserPointTable.class);
+        when(userPointTable.selectById(anyLong())).thenAnswer(invocation -> UserPoint.empty(invocation.getArgument(0)));
+        pointRepository = new UserPointRepository(userPointTable, new UserPointRepositoryProperties(Duration.ofHours(1), 1, 10_000), metrics);
+        pointHistoryRepository = new PointHistoryRepository(mock(PointHistoryTable.class), PointHistoryRepositoryProperties.defaults().withFlushInterval(Duration.ofMillis(1)), metrics, new DisabledWriteAheadLog());
+        pointEngine = new MailboxPointEngine(pointRepository, pointHistoryRepository, metrics, Executors.newFixedThreadPool(2), 64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pointEngine.close();
+        pointRepository.close();
+        pointHistoryRepository.close();
+    }
+
+    @Test
+    public void 최대_잔액을_초과하는_충전은_실패한다() {
+        // given
+        long id = 1L;
+        pointEngine.charge(id, UserPoint.MAX_BALANCE);
+
+        // when & then
+        assertThatThrownBy(() -> pointEngine.charge(id, 1L))
+                .isInstanceOf(MaxBalanceExceededException.class);
+        assertThatThrownBy(() -> pointEngine.charge(id, Long.MAX_VALUE))
+                .isInstanceOf(MaxBalanceExceededException.class);
+        assertThat(pointRepository.findById(id).point()).isEqualTo(UserPoint.MAX_BALANCE);
+    }
+
+    @Test
+    public void 한_번에_적용한_명령_중_실패한_명령은_잔액과_내역에_반영되지_않는다() {
+        // given
+        long id = 1L;
+        List<PointCommand> commands = List.of(
+                new PointCommand(id, TransactionType.CHARGE, 100L),
+                new PointCommand(id, TransactionType.USE, 150L),
+                new PointCommand(id, TransactionType.USE, 30L)
+        );
+
+        // when
+        List<PointCommandResult> results = pointEngine.applyAll(id, commands);
+
+        // then
+        assertThat(results).extracting(PointCommandResult::isSuccess).containsExactly(true, false, true);
+        assertThat(results.get(0).userPoint().point()).isEqualTo(100L);
+        assertThat(results.get(1).failure()).isInstanceOf(InsufficientPointException.class);
+        assertThat(results.get(2).userPoint().point()).isEqualTo(70L);
+        assertThat(pointRepository.findById(id).point()).isEqualTo(70L);
+        assertThat(pointHistoryRepository.findAllByUserId(id))
+                .extracting(PointHistory::type)
+                .containsExactly(TransactionType.CHARGE, TransactionType.USE);
+    }
+
+    @Test
+    public void 명령을_모두_처리한_mailbox_는_제거된다() {
+        // given
+        int userCount = 100;
+
+        // when
+        for (long id = 1; id <= userCount; id++) {
+            pointEngine.charge(id, 100L);
+        }
+
+        // then
+        assertThat(pointEngine.mailboxCount()).isZero();
+    }
+
+    @Test
+    public void queue_에_넣은_명령은_executor_에서_한_번에_모아_적용된다() {
+        // given
+        long id = 1L;
+        List<Runnable> scheduled = new ArrayList<>();
+        MailboxPointEngine queuedEngine = new MailboxPointEngine(pointRepository, pointHistoryRepository, metrics, scheduled::add, 64);
+
+        // when
+        CompletableFuture<PointCommandResult> charged = queuedEngine.enqueue(id, new PointCommand(id, TransactionType.CHARGE, 100L), 3);
+        CompletableFuture<PointCommandResult> used = queuedEngine.enqueue(id, new PointCommand(id, TransactionType.USE, 30L), 3);
+        CompletableFuture<PointCommandResult> overdrawn = queuedEngine.enqueue(id, new PointCommand(id, TransactionType.USE, 100L), 3);
+        boolean queuedBeforeRun = !charged.isDone() && !used.isDone() && !overdrawn.isDone();
+        scheduled.get(0).run();
+
+        // then
+        assertThat(queuedBeforeRun).isTrue();
+        assertThat(scheduled).hasSize(1);
+        assertThat(charged.join().userPoint().point()).isEqualTo(100L);
+        assertThat(used.join().userPoint().point()).isEqualTo(70L);
+        assertThat(overdrawn.join().failure()).isInstanceOf(InsufficientPointException.class);
+        assertThat(queuedEngine.mailboxCount()).isZero();
+        assertThat(pointRepository.findById(id).point()).isEqualTo(70L);
+    }
+
+    @Test
+    public void 유저의_queue_에_max_pending_개의_명령이_쌓여_있으면_넣지_않는다() {
+        // given
+        long id = 1L;
+        List<Runnable> scheduled = new ArrayList<>();
+        MailboxPointEngine queuedEngine = new MailboxPointEngine(pointRepository, pointHistoryRepository, metrics, scheduled::add, 64);
+        queuedEngine.enqueue(id, new PointCommand(id, TransactionType.CHARGE, 100L), 2);
+        queuedEngine.enqueue(id, new PointCommand(id, TransactionType.CHARGE, 100L), 2);
+
+        // when
+        CompletableFuture<PointCommandResult> rejected = queuedEngine.enqueue(id, new PointCommand(id, TransactionType.CHARGE, 100L), 2);
+        CompletableFuture<PointCommandResult> otherUser = queuedEngine.enqueue(2L, new PointCommand(2L, TransactionType.CHARGE, 100L), 2);
+        scheduled.forEach(Runnable::run);
+
+        // then
+        assertThatThrownBy(rejected::join).hasCauseInstanceOf(TooManyPendingRequestsException.class);
+        assertThat(otherUser.join().isSuccess()).isTrue();
+        assertThat(pointRepository.findById(id).point()).isEqualTo(200L);
+    }
+
+    // 한 유저에게 16개 스레드가 동시에 충전하는 경우, mailbox 에서 모아 적용하더라도 모든 충전과 내역이 반영되어야 한다.
+    @Test
+    public void 같은_유저에_대한_동시_충전이_모두_반영된다() throws InterruptedException {
+        // given
+        long id = 1L;
+        int threadCount = 16;
+        int requestCount = 1_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch countDownLatch = new CountDownLatch(requestCount);
+
+        // when
+        for (int i = 0; i < requestCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    pointEngine.charge(id, 10L);
+                } finally {
+                    countDownLatch.countDown();
+                }
+            });
+        }
+        countDownLatch.await();
+        executorService.shutdown();
+
+        // then
+        assertThat(pointRepository.findById(id).point()).isEqualTo(10L * requestCount);
+        assertThat(pointHistoryRepository.findAllByUserId(id)).hasSize(requestCount);
+    }
+
+    // 잔액보다 많은 사용 요청이 동시에 들어와도 잔액이 음수가 되지 않고, 성공한 요청만큼만 차감되어야 한다.
+    @Test
+    public void 같은_유저에_대한_동시_사용은_잔액을_넘지_않는다() throws InterruptedException {
+        // given
+        long id = 1L;
+        int threadCount = 16;
+        int requestCount = 1_000;
+        long currentPoint = 5_000L;
+        pointEngine.charge(id, currentPoint);
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch countDownLatch = new CountDownLatch(requestCount);
+        AtomicInteger successCount = new AtomicInteger();
+
+        // when
+        for (int i = 0; i < requestCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    pointEngine.use(id, 10L);
+                    successCount.incrementAndGet();
+                } catch (InsufficientPointException ignored) {
+                } finally {
+                    countDownLatch.countDown();
+                }
+            });
+        }
+        countDownLatch.await();
+        executorService.shutdown();
+
+        // then
+        assertThat(successCount.get()).isEqualTo(500);
+        assertThat(pointRepository.findById(id).point()).isZero();
+        assertThat(pointHistoryRepository.findAllByUserId(id)).hasSize(501);
+    }
+
+    @Test
+    public void 내역의_디스크_반영을_확인하지_못하면_잔액을_내역에_맞춰_저장하고_내역을_남긴_명령은_실패한다() {
+        // given
+        long id = 1L;
+        PointHistoryRepository notDurableHistoryRepository = new PointHistoryRepository(mock(PointHistoryTable.class), PointHistoryRepositoryProperties.defaults().withFlushInterval(Duration.ofMillis(1)), metrics,
+                new DisabledWriteAheadLog() {
+                    @Override
+                    public void awaitDurable(long position) {
+                        throw new IllegalStateException("fsync 실패");
+                    }
+                });
+        MailboxPointEngine notDurableEngine = new MailboxPointEngine(pointRepository, notDurableHistoryRepository, metrics, Executors.newFixedThreadPool(2), 64);
+        List<PointCommand> commands = List.of(
+                new PointCommand(id, TransactionType.CHARGE, 100L),
+                new PointCommand(id, TransactionType.USE, 150L),
+                new PointCommand(id, TransactionType.USE, 30L)
+        );
+
+        // when
+        List<PointCommandResult> results = notDurableEngine.applyAll(id, commands);
+        notDurableEngine.close();
+        notDurableHistoryRepository.close();
+
+        // then
+        assertThat(results).extracting(PointCommandResult::isSuccess).containsExactly(false, false, false);
+        assertThat(results.get(0).failure()).isInstanceOf(PointHistoryNotDurableException.class);
+        assertThat(results.get(1).failure()).isInstanceOf(InsufficientPointException.class);
+        assertThat(results.get(2).failure()).isInstanceOf(PointHistoryNotDurableException.class);
+        assertThat(pointRepository.findById(id).point()).isEqualTo(70L);
+        assertThat(notDurableHistoryRepository.findAllByUserId(id)).extracting(PointHistory::amount).containsExactly(100L, 30L);
+    }
+}
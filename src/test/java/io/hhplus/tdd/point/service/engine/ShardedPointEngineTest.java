@@ -0,0 +1,161 @@
+package io.hhplus.tdd.point.service.engine;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.domain.TransactionType;
+import io.hhplus.tdd.point.domain.UserPoint;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.metrics.PointMetricsProperties;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.PointHistoryRepositoryProperties;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.repository.UserPointRepositoryProperties;
+import io.hhplus.tdd.point.repository.wal.DisabledWriteAheadLog;
+import io.hhplus.tdd.point.service.command.PointCommand;
+import io.hhplus.tdd.point.service.command.PointCommandResult;
+import io.hhplus.tdd.point.service.exception.InsufficientPointException;
+import io.hhplus.tdd.point.service.exception.MaxBalanceExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ShardedPointEngineTest {
+
+    private UserPointRepository pointRepository;
+    private PointHistoryRepository pointHistoryRepository;
+    private ShardedPointEngine pointEngine;
+
+    @BeforeEach
+    void setUp() {
+        PointMetrics metrics = new PointMetrics(new SimpleMeterRegistry(), new PointMetricsProperties(100, Duration.ofSeconds(1)));
+        // 테이블의 지연이 동시성 검증에 영향을 주지 않도록 테이블은 mock 으로 대체한다.
+        UserPointTable userPointTable = mock(UserPointTable.class);
+        when(userPointTable.selectById(anyLong())).thenAnswer(invocation -> UserPoint.empty(invocation.getArgument(0)));
+        pointRepository = new UserPointRepository(userPointTable, new UserPointRepositoryProperties(Duration.ofHours(1), 1, 10_000), metrics);
+        pointHistoryRepository = new PointHistoryRepository(mock(PointHistoryTable.class), PointHistoryRepositoryProperties.defaults().withFlushInterval(Duration.ofMillis(1)), metrics, new DisabledWriteAheadLog());
+        // ring buffer 가 가득 차 명령을 넣는 스레드가 기다리는 경우도 검증하도록 작게 설정한다.
+        pointEngine = new ShardedPointEngine(pointRepository, pointHistoryRepository, 4, 4, 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pointEngine.close();
+        pointRepository.close();
+        pointHistoryRepository.close();
+    }
+
+    @Test
+    public void 최대_잔액을_초과하는_충전은_실패한다() {
+        // given
+        long id = 1L;
+        pointEngine.charge(id, UserPoint.MAX_BALANCE);
+
+        // when & then
+        assertThatThrownBy(() -> pointEngine.charge(id, 1L))
+                .isInstanceOf(MaxBalanceExceededException.class);
+        assertThatThrownBy(() -> pointEngine.charge(id, Long.MAX_VALUE))
+                .isInstanceOf(MaxBalanceExceededException.class);
+        assertThat(pointRepository.findById(id).point()).isEqualTo(UserPoint.MAX_BALANCE);
+    }
+
+    @Test
+    public void 한_번에_적용한_명령_중_실패한_명령은_잔액과_내역에_반영되지_않는다() {
+        // given
+        long id = 1L;
+        List<PointCommand> commands = List.of(
+                new PointCommand(id, TransactionType.CHARGE, 100L),
+                new PointCommand(id, TransactionType.USE, 150L),
+                new PointCommand(id, TransactionType.USE, 30L)
+        );
+
+        // when
+        List<PointCommandResult> results = pointEngine.applyAll(id, commands);
+
+        // then
+        assertThat(results).extracting(PointCommandResult::isSuccess).containsExactly(true, false, true);
+        assertThat(results.get(2).userPoint().point()).isEqualTo(70L);
+        assertThat(pointRepository.findById(id).point()).isEqualTo(70L);
+        assertThat(pointHistoryRepository.findAllByUserId(id))
+                .extracting(PointHistory::type)
+                .containsExactly(TransactionType.CHARGE, TransactionType.USE);
+    }
+
+    // 여러 shard 에 나뉜 유저들에게 동시에 충전하는 경우, 유저마다 모든 충전과 내역이 반영되어야 한다.
+    @Test
+    public void 여러_유저에_대한_동시_충전이_모두_반영된다() throws InterruptedException {
+        // given
+        int userCount = 10;
+        int threadCount = 16;
+        int requestCount = 2_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch countDownLatch = new CountDownLatch(requestCount);
+
+        // when
+        for (int i = 0; i < requestCount; i++) {
+            long id = i % userCount + 1;
+            executorService.submit(() -> {
+                try {
+                    pointEngine.charge(id, 10L);
+                } finally {
+                    countDownLatch.countDown();
+                }
+            });
+        }
+        countDownLatch.await();
+        executorService.shutdown();
+
+        // then
+        for (long id = 1; id <= userCount; id++) {
+            assertThat(pointRepository.findById(id).point()).isEqualTo(10L * requestCount / userCount);
+            assertThat(pointHistoryRepository.findAllByUserId(id)).hasSize(requestCount / userCount);
+        }
+    }
+
+    // 잔액보다 많은 사용 요청이 동시에 들어와도 잔액이 음수가 되지 않고, 성공한 요청만큼만 차감되어야 한다.
+    @Test
+    public void 같은_유저에_대한_동시_사용은_잔액을_넘지_않는다() throws InterruptedException {
+        // given
+        long id = 1L;
+        int threadCount = 16;
+        int requestCount = 1_000;
+        long currentPoint = 5_000L;
+        pointEngine.charge(id, currentPoint);
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch countDownLatch = new CountDownLatch(requestCount);
+        AtomicInteger successCount = new AtomicInteger();
+
+        // when
+        for (int i = 0; i < requestCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    pointEngine.use(id, 10L);
+                    successCount.incrementAndGet();
+                } catch (InsufficientPointException ignored) {
+                } finally {
+                    countDownLatch.countDown();
+                }
+            });
+        }
+        countDownLatch.await();
+        executorService.shutdown();
+
+        // then
+        assertThat(successCount.get()).isEqualTo(500);
+        assertThat(pointRepository.findById(id).point()).isZero();
+    }
+}
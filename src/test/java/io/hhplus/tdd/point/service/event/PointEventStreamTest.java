@@ -0,0 +1,179 @@
+package io.hhplus.tdd.point.service.event;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.domain.PointHistory;
+import io.hhplus.tdd.point.domain.TransactionType;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.metrics.PointMetricsProperties;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.PointHistoryRepositoryProperties;
+import io.hhplus.tdd.point.repository.wal.DisabledWriteAheadLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class PointEventStreamTest {
+
+    private static final int BUFFER_SIZE = 4;
+
+    private PointHistoryRepository pointHistoryRepository;
+    private PointEventStream pointEventStream;
+
+    @BeforeEach
+    void setUp() {
+        PointMetrics metrics = new PointMetrics(new SimpleMeterRegistry(), new PointMetricsProperties(100, Duration.ofSeconds(1)));
+        pointHistoryRepository = new PointHistoryRepository(mock(PointHistoryTable.class), PointHistoryRepositoryProperties.defaults().withFlushInterval(Duration.ofMillis(1)), metrics, new DisabledWriteAheadLog());
+        pointEventStream = new PointEventStream(pointHistoryRepository, metrics, new PointEventProperties(BUFFER_SIZE, Duration.ofMinutes(1)), new MockEnvironment());
+    }
+
+    @AfterEach
+    void tearDown() {
+        pointEventStream.close();
+        pointHistoryRepository.close();
+    }
+
+    @Test
+    public void 구독한_유저의_내역만_추가된_순서대로_전달된다() throws InterruptedException {
+        // given
+        long id = 1L;
+        RecordingSink sink = new RecordingSink();
+        pointEventStream.subscribe(id, 0L, sink);
+
+        // when
+        PointHistory charged = pointHistoryRepository.append(id, 100L, TransactionType.CHARGE, System.currentTimeMillis());
+        pointHistoryRepository.append(2L, 100L, TransactionType.CHARGE, System.currentTimeMillis());
+        PointHistory used = pointHistoryRepository.append(id, 30L, TransactionType.USE, System.currentTimeMillis());
+
+        // then
+        assertThat(sink.take(2)).containsExactly(charged, used);
+        assertThat(sink.received.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    public void 구독_시_afterId_이후의_내역부터_중복없이_전달된다() throws InterruptedException {
+        // given
+        long id = 1L;
+        PointHistory first = pointHistoryRepository.append(id, 100L, TransactionType.CHARGE, System.currentTimeMillis());
+        PointHistory second = pointHistoryRepository.append(id, 200L, TransactionType.CHARGE, System.currentTimeMillis());
+        PointHistory third = pointHistoryRepository.append(id, 300L, TransactionType.CHARGE, System.currentTimeMillis());
+        RecordingSink sink = new RecordingSink();
+
+        // when
+        pointEventStream.subscribe(id, first.id(), sink);
+        PointHistory fourth = pointHistoryRepository.append(id, 50L, TransactionType.USE, System.currentTimeMillis());
+
+        // then
+        assertThat(sink.take(3)).containsExactly(second, third, fourth);
+        assertThat(sink.received.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    // 전송이 멈춘 구독자가 있어도 내역 추가는 기다리지 않고, buffer 를 넘긴 구독은 끝나며 마지막으로 받은 ID 부터 다시 구독하면 모든 내역을 받는다.
+    @Test
+    public void 느린_구독자는_내역_추가를_막지_않고_다시_구독해_이어서_받는다() throws InterruptedException {
+        // given
+        long id = 1L;
+        int historyCount = 20;
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slowSink = new RecordingSink(release);
+        pointEventStream.subscribe(id, 0L, slowSink);
+        List<PointHistory> appended = new ArrayList<>();
+        // 첫 내역의 전송이 시작된 뒤(replay 이후)에 나머지를 추가해야 buffer 가 쌓인다.
+        appended.add(pointHistoryRepository.append(id, 1L, TransactionType.CHARGE, System.currentTimeMillis()));
+        assertThat(slowSink.sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        for (int i = 2; i <= historyCount; i++) {
+            appended.add(pointHistoryRepository.append(id, i, TransactionType.CHARGE, System.currentTimeMillis()));
+        }
+        release.countDown();
+
+        // then
+        assertThat(slowSink.overflowed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(slowSink.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        List<PointHistory> received = new ArrayList<>(slowSink.received);
+        assertThat(received).hasSizeLessThan(historyCount);
+        assertThat(pointEventStream.subscriptionCount()).isZero();
+
+        RecordingSink resumedSink = new RecordingSink();
+        pointEventStream.subscribe(id, received.get(received.size() - 1).id(), resumedSink);
+        received.addAll(resumedSink.take(historyCount - received.size()));
+        assertThat(received).containsExactlyElementsOf(appended);
+    }
+
+    @Test
+    public void 구독을_취소하면_더_이상_전달되지_않는다() throws InterruptedException {
+        // given
+        long id = 1L;
+        RecordingSink sink = new RecordingSink();
+        PointEventStream.Subscription subscription = pointEventStream.subscribe(id, 0L, sink);
+
+        // when
+        subscription.cancel();
+        pointHistoryRepository.append(id, 100L, TransactionType.CHARGE, System.currentTimeMillis());
+
+        // then
+        assertThat(sink.received.poll(100, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(pointEventStream.subscriptionCount()).isZero();
+    }
+
+    private static final class RecordingSink implements PointEventSink {
+
+        private final BlockingQueue<PointHistory> received = new LinkedBlockingQueue<>();
+        private final CountDownLatch release;
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch overflowed = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        private RecordingSink() {
+            this(new CountDownLatch(0));
+        }
+
+        private RecordingSink(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(PointHistory pointHistory) {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(pointHistory);
+        }
+
+        @Override
+        public void overflow() {
+            overflowed.countDown();
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        List<PointHistory> take(int count) throws InterruptedException {
+            List<PointHistory> taken = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                PointHistory pointHistory = received.poll(5, TimeUnit.SECONDS);
+                assertThat(pointHistory).isNotNull();
+                taken.add(pointHistory);
+            }
+            return taken;
+        }
+    }
+}
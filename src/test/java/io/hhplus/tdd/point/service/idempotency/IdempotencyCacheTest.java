@@ -0,0 +1,157 @@
+package io.hhplus.tdd.point.service.idempotency;
+
+import io.hhplus.tdd.point.domain.TransactionType;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.metrics.PointMetricsProperties;
+import io.hhplus.tdd.point.repository.PointHistoryNotDurableException;
+import io.hhplus.tdd.point.service.dto.response.PointResponse;
+import io.hhplus.tdd.point.service.exception.IdempotencyKeyReusedException;
+import io.hhplus.tdd.point.service.exception.InsufficientPointException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyCacheTest {
+
+    private static final PointMetrics METRICS = new PointMetrics(new SimpleMeterRegistry(), new PointMetricsProperties(100, Duration.ofSeconds(1)));
+
+    @Test
+    public void 같은_키의_요청은_실행하지_않고_처음_응답을_반환한다() {
+        // given
+        IdempotencyCache idempotencyCache = new IdempotencyCache(new IdempotencyProperties(Duration.ofMinutes(10), 100), METRICS);
+        IdempotencyKey key = new IdempotencyKey(1L, TransactionType.CHARGE, "key");
+        AtomicInteger executions = new AtomicInteger();
+        idempotencyCache.execute(key, 100L, () -> completed(1L, executions.incrementAndGet() * 100L));
+
+        // when
+        PointResponse response = idempotencyCache.execute(key, 100L, () -> completed(1L, executions.incrementAndGet() * 100L)).join();
+
+        // then
+        assertThat(response).isEqualTo(new PointResponse(1L, 100L));
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    public void 처리_중인_요청과_같은_키의_요청은_처음_요청의_응답으로_완료된다() {
+        // given
+        IdempotencyCache idempotencyCache = new IdempotencyCache(new IdempotencyProperties(Duration.ofMinutes(10), 100), METRICS);
+        IdempotencyKey key = new IdempotencyKey(1L, TransactionType.CHARGE, "key");
+        CompletableFuture<PointResponse> processing = new CompletableFuture<>();
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<PointResponse> first = idempotencyCache.execute(key, 100L, () -> {
+            executions.incrementAndGet();
+            return processing;
+        });
+
+        // when
+        CompletableFuture<PointResponse> retried = idempotencyCache.execute(key, 100L, () -> {
+            executions.incrementAndGet();
+            return CompletableFuture.completedFuture(new PointResponse(1L, 200L));
+        });
+        processing.complete(new PointResponse(1L, 100L));
+
+        // then
+        assertThat(retried.join()).isEqualTo(first.join());
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    public void 실패한_요청은_보관하지_않아_같은_키로_다시_시도할_수_있다() {
+        // given
+        IdempotencyCache idempotencyCache = new IdempotencyCache(new IdempotencyProperties(Duration.ofMinutes(10), 100), METRICS);
+        IdempotencyKey key = new IdempotencyKey(1L, TransactionType.USE, "key");
+        assertThatThrownBy(() -> idempotencyCache.execute(key, 100L, () -> {
+            throw new InsufficientPointException();
+        }).join()).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(InsufficientPointException.class);
+
+        // when
+        PointResponse response = idempotencyCache.execute(key, 100L, () -> completed(1L, 0L)).join();
+
+        // then
+        assertThat(response).isEqualTo(new PointResponse(1L, 0L));
+    }
+
+    @Test
+    public void 내역의_디스크_반영만_확인하지_못한_요청은_반영된_것으로_보고_다시_실행하지_않는다() {
+        // given
+        IdempotencyCache idempotencyCache = new IdempotencyCache(new IdempotencyProperties(Duration.ofMinutes(10), 100), METRICS);
+        IdempotencyKey key = new IdempotencyKey(1L, TransactionType.CHARGE, "key");
+        AtomicInteger executions = new AtomicInteger();
+        idempotencyCache.execute(key, 100L, () -> {
+            executions.incrementAndGet();
+            return CompletableFuture.failedFuture(new PointHistoryNotDurableException(new IllegalStateException("fsync 실패")));
+        });
+
+        // when & then
+        assertThatThrownBy(() -> idempotencyCache.execute(key, 100L, () -> {
+            executions.incrementAndGet();
+            return completed(1L, 200L);
+        }).join()).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(PointHistoryNotDurableException.class);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    public void 같은_키로_금액이_다른_요청을_보내면_예외가_발생한다() {
+        // given
+        IdempotencyCache idempotencyCache = new IdempotencyCache(new IdempotencyProperties(Duration.ofMinutes(10), 100), METRICS);
+        IdempotencyKey key = new IdempotencyKey(1L, TransactionType.CHARGE, "key");
+        idempotencyCache.execute(key, 100L, () -> completed(1L, 100L));
+
+        // when & then
+        assertThatThrownBy(() -> idempotencyCache.execute(key, 200L, () -> completed(1L, 300L)).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IdempotencyKeyReusedException.class);
+    }
+
+    @Test
+    public void 최대_개수를_넘으면_오래된_응답부터_제거한다() {
+        // given
+        IdempotencyCache idempotencyCache = new IdempotencyCache(new IdempotencyProperties(Duration.ofMinutes(10), 2), METRICS);
+        AtomicInteger executions = new AtomicInteger();
+        for (long userId = 1; userId <= 3; userId++) {
+            long id = userId;
+            idempotencyCache.execute(new IdempotencyKey(id, TransactionType.CHARGE, "key"), 100L, () -> {
+                executions.incrementAndGet();
+                return completed(id, 100L);
+            });
+        }
+
+        // when
+        idempotencyCache.execute(new IdempotencyKey(1L, TransactionType.CHARGE, "key"), 100L, () -> {
+            executions.incrementAndGet();
+            return completed(1L, 200L);
+        });
+
+        // then
+        assertThat(executions).hasValue(4);
+        assertThat(idempotencyCache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void 보관_시간이_지난_응답은_사용하지_않는다() throws InterruptedException {
+        // given
+        IdempotencyCache idempotencyCache = new IdempotencyCache(new IdempotencyProperties(Duration.ofMillis(10), 100), METRICS);
+        IdempotencyKey key = new IdempotencyKey(1L, TransactionType.CHARGE, "key");
+        idempotencyCache.execute(key, 100L, () -> completed(1L, 100L));
+        Thread.sleep(20);
+
+        // when
+        PointResponse response = idempotencyCache.execute(key, 100L, () -> completed(1L, 200L)).join();
+
+        // then
+        assertThat(response).isEqualTo(new PointResponse(1L, 200L));
+    }
+
+    private static CompletableFuture<PointResponse> completed(long userId, long point) {
+        return CompletableFuture.completedFuture(new PointResponse(userId, point));
+    }
+}
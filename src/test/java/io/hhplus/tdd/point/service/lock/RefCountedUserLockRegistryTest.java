@@ -0,0 +1,72 @@
+package io.hhplus.tdd.point.service.lock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RefCountedUserLockRegistryTest {
+
+    @Test
+    public void 락을_해제하면_사용하지_않는_락이_회수된다() {
+        // given
+        long id = 1L;
+        RefCountedUserLockRegistry lockRegistry = new RefCountedUserLockRegistry();
+
+        // when
+        lockRegistry.lock(id);
+        int sizeWhileLocked = lockRegistry.size();
+        lockRegistry.unlock(id);
+
+        // then
+        assertThat(sizeWhileLocked).isEqualTo(1);
+        assertThat(lockRegistry.size()).isZero();
+    }
+
+    @Test
+    public void 같은_유저에_대한_임계_구역은_락이_회수되는_중에도_상호_배제된다() throws InterruptedException {
+        // given
+        int threadCount = 16;
+        int requestCount = 10_000;
+        long id = 1L;
+        RefCountedUserLockRegistry lockRegistry = new RefCountedUserLockRegistry();
+        long[] counter = new long[1];
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch countDownLatch = new CountDownLatch(requestCount);
+
+        // when
+        for (int i = 0; i < requestCount; i++) {
+            executorService.submit(() -> {
+                lockRegistry.lock(id);
+                try {
+                    counter[0]++;
+                } finally {
+                    lockRegistry.unlock(id);
+                    countDownLatch.countDown();
+                }
+            });
+        }
+
+        countDownLatch.await();
+        executorService.shutdown();
+
+        // then
+        assertThat(counter[0]).isEqualTo(requestCount);
+        assertThat(lockRegistry.size()).isZero();
+    }
+
+    @Test
+    public void 획득하지_않은_락을_해제하는_경우_예외가_발생한다() {
+        // given
+        RefCountedUserLockRegistry lockRegistry = new RefCountedUserLockRegistry();
+
+        // when & then
+        assertThatThrownBy(() -> lockRegistry.unlock(1L))
+                .isInstanceOf(IllegalMonitorStateException.class);
+    }
+}
@@ -0,0 +1,59 @@
+package io.hhplus.tdd.point.service.lock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedUserLockRegistryTest {
+
+    @Test
+    public void 락_개수는_2의_거듭제곱으로_고정된다() {
+        // given
+        StripedUserLockRegistry lockRegistry = new StripedUserLockRegistry(1_000);
+
+        // when
+        for (long id = 1; id <= 10_000; id++) {
+            lockRegistry.lock(id);
+            lockRegistry.unlock(id);
+        }
+
+        // then
+        assertThat(lockRegistry.size()).isEqualTo(1_024);
+    }
+
+    @Test
+    public void 같은_유저에_대한_임계_구역은_상호_배제된다() throws InterruptedException {
+        // given
+        int threadCount = 16;
+        int requestCount = 10_000;
+        long id = 1L;
+        StripedUserLockRegistry lockRegistry = new StripedUserLockRegistry(16);
+        long[] counter = new long[1];
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch countDownLatch = new CountDownLatch(requestCount);
+
+        // when
+        for (int i = 0; i < requestCount; i++) {
+            executorService.submit(() -> {
+                lockRegistry.lock(id);
+                try {
+                    counter[0]++;
+                } finally {
+                    lockRegistry.unlock(id);
+                    countDownLatch.countDown();
+                }
+            });
+        }
+
+        countDownLatch.await();
+        executorService.shutdown();
+
+        // then
+        assertThat(counter[0]).isEqualTo(requestCount);
+    }
+}
@@ -1,20 +1,32 @@
 package io.hhplus.tdd.util;
 
-import io.hhplus.tdd.database.PointHistoryTable;
-import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.PointRollupRepository;
+import io.hhplus.tdd.point.repository.PointSummaryRepository;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.service.idempotency.IdempotencyCache;
 
 public class DatabaseCleaner {
 
-    private final UserPointTable userPointTable;
-    private final PointHistoryTable pointHistoryTable;
+    private final UserPointRepository userPointRepository;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final PointSummaryRepository pointSummaryRepository;
+    private final PointRollupRepository pointRollupRepository;
+    private final IdempotencyCache idempotencyCache;
 
-    public DatabaseCleaner(UserPointTable userPointTable, PointHistoryTable pointHistoryTable) {
-        this.userPointTable = userPointTable;
-        this.pointHistoryTable = pointHistoryTable;
+    public DatabaseCleaner(UserPointRepository userPointRepository, PointHistoryRepository pointHistoryRepository, PointSummaryRepository pointSummaryRepository, PointRollupRepository pointRollupRepository, IdempotencyCache idempotencyCache) {
+        this.userPointRepository = userPointRepository;
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.pointSummaryRepository = pointSummaryRepository;
+        this.pointRollupRepository = pointRollupRepository;
+        this.idempotencyCache = idempotencyCache;
     }
 
     public void execute() {
-        userPointTable.clear();
-        pointHistoryTable.clear();
+        userPointRepository.clear();
+        pointHistoryRepository.clear();
+        pointSummaryRepository.clear();
+        pointRollupRepository.clear();
+        idempotencyCache.clear();
     }
 }